@@ -0,0 +1,62 @@
+package com.sfq.ecosystem.config;
+
+import com.sfq.ecosystem.service.impl.CachingEvaluationService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * 评估结果缓存的 Micrometer 指标
+ * <p>
+ * 以 cache=evaluation 标签发布标准缓存指标 cache.gets (result=hit/miss)、cache.puts、cache.evictions、cache.size，
+ * 另加本缓存特有的 cache.invalidations（策略配置变化导致整体清空的次数）。
+ * 通过 /actuator/metrics/cache.gets?tag=cache:evaluation 等查看。
+ */
+@Component
+public class EvaluationCacheMetrics extends CacheMeterBinder {
+
+    public static final String CACHE_NAME = "evaluation";
+
+    // 父类只保存缓存的弱引用，这里持有强引用
+    private final CachingEvaluationService cache;
+
+    public EvaluationCacheMetrics(CachingEvaluationService cache) {
+        super(cache, CACHE_NAME, Tags.empty());
+        this.cache = cache;
+    }
+
+    @Override
+    protected Long size() {
+        return (long) cache.size();
+    }
+
+    @Override
+    protected long hitCount() {
+        return cache.getHitCount();
+    }
+
+    @Override
+    protected Long missCount() {
+        return cache.getMissCount();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    @Override
+    protected long putCount() {
+        return cache.getPutCount();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("cache.invalidations", cache, CachingEvaluationService::getInvalidationCount)
+                .tags(getTagsWithCacheName())
+                .description("因策略配置变化而整体清空缓存的次数")
+                .register(registry);
+    }
+}
@@ -0,0 +1,34 @@
+package com.sfq.ecosystem.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 评估专用线程池配置
+ * <p>
+ * 子系统、准则层等相互独立的评估单元在该线程池上并行执行，与处理请求的 Servlet 线程分开。
+ * 线程数与队列长度都有上限；队列满时由提交任务的线程自己执行，不会丢弃任务。
+ */
+@Configuration
+public class EvaluationExecutorConfig {
+
+    @Bean(name = "evaluationExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor evaluationExecutor(
+            @Value("${evaluation.executor.pool-size:0}") int poolSize,
+            @Value("${evaluation.executor.queue-capacity:64}") int queueCapacity) {
+        // 未配置时按 CPU 核数设置线程数
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("evaluation-");
+        executor.setDaemon(true);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
@@ -2,9 +2,15 @@ package com.sfq.ecosystem.controller;
 
 import com.sfq.ecosystem.dto.*;
 import com.sfq.ecosystem.entity.TrainingData;
+import com.sfq.ecosystem.model.EvaluationType;
+import com.sfq.ecosystem.service.EvaluationConfigService;
+import com.sfq.ecosystem.service.InsufficientTrainingDataException;
 import com.sfq.ecosystem.service.TrainingDataService;
+import com.sfq.ecosystem.service.WeightPipelineService;
+import com.sfq.ecosystem.service.strategy.ConfigVersion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,6 +25,12 @@ public class TrainingDataController {
     @Autowired
     private TrainingDataService trainingDataService;
 
+    @Autowired
+    private WeightPipelineService weightPipelineService;
+
+    @Autowired
+    private EvaluationConfigService evaluationConfigService;
+
     @GetMapping("/overall")
     public ResponseEntity<OverallEvaluationDTO> getOverallEvaluation() {
         OverallEvaluationDTO dto = trainingDataService.getOverallEvaluation();
@@ -114,6 +126,150 @@ public class TrainingDataController {
         DateRangeQueryResultDTO result = trainingDataService.getDataByDateRange(startDate, endDate);
         return ResponseEntity.ok(result);
     }
+    /**
+     * 阈值扫描: 对指定记录的某个子系统按一组阈值定级，可信度只计算一次
+     * @param id 记录ID
+     * @param type 评估的子系统 (XIETONG / ZIYUAN / FUWU)
+     * @param thetas 阈值列表，逗号分隔，默认 0.5 到 0.7 步长 0.05
+     * @return 各层五级可信度及每个阈值下的等级
+     */
+    @GetMapping("/{id}/theta-sweep")
+    public ResponseEntity<ThetaSweepDTO> sweepTheta(
+            @PathVariable Integer id,
+            @RequestParam EvaluationType type,
+            @RequestParam(defaultValue = "0.5,0.55,0.6,0.65,0.7") List<Double> thetas) {
+        ThetaSweepDTO result = trainingDataService.sweepTheta(id, type, thetas);
+        if (result == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 按新阈值对某个子系统的全部历史记录重新定级，直接使用写入时保存的可信度得分，不修改任何数据
+     * @param type 评估的子系统 (XIETONG / ZIYUAN / FUWU)
+     * @param theta 新阈值
+     * @param afterId 只处理ID大于该值的记录，第一页为 0，之后传入上一页返回的 nextAfterId
+     * @param limit 本页最多读取的记录条数，上限 1000
+     * @return 本页每条记录的目标层与准则层等级，等级已过期的记录标注为过期；nextAfterId 为 null 表示已是最后一页
+     */
+    @GetMapping("/regrade")
+    public ResponseEntity<RegradePageDTO> regradeHistory(@RequestParam EvaluationType type, @RequestParam double theta,
+                                                         @RequestParam(defaultValue = "0") int afterId,
+                                                         @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(trainingDataService.regradeHistory(type, theta, afterId, limit));
+    }
+
+    /**
+     * 为可信度得分缺失或不完整的记录补写某个子系统的得分，之后这些记录才会出现在重新定级的结果中
+     * @param type 评估的子系统 (XIETONG / ZIYUAN / FUWU)
+     * @return 补写得分的记录条数
+     */
+    @PostMapping("/regrade/backfill")
+    public ResponseEntity<Integer> backfillCredibilities(@RequestParam EvaluationType type) {
+        return ResponseEntity.ok(trainingDataService.backfillCredibilities(type));
+    }
+
+    /**
+     * 按当前全部训练数据计算某个子系统各原始指标的熵权
+     * @param type 评估的子系统 (XIETONG / ZIYUAN / FUWU)
+     * @return 各原始指标的熵权，顺序与策略中的指标顺序一致
+     */
+    @GetMapping("/entropy-weights")
+    public ResponseEntity<double[]> getEntropyWeights(@RequestParam EvaluationType type) {
+        return ResponseEntity.ok(trainingDataService.getEntropyWeights(type));
+    }
+
+    /**
+     * 按最近若干条记录计算某个子系统各原始指标的 CRITIC 与主成分权重
+     * @param type 评估的子系统 (XIETONG / ZIYUAN / FUWU)
+     * @return 窗口中的记录条数与两种权重
+     */
+    @GetMapping("/window-weights")
+    public ResponseEntity<WindowWeightsDTO> getWindowWeights(@RequestParam EvaluationType type) {
+        return ResponseEntity.ok(trainingDataService.getWindowWeights(type));
+    }
+
+    /**
+     * 按全部历史记录计算某个子系统各原始指标的熵权、CRITIC、主成分与独立性权重
+     * @param type 评估的子系统 (XIETONG / ZIYUAN / FUWU)
+     * @return 记录条数与四种权重
+     */
+    @GetMapping("/history-weights")
+    public ResponseEntity<HistoryWeightsDTO> getHistoryWeights(@RequestParam EvaluationType type) {
+        return ResponseEntity.ok(trainingDataService.getHistoryWeights(type));
+    }
+
+    /**
+     * 按全部训练数据重新计算某个子系统的指标权重，OWA 融合后发布到评估引擎
+     * @param type 评估的子系统 (XIETONG / ZIYUAN / FUWU)
+     * @return 各方法的权重、发布的权重、计划版本号与各阶段耗时；数据不足以计算时由
+     * {@link #insufficientData(InsufficientTrainingDataException)} 返回 409
+     */
+    @PostMapping("/weights/recompute")
+    public ResponseEntity<WeightPublicationDTO> recomputeWeights(@RequestParam EvaluationType type) {
+        return ResponseEntity.ok(weightPipelineService.recomputeWeights(type));
+    }
+
+    /**
+     * 训练数据不足时返回 409，响应体给出当前条数、所需条数与原因；其他错误按服务器错误处理
+     */
+    @ExceptionHandler(InsufficientTrainingDataException.class)
+    public ResponseEntity<InsufficientDataDTO> insufficientData(InsufficientTrainingDataException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new InsufficientDataDTO(e.getEvaluationType(),
+                e.getRows(), e.getRequiredRows(), e.getMessage()));
+    }
+
+    /**
+     * 获取某个子系统最近一次发布的指标权重
+     * @param type 评估的子系统 (XIETONG / ZIYUAN / FUWU)
+     * @return 最近一次发布的结果，尚未发布时返回 404
+     */
+    @GetMapping("/weights")
+    public ResponseEntity<WeightPublicationDTO> getPublishedWeights(@RequestParam EvaluationType type) {
+        WeightPublicationDTO publication = weightPipelineService.getLatestPublication(type);
+        return publication == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(publication);
+    }
+
+    /**
+     * 获取当前的评估配置版本
+     * @return 版本号及各子系统的权重、边界、阈值与准则层分组
+     */
+    @GetMapping("/config")
+    public ResponseEntity<ConfigVersion> getCurrentConfig() {
+        return ResponseEntity.ok(evaluationConfigService.getCurrentVersion());
+    }
+
+    /**
+     * 获取指定的评估配置版本
+     * @param version 配置版本号
+     * @return 该版本的配置，不存在时返回 404
+     */
+    @GetMapping("/config/{version}")
+    public ResponseEntity<ConfigVersion> getConfig(@PathVariable long version) {
+        ConfigVersion config = evaluationConfigService.getVersion(version);
+        return config == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(config);
+    }
+
+    /**
+     * 统计某个子系统中评估配置已变化、等级已过期的记录条数
+     * @param type 评估的子系统 (XIETONG / ZIYUAN / FUWU)
+     */
+    @GetMapping("/stale-count")
+    public ResponseEntity<Long> countStaleRecords(@RequestParam EvaluationType type) {
+        return ResponseEntity.ok(trainingDataService.countStaleRecords(type));
+    }
+
+    /**
+     * 按当前评估配置重新评估等级已过期的记录
+     * @param limit 本次最多处理的记录条数
+     * @return 实际重新评估的记录条数
+     */
+    @PostMapping("/regrade-stale")
+    public ResponseEntity<Integer> regradeStaleRecords(@RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(trainingDataService.regradeStaleRecords(limit));
+    }
+
     /**
      * 根据ID获取单条训练数据记录
      * @param id 记录的ID
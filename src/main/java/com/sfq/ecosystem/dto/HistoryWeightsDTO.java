@@ -0,0 +1,18 @@
+package com.sfq.ecosystem.dto;
+
+import com.sfq.ecosystem.model.EvaluationType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryWeightsDTO {
+    private EvaluationType evaluationType; // 评估的子系统
+    private int sampleCount;               // 参与计算的记录条数
+    private double[] entropyWeights;       // 熵权，没有记录时为 null
+    private double[] criticWeights;        // CRITIC 权重，记录不足 2 条时为 null
+    private double[] pcaWeights;           // 主成分权重，记录不足 2 条时为 null
+    private double[] independenceWeights;  // 独立性权重，记录不足 2 条时为 null
+}
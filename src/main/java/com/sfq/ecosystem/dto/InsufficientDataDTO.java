@@ -0,0 +1,16 @@
+package com.sfq.ecosystem.dto;
+
+import com.sfq.ecosystem.model.EvaluationType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InsufficientDataDTO {
+    private EvaluationType evaluationType;      // 评估的子系统
+    private int rows;                           // 当前的训练数据条数
+    private int requiredRows;                   // 计算所需的最少条数
+    private String message;                     // 原因说明
+}
@@ -0,0 +1,14 @@
+package com.sfq.ecosystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegradePageDTO {
+    private List<RegradeResultDTO> records;     // 本页能够重新定级的记录，按记录ID排序
+    private Integer nextAfterId;                // 下一页的 afterId；已读到最后一页时为 null
+}
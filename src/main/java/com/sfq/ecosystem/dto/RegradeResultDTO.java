@@ -0,0 +1,16 @@
+package com.sfq.ecosystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegradeResultDTO {
+    private Integer id;                         // 记录ID
+    private String targetLevel;                 // 目标层等级
+    private Map<String, String> criterionLevels; // 准则层名称 -> 等级
+    private boolean stale;                      // 记录评估之后该子系统的配置已变化，得分按旧配置计算，等级仅供参考
+}
@@ -0,0 +1,14 @@
+package com.sfq.ecosystem.dto;
+
+import com.sfq.ecosystem.model.CredibilityReport;
+import com.sfq.ecosystem.model.EvaluationType;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class ThetaSweepDTO {
+    private Integer id;                        // 记录ID
+    private EvaluationType evaluationType;     // 评估的子系统
+    private CredibilityReport credibilities;   // 各层五级可信度（只计算一次）
+    private List<ThetaSweepPointDTO> results;  // 每个阈值下的定级结果
+}
@@ -0,0 +1,15 @@
+package com.sfq.ecosystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThetaSweepPointDTO {
+    private double theta;                       // 阈值
+    private String targetLevel;                 // 目标层等级
+    private Map<String, String> criterionLevels; // 准则层名称 -> 等级
+}
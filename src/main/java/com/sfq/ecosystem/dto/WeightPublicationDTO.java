@@ -0,0 +1,27 @@
+package com.sfq.ecosystem.dto;
+
+import com.sfq.ecosystem.model.EvaluationType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeightPublicationDTO {
+    private EvaluationType evaluationType;   // 评估的子系统
+    private long planVersion;                // 发布后的评估计划版本号
+    private long configVersion;              // 发布后的评估配置版本号，此后评估的记录以此标注
+    private int sampleCount;                 // 参与计算的记录条数
+    private double[] entropyWeights;         // 熵权
+    private double[] criticWeights;          // CRITIC 权重
+    private double[] pcaWeights;             // 主成分权重
+    private double[] independenceWeights;    // 独立性权重（按准则层分块计算）
+    private double[] baseWeights;            // 策略原有的专家权重
+    private double[] fusedWeights;           // OWA 融合后发布的权重
+    private Map<String, Double> stageMillis; // 各阶段耗时（毫秒），按执行顺序
+    private LocalDateTime publishedAt;       // 发布时间
+}
@@ -0,0 +1,16 @@
+package com.sfq.ecosystem.dto;
+
+import com.sfq.ecosystem.model.EvaluationType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WindowWeightsDTO {
+    private EvaluationType evaluationType; // 评估的子系统
+    private int windowSize;                // 窗口中实际的记录条数
+    private double[] criticWeights;        // CRITIC 权重，记录不足 2 条时为 null
+    private double[] pcaWeights;           // 主成分权重，记录不足 2 条时为 null
+}
@@ -0,0 +1,22 @@
+package com.sfq.ecosystem.entity;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 某个配置版本中某个评估类型的评估配置
+ * <p>
+ * 对应 evaluation_config 表，数组以 JSON 文本保存。
+ */
+@Data
+public class EvaluationConfigRecord {
+    private Long version;
+    private String evaluationType; // XIETONG / ZIYUAN / FUWU
+    private Long sinceVersion;     // 该类型的配置最近一次发生变化时的版本号
+    private String weights;        // double[]
+    private String boundaries;     // double[][]
+    private Double theta;
+    private String criterionGroups; // 组名 -> 指标下标，按分组顺序
+    private LocalDateTime createdAt;
+}
@@ -88,4 +88,6 @@ public class TrainingData {
     private BigDecimal fR13;
     private BigDecimal fS11;
     private BigDecimal fS12;
+
+    private Long configVersion; // 评估时所用的配置版本号，版本化之前写入的记录为 null
 }
@@ -0,0 +1,22 @@
+package com.sfq.ecosystem.entity;
+
+import lombok.Data;
+
+/**
+ * 训练数据某一层某一等级的可信度得分
+ * <p>
+ * 对应 training_data_credibility 表，每行保存一个可信度费马模糊数的得分元组。
+ */
+@Data
+public class TrainingDataCredibility {
+    private Integer trainingDataId;
+    private String evaluationType; // XIETONG / ZIYUAN / FUWU
+    private Integer layerIndex;    // 0 为目标层，1.. 为准则层（按策略中的分组顺序）
+    private String layerName;
+    private Integer level;         // 等级下标，0 为最低级
+    private Double scoreS;
+    private Double scoreH;
+    private Double scoreMu;
+    private Double scoreHu;
+    private Long configVersion;    // 记录评估时所用的配置版本，取自 training_data，只在扫描得分时填充
+}
@@ -0,0 +1,52 @@
+package com.sfq.ecosystem.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批量评估的结果
+ * <p>
+ * 以紧凑的整型数组保存每一行的等级下标：第 row 行的目标层位于 row * (1 + 准则层数)，
+ * 其后依次为各准则层（按策略中的分组顺序）。需要时再按行展开为 {@link EvaluationResult}。
+ */
+public class BatchEvaluationResult {
+
+    private final String[] levelNames;
+    private final List<String> criterionNames;
+    private final int[] levels;
+    private final int layers;
+
+    public BatchEvaluationResult(String[] levelNames, List<String> criterionNames, int[] levels) {
+        this.levelNames = levelNames.clone();
+        this.criterionNames = Collections.unmodifiableList(criterionNames);
+        this.levels = levels;
+        this.layers = 1 + criterionNames.size();
+    }
+
+    // 样本行数
+    public int size() { return levels.length / layers; }
+
+    public List<String> getCriterionNames() { return criterionNames; }
+
+    public String getTargetLevel(int row) {
+        return levelNames[levels[row * layers]];
+    }
+
+    public String getCriterionLevel(int row, int group) {
+        return levelNames[levels[row * layers + 1 + group]];
+    }
+
+    public Map<String, String> getCriterionLevels(int row) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (int g = 0; g < criterionNames.size(); g++) {
+            result.put(criterionNames.get(g), getCriterionLevel(row, g));
+        }
+        return result;
+    }
+
+    public EvaluationResult getResult(int row) {
+        return new EvaluationResult(getTargetLevel(row), getCriterionLevels(row));
+    }
+}
@@ -0,0 +1,266 @@
+package com.sfq.ecosystem.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 协离差矩阵 Σ(x_j − mean_j)(x_k − mean_k) 的分块并行计算内核
+ * <p>
+ * 数据按行分成若干段，每段由一个 fork/join 子任务负责，子任务各自累加一份协离差矩阵，最后两两相加归并。
+ * 子任务内部每次取 {@link #CHUNK_ROWS} 行，减去均值后转置为按列连续存放的小块（每个元素只中心化一次；
+ * 数据本身按列存放时，如 {@link MappedColumnMatrix}，直接按列成段复制），
+ * 再按 {@link #TILE} x {@link #TILE} 的指标分块只计算上三角：同一分块涉及的两组列合计约 128KB，
+ * 在整块的点积过程中常驻缓存，点积沿连续内存进行，且每次同时计算 2 x 4 个点积，减少读内存的次数。
+ * <p>
+ * 归并后不再需要的累加矩阵与转置块放回本次计算的缓冲区，由之后开始的子任务清零后重复使用，
+ * 因此分配的累加矩阵份数取决于同时执行的子任务数，而不是子任务总数。
+ * <p>
+ * 分段数只由数据的形状决定，归并顺序固定，因此同一输入的结果与线程池大小无关、逐位可重现。
+ * 计算量较小时不拆分，直接在调用线程中完成。
+ */
+public final class CoMomentKernel {
+
+    // 每次转置的行数
+    static final int CHUNK_ROWS = 128;
+    // 指标分块的边长
+    static final int TILE = 64;
+    // 每个子任务至少承担的乘加次数（样本数 x 指标数² / 2），低于该值时不拆分
+    private static final long WORK_PER_TASK = 1L << 24;
+    // 子任务数上限
+    private static final int MAX_TASKS = 64;
+
+    private CoMomentKernel() {
+    }
+
+    /**
+     * 在公共 fork/join 线程池中计算协离差矩阵
+     *
+     * @see #coMoments(double[][], double[], ForkJoinPool)
+     */
+    public static double[] coMoments(double[][] data, double[] means) {
+        return coMoments(data, means, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 计算协离差矩阵
+     *
+     * @param data  数据矩阵，行代表样本，列代表指标
+     * @param means 各列均值
+     * @param pool  执行子任务的线程池
+     * @return 对称的协离差矩阵，按 j * 指标数 + k 存放
+     */
+    public static double[] coMoments(double[][] data, double[] means, ForkJoinPool pool) {
+        return coMoments(data.length, means, pool, (start, len, block) -> {
+            for (int r = 0; r < len; r++) {
+                double[] row = data[start + r];
+                for (int j = 0; j < means.length; j++) {
+                    block[j][r] = row[j] - means[j];
+                }
+            }
+        });
+    }
+
+    /**
+     * 按行分块读取数据的来源，使行存储与列存储的数据共用同一套分块计算
+     */
+    interface ChunkLoader {
+        /**
+         * 把第 [start, start + len) 行减去均值后按列写入 block[j][0, len)
+         */
+        void load(int start, int len, double[][] block);
+    }
+
+    /**
+     * @param rows   样本数
+     * @param means  各列均值
+     * @param loader 减去均值并按列读取数据块
+     */
+    static double[] coMoments(int rows, double[] means, ForkJoinPool pool, ChunkLoader loader) {
+        int n = means.length;
+        long work = (long) rows * n * (n + 1) / 2;
+        int tasks = (int) Math.max(1, Math.min(Math.min(MAX_TASKS, work / WORK_PER_TASK),
+                (rows + CHUNK_ROWS - 1) / CHUNK_ROWS));
+
+        Buffers buffers = new Buffers(n);
+        double[] c = tasks == 1
+                ? accumulate(loader, buffers, 0, rows)
+                : pool.invoke(new Segment(loader, buffers, rows, tasks, 0, tasks));
+        for (int j = 0; j < n; j++) {
+            for (int k = j + 1; k < n; k++) {
+                c[k * n + j] = c[j * n + k];
+            }
+        }
+        return c;
+    }
+
+    /**
+     * 第 [from, to) 段的协离差矩阵（仅上三角），段数为 tasks，第 t 段为第 t·m/tasks 行起的行
+     */
+    private static final class Segment extends RecursiveTask<double[]> {
+        private final ChunkLoader loader;
+        private final Buffers buffers;
+        private final int rows;
+        private final int tasks;
+        private final int from;
+        private final int to;
+
+        Segment(ChunkLoader loader, Buffers buffers, int rows, int tasks, int from, int to) {
+            this.loader = loader;
+            this.buffers = buffers;
+            this.rows = rows;
+            this.tasks = tasks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from == 1) {
+                long m = rows;
+                return accumulate(loader, buffers, (int) (from * m / tasks), (int) (to * m / tasks));
+            }
+            int mid = (from + to) >>> 1;
+            Segment right = new Segment(loader, buffers, rows, tasks, mid, to);
+            right.fork();
+            double[] left = new Segment(loader, buffers, rows, tasks, from, mid).compute();
+            double[] other = right.join();
+            for (int i = 0; i < left.length; i++) {
+                left[i] += other[i];
+            }
+            buffers.recycle(other);
+            return left;
+        }
+    }
+
+    // 第 [rowFrom, rowTo) 行的协离差矩阵上三角
+    private static double[] accumulate(ChunkLoader loader, Buffers buffers, int rowFrom, int rowTo) {
+        int n = buffers.columns;
+        double[] acc = buffers.sum();
+        double[][] block = buffers.block();
+        for (int start = rowFrom; start < rowTo; start += CHUNK_ROWS) {
+            int len = Math.min(CHUNK_ROWS, rowTo - start);
+            loader.load(start, len, block);
+            for (int j0 = 0; j0 < n; j0 += TILE) {
+                int j1 = Math.min(n, j0 + TILE);
+                for (int k0 = j0; k0 < n; k0 += TILE) {
+                    tile(block, len, j0, j1, k0, Math.min(n, k0 + TILE), acc, n);
+                }
+            }
+        }
+        buffers.recycle(block);
+        return acc;
+    }
+
+    /**
+     * 同一次计算中各子任务共用的累加矩阵与转置块
+     */
+    private static final class Buffers {
+        private final int columns;
+        private final ConcurrentLinkedDeque<double[]> sums = new ConcurrentLinkedDeque<>();
+        private final ConcurrentLinkedDeque<double[][]> blocks = new ConcurrentLinkedDeque<>();
+
+        Buffers(int columns) {
+            this.columns = columns;
+        }
+
+        // 清零的累加矩阵
+        double[] sum() {
+            double[] sum = sums.poll();
+            if (sum == null) {
+                return new double[columns * columns];
+            }
+            Arrays.fill(sum, 0.0);
+            return sum;
+        }
+
+        void recycle(double[] sum) {
+            sums.push(sum);
+        }
+
+        // 转置块，每次装入新数据前整段覆盖，无需清零
+        double[][] block() {
+            double[][] block = blocks.poll();
+            return block != null ? block : new double[columns][CHUNK_ROWS];
+        }
+
+        void recycle(double[][] block) {
+            blocks.push(block);
+        }
+    }
+
+    // 分块 [j0, j1) x [k0, k1) 中 k >= j 的部分；两行一组与 4 列相乘，每读入 6 个数完成 8 次乘加。
+    // 两行一组时对角线分块会多算一个 (j + 1, j) 元素，它落在下三角，最后会被上三角的值覆盖
+    private static void tile(double[][] block, int len, int j0, int j1, int k0, int k1, double[] acc, int n) {
+        int j = j0;
+        for (; j + 1 < j1; j += 2) {
+            double[] a0 = block[j];
+            double[] a1 = block[j + 1];
+            int base0 = j * n;
+            int base1 = base0 + n;
+            int k = Math.max(k0, j);
+            for (; k + 3 < k1; k += 4) {
+                double[] b0 = block[k];
+                double[] b1 = block[k + 1];
+                double[] b2 = block[k + 2];
+                double[] b3 = block[k + 3];
+                double s00 = 0;
+                double s01 = 0;
+                double s02 = 0;
+                double s03 = 0;
+                double s10 = 0;
+                double s11 = 0;
+                double s12 = 0;
+                double s13 = 0;
+                for (int r = 0; r < len; r++) {
+                    double x0 = a0[r];
+                    double x1 = a1[r];
+                    double y0 = b0[r];
+                    double y1 = b1[r];
+                    double y2 = b2[r];
+                    double y3 = b3[r];
+                    s00 += x0 * y0;
+                    s01 += x0 * y1;
+                    s02 += x0 * y2;
+                    s03 += x0 * y3;
+                    s10 += x1 * y0;
+                    s11 += x1 * y1;
+                    s12 += x1 * y2;
+                    s13 += x1 * y3;
+                }
+                acc[base0 + k] += s00;
+                acc[base0 + k + 1] += s01;
+                acc[base0 + k + 2] += s02;
+                acc[base0 + k + 3] += s03;
+                acc[base1 + k] += s10;
+                acc[base1 + k + 1] += s11;
+                acc[base1 + k + 2] += s12;
+                acc[base1 + k + 3] += s13;
+            }
+            for (; k < k1; k++) {
+                double[] b = block[k];
+                double s0 = 0;
+                double s1 = 0;
+                for (int r = 0; r < len; r++) {
+                    s0 += a0[r] * b[r];
+                    s1 += a1[r] * b[r];
+                }
+                acc[base0 + k] += s0;
+                acc[base1 + k] += s1;
+            }
+        }
+        if (j < j1) {
+            double[] a = block[j];
+            int base = j * n;
+            for (int k = Math.max(k0, j); k < k1; k++) {
+                double[] b = block[k];
+                double s = 0;
+                for (int r = 0; r < len; r++) {
+                    s += a[r] * b[r];
+                }
+                acc[base + k] += s;
+            }
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.sfq.ecosystem.model;
+
+import java.nio.DoubleBuffer;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 数据矩阵（样本数 x 指标数）的列统计量
+ * <p>
+ * 按行一次扫描得到各列的和、离差平方和、熵权法所需的 x·log x 项；需要协离差矩阵时，
+ * 再由 {@link CoMomentKernel} 按已知的均值中心化后分块并行计算全部指标两两之间的协离差。
+ * 熵权法、CRITIC、主成分分析与独立性权重都由同一份结果推导，不再各自重复扫描原始数据。
+ * <p>
+ * 为避免 “平方和减去和的平方” 带来的精度损失，扫描时每列先减去第一行的值（平移数据法），
+ * 常量列的离差与协离差因此严格为零。
+ * <p>
+ * 熵权法中 p = x / T（T 为列和加上极小量）的 Σ p·log p 可以改写为 (Σ x·log x − S⁺·log T) / T，
+ * 其中 S⁺ 为正值之和，因此无需先得到列和再做第二次扫描。
+ */
+public final class ColumnStatistics {
+
+    // 与熵权法中防止除以零的极小量一致
+    public static final double ENTROPY_EPSILON = 1e-12;
+
+    private final int rows;
+    private final int columns;
+    private final double[] shift;
+    // 平移后各列之和 Σ(x − shift)
+    private final double[] shiftedSums;
+    private final double[] sums;
+    private final double[] minimums;
+    // 正值的 Σ x·log x 与 Σ x，仅在需要熵权项时计算
+    private final double[] xLogXSums;
+    private final double[] positiveSums;
+    // 协离差矩阵 Σ(x_j − mean_j)(x_k − mean_k)，按 j * columns + k 存放；不需要时为 null
+    private final double[] coMoments;
+    // 各列离差平方和，即协离差矩阵的对角线
+    private final double[] centeredSumsOfSquares;
+
+    private ColumnStatistics(int rows, int columns, boolean entropyTerms, boolean withCoMoments) {
+        this.rows = rows;
+        this.columns = columns;
+        this.shift = new double[columns];
+        this.shiftedSums = new double[columns];
+        this.sums = new double[columns];
+        this.minimums = new double[columns];
+        this.xLogXSums = entropyTerms ? new double[columns] : null;
+        this.positiveSums = entropyTerms ? new double[columns] : null;
+        this.coMoments = withCoMoments ? new double[columns * columns] : null;
+        this.centeredSumsOfSquares = new double[columns];
+    }
+
+    /**
+     * 计算全部统计量
+     */
+    public static ColumnStatistics of(double[][] data) {
+        return of(data, true, true);
+    }
+
+    /**
+     * 计算统计量
+     *
+     * @param data          数据矩阵，行代表样本，列代表指标
+     * @param entropyTerms  是否计算熵权法所需的 x·log x 项
+     * @param withCoMoments 是否计算完整的协离差矩阵（开销为 样本数 x 指标数²）；
+     *                      为 false 时仍计算各列的离差平方和
+     */
+    public static ColumnStatistics of(double[][] data, boolean entropyTerms, boolean withCoMoments) {
+        if (data == null || data.length == 0 || data[0].length == 0) {
+            throw new IllegalArgumentException("输入数据必须是非空的二维数组 (样本数 x 指标数)。");
+        }
+        int m = data.length;
+        int n = data[0].length;
+        ColumnStatistics stats = new ColumnStatistics(m, n, entropyTerms, withCoMoments);
+        System.arraycopy(data[0], 0, stats.shift, 0, n);
+        System.arraycopy(data[0], 0, stats.minimums, 0, n);
+
+        double[] sumSq = stats.centeredSumsOfSquares;
+        for (double[] row : data) {
+            for (int j = 0; j < n; j++) {
+                double x = row[j];
+                double d = x - stats.shift[j];
+                stats.shiftedSums[j] += d;
+                stats.sums[j] += x;
+                if (x < stats.minimums[j]) {
+                    stats.minimums[j] = x;
+                }
+                if (entropyTerms && x > 0) {
+                    stats.xLogXSums[j] += x * Math.log(x);
+                    stats.positiveSums[j] += x;
+                }
+                if (!withCoMoments) {
+                    sumSq[j] += d * d;
+                }
+            }
+        }
+
+        if (withCoMoments) {
+            // 均值已知后由内核按中心化的数据计算，常量列的均值严格等于其取值，离差与协离差严格为零
+            double[] means = new double[n];
+            for (int j = 0; j < n; j++) {
+                means[j] = stats.mean(j);
+            }
+            double[] c = CoMomentKernel.coMoments(data, means);
+            System.arraycopy(c, 0, stats.coMoments, 0, n * n);
+            for (int j = 0; j < n; j++) {
+                sumSq[j] = c[j * n + j];
+            }
+        } else {
+            // 由平移后的原点矩换算为离差平方和
+            for (int j = 0; j < n; j++) {
+                sumSq[j] -= stats.shiftedSums[j] * stats.shiftedSums[j] / m;
+                // 平移后的结果不会为负，只可能因舍入出现极小的负数
+                if (sumSq[j] < 0) {
+                    sumSq[j] = 0;
+                }
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * 计算存放在内存映射文件中的数据矩阵的统计量
+     * <p>
+     * 逐列扫描各块的只读视图，不把数据复制到堆上；每列按行序累加，结果与对同样数据调用
+     * {@link #of(double[][], boolean, boolean)} 逐位相同。
+     *
+     * @see #of(double[][], boolean, boolean)
+     */
+    public static ColumnStatistics of(MappedColumnMatrix matrix, boolean entropyTerms, boolean withCoMoments) {
+        return of(matrix, null, entropyTerms, withCoMoments);
+    }
+
+    /**
+     * 计算存放在内存映射文件中的数据矩阵经逐元素变换后的统计量
+     * <p>
+     * 变换在扫描时逐个元素进行，不写回文件也不复制整个矩阵，结果与先变换得到 double[][] 再调用
+     * {@link #of(double[][], boolean, boolean)} 逐位相同。
+     *
+     * @param transform 逐元素变换，为 null 时使用原值
+     * @see #of(MappedColumnMatrix, boolean, boolean)
+     */
+    public static ColumnStatistics of(MappedColumnMatrix matrix, ColumnTransform transform,
+                                      boolean entropyTerms, boolean withCoMoments) {
+        if (matrix == null || matrix.rows() == 0) {
+            throw new IllegalArgumentException("输入数据必须是非空的数据矩阵 (样本数 x 指标数)。");
+        }
+        int m = matrix.rows();
+        int n = matrix.columns();
+        ColumnStatistics stats = new ColumnStatistics(m, n, entropyTerms, withCoMoments);
+        double[] sumSq = stats.centeredSumsOfSquares;
+        for (int j = 0; j < n; j++) {
+            double shift = transform == null ? matrix.get(0, j) : transform.apply(j, matrix.get(0, j));
+            double shiftedSum = 0;
+            double sum = 0;
+            double minimum = shift;
+            double xLogXSum = 0;
+            double positiveSum = 0;
+            double squares = 0;
+            for (int b = 0; b < matrix.blockCount(); b++) {
+                DoubleBuffer column = matrix.segment(b, j);
+                for (int i = 0, len = column.limit(); i < len; i++) {
+                    double x = transform == null ? column.get(i) : transform.apply(j, column.get(i));
+                    double d = x - shift;
+                    shiftedSum += d;
+                    sum += x;
+                    if (x < minimum) {
+                        minimum = x;
+                    }
+                    if (entropyTerms && x > 0) {
+                        xLogXSum += x * Math.log(x);
+                        positiveSum += x;
+                    }
+                    if (!withCoMoments) {
+                        squares += d * d;
+                    }
+                }
+            }
+            stats.shift[j] = shift;
+            stats.shiftedSums[j] = shiftedSum;
+            stats.sums[j] = sum;
+            stats.minimums[j] = minimum;
+            if (entropyTerms) {
+                stats.xLogXSums[j] = xLogXSum;
+                stats.positiveSums[j] = positiveSum;
+            }
+            sumSq[j] = squares;
+        }
+
+        if (withCoMoments) {
+            double[] means = new double[n];
+            for (int j = 0; j < n; j++) {
+                means[j] = stats.mean(j);
+            }
+            double[] c = CoMomentKernel.coMoments(m, means, ForkJoinPool.commonPool(), (start, len, block) -> {
+                for (int j = 0; j < n; j++) {
+                    double[] column = block[j];
+                    matrix.copyColumn(j, start, column, 0, len);
+                    if (transform == null) {
+                        for (int r = 0; r < len; r++) {
+                            column[r] -= means[j];
+                        }
+                    } else {
+                        for (int r = 0; r < len; r++) {
+                            column[r] = transform.apply(j, column[r]) - means[j];
+                        }
+                    }
+                }
+            });
+            System.arraycopy(c, 0, stats.coMoments, 0, n * n);
+            for (int j = 0; j < n; j++) {
+                sumSq[j] = c[j * n + j];
+            }
+        } else {
+            for (int j = 0; j < n; j++) {
+                sumSq[j] -= stats.shiftedSums[j] * stats.shiftedSums[j] / m;
+                if (sumSq[j] < 0) {
+                    sumSq[j] = 0;
+                }
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * 由已知的均值与协离差矩阵构造统计量（如滑动窗口维护的矩），不含熵权项；
+     * 没有逐行数据，各列最小值记为 NaN
+     *
+     * @param coMoments 协离差矩阵，按 j * columns + k 存放
+     */
+    static ColumnStatistics fromMoments(int rows, double[] means, double[] coMoments) {
+        int n = means.length;
+        ColumnStatistics stats = new ColumnStatistics(rows, n, false, true);
+        System.arraycopy(means, 0, stats.shift, 0, n);
+        System.arraycopy(coMoments, 0, stats.coMoments, 0, n * n);
+        for (int j = 0; j < n; j++) {
+            stats.sums[j] = means[j] * rows;
+            stats.minimums[j] = Double.NaN;
+            stats.centeredSumsOfSquares[j] = coMoments[j * n + j];
+        }
+        return stats;
+    }
+
+    public int rows() { return rows; }
+    public int columns() { return columns; }
+
+    public double sum(int j) { return sums[j]; }
+
+    public double mean(int j) { return shift[j] + shiftedSums[j] / rows; }
+
+    /** 离差平方和 Σ(x − mean)² */
+    public double centeredSumOfSquares(int j) { return centeredSumsOfSquares[j]; }
+
+    /** 总体方差（除以样本数） */
+    public double variance(int j) { return centeredSumsOfSquares[j] / rows; }
+
+    /** 总体标准差（除以样本数） */
+    public double standardDeviation(int j) { return Math.sqrt(variance(j)); }
+
+    public double minimum(int j) { return minimums[j]; }
+
+    /** 是否存在负值 */
+    public boolean hasNegative() {
+        for (double min : minimums) {
+            if (min < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasCoMoments() { return coMoments != null; }
+
+    /** 协离差 Σ(x_j − mean_j)(x_k − mean_k) */
+    public double coMoment(int j, int k) {
+        requireCoMoments();
+        return coMoments[j * columns + k];
+    }
+
+    /**
+     * 皮尔逊相关系数；任一列离差平方和为零时为 NaN
+     */
+    public double correlation(int j, int k) {
+        requireCoMoments();
+        double sj = centeredSumsOfSquares[j];
+        double sk = centeredSumsOfSquares[k];
+        if (sj == 0 || sk == 0) {
+            return Double.NaN;
+        }
+        return coMoments[j * columns + k] / Math.sqrt(sj * sk);
+    }
+
+    /**
+     * 熵权法中第 j 列的 Σ p·log p，p = x / (列和 + {@link #ENTROPY_EPSILON})，只计入 p > 0 的项
+     */
+    public double pLogPSum(int j) {
+        if (xLogXSums == null) {
+            throw new IllegalStateException("未计算熵权项");
+        }
+        double total = sums[j] + ENTROPY_EPSILON;
+        if (positiveSums[j] == 0 || total <= 0) {
+            return 0;
+        }
+        return (xLogXSums[j] - positiveSums[j] * Math.log(total)) / total;
+    }
+
+    /**
+     * 扫描时对第 column 列的元素 x 所做的变换，如评估策略的指标预处理与极差归一化
+     */
+    @FunctionalInterface
+    public interface ColumnTransform {
+        double apply(int column, double x);
+    }
+
+    private void requireCoMoments() {
+        if (coMoments == null) {
+            throw new IllegalStateException("未计算协离差矩阵");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.sfq.ecosystem.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一条样本在某个评估类型下的完整可信度结果
+ * <p>
+ * 包含目标层与各准则层（按策略中的分组顺序）的五级可信度，
+ * 可按不同阈值反复定级而不必重新评估。
+ */
+public class CredibilityReport {
+
+    private final EvaluationType evaluationType;
+    private final LayerCredibility targetLayer;
+    private final List<LayerCredibility> criterionLayers;
+
+    public CredibilityReport(EvaluationType evaluationType, LayerCredibility targetLayer, List<LayerCredibility> criterionLayers) {
+        this.evaluationType = evaluationType;
+        this.targetLayer = targetLayer;
+        this.criterionLayers = Collections.unmodifiableList(criterionLayers);
+    }
+
+    public EvaluationType getEvaluationType() { return evaluationType; }
+    public LayerCredibility getTargetLayer() { return targetLayer; }
+    public List<LayerCredibility> getCriterionLayers() { return criterionLayers; }
+
+    /**
+     * 按策略中配置的阈值得到的评估结果
+     */
+    public EvaluationResult toEvaluationResult() {
+        Map<String, String> criterionLevels = new LinkedHashMap<>();
+        for (LayerCredibility layer : criterionLayers) {
+            criterionLevels.put(layer.getName(), layer.getLevel());
+        }
+        return new EvaluationResult(targetLayer.getLevel(), criterionLevels);
+    }
+
+    /**
+     * 用同一个阈值对目标层与各准则层重新定级
+     */
+    public EvaluationResult resolve(double theta) {
+        Map<String, String> criterionLevels = new LinkedHashMap<>();
+        for (LayerCredibility layer : criterionLayers) {
+            criterionLevels.put(layer.getName(), layer.resolveLevel(theta));
+        }
+        return new EvaluationResult(targetLayer.resolveLevel(theta), criterionLevels);
+    }
+}
@@ -0,0 +1,50 @@
+package com.sfq.ecosystem.model;
+
+/**
+ * 退化费马模糊数的立方形式缓冲区
+ * <p>
+ * 退化的费马模糊数 (alphaL == alphaU 且 betaL == betaU) 只需一对分量。
+ * 这里保存的是分量的立方 a = alpha^3、b = beta^3：费马模糊数的运算法则与得分函数都是立方的多项式，
+ * 在立方形式上做运算只需加减乘除，不再需要 pow/cbrt，由 {@link CrispFfnKernel} 原地运算。
+ */
+public final class CrispFfnBuffer {
+
+    // 隶属度的立方
+    public final double[] a;
+    // 非隶属度的立方
+    public final double[] b;
+
+    private final int capacity;
+
+    /**
+     * 构造函数
+     *
+     * @param capacity 缓冲区可容纳的费马模糊数个数
+     */
+    public CrispFfnBuffer(int capacity) {
+        this.capacity = capacity;
+        this.a = new double[capacity];
+        this.b = new double[capacity];
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 写入第 i 个费马模糊数的立方形式
+     */
+    public void set(int i, double aVal, double bVal) {
+        a[i] = aVal;
+        b[i] = bVal;
+    }
+
+    /**
+     * 将第 i 个位置的值开立方根后转换为费马模糊数对象 (仅用于结果输出，会产生分配)
+     */
+    public FermateanFuzzyNumber toFfn(int i) {
+        double alpha = Math.cbrt(a[i]);
+        double beta = Math.cbrt(b[i]);
+        return new FermateanFuzzyNumber(new double[]{alpha, alpha}, new double[]{beta, beta});
+    }
+}
@@ -0,0 +1,189 @@
+package com.sfq.ecosystem.model;
+
+/**
+ * 退化费马模糊数在立方形式上的运算内核
+ * <p>
+ * 评估中的费马模糊数都由清晰值转换而来，是退化的 (alphaL == alphaU 且 betaL == betaU)，
+ * 评估服务只接受清晰值输入，不支持区间值费马模糊数。
+ * 运算法则与 {@link FermateanFuzzyNumber} 对退化数的运算一一对应，但操作数与结果都以 {@link CrispFfnBuffer} 的立方形式
+ * (a = alpha^3, b = beta^3) 保存：
+ * <ul>
+ *     <li>加法: a = a1 + a2 - a1 * a2, b = b1 * b2</li>
+ *     <li>减法 x - y: a = ax + by - ax * by, b = bx * ay</li>
+ *     <li>乘法: a = a1 * a2, b = b1 + b2 - b1 * b2</li>
+ *     <li>得分 S/H/MU/HU 本身就是立方的线性组合</li>
+ * </ul>
+ * 因此各运算不再需要 pow/cbrt，只有转换回分量形式时 ({@link CrispFfnBuffer#toFfn}) 才开一次立方根。
+ * 省去的是立方再开方的往返，结果与对象运算只在末几位上不同。
+ * <p>
+ * 评估服务的全部定级都以本内核的比较为准：评估时与阈值比较，可信度报告、持久化的得分与阈值扫描
+ * 也由立方形式经 {@link #score} 得到得分元组、再以 {@link #compare(FfnScores, int, FfnScores, int)} 比较，
+ * 两者的得分逐位相同，同一可信度在任何路径上定出的等级都一致。
+ * <p>
+ * 所有方法都先把结果计算到局部变量中再写回，因此输出位置可以与任一输入位置相同 (原地运算)。
+ */
+public final class CrispFfnKernel {
+
+    // 定义一个极小值，用于浮点数比较，与 FermateanFuzzyNumber 保持一致
+    public static final double EPSILON = 1e-9;
+
+    // 隶属度小于 EPSILON 即其立方小于 EPSILON^3
+    private static final double EPSILON_CUBE = EPSILON * EPSILON * EPSILON;
+
+    // 模糊零的各项得分，用于与常量比较时免去重复计算
+    private static final double ZERO_S = scoreS(0.0, 1.0);
+    private static final double ZERO_H = scoreH(0.0, 1.0);
+    private static final double ZERO_MU = scoreMU(0.0, 1.0);
+    private static final double ZERO_HU = scoreHU(0.0, 1.0);
+
+    private CrispFfnKernel() {
+    }
+
+    /** 写入模糊零 */
+    public static void setZero(CrispFfnBuffer out, int k) {
+        out.set(k, 0.0, 1.0);
+    }
+
+    /** 写入模糊一 */
+    public static void setOne(CrispFfnBuffer out, int k) {
+        out.set(k, 1.0, 0.0);
+    }
+
+    /**
+     * 写入由 [0,1] 上的清晰值 s 转换而来的费马模糊数 (alpha = s, beta = 1 - s)
+     */
+    public static void fromCrisp(double s, CrispFfnBuffer out, int k) {
+        double t = 1.0 - s;
+        out.set(k, s * s * s, t * t * t);
+    }
+
+    /**
+     * 费马模糊数加法: out[k] = x[i] + y[j]
+     */
+    public static void add(CrispFfnBuffer x, int i, CrispFfnBuffer y, int j, CrispFfnBuffer out, int k) {
+        double xa = x.a[i], ya = y.a[j];
+        out.set(k, xa + ya - (xa * ya), x.b[i] * y.b[j]);
+    }
+
+    /**
+     * 费马模糊数减法: out[k] = x[i] - y[j]，即 x + (-1)*y，取反交换隶属度与非隶属度
+     */
+    public static void subtract(CrispFfnBuffer x, int i, CrispFfnBuffer y, int j, CrispFfnBuffer out, int k) {
+        double xa = x.a[i], yb = y.b[j];
+        out.set(k, xa + yb - (xa * yb), x.b[i] * y.a[j]);
+    }
+
+    /**
+     * 费马模糊数乘法: out[k] = x[i] * y[j]
+     */
+    public static void multiply(CrispFfnBuffer x, int i, CrispFfnBuffer y, int j, CrispFfnBuffer out, int k) {
+        double xb = x.b[i], yb = y.b[j];
+        out.set(k, x.a[i] * y.a[j], xb + yb - (xb * yb));
+    }
+
+    /**
+     * 费马模糊数的逆 y[j] ^ -1，写入 out[k]
+     * <p>
+     * x / y 定义为 x * (y ^ -1)，除数固定时预先求逆，每次除法只剩一次乘法。
+     * y 的隶属度接近零时除法的结果恒为模糊一，不经过逆元，调用方需先用 {@link #isVanishing} 判断。
+     */
+    public static void inverse(CrispFfnBuffer y, int j, CrispFfnBuffer out, int k) {
+        out.set(k, 1.0 / y.a[j], 1.0 - (1.0 - y.b[j]));
+    }
+
+    /**
+     * y[j] 的隶属度是否小于 EPSILON，此时以它为除数的除法结果为模糊一
+     */
+    public static boolean isVanishing(CrispFfnBuffer y, int j) {
+        return y.a[j] < EPSILON_CUBE;
+    }
+
+    /**
+     * 将 x[i] 的各分量限制在 [0,1] 范围内，结果写入 out[k]
+     */
+    public static void clamp(CrispFfnBuffer x, int i, CrispFfnBuffer out, int k) {
+        out.set(k, Math.max(0.0, Math.min(x.a[i], 1.0)), Math.max(0.0, Math.min(x.b[i], 1.0)));
+    }
+
+    /**
+     * 比较 x[i] 与 y[j] 的大小，规则与 {@link FermateanFuzzyNumber#compareTo} 相同
+     *
+     * @return 1: x > y, -1: x < y, 0: x == y
+     */
+    public static int compare(CrispFfnBuffer x, int i, CrispFfnBuffer y, int j) {
+        return compare(x.a[i], x.b[i], y.a[j], y.b[j]);
+    }
+
+    /**
+     * 按立方形式的分量比较两个退化费马模糊数
+     */
+    public static int compare(double a1, double b1, double a2, double b2) {
+        return compareScores(scoreS(a1, b1), scoreH(a1, b1), scoreMU(a1, b1), scoreHU(a1, b1),
+                scoreS(a2, b2), scoreH(a2, b2), scoreMU(a2, b2), scoreHU(a2, b2));
+    }
+
+    /**
+     * 计算 x[i] 的得分元组 (S, H, MU, HU) 写入 out[k]，与 {@link #compare(CrispFfnBuffer, int, CrispFfnBuffer, int)}
+     * 内部使用的得分逐位相同
+     */
+    public static void score(CrispFfnBuffer x, int i, FfnScores out, int k) {
+        double a = x.a[i], b = x.b[i];
+        out.set(k, scoreS(a, b), scoreH(a, b), scoreMU(a, b), scoreHU(a, b));
+    }
+
+    /**
+     * 按已算好的得分元组比较 x[i] 与 y[j]，结果与在立方形式上直接比较相同
+     *
+     * @return 1: x > y, -1: x < y, 0: x == y
+     */
+    public static int compare(FfnScores x, int i, FfnScores y, int j) {
+        return compareScores(x.s[i], x.h[i], x.mu[i], x.hu[i], y.s[j], y.h[j], y.mu[j], y.hu[j]);
+    }
+
+    /**
+     * 判断 x[i] 是否与模糊零相等
+     */
+    public static boolean isZero(CrispFfnBuffer x, int i) {
+        double a = x.a[i], b = x.b[i];
+        return Math.abs(scoreS(a, b) - ZERO_S) <= EPSILON
+                && Math.abs(scoreH(a, b) - ZERO_H) <= EPSILON
+                && Math.abs(scoreMU(a, b) - ZERO_MU) <= EPSILON
+                && Math.abs(scoreHU(a, b) - ZERO_HU) <= EPSILON;
+    }
+
+    private static int compareScores(double s1, double h1, double mu1, double hu1,
+                                     double s2, double h2, double mu2, double hu2) {
+        if (Math.abs(s1 - s2) > EPSILON) {
+            return s1 > s2 ? 1 : -1;
+        }
+        if (Math.abs(h1 - h2) > EPSILON) {
+            return h1 > h2 ? 1 : -1;
+        }
+        if (Math.abs(mu1 - mu2) > EPSILON) {
+            return mu1 > mu2 ? 1 : -1;
+        }
+        if (Math.abs(hu1 - hu2) > EPSILON) {
+            // 注意这里是 hu1 > hu2 时返回 -1
+            return hu1 > hu2 ? -1 : 1;
+        }
+        return 0;
+    }
+
+    // 退化数的得分: a = alpha^3, b = beta^3，按区间公式的求值顺序代入上下界相同的值
+
+    private static double scoreS(double a, double b) {
+        return (a + a - b - b + 2) / 4.0;
+    }
+
+    private static double scoreH(double a, double b) {
+        return (a + a + b + b) / 2.0;
+    }
+
+    private static double scoreMU(double a, double b) {
+        return (a - a - b + b + 1) / 2.0;
+    }
+
+    private static double scoreHU(double a, double b) {
+        return a + b - a - b;
+    }
+}
@@ -0,0 +1,128 @@
+package com.sfq.ecosystem.model;
+
+import java.util.Arrays;
+
+/**
+ * 熵权法的增量累加器
+ * <p>
+ * 熵权只依赖各列的 Σ x、正值的 Σ x·log x 与 Σ x（见 {@link ColumnStatistics#pLogPSum(int)}），
+ * 这些量都可以逐行累加，因此只需保存 O(指标数) 的状态，无需保留整个数据矩阵。
+ * 每新增一行调用 {@link #add(double[])}；记录被修改或删除时用 {@link #remove(double[])} 撤销旧值。
+ * 分片各自累加后可以用 {@link #merge(EntropyAccumulator)} 合并，结果与整体一次累加相同（在浮点舍入范围内）。
+ * <p>
+ * 本类不是线程安全的，由调用方负责同步。
+ */
+public final class EntropyAccumulator {
+
+    private final int columns;
+    private long rows;
+    private final double[] sums;
+    private final double[] xLogXSums;
+    private final double[] positiveSums;
+    // 各列负值的个数，用于判断当前数据中是否仍有负值
+    private final long[] negativeCounts;
+
+    public EntropyAccumulator(int columns) {
+        if (columns < 1) {
+            throw new IllegalArgumentException("指标数必须大于 0。");
+        }
+        this.columns = columns;
+        this.sums = new double[columns];
+        this.xLogXSums = new double[columns];
+        this.positiveSums = new double[columns];
+        this.negativeCounts = new long[columns];
+    }
+
+    /**
+     * 累加一行数据
+     */
+    public void add(double[] row) {
+        accumulate(row, 1);
+        rows++;
+    }
+
+    /**
+     * 撤销之前累加过的一行数据
+     */
+    public void remove(double[] row) {
+        if (rows == 0) {
+            throw new IllegalStateException("累加器中没有数据。");
+        }
+        accumulate(row, -1);
+        rows--;
+        if (rows == 0) {
+            // 全部撤销后清除残留的舍入误差
+            clear();
+        }
+    }
+
+    /**
+     * 把另一个累加器（如另一个分片）的状态合并进来
+     */
+    public void merge(EntropyAccumulator other) {
+        if (other.columns != columns) {
+            throw new IllegalArgumentException("指标数不一致，无法合并: " + columns + " 与 " + other.columns);
+        }
+        for (int j = 0; j < columns; j++) {
+            sums[j] += other.sums[j];
+            xLogXSums[j] += other.xLogXSums[j];
+            positiveSums[j] += other.positiveSums[j];
+            negativeCounts[j] += other.negativeCounts[j];
+        }
+        rows += other.rows;
+    }
+
+    public EntropyAccumulator copy() {
+        EntropyAccumulator copy = new EntropyAccumulator(columns);
+        copy.merge(this);
+        return copy;
+    }
+
+    public void clear() {
+        rows = 0;
+        Arrays.fill(sums, 0);
+        Arrays.fill(xLogXSums, 0);
+        Arrays.fill(positiveSums, 0);
+        Arrays.fill(negativeCounts, 0);
+    }
+
+    public long rows() { return rows; }
+    public int columns() { return columns; }
+
+    /** 是否存在负值 */
+    public boolean hasNegative() {
+        for (long count : negativeCounts) {
+            if (count > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 熵权法中第 j 列的 Σ p·log p，与 {@link ColumnStatistics#pLogPSum(int)} 的定义相同
+     */
+    public double pLogPSum(int j) {
+        double total = sums[j] + ColumnStatistics.ENTROPY_EPSILON;
+        if (positiveSums[j] <= 0 || total <= 0) {
+            return 0;
+        }
+        return (xLogXSums[j] - positiveSums[j] * Math.log(total)) / total;
+    }
+
+    private void accumulate(double[] row, int sign) {
+        if (row.length != columns) {
+            throw new IllegalArgumentException("数据长度 " + row.length + " 与指标数 " + columns + " 不一致。");
+        }
+        for (int j = 0; j < columns; j++) {
+            double x = row[j];
+            sums[j] += sign * x;
+            if (x > 0) {
+                xLogXSums[j] += sign * x * Math.log(x);
+                positiveSums[j] += sign * x;
+            } else if (x < 0) {
+                negativeCounts[j] += sign;
+            }
+        }
+    }
+}
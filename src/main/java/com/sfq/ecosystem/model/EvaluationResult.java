@@ -0,0 +1,30 @@
+package com.sfq.ecosystem.model;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 一次完整评估的结果
+ * <p>
+ * 包含某个评估类型的目标层等级，以及各准则层（按策略中的分组顺序）的等级。
+ */
+public class EvaluationResult {
+
+    // 目标层评估等级
+    private final String targetLevel;
+    // 准则层名称 -> 评估等级
+    private final Map<String, String> criterionLevels;
+
+    public EvaluationResult(String targetLevel, Map<String, String> criterionLevels) {
+        this.targetLevel = targetLevel;
+        this.criterionLevels = Collections.unmodifiableMap(criterionLevels);
+    }
+
+    public String getTargetLevel() { return targetLevel; }
+    public Map<String, String> getCriterionLevels() { return criterionLevels; }
+
+    @Override
+    public String toString() {
+        return "EvaluationResult{targetLevel=" + targetLevel + ", criterionLevels=" + criterionLevels + "}";
+    }
+}
@@ -0,0 +1,52 @@
+package com.sfq.ecosystem.model;
+
+/**
+ * 费马模糊数得分元组的结构化数组缓冲区
+ * <p>
+ * 按下标保存 {@link CrispFfnBuffer} 中对应位置的得分 S、H、MU、HU，由 {@link CrispFfnKernel#score} 填充。
+ * 评估内核直接在立方形式上比较，不需要得分元组；这里只用于可信度报告 ({@link LayerCredibility})
+ * 与持久化得分的重新定级：各等级的得分算好后保存下来，之后对任意阈值定级只需几次减法。
+ */
+public final class FfnScores {
+
+    public final double[] s;
+    public final double[] h;
+    public final double[] mu;
+    public final double[] hu;
+
+    private final int capacity;
+
+    /**
+     * 构造函数
+     *
+     * @param capacity 缓冲区可容纳的得分元组个数
+     */
+    public FfnScores(int capacity) {
+        this.capacity = capacity;
+        this.s = new double[capacity];
+        this.h = new double[capacity];
+        this.mu = new double[capacity];
+        this.hu = new double[capacity];
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 写入第 i 个得分元组
+     */
+    public void set(int i, double sVal, double hVal, double muVal, double huVal) {
+        s[i] = sVal;
+        h[i] = hVal;
+        mu[i] = muVal;
+        hu[i] = huVal;
+    }
+
+    /**
+     * 将 src 的第 j 个得分元组复制到本缓冲区的第 i 个位置
+     */
+    public void copy(int i, FfnScores src, int j) {
+        set(i, src.s[j], src.h[j], src.mu[j], src.hu[j]);
+    }
+}
@@ -0,0 +1,87 @@
+package com.sfq.ecosystem.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 一层评估（目标层或某个准则层）的五级可信度
+ * <p>
+ * 保存每个等级的可信度费马模糊数及其得分元组。得分在构造时由评估内核的立方形式一次算好，
+ * 与评估时定级所用的比较逐位相同（见 {@link CrispFfnKernel}），
+ * 之后可以用 {@link #resolveLevel(double)} 对任意阈值重新定级，无需重新计算可信度。
+ */
+public class LayerCredibility {
+
+    private final String name;
+    private final double theta;
+    private final String level;
+    private final String[] levelNames;
+    // 下标为等级，0 为最低级
+    private final List<FermateanFuzzyNumber> credibilities;
+    private final FfnScores scores;
+
+    /**
+     * @param name          层名称
+     * @param theta         策略中配置的阈值
+     * @param levelNames    等级名称，从低到高
+     * @param credibilities 立方形式的可信度缓冲区，等级 h 的可信度位于 offset + h
+     */
+    public LayerCredibility(String name, double theta, String[] levelNames, CrispFfnBuffer credibilities, int offset) {
+        this.name = name;
+        this.theta = theta;
+        this.levelNames = levelNames.clone();
+        this.scores = new FfnScores(levelNames.length);
+        List<FermateanFuzzyNumber> list = new ArrayList<>(levelNames.length);
+        for (int h = 0; h < levelNames.length; h++) {
+            list.add(credibilities.toFfn(offset + h));
+            CrispFfnKernel.score(credibilities, offset + h, scores, h);
+        }
+        this.credibilities = Collections.unmodifiableList(list);
+        this.level = resolveLevel(theta);
+    }
+
+    /**
+     * 按给定阈值重新定级：从高到低找出第一个可信度达到阈值的等级，均未达到时为最低级
+     */
+    public String resolveLevel(double theta) {
+        return resolveLevel(scores, 0, theta, levelNames);
+    }
+
+    /**
+     * 仅凭各等级可信度的得分元组定级，供持久化的得分直接重新定级使用
+     * <p>
+     * 阈值与评估计划一样按立方形式转换，给定阈值下的等级与评估服务直接给出的等级相同。
+     *
+     * @param scores     得分元组，等级 h 位于 offset + h
+     * @param levelNames 等级名称，从低到高
+     */
+    public static String resolveLevel(FfnScores scores, int offset, double theta, String[] levelNames) {
+        CrispFfnBuffer thetaFfn = new CrispFfnBuffer(1);
+        CrispFfnKernel.fromCrisp(theta, thetaFfn, 0);
+        FfnScores thetaScores = new FfnScores(1);
+        CrispFfnKernel.score(thetaFfn, 0, thetaScores, 0);
+        for (int h = levelNames.length - 1; h >= 0; h--) {
+            if (CrispFfnKernel.compare(scores, offset + h, thetaScores, 0) >= 0) {
+                return levelNames[h];
+            }
+        }
+        return levelNames[0];
+    }
+
+    public String getName() { return name; }
+    public double getTheta() { return theta; }
+    public String getLevel() { return level; }
+    public List<FermateanFuzzyNumber> getCredibilities() { return credibilities; }
+
+    // 各等级可信度的得分，下标为等级
+    public double[] getScoreS() { return scores.s.clone(); }
+    public double[] getScoreH() { return scores.h.clone(); }
+    public double[] getScoreMU() { return scores.mu.clone(); }
+    public double[] getScoreHU() { return scores.hu.clone(); }
+
+    @Override
+    public String toString() {
+        return "LayerCredibility{name=" + name + ", level=" + level + ", credibilities=" + credibilities + "}";
+    }
+}
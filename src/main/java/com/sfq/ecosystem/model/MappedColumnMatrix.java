@@ -0,0 +1,369 @@
+package com.sfq.ecosystem.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 存放在内存映射文件中的按列存储数据矩阵（样本数 x 指标数）
+ * <p>
+ * 文件按行分为若干块，每块 {@link #blockRows()} 行，块内各列依次连续存放：第 b 块第 j 列的第 i 行位于
+ * 第 (b · 指标数 + j) · blockRows + i 个 double。每块单独映射（{@link FileChannel#map}），
+ * 追加行时写入最后一块，写满后再映射下一块，文件随之增长。数据位于堆外，由操作系统按需换入换出，
+ * 堆上只保留各块的缓冲区对象，因此数千万行的历史数据也只占用很小的堆。
+ * <p>
+ * {@link #segment(int, int)} 返回某一块中某一列的只读视图，直接读取映射的内存，不复制数据；
+ * {@link ColumnStatistics#of(MappedColumnMatrix, boolean, boolean)} 按列扫描这些视图得到各赋权方法所需的统计量。
+ * <p>
+ * 除在末尾追加外，还可以按行号覆盖某一行（{@link #set}）或删除某一行（{@link #removeRow}，以最后一行填补空位）。
+ * {@link #snapshot()} 返回当前行数的只读快照，与原矩阵共享映射的内存，可以在不持有写锁的情况下计算。
+ * 之后追加的行对快照不可见；覆盖仍被未关闭的快照引用、且快照可见的行之前，先把该块复制到另一个区域（写时复制），
+ * 快照继续读取原区域，因此快照的内容不会改变。文件中的区域按引用计数回收：快照用完后须调用 {@link #close()}，
+ * 最后一个引用某个被替换区域的快照关闭后，该区域留待之后的复制与追加重复使用，文件大小只取决于同时存活的快照。
+ * 本类的写操作与 {@link #snapshot()} 不是线程安全的，由调用方负责同步；快照可在多线程间共享，并可在任何线程上关闭。
+ */
+public final class MappedColumnMatrix implements Closeable {
+
+    // 每块的默认最大行数
+    public static final int DEFAULT_BLOCK_ROWS = 1 << 16;
+    // 每块映射的字节数上限，指标较多时相应减少每块的行数
+    private static final long MAX_BLOCK_BYTES = 64L << 20;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final boolean deleteOnClose;
+    private final int columns;
+    private final int blockRows;
+    private final List<DoubleBuffer> blocks;
+    // 各块所在的区域编号
+    private final List<Integer> blockRegions;
+    // 原矩阵与其全部快照共用的区域引用计数
+    private final Regions regions;
+    private int rows;
+    // 快照是否已关闭并释放了对区域的引用，由 regions 的锁保护
+    private boolean released;
+
+    private MappedColumnMatrix(Path file, FileChannel channel, boolean deleteOnClose, int columns, int blockRows,
+                               List<DoubleBuffer> blocks, List<Integer> blockRegions, Regions regions, int rows) {
+        this.file = file;
+        this.channel = channel;
+        this.deleteOnClose = deleteOnClose;
+        this.columns = columns;
+        this.blockRows = blockRows;
+        this.blocks = blocks;
+        this.blockRegions = blockRegions;
+        this.regions = regions;
+        this.rows = rows;
+    }
+
+    /**
+     * 在指定文件中创建空矩阵，文件已存在时清空，关闭时保留文件
+     */
+    public static MappedColumnMatrix create(Path file, int columns) throws IOException {
+        return create(file, columns, defaultBlockRows(columns), false);
+    }
+
+    /**
+     * 在指定目录中创建存放于临时文件的空矩阵，关闭时删除文件
+     *
+     * @param directory 文件所在目录，为 null 时使用系统临时目录
+     */
+    public static MappedColumnMatrix createTemporary(Path directory, int columns) throws IOException {
+        Path file = directory == null
+                ? Files.createTempFile("matrix-", ".bin")
+                : Files.createTempFile(Files.createDirectories(directory), "matrix-", ".bin");
+        return create(file, columns, defaultBlockRows(columns), true);
+    }
+
+    /**
+     * @param blockRows     每块的行数
+     * @param deleteOnClose 关闭时是否删除文件
+     */
+    public static MappedColumnMatrix create(Path file, int columns, int blockRows, boolean deleteOnClose) throws IOException {
+        if (columns < 1 || blockRows < 1) {
+            throw new IllegalArgumentException("指标数与每块的行数必须大于 0。");
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        return new MappedColumnMatrix(file, channel, deleteOnClose, columns, blockRows,
+                new ArrayList<>(), new ArrayList<>(), new Regions(), 0);
+    }
+
+    private static int defaultBlockRows(int columns) {
+        long rows = MAX_BLOCK_BYTES / ((long) Double.BYTES * columns);
+        return (int) Math.max(1, Math.min(DEFAULT_BLOCK_ROWS, Long.highestOneBit(Math.max(1, rows))));
+    }
+
+    /**
+     * 在末尾追加一行
+     */
+    public void append(double[] row) {
+        requireWritable(row);
+        if (rows == Integer.MAX_VALUE) {
+            throw new IllegalStateException("行数已达上限。");
+        }
+        int block = rows / blockRows;
+        if (block == blocks.size()) {
+            int region = regions.acquire();
+            blocks.add(mapRegion(region));
+            blockRegions.add(region);
+        }
+        writeRow(rows, row);
+        rows++;
+    }
+
+    /**
+     * 以 row 覆盖第 index 行
+     */
+    public void set(int index, double[] row) {
+        requireWritable(row);
+        if (index < 0 || index >= rows) {
+            throw new IndexOutOfBoundsException("行 " + index);
+        }
+        writeRow(index, row);
+    }
+
+    /**
+     * 删除第 index 行：最后一行移到该位置，行数减一；其余各行的行号不变
+     */
+    public void removeRow(int index) {
+        if (channel == null) {
+            throw new IllegalStateException("快照是只读的。");
+        }
+        if (index < 0 || index >= rows) {
+            throw new IndexOutOfBoundsException("行 " + index);
+        }
+        int last = rows - 1;
+        if (index != last) {
+            double[] row = new double[columns];
+            for (int j = 0; j < columns; j++) {
+                row[j] = get(last, j);
+            }
+            writeRow(index, row);
+        }
+        rows--;
+    }
+
+    private void requireWritable(double[] row) {
+        if (channel == null) {
+            throw new IllegalStateException("快照是只读的。");
+        }
+        if (row.length != columns) {
+            throw new IllegalArgumentException("数据长度 " + row.length + " 与指标数 " + columns + " 不一致。");
+        }
+    }
+
+    private void writeRow(int index, double[] row) {
+        int block = index / blockRows;
+        int offset = index % blockRows;
+        if (regions.isShared(blockRegions.get(block), offset)) {
+            copyOnWrite(block);
+        }
+        DoubleBuffer buffer = blocks.get(block);
+        for (int j = 0; j < columns; j++) {
+            buffer.put(j * blockRows + offset, row[j]);
+        }
+    }
+
+    // 把被快照共享的块复制到另一个区域，之后的写入只改动新区域；原区域在最后一个快照关闭后回收
+    private void copyOnWrite(int block) {
+        int region = regions.acquire();
+        DoubleBuffer copy = mapRegion(region);
+        DoubleBuffer source = blocks.get(block).duplicate();
+        source.clear();
+        copy.duplicate().put(source);
+        regions.retire(blockRegions.get(block));
+        blocks.set(block, copy);
+        blockRegions.set(block, region);
+    }
+
+    private DoubleBuffer mapRegion(int region) {
+        long bytes = (long) Double.BYTES * columns * blockRows;
+        try {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, region * bytes, bytes);
+            return mapped.order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException("映射数据文件失败: " + file, e);
+        }
+    }
+
+    /**
+     * 当前行数的只读快照，与本矩阵共享映射的内存；用完后须关闭，以便回收被替换的区域，关闭快照不影响本矩阵
+     */
+    public MappedColumnMatrix snapshot() {
+        int count = blockCount();
+        List<Integer> shared = new ArrayList<>(blockRegions.subList(0, count));
+        synchronized (regions) {
+            if (released) {
+                throw new IllegalStateException("快照已关闭。");
+            }
+            for (int b = 0; b < count; b++) {
+                regions.retain(shared.get(b), Math.min(blockRows, rows - b * blockRows));
+            }
+        }
+        return new MappedColumnMatrix(file, null, false, columns, blockRows,
+                Collections.unmodifiableList(new ArrayList<>(blocks.subList(0, count))),
+                Collections.unmodifiableList(shared), regions, rows);
+    }
+
+    public int rows() { return rows; }
+    public int columns() { return columns; }
+    public int blockRows() { return blockRows; }
+
+    /** 已有数据的块数 */
+    public int blockCount() { return (rows + blockRows - 1) / blockRows; }
+
+    /**
+     * 第 block 块中第 column 列的只读视图，不复制数据；长度为该块中的行数
+     */
+    public DoubleBuffer segment(int block, int column) {
+        if (block < 0 || block >= blockCount() || column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("块 " + block + "，列 " + column);
+        }
+        int start = column * blockRows;
+        int length = Math.min(blockRows, rows - block * blockRows);
+        DoubleBuffer view = blocks.get(block).duplicate();
+        view.limit(start + length).position(start);
+        return view.slice().asReadOnlyBuffer();
+    }
+
+    public double get(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("行 " + row + "，列 " + column);
+        }
+        return blocks.get(row / blockRows).get(column * blockRows + row % blockRows);
+    }
+
+    /**
+     * 把第 column 列从第 fromRow 行起的 length 个值复制到 target[offset, offset + length)
+     */
+    public void copyColumn(int column, int fromRow, double[] target, int offset, int length) {
+        if (fromRow < 0 || length < 0 || fromRow + length > rows || column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("列 " + column + "，行 [" + fromRow + ", " + (fromRow + length) + ")");
+        }
+        while (length > 0) {
+            int inBlock = fromRow % blockRows;
+            int count = Math.min(length, blockRows - inBlock);
+            DoubleBuffer view = blocks.get(fromRow / blockRows).duplicate();
+            view.position(column * blockRows + inBlock);
+            view.get(target, offset, count);
+            fromRow += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * 把已写入的数据刷到磁盘
+     */
+    public void force() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+        }
+    }
+
+    /** 文件中已映射的区域数，文件大小为区域数 x 每块的字节数 */
+    public int regionCount() {
+        return regions.count();
+    }
+
+    /**
+     * 关闭矩阵。原矩阵关闭文件，已取得的快照与视图在映射被回收前仍可读取；
+     * 快照释放对区域的引用，之后不应再读取，重复关闭没有影响
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            synchronized (regions) {
+                if (!released) {
+                    released = true;
+                    for (int region : blockRegions) {
+                        regions.release(region);
+                    }
+                }
+            }
+            return;
+        }
+        channel.close();
+        if (deleteOnClose) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * 文件中各区域的引用计数
+     * <p>
+     * 区域被原矩阵的某一块使用时为在用；快照按取得时的可见行数引用其所有块的区域。
+     * 某区域既不在用、也没有未关闭的快照引用时进入空闲列表，之后需要新区域时优先重复使用。
+     */
+    private static final class Regions {
+
+        private int count;
+        // 各区域被多少个未关闭的快照引用
+        private int[] references = new int[8];
+        // 引用该区域的快照在块内可见的最大行数，行号不小于它的位置对任何快照都不可见
+        private int[] visibleRows = new int[8];
+        private boolean[] inUse = new boolean[8];
+        private final Deque<Integer> free = new ArrayDeque<>();
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized int acquire() {
+            Integer reused = free.pollFirst();
+            int region;
+            if (reused != null) {
+                region = reused;
+            } else {
+                if (count == references.length) {
+                    references = Arrays.copyOf(references, count * 2);
+                    visibleRows = Arrays.copyOf(visibleRows, count * 2);
+                    inUse = Arrays.copyOf(inUse, count * 2);
+                }
+                region = count++;
+            }
+            inUse[region] = true;
+            return region;
+        }
+
+        synchronized boolean isShared(int region, int offset) {
+            return references[region] > 0 && offset < visibleRows[region];
+        }
+
+        synchronized void retain(int region, int rows) {
+            references[region]++;
+            visibleRows[region] = Math.max(visibleRows[region], rows);
+        }
+
+        synchronized void release(int region) {
+            if (--references[region] == 0) {
+                visibleRows[region] = 0;
+                if (!inUse[region]) {
+                    free.addLast(region);
+                }
+            }
+        }
+
+        // 原矩阵的块已复制到别的区域，不再使用该区域
+        synchronized void retire(int region) {
+            inUse[region] = false;
+            if (references[region] == 0) {
+                free.addLast(region);
+            }
+        }
+    }
+}
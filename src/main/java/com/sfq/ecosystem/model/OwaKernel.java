@@ -0,0 +1,101 @@
+package com.sfq.ecosystem.model;
+
+import java.util.Arrays;
+
+/**
+ * OWA 权重融合的原始类型计算内核
+ * <p>
+ * 融合分两步：先把每个指标在各方法下的权重降序排列（与参数 a、b 无关，每个指标只排序一次），
+ * 再与由 (a, b) 生成的位置权重做点积并归一化。多组 (a, b) 共用同一份排序结果，
+ * 每组只需一次 方法数 x 指标数 的乘加，因此网格搜索时排序的开销只付一次。
+ * <p>
+ * 排序使用 {@link Arrays#sort(double[], int, int)} 对原始类型升序排列后倒序读取，
+ * 次序（含 -0.0 与 NaN）与按 {@link Double#compareTo} 降序一致，点积与归一化的求和顺序也与逐指标计算相同，
+ * 结果与之逐位相同。
+ */
+public final class OwaKernel {
+
+    private OwaKernel() {
+    }
+
+    /**
+     * 生成位置权重向量 w，w[k] = S((k + 1) / m) − S(k / m)，
+     * 其中 S(s) 在 s &lt; a 时为 0、s &gt; b 时为 1，其间线性增长（a == b 时取 1）
+     *
+     * @param methods 方法数 m
+     * @param a       生成函数下界参数
+     * @param b       生成函数上界参数
+     */
+    public static double[] positionWeights(int methods, double a, double b) {
+        double[] w = new double[methods];
+        double previous = quantifier(0.0, a, b);
+        for (int k = 1; k <= methods; k++) {
+            double current = quantifier((double) k / methods, a, b);
+            w[k - 1] = current - previous;
+            previous = current;
+        }
+        return w;
+    }
+
+    private static double quantifier(double s, double a, double b) {
+        if (s < a) {
+            return 0.0;
+        }
+        if (s > b) {
+            return 1.0;
+        }
+        // 处理 a == b 的情况，防止除以零
+        return b - a == 0 ? 1.0 : (s - a) / (b - a);
+    }
+
+    /**
+     * 把每个指标在各方法下的权重升序排列，按指标连续存放
+     *
+     * @param data 各方法的权重矩阵（方法数 x 指标数）
+     * @return 长度为 指标数 x 方法数 的数组，第 j 个指标的权重位于 [j · 方法数, (j + 1) · 方法数)
+     */
+    public static double[] sortColumns(double[][] data) {
+        int m = data.length;
+        int n = data[0].length;
+        double[] sorted = new double[n * m];
+        for (int i = 0; i < m; i++) {
+            double[] row = data[i];
+            for (int j = 0, p = i; j < n; j++, p += m) {
+                sorted[p] = row[j];
+            }
+        }
+        for (int j = 0; j < n; j++) {
+            Arrays.sort(sorted, j * m, (j + 1) * m);
+        }
+        return sorted;
+    }
+
+    /**
+     * 以一组位置权重融合已排序的权重并归一化，写入 out[0, 指标数)
+     * <p>
+     * 融合后的权重总和为 0 时无法归一化，out 中保留未归一化的值。
+     *
+     * @param sorted 由 {@link #sortColumns} 得到的升序权重
+     * @param w      位置权重，长度为方法数，w[0] 对应最大的权重
+     * @param out    结果，长度为指标数
+     */
+    public static void fuse(double[] sorted, double[] w, double[] out) {
+        int m = w.length;
+        int n = out.length;
+        for (int j = 0, base = m - 1; j < n; j++, base += m) {
+            double weightedSum = 0;
+            for (int k = 0; k < m; k++) {
+                weightedSum += w[k] * sorted[base - k];
+            }
+            out[j] = weightedSum;
+        }
+
+        double sum = Arrays.stream(out).sum();
+        if (sum == 0) {
+            return;
+        }
+        for (int j = 0; j < n; j++) {
+            out[j] = out[j] / sum;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.sfq.ecosystem.model;
+
+import java.util.Arrays;
+
+/**
+ * 记录ID与矩阵行号的双向索引，配合 {@link MappedColumnMatrix} 使用
+ * <p>
+ * 行号 → 记录ID 保存在 int 数组中；记录ID → 行号为线性探测的开放定址散列表，键与值都是 int 数组，
+ * 删除时向前搬移后续槽位而不留墓碑。每行约占 4 字节加上散列表的 8~16 字节，
+ * 不再像 List&lt;Integer&gt; 与 HashMap&lt;Integer, Integer&gt; 那样每行产生三个对象与一个链表节点。
+ * 删除行时与矩阵一致，以最后一行填补被删除的行。
+ * <p>
+ * 本类不是线程安全的，由调用方负责同步。
+ */
+public final class RowIdIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] rowIds = new int[INITIAL_CAPACITY];
+    private int rows;
+    // 散列槽：keys 为记录ID，values 为行号加一，0 表示空槽
+    private int[] keys = new int[INITIAL_CAPACITY * 2];
+    private int[] values = new int[INITIAL_CAPACITY * 2];
+
+    public int size() {
+        return rows;
+    }
+
+    /**
+     * 返回记录所在的行号，记录不在索引中时返回 -1
+     */
+    public int rowOf(int id) {
+        int mask = keys.length - 1;
+        for (int slot = mix(id) & mask; values[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == id) {
+                return values[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    public int idAt(int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("行号越界: " + row);
+        }
+        return rowIds[row];
+    }
+
+    /**
+     * 在末尾追加一行，返回其行号
+     */
+    public int append(int id) {
+        if (rowOf(id) >= 0) {
+            throw new IllegalArgumentException("记录已在索引中: " + id);
+        }
+        if (rows == rowIds.length) {
+            rowIds = Arrays.copyOf(rowIds, rows * 2);
+            rehash(keys.length * 2);
+        }
+        rowIds[rows] = id;
+        put(id, rows);
+        return rows++;
+    }
+
+    /**
+     * 删除记录，以最后一行填补其位置；返回被删除的行号，记录不在索引中时返回 -1
+     */
+    public int remove(int id) {
+        int row = rowOf(id);
+        if (row < 0) {
+            return -1;
+        }
+        delete(id);
+        int last = --rows;
+        if (row != last) {
+            int moved = rowIds[last];
+            rowIds[row] = moved;
+            put(moved, row);
+        }
+        return row;
+    }
+
+    private void put(int id, int row) {
+        int mask = keys.length - 1;
+        int slot = mix(id) & mask;
+        while (values[slot] != 0 && keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = id;
+        values[slot] = row + 1;
+    }
+
+    private void delete(int id) {
+        int mask = keys.length - 1;
+        int slot = mix(id) & mask;
+        while (keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        // 把探测链上后续的槽位前移，保证其余记录仍能从各自的起始槽位找到
+        int next = (slot + 1) & mask;
+        while (values[next] != 0) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[slot] = 0;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != 0) {
+                put(oldKeys[i], oldValues[i] - 1);
+            }
+        }
+    }
+
+    // 自增ID是连续整数，打散后再取低位，避免聚集在相邻槽位
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
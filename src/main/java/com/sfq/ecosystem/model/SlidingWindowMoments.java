@@ -0,0 +1,187 @@
+package com.sfq.ecosystem.model;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * 最近 N 条记录的滑动窗口均值与协离差矩阵
+ * <p>
+ * 用 Welford 式的增删公式维护：加入一行 x 时 C += (x − 旧均值)(x − 新均值)ᵀ，移出一行时做相反的更新，
+ * 每条记录的开销为 O(指标数²)，与窗口长度无关。窗口已满时加入新行会先移出最早的一行。
+ * <p>
+ * 增删累积的舍入误差由定期重算消除：每移出 capacity 条记录后按窗口内的数据重新计算一次，
+ * 摊到每条记录上仍是 O(指标数²)。此外逐列记录最近一次取值变化的位置，窗口内某列取值全部相同时
+ * 直接把该列的离差与协离差置零，与一次性计算一样严格识别常量列。
+ * <p>
+ * 每次窗口内容变化时版本号递增，调用方可以据此缓存由窗口推导的结果（如主成分分解）。
+ * 本类不是线程安全的，由调用方负责同步。
+ */
+public final class SlidingWindowMoments {
+
+    private final int columns;
+    private final int capacity;
+    private final Deque<double[]> window;
+    private final double[] means;
+    // 协离差矩阵 Σ(x_j − mean_j)(x_k − mean_k)，按 j * columns + k 存放
+    private final double[] coMoments;
+    private final double[] before;
+    private long version;
+    // 上次重算以来移出的记录数
+    private int removedSinceResync;
+    // 已加入的记录总数；各列最后一次加入的值，以及取值与前一条不同的最后一条记录的序号
+    private long addedCount;
+    private final double[] lastValues;
+    private final long[] lastChanges;
+
+    /**
+     * @param columns  指标数
+     * @param capacity 窗口长度（最近的记录条数）
+     */
+    public SlidingWindowMoments(int columns, int capacity) {
+        if (columns < 1 || capacity < 1) {
+            throw new IllegalArgumentException("指标数与窗口长度必须大于 0。");
+        }
+        this.columns = columns;
+        this.capacity = capacity;
+        this.window = new ArrayDeque<>(capacity);
+        this.means = new double[columns];
+        this.coMoments = new double[columns * columns];
+        this.before = new double[columns];
+        this.lastValues = new double[columns];
+        this.lastChanges = new long[columns];
+    }
+
+    /**
+     * 加入一条最新的记录，窗口已满时先移出最早的一条
+     */
+    public void add(double[] row) {
+        if (row.length != columns) {
+            throw new IllegalArgumentException("数据长度 " + row.length + " 与指标数 " + columns + " 不一致。");
+        }
+        if (window.size() == capacity) {
+            removeOldest();
+        }
+        double[] copy = row.clone();
+        window.addLast(copy);
+        int count = window.size();
+        for (int j = 0; j < columns; j++) {
+            before[j] = copy[j] - means[j];
+            means[j] += before[j] / count;
+        }
+        update(copy, 1);
+        for (int j = 0; j < columns; j++) {
+            if (addedCount == 0 || Double.compare(copy[j], lastValues[j]) != 0) {
+                lastChanges[j] = addedCount;
+            }
+            lastValues[j] = copy[j];
+        }
+        addedCount++;
+        snapConstantColumns();
+        version++;
+    }
+
+    /**
+     * 移出窗口中最早的一条记录
+     */
+    public void removeOldest() {
+        double[] oldest = window.pollFirst();
+        if (oldest == null) {
+            throw new IllegalStateException("窗口中没有数据。");
+        }
+        int count = window.size();
+        if (count == 0) {
+            clear();
+            return;
+        }
+        for (int j = 0; j < columns; j++) {
+            before[j] = oldest[j] - means[j];
+            means[j] -= before[j] / count;
+        }
+        update(oldest, -1);
+        snapConstantColumns();
+        version++;
+        if (++removedSinceResync >= capacity) {
+            resync();
+        }
+    }
+
+    public void clear() {
+        window.clear();
+        Arrays.fill(means, 0);
+        Arrays.fill(coMoments, 0);
+        removedSinceResync = 0;
+        addedCount = 0;
+        version++;
+    }
+
+    /**
+     * 按窗口内的数据重新计算均值与协离差矩阵，消除增删累积的舍入误差
+     */
+    public void resync() {
+        removedSinceResync = 0;
+        if (window.isEmpty()) {
+            return;
+        }
+        ColumnStatistics exact = ColumnStatistics.of(window.toArray(new double[0][]), false, true);
+        for (int j = 0; j < columns; j++) {
+            means[j] = exact.mean(j);
+            for (int k = 0; k < columns; k++) {
+                coMoments[j * columns + k] = exact.coMoment(j, k);
+            }
+        }
+    }
+
+    public int size() { return window.size(); }
+    public int capacity() { return capacity; }
+    public int columns() { return columns; }
+    public double mean(int j) { return means[j]; }
+    public double coMoment(int j, int k) { return coMoments[j * columns + k]; }
+
+    /** 窗口内容每变化一次递增 */
+    public long version() { return version; }
+
+    /**
+     * 当前窗口的列统计量快照（含协离差矩阵，不含熵权项与最小值），供 CRITIC 与主成分分析使用
+     */
+    public ColumnStatistics toStatistics() {
+        if (window.isEmpty()) {
+            throw new IllegalStateException("窗口中没有数据。");
+        }
+        return ColumnStatistics.fromMoments(window.size(), means, coMoments);
+    }
+
+    // 窗口内取值全部相同的列：均值取该值，离差与协离差严格为零
+    private void snapConstantColumns() {
+        long first = addedCount - window.size();
+        for (int j = 0; j < columns; j++) {
+            if (lastChanges[j] <= first) {
+                means[j] = lastValues[j];
+                for (int k = 0; k < columns; k++) {
+                    coMoments[j * columns + k] = 0;
+                    coMoments[k * columns + j] = 0;
+                }
+            }
+        }
+    }
+
+    // before 为该行与更新前均值之差，means 已是更新后的均值；加入时 sign = 1，移出时 sign = −1
+    private void update(double[] row, int sign) {
+        for (int j = 0; j < columns; j++) {
+            double dj = before[j];
+            int base = j * columns;
+            for (int k = j; k < columns; k++) {
+                coMoments[base + k] += sign * dj * (row[k] - means[k]);
+            }
+        }
+        for (int j = 0; j < columns; j++) {
+            // 舍入误差可能使对角线略小于零
+            if (coMoments[j * columns + j] < 0) {
+                coMoments[j * columns + j] = 0;
+            }
+            for (int k = j + 1; k < columns; k++) {
+                coMoments[k * columns + j] = coMoments[j * columns + k];
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.sfq.ecosystem.repository;
+
+import com.sfq.ecosystem.entity.EvaluationConfigRecord;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Mapper
+@Repository
+public interface EvaluationConfigMapper {
+
+    void insertBatch(@Param("list") List<EvaluationConfigRecord> records);
+
+    /**
+     * 最新的配置版本号，尚无任何版本时返回 null
+     */
+    Long findLatestVersion();
+
+    /**
+     * 查询某个配置版本下全部评估类型的配置
+     */
+    List<EvaluationConfigRecord> findByVersion(@Param("version") long version);
+}
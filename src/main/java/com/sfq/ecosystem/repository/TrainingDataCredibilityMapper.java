@@ -0,0 +1,48 @@
+package com.sfq.ecosystem.repository;
+
+import com.sfq.ecosystem.entity.TrainingDataCredibility;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Mapper
+@Repository
+public interface TrainingDataCredibilityMapper {
+
+    void insertBatch(@Param("list") List<TrainingDataCredibility> credibilities);
+
+    /**
+     * 删除某条记录在某个子系统下指定层的可信度得分
+     */
+    int deleteLayers(@Param("trainingDataId") Integer trainingDataId,
+                     @Param("evaluationType") String evaluationType,
+                     @Param("layerIndices") List<Integer> layerIndices);
+
+    /**
+     * 删除某条记录在某个子系统下全部层的可信度得分
+     */
+    int deleteByEvaluationType(@Param("trainingDataId") Integer trainingDataId,
+                               @Param("evaluationType") String evaluationType);
+
+    /**
+     * 逐行读取某个子系统的全部可信度得分，按记录、层、等级排序，每行附带记录评估时的配置版本；
+     * 流式读取期间同一连接上不能执行其他语句
+     */
+    void scanByEvaluationType(@Param("evaluationType") String evaluationType,
+                              ResultHandler<TrainingDataCredibility> handler);
+
+    /**
+     * 读取某个子系统下ID大于 afterId 的前 limit 条记录的全部可信度得分，排序与附带的配置版本同 {@link #scanByEvaluationType}；
+     * 没有任何得分的记录不计入条数
+     */
+    void scanPageByEvaluationType(@Param("evaluationType") String evaluationType, @Param("afterId") int afterId,
+                                  @Param("limit") int limit, ResultHandler<TrainingDataCredibility> handler);
+
+    /**
+     * 查询在某个子系统下没有任何可信度得分的记录ID，按ID排序
+     */
+    List<Integer> findIdsWithoutCredibilities(@Param("evaluationType") String evaluationType);
+}
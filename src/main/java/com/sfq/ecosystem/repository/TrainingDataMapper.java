@@ -4,6 +4,7 @@ import com.sfq.ecosystem.dto.DateRangeQueryInfoDTO;
 import com.sfq.ecosystem.entity.TrainingData;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -37,6 +38,12 @@ public interface TrainingDataMapper {
 
     List<TrainingData> findLatestFive();
 
+    /**
+     * 按录入时间倒序获取最近的若干条记录
+     * @param limit 记录条数
+     */
+    List<TrainingData> findRecent(@Param("limit") int limit);
+
     // *** 新增CRUD方法 ***
     void insert(TrainingData trainingData);
     int update(TrainingData trainingData);
@@ -49,4 +56,35 @@ public interface TrainingDataMapper {
      * @return 找到的TrainingData实体
      */
     TrainingData findById(@Param("id") Integer id);
+
+    /**
+     * 按ID顺序逐行扫描全部训练数据，不在内存中保留整张表
+     * @param handler 每读到一行回调一次
+     */
+    void scanAll(ResultHandler<TrainingData> handler);
+
+    /**
+     * 按ID顺序分批读取评估时所用配置版本早于 sinceVersion 的记录（含未记录版本的记录）
+     * @param sinceVersion 配置版本号
+     * @param afterId 只读取ID大于该值的记录
+     * @param limit 记录条数
+     */
+    List<TrainingData> findStale(@Param("sinceVersion") long sinceVersion, @Param("afterId") int afterId,
+                                 @Param("limit") int limit);
+
+    /**
+     * 重新定级时只写回等级列与配置版本号，不触及原始指标
+     * <p>
+     * levels 中为 null 的等级列保持不变；仅当记录的配置版本号仍为 expectedVersion（null 表示未记录版本）时才写入，
+     * 读取之后记录已被修改或删除时不更新任何行。
+     * @param levels 记录ID、重新评估的子系统各层等级与新的配置版本号
+     * @param expectedVersion 读取记录时的配置版本号
+     * @return 更新的行数
+     */
+    int updateLevels(@Param("levels") TrainingData levels, @Param("expectedVersion") Long expectedVersion);
+
+    /**
+     * 统计评估时所用配置版本早于 sinceVersion 的记录条数（含未记录版本的记录）
+     */
+    long countStale(@Param("sinceVersion") long sinceVersion);
 }
\ No newline at end of file
@@ -1,7 +1,20 @@
 package com.sfq.ecosystem.service;
 
+import com.sfq.ecosystem.model.ColumnStatistics;
+import com.sfq.ecosystem.model.MappedColumnMatrix;
+
 import java.util.Arrays;
 
 public interface CriticService {
     double[] criticMethod(double[][] data);
+
+    /**
+     * 由预先计算好的列统计量计算 CRITIC 权重，统计量需包含协离差矩阵
+     */
+    double[] criticMethod(ColumnStatistics stats);
+
+    /**
+     * 直接按列扫描内存映射的数据矩阵计算 CRITIC 权重
+     */
+    double[] criticMethod(MappedColumnMatrix matrix);
 }
\ No newline at end of file
@@ -1,7 +1,26 @@
 package com.sfq.ecosystem.service;
 
+import com.sfq.ecosystem.model.ColumnStatistics;
+import com.sfq.ecosystem.model.EntropyAccumulator;
+import com.sfq.ecosystem.model.MappedColumnMatrix;
+
 import java.util.Arrays;
 
 public interface EntropyWeightService {
     double[] entropyWeightMethod(double[][] X);
+
+    /**
+     * 由预先计算好的列统计量计算熵权，统计量需包含熵权项
+     */
+    double[] entropyWeightMethod(ColumnStatistics stats);
+
+    /**
+     * 由增量累加器的当前状态计算熵权
+     */
+    double[] entropyWeightMethod(EntropyAccumulator accumulator);
+
+    /**
+     * 直接按列扫描内存映射的数据矩阵计算熵权
+     */
+    double[] entropyWeightMethod(MappedColumnMatrix matrix);
 }
\ No newline at end of file
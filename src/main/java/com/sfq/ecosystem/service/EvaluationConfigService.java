@@ -0,0 +1,35 @@
+package com.sfq.ecosystem.service;
+
+import com.sfq.ecosystem.model.EvaluationType;
+import com.sfq.ecosystem.service.strategy.ConfigVersion;
+import com.sfq.ecosystem.service.strategy.IEvaluationStrategy;
+
+/**
+ * 评估配置版本服务接口
+ * <p>
+ * 记录各评估类型的指标权重、指标边界、判断阈值与准则层分组的每一个版本，
+ * 每条训练数据据此记录评估时所用的配置版本。
+ */
+public interface EvaluationConfigService {
+
+    /**
+     * 当前的配置版本，与评估引擎正在使用的策略一致
+     */
+    ConfigVersion getCurrentVersion();
+
+    /**
+     * 指定的配置版本
+     *
+     * @return 该版本不存在时返回 null
+     */
+    ConfigVersion getVersion(long version);
+
+    /**
+     * 替换某个评估类型的策略；配置发生变化时先记录新版本，再发布到评估引擎
+     *
+     * @param evaluationType 评估类型
+     * @param strategy       新策略
+     * @return 替换后的当前配置版本；配置没有变化时仍为原版本
+     */
+    ConfigVersion register(EvaluationType evaluationType, IEvaluationStrategy strategy);
+}
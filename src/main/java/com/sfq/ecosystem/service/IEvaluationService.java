@@ -1,7 +1,12 @@
 package com.sfq.ecosystem.service;
 
+import com.sfq.ecosystem.model.BatchEvaluationResult;
+import com.sfq.ecosystem.model.CredibilityReport;
+import com.sfq.ecosystem.model.EvaluationResult;
 import com.sfq.ecosystem.model.EvaluationType;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 协同生态系统评估服务接口 (已更新)
@@ -13,4 +18,25 @@ public interface IEvaluationService {
     // *** 新增方法: 直接根据传入的原始数据数组进行准则层评估 ***
     Map<String, String> evaluateCriterionLayer(double[] rawData, EvaluationType evaluationType);
 
-}
\ No newline at end of file
+    // 一次性评估目标层与全部准则层，共享各指标的中间计算结果
+    EvaluationResult evaluateAllLayers(double[] rawData, EvaluationType evaluationType);
+
+    // 计算目标层与各准则层五个等级的可信度及其得分，可按不同阈值反复定级
+    CredibilityReport evaluateCredibilities(double[] rawData, EvaluationType evaluationType);
+
+    // 同上，但只计算目标层与指定名称的准则层（为 null 表示全部）
+    CredibilityReport evaluateCredibilities(double[] rawData, EvaluationType evaluationType, Set<String> criterionNames);
+
+    // 批量评估 样本数 x 指标数 的矩阵，返回每一行的目标层与准则层等级
+    BatchEvaluationResult evaluateBatch(double[][] samples, EvaluationType evaluationType);
+
+    // 评估等级名称，从低到高
+    List<String> getLevelNames();
+
+    // 对策略内置的全部样本进行目标层评估，返回 样本名 -> 等级
+    Map<String, String> evaluateAllTargetSamples(EvaluationType evaluationType);
+
+    // 对策略内置的全部样本进行准则层评估，返回 样本名 -> (准则层名称 -> 等级)
+    Map<String, Map<String, String>> evaluateAllCriterionSamples(EvaluationType evaluationType);
+
+}
@@ -1,5 +1,8 @@
 package com.sfq.ecosystem.service;
 
+import com.sfq.ecosystem.model.ColumnStatistics;
+import com.sfq.ecosystem.model.MappedColumnMatrix;
+
 import java.util.List;
 
 /**
@@ -18,6 +21,22 @@ public interface IndependenceWeightService {
      */
     double[] independenceWeight(double[][] data);
 
+    /**
+     * 由预先计算好的列统计量（需包含协离差矩阵）计算全部指标的独立性权重。
+     *
+     * @param stats 数据矩阵的列统计量
+     * @return 包含每个指标权重的数组，总和为 1。
+     */
+    double[] independenceWeight(ColumnStatistics stats);
+
+    /**
+     * 直接按列扫描内存映射的数据矩阵计算全部指标的独立性权重。
+     *
+     * @param matrix 按列存储的数据矩阵 (样本数 x 指标数)
+     * @return 包含每个指标权重的数组，总和为 1。
+     */
+    double[] independenceWeight(MappedColumnMatrix matrix);
+
     /**
      * 根据分块定义，计算所有指标的最终权重。
      *
@@ -26,4 +45,13 @@ public interface IndependenceWeightService {
      * @return 归一化后的最终权重数组，其长度等于总列数。
      */
     double[] calculateFinalWeights(double[][] standardizedData, List<Integer> splitCols);
+
+    /**
+     * 同上，但各分块直接取用同一份列统计量（需包含协离差矩阵）。
+     *
+     * @param stats     标准化后完整数据矩阵的列统计量。
+     * @param splitCols 定义每个分块列数的列表。
+     * @return 归一化后的最终权重数组，其长度等于总列数。
+     */
+    double[] calculateFinalWeights(ColumnStatistics stats, List<Integer> splitCols);
 }
\ No newline at end of file
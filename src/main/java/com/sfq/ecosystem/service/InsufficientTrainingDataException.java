@@ -0,0 +1,35 @@
+package com.sfq.ecosystem.service;
+
+import com.sfq.ecosystem.model.EvaluationType;
+
+/**
+ * 训练数据不足以计算指标权重
+ * <p>
+ * 这是调用方可以通过补充数据解决的情况，与计算过程中出现无效权重等内部错误区分开。
+ */
+public class InsufficientTrainingDataException extends IllegalStateException {
+
+    private final EvaluationType evaluationType;
+    private final int rows;
+    private final int requiredRows;
+
+    public InsufficientTrainingDataException(EvaluationType evaluationType, int rows, int requiredRows) {
+        super("训练数据不足 " + requiredRows + " 条（当前 " + rows + " 条），无法计算 "
+                + evaluationType.getDescription() + " 的指标权重。");
+        this.evaluationType = evaluationType;
+        this.rows = rows;
+        this.requiredRows = requiredRows;
+    }
+
+    public EvaluationType getEvaluationType() {
+        return evaluationType;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getRequiredRows() {
+        return requiredRows;
+    }
+}
@@ -12,7 +12,7 @@ public interface OwaWeightFusionService {
      * 该方法接收一个包含多种评价方法权重的二维数组，并使用OWA算子进行融合，
      * 最终得出一个综合的权重向量。
      *
-     * @param data 各方法的权重矩阵，预期是一个 5xN 的二维数组 (5种方法, N个指标)。
+     * @param data 各方法的权重矩阵，预期是一个 MxN 的二维数组 (M种方法, N个指标)。
      * @param a    生成函数下界参数，取值范围 [0, 1]，且 a <= b。
      * @param b    生成函数上界参数，取值范围 [0, 1]，且 a <= b。
      * @return 融合后的综合权重向量 (一维数组)。
@@ -23,8 +23,19 @@ public interface OwaWeightFusionService {
      * OWA权重融合主函数的重载方法，使用默认的 a 和 b 参数。
      * 默认 a=0.3, b=0.7。
      *
-     * @param data 各方法的权重矩阵，预期是一个 5xN 的二维数组 (5种方法, N个指标)。
+     * @param data 各方法的权重矩阵，预期是一个 MxN 的二维数组 (M种方法, N个指标)。
      * @return 融合后的综合权重向量 (一维数组)。
      */
     double[] owaWeightFusion(double[][] data);
+
+    /**
+     * 按多组 (a, b) 参数分别融合，用于参数的网格搜索。
+     * 各指标的权重只排序一次，由各组参数共用。
+     *
+     * @param data 各方法的权重矩阵，预期是一个 MxN 的二维数组 (M种方法, N个指标)。
+     * @param a    各组的生成函数下界参数，第 p 组参数为 (a[p], b[p])。
+     * @param b    各组的生成函数上界参数，长度与 a 相同。
+     * @return 融合后的综合权重矩阵，第 p 行为第 p 组参数的结果 (参数组数 x N)。
+     */
+    double[][] owaWeightFusion(double[][] data, double[] a, double[] b);
 }
\ No newline at end of file
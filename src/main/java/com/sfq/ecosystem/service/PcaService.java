@@ -1,5 +1,8 @@
 package com.sfq.ecosystem.service;
 
+import com.sfq.ecosystem.model.ColumnStatistics;
+import com.sfq.ecosystem.model.MappedColumnMatrix;
+
 /**
  * 主成分分析（PCA）赋权服务接口
  */
@@ -12,4 +15,20 @@ public interface PcaService {
      * @return 一个 double 数组，代表计算出的每个指标的权重。
      */
     double[] principalComponentWeighting(double[][] data);
+
+    /**
+     * 由预先计算好的列统计量（需包含协离差矩阵）计算主成分权重。
+     *
+     * @param stats 数据矩阵的列统计量
+     * @return 每个指标的权重。
+     */
+    double[] principalComponentWeighting(ColumnStatistics stats);
+
+    /**
+     * 直接按列扫描内存映射的数据矩阵计算主成分权重。
+     *
+     * @param matrix 按列存储的数据矩阵 (样本数 x 指标数)
+     * @return 每个指标的权重。
+     */
+    double[] principalComponentWeighting(MappedColumnMatrix matrix);
 }
\ No newline at end of file
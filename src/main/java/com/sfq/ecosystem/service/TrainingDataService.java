@@ -2,6 +2,8 @@ package com.sfq.ecosystem.service;
 
 import com.sfq.ecosystem.dto.*;
 import com.sfq.ecosystem.entity.TrainingData;
+import com.sfq.ecosystem.model.EvaluationType;
+import com.sfq.ecosystem.model.MappedColumnMatrix;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,4 +28,74 @@ public interface TrainingDataService {
      * @return 找到的TrainingData实体，否则返回null
      */
     TrainingData findById(Integer id);
+
+    /**
+     * 按一组阈值对指定记录的某个子系统定级，可信度只计算一次
+     * @param id 记录ID
+     * @param evaluationType 评估的子系统
+     * @param thetas 阈值列表
+     * @return 可信度与各阈值下的等级，找不到记录时返回null
+     */
+    ThetaSweepDTO sweepTheta(Integer id, EvaluationType evaluationType, List<Double> thetas);
+
+    /**
+     * 按新的阈值对某个子系统的全部历史记录重新定级，只使用已保存的可信度得分，不修改任何数据；
+     * 得分缺失或不完整的记录不在结果之中，等级已过期的记录标注为过期。按记录ID分页读取
+     * @param evaluationType 评估的子系统
+     * @param theta 新阈值
+     * @param afterId 只处理ID大于该值的记录，第一页为 0
+     * @param limit 本页最多读取的记录条数（含得分不完整的记录），上限 1000
+     * @return 本页每条记录的目标层与准则层等级，按记录ID排序，以及下一页的起点
+     */
+    RegradePageDTO regradeHistory(EvaluationType evaluationType, double theta, int afterId, int limit);
+
+    /**
+     * 为可信度得分缺失或不完整的记录重新计算并补写某个子系统的得分，等级已过期的记录跳过
+     * @param evaluationType 评估的子系统
+     * @return 补写得分的记录条数
+     */
+    int backfillCredibilities(EvaluationType evaluationType);
+
+    /**
+     * 某个子系统的评估配置在记录评估之后发生过变化、等级已过期的记录条数
+     * @param evaluationType 评估的子系统
+     */
+    long countStaleRecords(EvaluationType evaluationType);
+
+    /**
+     * 按当前评估配置重新评估等级已过期的记录，每条记录只重新计算配置发生过变化的子系统
+     * @param limit 本次最多处理的记录条数
+     * @return 实际重新评估的记录条数
+     */
+    int regradeStaleRecords(int limit);
+
+    /**
+     * 按当前全部训练数据计算某个子系统各原始指标的熵权，随记录的增删改增量更新
+     * @param evaluationType 评估的子系统
+     * @return 各原始指标的熵权，顺序与策略中的指标顺序一致
+     */
+    double[] getEntropyWeights(EvaluationType evaluationType);
+
+    /**
+     * 按最近若干条记录（滑动窗口）计算某个子系统各原始指标的 CRITIC 与主成分权重
+     * @param evaluationType 评估的子系统
+     * @return 窗口中的记录条数与两种权重
+     */
+    WindowWeightsDTO getWindowWeights(EvaluationType evaluationType);
+
+    /**
+     * 按当前全部训练数据计算某个子系统各原始指标的熵权、CRITIC、主成分与独立性权重，
+     * 数据按列存放在堆外的内存映射文件中，随新增记录增量追加
+     * @param evaluationType 评估的子系统
+     * @return 记录条数与四种权重
+     */
+    HistoryWeightsDTO getHistoryWeights(EvaluationType evaluationType);
+
+    /**
+     * 某个子系统全部记录的原始指标矩阵（按列存放在内存映射文件中）的只读快照，之后新增的记录对快照不可见；
+     * 用完后须关闭，否则此后修改的块一直保留旧内容的副本
+     * @param evaluationType 评估的子系统
+     * @return 样本数 x 指标数 的矩阵，列顺序与策略中的指标顺序一致
+     */
+    MappedColumnMatrix getHistoryMatrix(EvaluationType evaluationType);
 }
\ No newline at end of file
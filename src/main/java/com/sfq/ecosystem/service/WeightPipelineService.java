@@ -0,0 +1,31 @@
+package com.sfq.ecosystem.service;
+
+import com.sfq.ecosystem.dto.WeightPublicationDTO;
+import com.sfq.ecosystem.model.EvaluationType;
+
+/**
+ * 指标权重流水线服务接口
+ * <p>
+ * 按训练数据重新计算某个子系统的指标权重，融合后发布到评估引擎。
+ */
+public interface WeightPipelineService {
+
+    /**
+     * 读取某个子系统的全部训练数据，并行计算熵权、CRITIC、主成分与独立性权重，
+     * 与策略原有的专家权重一起做 OWA 融合，并以新的计划版本发布到评估引擎。
+     *
+     * @param evaluationType 评估的子系统
+     * @return 各方法的权重、发布的权重、计划版本号与各阶段耗时
+     * @throws InsufficientTrainingDataException 训练数据不足时，不发布任何结果
+     * @throws IllegalStateException 某种方法得不到有效权重时，不发布任何结果
+     */
+    WeightPublicationDTO recomputeWeights(EvaluationType evaluationType);
+
+    /**
+     * 最近一次发布的结果
+     *
+     * @param evaluationType 评估的子系统
+     * @return 尚未发布过时返回 null
+     */
+    WeightPublicationDTO getLatestPublication(EvaluationType evaluationType);
+}
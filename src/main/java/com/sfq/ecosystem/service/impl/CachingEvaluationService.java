@@ -0,0 +1,248 @@
+package com.sfq.ecosystem.service.impl;
+
+import com.sfq.ecosystem.model.BatchEvaluationResult;
+import com.sfq.ecosystem.model.CredibilityReport;
+import com.sfq.ecosystem.model.EvaluationResult;
+import com.sfq.ecosystem.model.EvaluationType;
+import com.sfq.ecosystem.service.IEvaluationService;
+import com.sfq.ecosystem.service.strategy.EvaluationStrategyFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 带缓存的评估服务
+ * <p>
+ * 作为 {@link IEvaluationService} 的首选实现包裹 {@link EvaluationServiceImpl}，
+ * 以 (评估类型, 计划版本号, 原始数据) 为键缓存评估结果，按最近最少使用的顺序淘汰。
+ * 原始数据按位精确比较，任何一位不同都视为不同的输入。
+ * <p>
+ * 各子系统的评估并行进行，读取不加全局锁：结果存放在 {@link ConcurrentHashMap} 中，
+ * 淘汰顺序另由按访问排序的索引维护，写入、淘汰与清空在 evictionLock 下进行。
+ * 命中时只在能立即取得该锁时更新访问顺序，锁被占用时跳过，因此并发读取下的淘汰顺序是近似的最近最少使用。
+ * <p>
+ * 目标层、准则层与一次性全层评估共用同一份 {@link EvaluationResult}；可信度报告单独缓存。
+ * 策略配置变化（计划版本号递增）时整个缓存清空。
+ * 命中、未命中、写入、淘汰与失效次数由 {@link com.sfq.ecosystem.config.EvaluationCacheMetrics} 发布为 Micrometer 指标。
+ */
+@Service
+@Primary
+public class CachingEvaluationService implements IEvaluationService {
+
+    private final EvaluationServiceImpl delegate;
+    private final int maxSize;
+    private final Map<CacheKey, Object> cache = new ConcurrentHashMap<>();
+    // 淘汰顺序，按访问排序，由 evictionLock 保护；键集合与 cache 相同
+    private final Map<CacheKey, Boolean> accessOrder = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private volatile long cachedPlanVersion;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public CachingEvaluationService(EvaluationServiceImpl delegate,
+                                    @Value("${evaluation.cache.max-size:10000}") int maxSize) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.cachedPlanVersion = EvaluationStrategyFactory.getPlanVersion();
+    }
+
+    @Override
+    public String evaluateTargetLayer(double[] rawData, EvaluationType evaluationType) {
+        return evaluateAllLayers(rawData, evaluationType).getTargetLevel();
+    }
+
+    @Override
+    public Map<String, String> evaluateCriterionLayer(double[] rawData, EvaluationType evaluationType) {
+        return new LinkedHashMap<>(evaluateAllLayers(rawData, evaluationType).getCriterionLevels());
+    }
+
+    @Override
+    public EvaluationResult evaluateAllLayers(double[] rawData, EvaluationType evaluationType) {
+        CacheKey key = new CacheKey(Kind.LEVELS, evaluationType, rawData);
+        EvaluationResult result = (EvaluationResult) lookup(key);
+        if (result == null) {
+            result = delegate.evaluateAllLayers(rawData, evaluationType);
+            store(key, result);
+        }
+        return result;
+    }
+
+    @Override
+    public CredibilityReport evaluateCredibilities(double[] rawData, EvaluationType evaluationType) {
+        CacheKey key = new CacheKey(Kind.CREDIBILITIES, evaluationType, rawData);
+        CredibilityReport report = (CredibilityReport) lookup(key);
+        if (report == null) {
+            report = delegate.evaluateCredibilities(rawData, evaluationType);
+            store(key, report);
+        }
+        return report;
+    }
+
+    // 只计算部分准则层的请求用于增量更新，不经过缓存
+    @Override
+    public CredibilityReport evaluateCredibilities(double[] rawData, EvaluationType evaluationType, Set<String> criterionNames) {
+        if (criterionNames == null) {
+            return evaluateCredibilities(rawData, evaluationType);
+        }
+        return delegate.evaluateCredibilities(rawData, evaluationType, criterionNames);
+    }
+
+    // 批量评估面向一次性的大矩阵，不经过缓存
+    @Override
+    public BatchEvaluationResult evaluateBatch(double[][] samples, EvaluationType evaluationType) {
+        return delegate.evaluateBatch(samples, evaluationType);
+    }
+
+    @Override
+    public List<String> getLevelNames() {
+        return delegate.getLevelNames();
+    }
+
+    @Override
+    public Map<String, String> evaluateAllTargetSamples(EvaluationType evaluationType) {
+        return delegate.evaluateAllTargetSamples(evaluationType);
+    }
+
+    @Override
+    public Map<String, Map<String, String>> evaluateAllCriterionSamples(EvaluationType evaluationType) {
+        return delegate.evaluateAllCriterionSamples(evaluationType);
+    }
+
+    public long getHitCount() { return hits.sum(); }
+    public long getMissCount() { return misses.sum(); }
+    public long getEvictionCount() { return evictions.sum(); }
+    public long getPutCount() { return puts.sum(); }
+    // 因策略配置变化而整体清空的次数
+    public long getInvalidationCount() { return invalidations.sum(); }
+
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        evictionLock.lock();
+        try {
+            cache.clear();
+            accessOrder.clear();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private Object lookup(CacheKey key) {
+        checkPlanVersion();
+        Object value = cache.get(key);
+        if (value == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        if (evictionLock.tryLock()) {
+            try {
+                accessOrder.get(key);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        return value;
+    }
+
+    private void store(CacheKey key, Object value) {
+        // 计算期间策略配置可能已变化，此时的结果已过期，不再写入
+        if (key.planVersion != EvaluationStrategyFactory.getPlanVersion()) {
+            return;
+        }
+        evictionLock.lock();
+        try {
+            checkPlanVersion();
+            cache.put(key, value);
+            accessOrder.put(key, Boolean.TRUE);
+            Iterator<CacheKey> eldest = accessOrder.keySet().iterator();
+            while (accessOrder.size() > maxSize) {
+                cache.remove(eldest.next());
+                eldest.remove();
+                evictions.increment();
+            }
+            puts.increment();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    // 版本号未变时只读一次 volatile 字段，变化时在 evictionLock 下清空
+    private void checkPlanVersion() {
+        long current = EvaluationStrategyFactory.getPlanVersion();
+        if (current == cachedPlanVersion) {
+            return;
+        }
+        evictionLock.lock();
+        try {
+            current = EvaluationStrategyFactory.getPlanVersion();
+            if (current != cachedPlanVersion) {
+                cache.clear();
+                accessOrder.clear();
+                cachedPlanVersion = current;
+                invalidations.increment();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private enum Kind { LEVELS, CREDIBILITIES }
+
+    /**
+     * 缓存键：原始数据复制一份保存，避免调用方之后修改数组影响缓存
+     */
+    private static final class CacheKey {
+        private final Kind kind;
+        private final EvaluationType type;
+        private final long planVersion;
+        private final double[] rawData;
+        private final int hash;
+
+        CacheKey(Kind kind, EvaluationType type, double[] rawData) {
+            this.kind = kind;
+            this.type = type;
+            this.planVersion = EvaluationStrategyFactory.getPlanVersion();
+            this.rawData = rawData.clone();
+            int h = kind.hashCode();
+            h = 31 * h + Objects.hashCode(type);
+            h = 31 * h + Long.hashCode(planVersion);
+            h = 31 * h + Arrays.hashCode(this.rawData);
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CacheKey)) return false;
+            CacheKey other = (CacheKey) o;
+            return kind == other.kind && type == other.type && planVersion == other.planVersion
+                    && Arrays.equals(rawData, other.rawData);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.sfq.ecosystem.service.impl;
+
+import com.sfq.ecosystem.dto.RegradeResultDTO;
+import com.sfq.ecosystem.entity.TrainingDataCredibility;
+import com.sfq.ecosystem.model.FfnScores;
+import com.sfq.ecosystem.model.LayerCredibility;
+import com.sfq.ecosystem.service.strategy.EvaluationConfig;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 逐行读取某个子系统保存的可信度得分，按新阈值为每条记录重新定级
+ * <p>
+ * 得分行须按 (记录, 层, 等级) 排序流入，同一时刻只保留当前一层的得分。
+ * 每一层按等级下标存放得分，必须恰好包含全部等级；每条记录必须恰好包含目标层与全部准则层 (层序号 0..layers-1)。
+ * 任何一层缺少或重复了等级、或者缺少某一层的记录都不产生结果，而是记入 {@link #getIncomplete()}，
+ * 由调用方重新计算可信度后补写。
+ * 记录评估之后该子系统的配置已变化时，得分是按旧配置计算的，结果照常给出但标注为过期。
+ */
+public class CredibilityRegrader implements ResultHandler<TrainingDataCredibility> {
+
+    private final double theta;
+    private final EvaluationConfig config;
+    private final String[] levelNames;
+    private final int layers;
+    private final int fullMask;
+    private final FfnScores scores;
+
+    private final Map<Integer, RegradeResultDTO> results = new TreeMap<>();
+    private final List<Integer> incomplete = new ArrayList<>();
+
+    // 已读到的记录条数（含不完整的记录）与最后一条记录的ID
+    private int recordCount;
+    private Integer lastRecordId;
+
+    // 当前记录与当前层
+    private Integer recordId;
+    private RegradeResultDTO current;
+    private boolean recordValid;
+    private int nextLayer;
+    private int layerIndex = -1;
+    private String layerName;
+    private int levelMask;
+
+    /**
+     * @param theta      新阈值
+     * @param config     该子系统当前的评估配置，用于判断记录是否过期
+     * @param levelNames 等级名称，从低到高
+     * @param layers     每条记录应有的层数（目标层加全部准则层）
+     */
+    public CredibilityRegrader(double theta, EvaluationConfig config, String[] levelNames, int layers) {
+        this.theta = theta;
+        this.config = config;
+        this.levelNames = levelNames.clone();
+        this.layers = layers;
+        this.fullMask = (1 << levelNames.length) - 1;
+        this.scores = new FfnScores(levelNames.length);
+    }
+
+    @Override
+    public void handleResult(ResultContext<? extends TrainingDataCredibility> context) {
+        accept(context.getResultObject());
+    }
+
+    /**
+     * 处理下一行得分
+     */
+    public void accept(TrainingDataCredibility row) {
+        if (!row.getTrainingDataId().equals(recordId)) {
+            finishRecord();
+            recordId = row.getTrainingDataId();
+            recordCount++;
+            lastRecordId = recordId;
+            current = new RegradeResultDTO(recordId, null, new LinkedHashMap<>(), config.isStale(row.getConfigVersion()));
+            recordValid = true;
+            nextLayer = 0;
+            layerIndex = -1;
+        }
+        if (row.getLayerIndex() != layerIndex) {
+            finishLayer();
+            layerIndex = row.getLayerIndex();
+            layerName = row.getLayerName();
+            levelMask = 0;
+        }
+        int level = row.getLevel();
+        if (level < 0 || level >= levelNames.length || (levelMask & (1 << level)) != 0) {
+            recordValid = false;
+            return;
+        }
+        levelMask |= 1 << level;
+        scores.set(level, row.getScoreS(), row.getScoreH(), row.getScoreMu(), row.getScoreHu());
+    }
+
+    /**
+     * 结束最后一条记录，返回能够重新定级的记录，按记录ID排序
+     */
+    public Map<Integer, RegradeResultDTO> finish() {
+        finishRecord();
+        recordId = null;
+        return results;
+    }
+
+    /** 已读到的记录条数，包括得分不完整、不在结果之中的记录 */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /** 最后读到的记录ID，尚未读到任何记录时为 null */
+    public Integer getLastRecordId() {
+        return lastRecordId;
+    }
+
+    /** 得分缺层或缺等级、需要重新计算可信度的记录ID */
+    public List<Integer> getIncomplete() {
+        return incomplete;
+    }
+
+    private void finishLayer() {
+        if (layerIndex < 0) {
+            return;
+        }
+        // 层须从 0 开始连续编号，且每层恰好包含全部等级
+        if (layerIndex != nextLayer || levelMask != fullMask) {
+            recordValid = false;
+        }
+        nextLayer = layerIndex + 1;
+        if (!recordValid) {
+            return;
+        }
+        String level = LayerCredibility.resolveLevel(scores, 0, theta, levelNames);
+        if (layerIndex == 0) {
+            current.setTargetLevel(level);
+        } else {
+            current.getCriterionLevels().put(layerName, level);
+        }
+    }
+
+    private void finishRecord() {
+        if (recordId == null) {
+            return;
+        }
+        finishLayer();
+        layerIndex = -1;
+        if (recordValid && nextLayer == layers) {
+            results.put(recordId, current);
+        } else {
+            incomplete.add(recordId);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.sfq.ecosystem.service.impl;
 
+import com.sfq.ecosystem.model.ColumnStatistics;
+import com.sfq.ecosystem.model.MappedColumnMatrix;
 import com.sfq.ecosystem.service.CriticService;
 
 import java.util.Arrays;
@@ -14,24 +16,31 @@ public class CriticServiceImpl implements CriticService {
             return null;
         }
 
-        int nSamples = data.length;
-        int nCriteria = data[0].length;
+        return criticMethod(ColumnStatistics.of(data, false, true));
+    }
+
+    @Override
+    public double[] criticMethod(MappedColumnMatrix matrix) {
+        if (matrix == null || matrix.rows() < 2 || matrix.columns() < 2) {
+            System.out.println("错误：输入数据必须是一个至少包含2个样本和2个指标的二维数组。");
+            return null;
+        }
+        return criticMethod(ColumnStatistics.of(matrix, false, true));
+    }
+
+    @Override
+    public double[] criticMethod(ColumnStatistics stats) {
+        if (stats.rows() < 2 || stats.columns() < 2) {
+            System.out.println("错误：输入数据必须是一个至少包含2个样本和2个指标的二维数组。");
+            return null;
+        }
+
+        int nCriteria = stats.columns();
 
         // 1. 变异性计算 (标准差)
         double[] stdDev = new double[nCriteria];
         for (int j = 0; j < nCriteria; j++) {
-            double mean = 0;
-            for (int i = 0; i < nSamples; i++) {
-                mean += data[i][j];
-            }
-            mean /= nSamples;
-
-            double variance = 0;
-            for (int i = 0; i < nSamples; i++) {
-                variance += Math.pow(data[i][j] - mean, 2);
-            }
-            variance /= nSamples;
-            stdDev[j] = Math.sqrt(variance);
+            stdDev[j] = stats.standardDeviation(j);
         }
 
         // 检查是否有标准差为零的列（常量列）
@@ -46,34 +55,12 @@ public class CriticServiceImpl implements CriticService {
             System.out.println("警告：数据中存在标准差为零的指标（常量列）。");
         }
 
-        // 2. 冲突性计算 (基于相关系数)
+        // 2. 冲突性计算 (基于相关系数)，常量列与任何指标的相关系数记为 0
         double[][] corrMatrix = new double[nCriteria][nCriteria];
         for (int j = 0; j < nCriteria; j++) {
             for (int k = 0; k < nCriteria; k++) {
-                double numerator = 0;
-                double denominator1 = 0;
-                double denominator2 = 0;
-
-                double meanJ = 0;
-                double meanK = 0;
-                for (int i = 0; i < nSamples; i++) {
-                    meanJ += data[i][j];
-                    meanK += data[i][k];
-                }
-                meanJ /= nSamples;
-                meanK /= nSamples;
-
-                for (int i = 0; i < nSamples; i++) {
-                    numerator += (data[i][j] - meanJ) * (data[i][k] - meanK);
-                    denominator1 += Math.pow(data[i][j] - meanJ, 2);
-                    denominator2 += Math.pow(data[i][k] - meanK, 2);
-                }
-
-                if (denominator1 == 0 || denominator2 == 0) {
-                    corrMatrix[j][k] = 0;
-                } else {
-                    corrMatrix[j][k] = numerator / Math.sqrt(denominator1 * denominator2);
-                }
+                double r = stats.correlation(j, k);
+                corrMatrix[j][k] = Double.isNaN(r) ? 0 : r;
             }
         }
 
@@ -1,8 +1,12 @@
 package com.sfq.ecosystem.service.impl;
 
+import com.sfq.ecosystem.model.ColumnStatistics;
+import com.sfq.ecosystem.model.EntropyAccumulator;
+import com.sfq.ecosystem.model.MappedColumnMatrix;
 import com.sfq.ecosystem.service.EntropyWeightService;
 
 import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
 
 public class EntropyWeightServiceImpl implements EntropyWeightService {
 
@@ -15,17 +19,36 @@ public class EntropyWeightServiceImpl implements EntropyWeightService {
         if (X.length < 1 || X[0].length < 1) {
             throw new IllegalArgumentException("输入数据必须是二维数组 (样本数 x 指标数)。");
         }
-        for (double[] row : X) {
-            for (double val : row) {
-                if (val < 0) {
-                    System.out.println("警告：输入数据包含负值，熵权法通常要求非负数据。结果可能无效。");
-                    break;
-                }
-            }
+        return entropyWeightMethod(ColumnStatistics.of(X, true, false));
+    }
+
+    @Override
+    public double[] entropyWeightMethod(ColumnStatistics stats) {
+        return entropyWeights(stats.rows(), stats.columns(), stats.hasNegative(), stats::pLogPSum);
+    }
+
+    @Override
+    public double[] entropyWeightMethod(EntropyAccumulator accumulator) {
+        return entropyWeights(accumulator.rows(), accumulator.columns(), accumulator.hasNegative(), accumulator::pLogPSum);
+    }
+
+    @Override
+    public double[] entropyWeightMethod(MappedColumnMatrix matrix) {
+        if (matrix == null || matrix.rows() < 1) {
+            throw new IllegalArgumentException("输入数据必须是二维数组 (样本数 x 指标数)。");
         }
+        return entropyWeightMethod(ColumnStatistics.of(matrix, true, false));
+    }
 
-        int m = X.length; // 样本数
-        int n = X[0].length; // 指标数
+    /**
+     * @param m        样本数
+     * @param n        指标数
+     * @param pLogPSum 第 j 列的 Σ p·log p
+     */
+    private double[] entropyWeights(long m, int n, boolean hasNegative, IntToDoubleFunction pLogPSum) {
+        if (hasNegative) {
+            System.out.println("警告：输入数据包含负值，熵权法通常要求非负数据。结果可能无效。");
+        }
 
         if (m <= 1) {
             System.out.println("警告：样本数量小于等于1，无法计算熵或权重可能无意义。");
@@ -34,43 +57,21 @@ public class EntropyWeightServiceImpl implements EntropyWeightService {
             return equalWeights;
         }
 
-        // 1. 计算贡献度 (P_ij) - 归一化处理
-        double[] colSum = new double[n];
-        for (int j = 0; j < n; j++) {
-            for (double[] row : X) {
-                colSum[j] += row[j];
-            }
-        }
-
-        double epsilon = 1e-12;
-        double[][] P = new double[m][n];
-        for (int i = 0; i < m; i++) {
-            for (int j = 0; j < n; j++) {
-                P[i][j] = X[i][j] / (colSum[j] + epsilon);
-            }
-        }
-
-        // 2. 计算信息熵 (E_j)
+        // 1. 计算信息熵 (E_j)，Σ p·log p 由列统计量或累加器直接给出，不再构造贡献度矩阵 P
         double k = 1 / Math.log(m);
         double[] E = new double[n];
         for (int j = 0; j < n; j++) {
-            double entropyTermSum = 0;
-            for (int i = 0; i < m; i++) {
-                if (P[i][j] > 0) {
-                    entropyTermSum += P[i][j] * Math.log(P[i][j]);
-                }
-            }
-            E[j] = -k * entropyTermSum;
+            E[j] = -k * pLogPSum.applyAsDouble(j);
             E[j] = Math.max(0.0, Math.min(1.0, E[j])); // 确保熵值在 [0, 1] 范围内
         }
 
-        // 3. 计算差异性系数 (D_j)
+        // 2. 计算差异性系数 (D_j)
         double[] D = new double[n];
         for (int j = 0; j < n; j++) {
             D[j] = 1 - E[j];
         }
 
-        // 4. 计算归一化权重 (W_j)
+        // 3. 计算归一化权重 (W_j)
         double sumD = 0;
         for (double val : D) {
             sumD += val;
@@ -0,0 +1,192 @@
+package com.sfq.ecosystem.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sfq.ecosystem.entity.EvaluationConfigRecord;
+import com.sfq.ecosystem.model.EvaluationType;
+import com.sfq.ecosystem.repository.EvaluationConfigMapper;
+import com.sfq.ecosystem.service.EvaluationConfigService;
+import com.sfq.ecosystem.service.strategy.ConfigVersion;
+import com.sfq.ecosystem.service.strategy.EvaluationConfig;
+import com.sfq.ecosystem.service.strategy.EvaluationStrategyFactory;
+import com.sfq.ecosystem.service.strategy.IEvaluationStrategy;
+import com.sfq.ecosystem.service.strategy.ReweightedEvaluationStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 评估配置版本服务实现
+ * <p>
+ * 每个版本读取一次后以不可变的 {@link ConfigVersion} 缓存在内存中，当前版本保存在 volatile 字段里，
+ * 每次评估取版本号只是一次字段读取。首次使用时读取库中最新的版本，与 {@link EvaluationStrategyFactory}
+ * 中的策略比较：完全相同时沿用；只有权重不同时，说明库中是赋权流水线发布过的权重，而重启后策略回到了代码中的原有权重，
+ * 以库中的权重注册 {@link ReweightedEvaluationStrategy} 并沿用该版本；
+ * 边界、阈值或分组不同（首次部署或代码中的策略已修改）时记录为新版本。
+ * <p>
+ * 运行时替换策略应通过 {@link #register}：先写入新版本，再替换评估计划，最后更新当前版本。
+ * 评估前先取版本号时，配置在评估过程中被替换只会使记录标注较旧的版本、在重新定级时多算一次，不会漏算。
+ * 直接调用 {@link EvaluationStrategyFactory#register} 替换的策略不会产生新版本。
+ */
+@Service
+public class EvaluationConfigServiceImpl implements EvaluationConfigService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EvaluationConfigServiceImpl.class);
+    private static final TypeReference<LinkedHashMap<String, int[]>> GROUPS_TYPE =
+            new TypeReference<LinkedHashMap<String, int[]>>() {};
+
+    @Autowired
+    private EvaluationConfigMapper evaluationConfigMapper;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // 已读取的各版本，版本一经写入不再修改
+    private final Map<Long, ConfigVersion> versions = new ConcurrentHashMap<>();
+    private volatile ConfigVersion current;
+    // 库中已写入的最大版本号，新版本在此基础上编号
+    private long lastVersion;
+
+    @Override
+    public ConfigVersion getCurrentVersion() {
+        ConfigVersion snapshot = current;
+        if (snapshot == null) {
+            synchronized (this) {
+                if (current == null) {
+                    initialize();
+                }
+                snapshot = current;
+            }
+        }
+        return snapshot;
+    }
+
+    @Override
+    public ConfigVersion getVersion(long version) {
+        ConfigVersion cached = versions.get(version);
+        if (cached != null) {
+            return cached;
+        }
+        List<EvaluationConfigRecord> records = evaluationConfigMapper.findByVersion(version);
+        if (records.isEmpty()) {
+            return null;
+        }
+        ConfigVersion loaded = fromRecords(version, records);
+        ConfigVersion existing = versions.putIfAbsent(version, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    @Override
+    public synchronized ConfigVersion register(EvaluationType evaluationType, IEvaluationStrategy strategy) {
+        ConfigVersion base = getCurrentVersion();
+        long version = lastVersion + 1;
+        EvaluationConfig incoming = EvaluationConfig.of(evaluationType, version, strategy);
+        if (incoming.sameSettings(base.config(evaluationType))) {
+            EvaluationStrategyFactory.register(evaluationType, strategy);
+            return base;
+        }
+
+        Map<EvaluationType, EvaluationConfig> configs = new EnumMap<>(base.getConfigs());
+        configs.put(evaluationType, incoming);
+        ConfigVersion next = new ConfigVersion(version, LocalDateTime.now(), configs);
+        persist(next);
+        EvaluationStrategyFactory.register(evaluationType, strategy);
+        publish(next);
+        logger.info("{} 的评估配置已更新，配置版本 {}", evaluationType.getDescription(), version);
+        return next;
+    }
+
+    // 读取库中最新的版本，恢复其中发布过的权重；其余设置与当前策略不一致时记录新版本
+    private void initialize() {
+        Long latest = evaluationConfigMapper.findLatestVersion();
+        ConfigVersion stored = latest == null ? null : getVersion(latest);
+        lastVersion = latest == null ? 0 : latest;
+
+        long version = lastVersion + 1;
+        boolean changed = stored == null;
+        Map<EvaluationType, EvaluationConfig> configs = new EnumMap<>(EvaluationType.class);
+        for (EvaluationType evaluationType : EvaluationType.values()) {
+            IEvaluationStrategy strategy = EvaluationStrategyFactory.getStrategy(evaluationType);
+            EvaluationConfig config = EvaluationConfig.of(evaluationType, version, strategy);
+            EvaluationConfig previous = stored == null ? null : stored.getConfigs().get(evaluationType);
+            if (config.sameSettings(previous)) {
+                config = previous;
+            } else if (config.sameSettingsExceptWeights(previous)) {
+                EvaluationStrategyFactory.register(evaluationType,
+                        new ReweightedEvaluationStrategy(strategy, previous.getWeights()));
+                logger.info("已从配置版本 {} 恢复 {} 的指标权重", latest, evaluationType.getDescription());
+                config = previous;
+            } else {
+                changed = true;
+            }
+            configs.put(evaluationType, config);
+        }
+
+        if (!changed) {
+            publish(stored);
+            return;
+        }
+        ConfigVersion next = new ConfigVersion(version, LocalDateTime.now(), configs);
+        persist(next);
+        publish(next);
+        logger.info("评估配置与库中最新版本 {} 不一致，已记录为配置版本 {}", latest, version);
+    }
+
+    private void publish(ConfigVersion version) {
+        versions.put(version.getVersion(), version);
+        current = version;
+    }
+
+    private void persist(ConfigVersion version) {
+        List<EvaluationConfigRecord> records = new ArrayList<>();
+        for (EvaluationConfig config : version.getConfigs().values()) {
+            EvaluationConfigRecord record = new EvaluationConfigRecord();
+            record.setVersion(version.getVersion());
+            record.setEvaluationType(config.getEvaluationType().name());
+            record.setSinceVersion(config.getSinceVersion());
+            record.setWeights(toJson(config.getWeights()));
+            record.setBoundaries(toJson(config.getBoundaries()));
+            record.setTheta(config.getTheta());
+            record.setCriterionGroups(toJson(config.getCriterionGroups()));
+            record.setCreatedAt(version.getCreatedAt());
+            records.add(record);
+        }
+        evaluationConfigMapper.insertBatch(records);
+        lastVersion = version.getVersion();
+    }
+
+    private ConfigVersion fromRecords(long version, List<EvaluationConfigRecord> records) {
+        Map<EvaluationType, EvaluationConfig> configs = new EnumMap<>(EvaluationType.class);
+        LocalDateTime createdAt = null;
+        try {
+            for (EvaluationConfigRecord record : records) {
+                EvaluationType evaluationType = EvaluationType.valueOf(record.getEvaluationType());
+                configs.put(evaluationType, new EvaluationConfig(evaluationType, record.getSinceVersion(),
+                        objectMapper.readValue(record.getWeights(), double[].class),
+                        objectMapper.readValue(record.getBoundaries(), double[][].class),
+                        record.getTheta(),
+                        objectMapper.readValue(record.getCriterionGroups(), GROUPS_TYPE)));
+                createdAt = record.getCreatedAt();
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("配置版本 " + version + " 的内容无法解析。", e);
+        }
+        return new ConfigVersion(version, createdAt, configs);
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("评估配置无法序列化。", e);
+        }
+    }
+}
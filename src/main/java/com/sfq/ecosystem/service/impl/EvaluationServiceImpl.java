@@ -1,28 +1,77 @@
 package com.sfq.ecosystem.service.impl;
 
+import com.sfq.ecosystem.model.BatchEvaluationResult;
+import com.sfq.ecosystem.model.CredibilityReport;
+import com.sfq.ecosystem.model.CrispFfnBuffer;
+import com.sfq.ecosystem.model.CrispFfnKernel;
+import com.sfq.ecosystem.model.EvaluationResult;
 import com.sfq.ecosystem.model.EvaluationType;
-import com.sfq.ecosystem.model.FermateanFuzzyNumber;
+import com.sfq.ecosystem.model.LayerCredibility;
 import com.sfq.ecosystem.service.IEvaluationService;
+import com.sfq.ecosystem.service.strategy.EvaluationPlan;
 import com.sfq.ecosystem.service.strategy.EvaluationStrategyFactory;
 import com.sfq.ecosystem.service.strategy.IEvaluationStrategy;
+import com.sfq.ecosystem.service.strategy.StrategyPlans;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 评估服务实现类 (已重构)
  * <p>
  * 通过策略模式实现了评估对象的可切换性。
- * 核心计算逻辑保持不变，但所有配置（数据、预处理）都从对应的策略类中动态获取。
+ * 核心计算逻辑保持不变，所有配置（边界、权重、阈值）都来自工厂中为各评估类型预编译的 {@link EvaluationPlan}。
+ * 参与评估的费马模糊数都是退化的，运算基于 {@link CrispFfnKernel} 在立方形式上、在线程私有的工作区缓冲上原地完成，
+ * 稳定运行时不产生中间对象。可信度报告保留立方形式的可信度，由同一内核算出得分并定级，
+ * 报告中的等级、持久化的得分与按阈值重新定级的结果都与直接评估的等级一致。
  */
 @Service
 public class EvaluationServiceImpl implements IEvaluationService {
 
-    private static final double EPSILON = 1e-9;
+    private static final Logger logger = LoggerFactory.getLogger(EvaluationServiceImpl.class);
     private static final String[] LEVEL_NAMES = {"差", "较差", "中等", "良好", "优秀"};
+    private static final int LEVEL_COUNT = LEVEL_NAMES.length;
+
+    // 工作区 scratch 缓冲中各临时量的槽位
+    private static final int SLOT_NUM = 0;
+    private static final int SLOT_DEN = 1;
+    private static final int SLOT_TOTAL = 2;
+    private static final int SLOT_PRODUCT = 3;
+    private static final int SLOT_ONE = 4;
+    private static final int SLOT_CREDIBILITY = 5;
+    private static final int SCRATCH_SLOTS = 6;
+
+    // 批量评估：每个 fork/join 叶子任务最多处理的行数，以及块内一次转换的行数
+    private static final int BATCH_SPLIT_THRESHOLD = 2048;
+    private static final int BATCH_BLOCK_ROWS = 128;
+
+    // 每个线程独享一份工作区，按需扩容后重复使用
+    private final ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(Workspace::new);
+
+    // 准则层之间相互独立，可在评估专用线程池上并行计算
+    private EvaluationTaskRunner taskRunner = EvaluationTaskRunner.SEQUENTIAL;
+
+    // 惰性求值统计：累计实际计算的 (层, 等级) 可信度个数，以及累计评估的层数
+    private final LongAdder evaluatedLevelCount = new LongAdder();
+    private final LongAdder evaluatedLayerCount = new LongAdder();
+
+    @Autowired(required = false)
+    public void setTaskRunner(EvaluationTaskRunner taskRunner) {
+        this.taskRunner = taskRunner;
+    }
 
     /**
      * 根据传入的原始数据数组评估目标层
@@ -32,239 +81,478 @@ public class EvaluationServiceImpl implements IEvaluationService {
      */
     @Override
     public String evaluateTargetLayer(double[] rawData, EvaluationType evaluationType) {
-        IEvaluationStrategy strategy = EvaluationStrategyFactory.getStrategy(evaluationType);
-        double[][] boundariesCrisp = strategy.getBoundaries();
-        double[] weights = strategy.getWeights();
-        double thetaCrisp = strategy.getTheta();
-        double[] processedSampleData = strategy.preprocessTargetLayerData(rawData);
-
-        // ... 后续核心计算逻辑与您提供的版本一致 ...
-        int numIndicators = boundariesCrisp.length;
-        double[] minVals = new double[numIndicators];
-        double[] maxVals = new double[numIndicators];
-        for (int i = 0; i < numIndicators; i++) {
-            minVals[i] = boundariesCrisp[i][0];
-            maxVals[i] = boundariesCrisp[i][boundariesCrisp[i].length - 1];
-        }
+        return evaluateLayer(EvaluationStrategyFactory.getTargetPlan(evaluationType), rawData);
+    }
 
-        List<List<FermateanFuzzyNumber>> boundariesFfn = convertToFfnBoundaries(boundariesCrisp, minVals, maxVals);
-        List<FermateanFuzzyNumber> sampleFfn = convertToFfnSample(processedSampleData, minVals, maxVals);
-        List<FermateanFuzzyNumber> qFfnList = new ArrayList<>();
-        List<FermateanFuzzyNumber> pFfnList = new ArrayList<>();
-        List<FermateanFuzzyNumber> vFfnList = new ArrayList<>();
-        calculateQPVLists(numIndicators, minVals, maxVals, qFfnList, pFfnList, vFfnList);
 
-        List<FermateanFuzzyNumber> credibilities = new ArrayList<>();
-        for (int h = 0; h < 5; h++) {
-            credibilities.add(calculateCredibilityFfn(sampleFfn, h, boundariesFfn, qFfnList, pFfnList, vFfnList, weights));
+    /**
+     * 根据传入的原始数据数组评估准则层
+     * <p>
+     * 各准则层相互独立，按指标数估算开销后交给 {@link EvaluationTaskRunner} 并行计算，
+     * 指标很少的准则层（如只有一个指标的 “服务能力层”）留在调用线程上。
+     * @param rawData 原始指标数据数组
+     * @param evaluationType 评估类型
+     * @return 一个Map，键为准则层名称，值为评估等级
+     */
+    @Override
+    public Map<String, String> evaluateCriterionLayer(double[] rawData, EvaluationType evaluationType) {
+        List<EvaluationPlan> groupPlans = EvaluationStrategyFactory.getCriterionPlans(evaluationType);
+        List<Callable<String>> tasks = new ArrayList<>(groupPlans.size());
+        int[] costs = new int[groupPlans.size()];
+        for (int g = 0; g < groupPlans.size(); g++) {
+            EvaluationPlan plan = groupPlans.get(g);
+            tasks.add(() -> evaluateLayer(plan, rawData));
+            costs[g] = plan.size();
         }
+        List<String> levels = taskRunner.invokeAll(tasks, costs);
 
-        FermateanFuzzyNumber thetaFfn = new FermateanFuzzyNumber(new double[]{thetaCrisp, thetaCrisp}, new double[]{1.0 - thetaCrisp, 1.0 - thetaCrisp});
-        String finalLevel = LEVEL_NAMES[0];
-        for (int h = 4; h >= 0; h--) {
-            if (credibilities.get(h).compareTo(thetaFfn) >= 0) {
-                finalLevel = LEVEL_NAMES[h];
-                break;
-            }
+        Map<String, String> groupResults = new LinkedHashMap<>();
+        for (int g = 0; g < groupPlans.size(); g++) {
+            groupResults.put(groupPlans.get(g).getName(), levels.get(g));
         }
-        return finalLevel;
+        return groupResults;
     }
 
+    /**
+     * 一次性评估目标层与全部准则层
+     * <p>
+     * 样本只转换一次，每个指标在各等级下的 phi/sigma 只计算一次，由目标层和所属准则层共享，
+     * 各层之间仅权重与最终合成不同。要求策略的预处理逐指标独立（见 {@link IEvaluationStrategy}）。
+     * @param rawData 原始指标数据数组
+     * @param evaluationType 评估类型
+     * @return 目标层与各准则层的评估等级
+     */
+    @Override
+    public EvaluationResult evaluateAllLayers(double[] rawData, EvaluationType evaluationType) {
+        StrategyPlans plans = EvaluationStrategyFactory.getPlans(evaluationType);
+        EvaluationPlan targetPlan = plans.targetPlan();
+        List<EvaluationPlan> groupPlans = plans.criterionPlans();
+
+        Workspace ws = workspaces.get();
+        evaluateBlock(ws, targetPlan, groupPlans, new double[][]{rawData}, 0, 1, true);
+
+        Map<String, String> criterionLevels = new LinkedHashMap<>();
+        for (int g = 0; g < groupPlans.size(); g++) {
+            EvaluationPlan groupPlan = groupPlans.get(g);
+            criterionLevels.put(groupPlan.getName(), LEVEL_NAMES[ws.levels[1 + g]]);
+        }
+        return new EvaluationResult(LEVEL_NAMES[ws.levels[0]], criterionLevels);
+    }
 
     /**
-     * 根据传入的原始数据数组评估准则层
+     * 计算目标层与各准则层五个等级的完整可信度
+     * <p>
+     * 与 {@link #evaluateAllLayers} 共用同一套计算，但不提前结束，五个等级都会计算并保留。
      * @param rawData 原始指标数据数组
      * @param evaluationType 评估类型
-     * @return 一个Map，键为准则层名称，值为评估等级
+     * @return 各层的五级可信度及其得分
      */
     @Override
-    public Map<String, String> evaluateCriterionLayer(double[] rawData, EvaluationType evaluationType) {
-        IEvaluationStrategy strategy = EvaluationStrategyFactory.getStrategy(evaluationType);
-        Map<String, String> groupResults = new LinkedHashMap<>();
-        Map<String, int[]> groups = strategy.getCriterionGroups();
-        double[][] boundariesCrisp = strategy.getBoundaries();
-        double[] weights = strategy.getWeights();
-        double thetaCrisp = strategy.getTheta();
-
-        for (Map.Entry<String, int[]> entry : groups.entrySet()) {
-            String groupName = entry.getKey();
-            int[] groupIndices = entry.getValue();
-
-            double[] groupSampleRaw = new double[groupIndices.length];
-            double[][] groupBoundaries = new double[groupIndices.length][];
-            double[] groupWeights = new double[groupIndices.length];
-            for (int i = 0; i < groupIndices.length; i++) {
-                int originalIndex = groupIndices[i];
-                groupSampleRaw[i] = rawData[originalIndex];
-                groupBoundaries[i] = boundariesCrisp[originalIndex];
-                groupWeights[i] = weights[originalIndex];
+    public CredibilityReport evaluateCredibilities(double[] rawData, EvaluationType evaluationType) {
+        return evaluateCredibilities(rawData, evaluationType, null);
+    }
+
+    /**
+     * 计算目标层及指定准则层五个等级的完整可信度，未指定的准则层不参与计算
+     * @param criterionNames 需要计算的准则层名称，为 null 表示全部
+     */
+    @Override
+    public CredibilityReport evaluateCredibilities(double[] rawData, EvaluationType evaluationType, Set<String> criterionNames) {
+        StrategyPlans plans = EvaluationStrategyFactory.getPlans(evaluationType);
+        EvaluationPlan targetPlan = plans.targetPlan();
+        List<EvaluationPlan> groupPlans = plans.criterionPlans();
+        if (criterionNames != null) {
+            List<EvaluationPlan> selected = new ArrayList<>();
+            for (EvaluationPlan groupPlan : groupPlans) {
+                if (criterionNames.contains(groupPlan.getName())) {
+                    selected.add(groupPlan);
+                }
             }
+            groupPlans = selected;
+        }
 
-            double[] groupSampleProcessed = strategy.preprocessCriterionLayerData(groupSampleRaw, groupIndices);
+        Workspace ws = workspaces.get();
+        evaluateBlock(ws, targetPlan, groupPlans, new double[][]{rawData}, 0, 1, false);
 
-            // ... 后续核心计算逻辑与您提供的版本一致 ...
-            double weightSum = 0;
-            for(double w : groupWeights) weightSum += w;
-            double[] normalizedWeights = new double[groupWeights.length];
-            if (weightSum > 0) {
-                for (int i = 0; i < groupWeights.length; i++) normalizedWeights[i] = groupWeights[i] / weightSum;
-            }
+        LayerCredibility target = new LayerCredibility(targetPlan.getName(), targetPlan.getThetaCrisp(),
+                LEVEL_NAMES, ws.credibilities, 0);
+        List<LayerCredibility> criterion = new ArrayList<>(groupPlans.size());
+        for (int g = 0; g < groupPlans.size(); g++) {
+            EvaluationPlan groupPlan = groupPlans.get(g);
+            criterion.add(new LayerCredibility(groupPlan.getName(), groupPlan.getThetaCrisp(),
+                    LEVEL_NAMES, ws.credibilities, (1 + g) * LEVEL_COUNT));
+        }
+        return new CredibilityReport(evaluationType, target, criterion);
+    }
 
-            double[] minVals = new double[groupIndices.length];
-            double[] maxVals = new double[groupIndices.length];
-            for (int i = 0; i < groupIndices.length; i++) {
-                minVals[i] = groupBoundaries[i][0];
-                maxVals[i] = groupBoundaries[i][groupBoundaries[i].length - 1];
-            }
+    /**
+     * 批量评估一个 样本数 x 指标数 的矩阵，返回每一行的目标层与准则层等级
+     * <p>
+     * 行按块划分后交给 fork/join 公共线程池并行处理；每个块内按 “指标 -> 样本” 的顺序遍历，
+     * 同一指标的边界与参数在处理整块样本期间保持在缓存中。
+     * @param samples 样本矩阵，每行是一条完整的原始指标数据
+     * @param evaluationType 评估类型
+     * @return 批量评估结果
+     */
+    @Override
+    public BatchEvaluationResult evaluateBatch(double[][] samples, EvaluationType evaluationType) {
+        StrategyPlans plans = EvaluationStrategyFactory.getPlans(evaluationType);
+        EvaluationPlan targetPlan = plans.targetPlan();
+        List<EvaluationPlan> groupPlans = plans.criterionPlans();
+        List<String> groupNames = new ArrayList<>(groupPlans.size());
+        for (EvaluationPlan groupPlan : groupPlans) {
+            groupNames.add(groupPlan.getName());
+        }
 
-            List<List<FermateanFuzzyNumber>> boundariesFfn = convertToFfnBoundaries(groupBoundaries, minVals, maxVals);
-            List<FermateanFuzzyNumber> sampleFfn = convertToFfnSample(groupSampleProcessed, minVals, maxVals);
-            List<FermateanFuzzyNumber> qFfnList = new ArrayList<>();
-            List<FermateanFuzzyNumber> pFfnList = new ArrayList<>();
-            List<FermateanFuzzyNumber> vFfnList = new ArrayList<>();
-            calculateQPVLists(groupIndices.length, minVals, maxVals, qFfnList, pFfnList, vFfnList);
+        int[] levels = new int[samples.length * (1 + groupPlans.size())];
+        if (samples.length > 0) {
+            ForkJoinPool.commonPool().invoke(new BatchTask(targetPlan, groupPlans, samples, levels, 0, samples.length));
+        }
+        return new BatchEvaluationResult(LEVEL_NAMES, groupNames, levels);
+    }
 
-            List<FermateanFuzzyNumber> credibilities = new ArrayList<>();
-            for (int h = 0; h < 5; h++) {
-                credibilities.add(calculateCredibilityFfn(sampleFfn, h, boundariesFfn, qFfnList, pFfnList, vFfnList, normalizedWeights));
-            }
+    @Override
+    public List<String> getLevelNames() {
+        return Collections.unmodifiableList(Arrays.asList(LEVEL_NAMES));
+    }
 
-            FermateanFuzzyNumber thetaFfn = new FermateanFuzzyNumber(new double[]{thetaCrisp, thetaCrisp}, new double[]{1.0 - thetaCrisp, 1.0 - thetaCrisp});
-            String finalLevel = LEVEL_NAMES[0];
-            for (int h = 4; h >= 0; h--) {
-                if (credibilities.get(h).compareTo(thetaFfn) >= 0) {
-                    finalLevel = LEVEL_NAMES[h];
-                    break;
-                }
-            }
-            groupResults.put(groupName, finalLevel);
+    @Override
+    public Map<String, String> evaluateAllTargetSamples(EvaluationType evaluationType) {
+        IEvaluationStrategy strategy = EvaluationStrategyFactory.getStrategy(evaluationType);
+        Map<String, String> results = new LinkedHashMap<>();
+        for (Map.Entry<String, double[]> sample : strategy.getSamples().entrySet()) {
+            String level = evaluateTargetLayer(sample.getValue(), evaluationType);
+            logger.debug("样本 [{}] 的 '{}' 目标层评估等级: {}", sample.getKey(), evaluationType.getDescription(), level);
+            results.put(sample.getKey(), level);
         }
-        return groupResults;
+        return results;
     }
 
-    private FermateanFuzzyNumber normalizeAndConvertFfn(double value, double minVal, double maxVal) {
-        double s;
-        if (maxVal - minVal < EPSILON) {
-            s = (value == minVal) ? 0.5 : (value > minVal ? 1.0 : 0.0);
-        } else {
-            s = (value - minVal) / (maxVal - minVal);
+    @Override
+    public Map<String, Map<String, String>> evaluateAllCriterionSamples(EvaluationType evaluationType) {
+        IEvaluationStrategy strategy = EvaluationStrategyFactory.getStrategy(evaluationType);
+        Map<String, Map<String, String>> results = new LinkedHashMap<>();
+        for (Map.Entry<String, double[]> sample : strategy.getSamples().entrySet()) {
+            results.put(sample.getKey(), evaluateCriterionLayer(sample.getValue(), evaluationType));
         }
-        s = Math.max(0.0, Math.min(s, 1.0));
-        return new FermateanFuzzyNumber(new double[]{s, s}, new double[]{1.0 - s, 1.0 - s});
+        return results;
+    }
+
+    /**
+     * 当前线程最近一次评估调用实际计算的等级数（按 层 x 等级 计），
+     * 完整计算时每层为 5，惰性求值下每层为 1~4
+     */
+    public int getLastLevelsEvaluated() {
+        return workspaces.get().levelsEvaluated;
+    }
+
+    /** 累计实际计算的等级数（按 层 x 等级 计） */
+    public long getEvaluatedLevelCount() {
+        return evaluatedLevelCount.sum();
+    }
+
+    /** 累计评估的层数，与 {@link #getEvaluatedLevelCount()} 相除即为每层平均计算的等级数 */
+    public long getEvaluatedLayerCount() {
+        return evaluatedLayerCount.sum();
+    }
+
+    /**
+     * 按预编译计划评估一层：转换样本，从高到低找出第一个可信度达到阈值 theta 的等级
+     */
+    private String evaluateLayer(EvaluationPlan plan, double[] rawData) {
+        Workspace ws = workspaces.get();
+        evaluateBlock(ws, plan, Collections.<EvaluationPlan>emptyList(), new double[][]{rawData}, 0, 1, true);
+        return LEVEL_NAMES[ws.levels[0]];
     }
 
-    private List<List<FermateanFuzzyNumber>> convertToFfnBoundaries(double[][] boundariesCrisp, double[] minVals, double[] maxVals) {
-        List<List<FermateanFuzzyNumber>> boundariesFfn = new ArrayList<>();
-        for (int i = 0; i < boundariesCrisp.length; i++) {
-            List<FermateanFuzzyNumber> row = new ArrayList<>();
-            for (int j = 0; j < boundariesCrisp[i].length; j++) {
-                row.add(normalizeAndConvertFfn(boundariesCrisp[i][j], minVals[i], maxVals[i]));
+    /**
+     * 评估 samples[from, from + count) 这一块样本，得到各层的评估等级
+     * <p>
+     * 第 0 层为 plan 本身，第 1..G 层依次为 groupPlans（其指标下标相对于 plan）。
+     * 第 r 行第 layer 层的等级下标写入工作区 levels[r * 层数 + layer]。
+     * <p>
+     * 等级从高到低逐级计算，某一层的可信度一旦达到阈值即视为已确定，后续等级不再为它计算；
+     * 某个指标所属的各层都已确定时，该指标在更低等级上的 phi/sigma 也一并跳过。
+     * 等级 0 是 “均未达到阈值” 时的默认结果，无论其可信度如何结论都相同，因此惰性模式下从不计算。
+     * 需要完整五级可信度时传入 lazy = false，此时所有等级都会计算并保留在 credibilities 中，
+     * 第 r 行第 layer 层等级 h 的可信度位于 (r * 层数 + layer) * LEVEL_COUNT + h；惰性模式只产出等级，不写入 credibilities。
+     */
+    private void evaluateBlock(Workspace ws, EvaluationPlan plan, List<EvaluationPlan> groupPlans,
+                               double[][] samples, int from, int count, boolean lazy) {
+        int layers = 1 + groupPlans.size();
+        ws.prepare(plan.size(), count, layers);
+        for (int r = 0; r < count; r++) {
+            plan.loadSample(samples[from + r], ws.sample, r, count);
+        }
+        Arrays.fill(ws.groupOf, 0, plan.size(), -1);
+        for (int g = 0; g < groupPlans.size(); g++) {
+            for (int n : groupPlans.get(g).groupIndices()) {
+                ws.groupOf[n] = g;
             }
-            boundariesFfn.add(row);
         }
-        return boundariesFfn;
-    }
+        Arrays.fill(ws.resolved, 0, layers * count, false);
+        Arrays.fill(ws.levels, 0, layers * count, 0);
+        ws.levelsEvaluated = 0;
 
-    private List<FermateanFuzzyNumber> convertToFfnSample(double[] sampleData, double[] minVals, double[] maxVals) {
-        List<FermateanFuzzyNumber> sampleFfn = new ArrayList<>();
-        for (int i = 0; i < sampleData.length; i++) {
-            sampleFfn.add(normalizeAndConvertFfn(sampleData[i], minVals[i], maxVals[i]));
+        calculateSampleTerms(ws, plan, count);
+        CrispFfnBuffer t = ws.scratch;
+        int pending = layers * count;
+        int lowestLevel = lazy ? 1 : 0;
+        for (int h = LEVEL_COUNT - 1; h >= lowestLevel && (pending > 0 || !lazy); h--) {
+            calculateIndicatorTerms(ws, plan, h, count, layers, lazy);
+            for (int r = 0; r < count; r++) {
+                for (int layer = 0; layer < layers; layer++) {
+                    int slot = r * layers + layer;
+                    if (lazy && ws.resolved[slot]) {
+                        continue;
+                    }
+                    EvaluationPlan layerPlan = layer == 0 ? plan : groupPlans.get(layer - 1);
+                    calculateCredibilityFfn(ws, layer == 0 ? null : layerPlan.groupIndices(), layerPlan.weights(),
+                            count, r, t, SLOT_CREDIBILITY);
+                    ws.levelsEvaluated++;
+                    if (!lazy) {
+                        ws.credibilities.set(slot * LEVEL_COUNT + h, t.a[SLOT_CREDIBILITY], t.b[SLOT_CREDIBILITY]);
+                    }
+                    if (ws.resolved[slot]) {
+                        continue;
+                    }
+                    if (CrispFfnKernel.compare(t, SLOT_CREDIBILITY, layerPlan.theta(), 0) >= 0) {
+                        ws.resolved[slot] = true;
+                        ws.levels[slot] = h;
+                        pending--;
+                    }
+                }
+            }
         }
-        return sampleFfn;
+        evaluatedLevelCount.add(ws.levelsEvaluated);
+        evaluatedLayerCount.add(layers * count);
     }
 
-    private void calculateQPVLists(int numItems, double[] minVals, double[] maxVals, List<FermateanFuzzyNumber> qList, List<FermateanFuzzyNumber> pList, List<FermateanFuzzyNumber> vList) {
-        for (int i = 0; i < numItems; i++) {
-            double totalRange = maxVals[i] - minVals[i];
-            if (totalRange < EPSILON) {
-                qList.add(FermateanFuzzyNumber.FFN_ZERO);
-                pList.add(FermateanFuzzyNumber.FFN_ZERO);
-                vList.add(FermateanFuzzyNumber.FFN_ZERO);
-            } else {
-                double step = totalRange / 5.0;
-                qList.add(normalizeAndConvertFfn(0.25 * step, 0, totalRange));
-                pList.add(normalizeAndConvertFfn(0.5 * step, 0, totalRange));
-                vList.add(normalizeAndConvertFfn(0.75 * step, 0, totalRange));
+    /**
+     * 计算与等级无关的样本项 x+p、x+q、x+v，每个样本只需计算一次
+     * <p>
+     * 工作区中第 n 个指标、块内第 r 行的位置为 n * rows + r。
+     */
+    private void calculateSampleTerms(Workspace ws, EvaluationPlan plan, int rows) {
+        for (int n = 0; n < plan.size(); n++) {
+            for (int r = 0; r < rows; r++) {
+                int k = n * rows + r;
+                CrispFfnKernel.add(ws.sample, k, plan.p(), n, ws.xPlusP, k);
+                CrispFfnKernel.add(ws.sample, k, plan.q(), n, ws.xPlusQ, k);
+                CrispFfnKernel.add(ws.sample, k, plan.v(), n, ws.xPlusV, k);
             }
         }
     }
 
-    private FermateanFuzzyNumber calculateCredibilityFfn(
-            List<FermateanFuzzyNumber> sampleFfn, int h, List<List<FermateanFuzzyNumber>> boundariesFfn,
-            List<FermateanFuzzyNumber> qFfnList, List<FermateanFuzzyNumber> pFfnList,
-            List<FermateanFuzzyNumber> vFfnList, double[] weights) {
-        int N = sampleFfn.size();
-        List<FermateanFuzzyNumber> phis_n = new ArrayList<>(N);
-        List<FermateanFuzzyNumber> sigmas_n = new ArrayList<>(N);
-
-        FermateanFuzzyNumber totalPhiWeighted = new FermateanFuzzyNumber(new double[]{0.0, 0.0}, new double[]{0.0, 0.0});
-
-        for (int n = 0; n < N; n++) {
-            FermateanFuzzyNumber x_m_ffn = sampleFfn.get(n);
-            FermateanFuzzyNumber b_h_ffn = boundariesFfn.get(n).get(h);
-            FermateanFuzzyNumber q_ffn = qFfnList.get(n);
-            FermateanFuzzyNumber p_ffn = pFfnList.get(n);
-            FermateanFuzzyNumber v_ffn = vFfnList.get(n);
-
-            FermateanFuzzyNumber x_plus_p = x_m_ffn.add(p_ffn);
-            FermateanFuzzyNumber x_plus_q = x_m_ffn.add(q_ffn);
-
-            FermateanFuzzyNumber phi_n;
-            if (x_plus_p.compareTo(b_h_ffn) < 0) {
-                phi_n = FermateanFuzzyNumber.FFN_ZERO;
-            } else if (x_plus_q.compareTo(b_h_ffn) >= 0) {
-                phi_n = FermateanFuzzyNumber.FFN_ONE;
-            } else {
-                FermateanFuzzyNumber num_phi = x_plus_p.subtract(b_h_ffn);
-                FermateanFuzzyNumber den_phi = p_ffn.subtract(q_ffn);
-                if (den_phi.equals(FermateanFuzzyNumber.FFN_ZERO)) {
-                    phi_n = FermateanFuzzyNumber.FFN_ZERO;
+    /**
+     * 计算每个指标相对于等级 h 边界的 phi、sigma 以及 x >= b_h 标记，写入工作区
+     * <p>
+     * 这些量只与单个指标有关，目标层与各准则层可以共享同一份结果。
+     * 惰性模式下，目标层与该指标所属准则层都已确定等级的行直接跳过。
+     * phi 随后按分量线性加权累加，因此以分量形式保存；sigma 只参与比较与乘积，保留立方形式。
+     */
+    private void calculateIndicatorTerms(Workspace ws, EvaluationPlan plan, int h, int rows, int layers, boolean lazy) {
+        int stride = plan.stride();
+        CrispFfnBuffer b = plan.boundaries();
+        CrispFfnBuffer phiInverse = plan.phiDenominatorInverse();
+        CrispFfnBuffer sigmaInverse = plan.sigmaDenominatorInverse();
+        CrispFfnBuffer x = ws.sample;
+        CrispFfnBuffer xp = ws.xPlusP;
+        CrispFfnBuffer xq = ws.xPlusQ;
+        CrispFfnBuffer xv = ws.xPlusV;
+        CrispFfnBuffer sigmas = ws.sigma;
+        CrispFfnBuffer t = ws.scratch;
+
+        for (int n = 0; n < plan.size(); n++) {
+            int bh = n * stride + h;
+            int group = ws.groupOf[n];
+            for (int r = 0; r < rows; r++) {
+                int k = n * rows + r;
+                if (lazy && ws.resolved[r * layers]
+                        && (group < 0 || ws.resolved[r * layers + 1 + group])) {
+                    continue;
+                }
+
+                // 分母的隶属度接近零时除法结果为模糊一
+                int xpVsB = CrispFfnKernel.compare(xp, k, b, bh);
+                if (xpVsB < 0) {
+                    setPhi(ws, k, 0.0, 1.0);
+                } else if (CrispFfnKernel.compare(xq, k, b, bh) >= 0) {
+                    setPhi(ws, k, 1.0, 0.0);
+                } else if (plan.isPhiDenominatorZero(n)) {
+                    setPhi(ws, k, 0.0, 1.0);
+                } else if (plan.isPhiDenominatorVanishing(n)) {
+                    setPhi(ws, k, 1.0, 0.0);
                 } else {
-                    phi_n = num_phi.divide(den_phi).clamp();
+                    // (x + p - b_h) / (p - q)，截断到 [0,1] 后转换回分量形式
+                    CrispFfnKernel.subtract(xp, k, b, bh, t, SLOT_NUM);
+                    CrispFfnKernel.multiply(t, SLOT_NUM, phiInverse, n, t, SLOT_NUM);
+                    CrispFfnKernel.clamp(t, SLOT_NUM, t, SLOT_NUM);
+                    setPhi(ws, k, Math.cbrt(t.a[SLOT_NUM]), Math.cbrt(t.b[SLOT_NUM]));
                 }
-            }
-            phis_n.add(phi_n);
-
-            FermateanFuzzyNumber sigma_n;
-            FermateanFuzzyNumber x_plus_v = x_m_ffn.add(v_ffn);
-            if (x_plus_p.compareTo(b_h_ffn) >= 0) {
-                sigma_n = FermateanFuzzyNumber.FFN_ZERO;
-            } else if (x_plus_v.compareTo(b_h_ffn) < 0) {
-                sigma_n = FermateanFuzzyNumber.FFN_ONE;
-            } else {
-                FermateanFuzzyNumber num_sig = b_h_ffn.subtract(x_plus_p);
-                FermateanFuzzyNumber den_sig = v_ffn.subtract(p_ffn);
-                if (den_sig.equals(FermateanFuzzyNumber.FFN_ZERO)) {
-                    sigma_n = FermateanFuzzyNumber.FFN_ZERO;
+
+                if (xpVsB >= 0) {
+                    CrispFfnKernel.setZero(sigmas, k);
+                } else if (CrispFfnKernel.compare(xv, k, b, bh) < 0) {
+                    CrispFfnKernel.setOne(sigmas, k);
+                } else if (plan.isSigmaDenominatorZero(n)) {
+                    CrispFfnKernel.setZero(sigmas, k);
+                } else if (plan.isSigmaDenominatorVanishing(n)) {
+                    CrispFfnKernel.setOne(sigmas, k);
                 } else {
-                    sigma_n = num_sig.divide(den_sig).clamp();
+                    // (b_h - x - p) / (v - p)，截断到 [0,1]
+                    CrispFfnKernel.subtract(b, bh, xp, k, t, SLOT_NUM);
+                    CrispFfnKernel.multiply(t, SLOT_NUM, sigmaInverse, n, sigmas, k);
+                    CrispFfnKernel.clamp(sigmas, k, sigmas, k);
                 }
+
+                ws.reached[k] = CrispFfnKernel.compare(x, k, b, bh) >= 0;
             }
-            sigmas_n.add(sigma_n);
-
-            if (x_m_ffn.compareTo(b_h_ffn) >= 0) {
-                double newAlphaL = totalPhiWeighted.getAlphaL() + phis_n.get(n).getAlphaL() * weights[n];
-                double newAlphaU = totalPhiWeighted.getAlphaU() + phis_n.get(n).getAlphaU() * weights[n];
-                double newBetaL = totalPhiWeighted.getBetaL() + phis_n.get(n).getBetaL() * weights[n];
-                double newBetaU = totalPhiWeighted.getBetaU() + phis_n.get(n).getBetaU() * weights[n];
-                totalPhiWeighted = new FermateanFuzzyNumber(new double[]{newAlphaL, newAlphaU}, new double[]{newBetaL, newBetaU}).clamp();
+        }
+    }
+
+    private static void setPhi(Workspace ws, int k, double alpha, double beta) {
+        ws.phiAlpha[k] = alpha;
+        ws.phiBeta[k] = beta;
+    }
+
+    /**
+     * 由工作区中的指标项合成块内第 r 行某一层的可信度，结果以立方形式写入 out[outIndex]
+     *
+     * @param indices 参与合成的指标下标，按顺序与 weights 对应；为 null 表示使用前 weights.length 个指标
+     * @param weights 本层权重
+     * @param rows    块内行数
+     * @param r       块内行号
+     */
+    private void calculateCredibilityFfn(Workspace ws, int[] indices, double[] weights, int rows, int r,
+                                         CrispFfnBuffer out, int outIndex) {
+        int N = weights.length;
+        double[] phiAlpha = ws.phiAlpha;
+        double[] phiBeta = ws.phiBeta;
+        CrispFfnBuffer sigmas = ws.sigma;
+        CrispFfnBuffer t = ws.scratch;
+
+        // 加权累加按分量线性进行，每步截断到 [0,1]
+        double totalAlpha = 0.0, totalBeta = 0.0;
+        for (int i = 0; i < N; i++) {
+            int k = (indices == null ? i : indices[i]) * rows + r;
+            if (ws.reached[k]) {
+                totalAlpha = Math.max(0.0, Math.min(totalAlpha + phiAlpha[k] * weights[i], 1.0));
+                totalBeta = Math.max(0.0, Math.min(totalBeta + phiBeta[k] * weights[i], 1.0));
             }
         }
 
-        FermateanFuzzyNumber phi_global = totalPhiWeighted;
-        FermateanFuzzyNumber product_term = FermateanFuzzyNumber.FFN_ONE;
-        for (int n = 0; n < N; n++) {
-            FermateanFuzzyNumber sigma_n = sigmas_n.get(n);
-            if (sigma_n.compareTo(phi_global) > 0) {
-                FermateanFuzzyNumber num_nu = FermateanFuzzyNumber.FFN_ONE.subtract(sigma_n);
-                FermateanFuzzyNumber den_nu = FermateanFuzzyNumber.FFN_ONE.subtract(phi_global);
-                if (den_nu.equals(FermateanFuzzyNumber.FFN_ZERO) || (den_nu.getAlphaL() < EPSILON && den_nu.getAlphaU() < EPSILON)) {
-                    continue;
+        // phi_global 即累加结果；分母 1 - phi_global 在整个乘积中保持不变，只需求一次逆
+        t.set(SLOT_TOTAL, totalAlpha * totalAlpha * totalAlpha, totalBeta * totalBeta * totalBeta);
+        CrispFfnKernel.subtract(t, SLOT_ONE, t, SLOT_TOTAL, t, SLOT_DEN);
+        boolean denominatorVanishes = CrispFfnKernel.isZero(t, SLOT_DEN) || CrispFfnKernel.isVanishing(t, SLOT_DEN);
+        CrispFfnKernel.setOne(t, SLOT_PRODUCT);
+        if (!denominatorVanishes) {
+            CrispFfnKernel.inverse(t, SLOT_DEN, t, SLOT_DEN);
+            for (int i = 0; i < N; i++) {
+                int k = (indices == null ? i : indices[i]) * rows + r;
+                if (CrispFfnKernel.compare(sigmas, k, t, SLOT_TOTAL) > 0) {
+                    CrispFfnKernel.subtract(t, SLOT_ONE, sigmas, k, t, SLOT_NUM);
+                    CrispFfnKernel.multiply(t, SLOT_NUM, t, SLOT_DEN, t, SLOT_NUM);
+                    CrispFfnKernel.multiply(t, SLOT_PRODUCT, t, SLOT_NUM, t, SLOT_PRODUCT);
                 }
-                FermateanFuzzyNumber fraction = num_nu.divide(den_nu);
-                product_term = product_term.multiply(fraction);
             }
         }
-        return phi_global.multiply(product_term).clamp();
+        CrispFfnKernel.multiply(t, SLOT_TOTAL, t, SLOT_PRODUCT, out, outIndex);
+        CrispFfnKernel.clamp(out, outIndex, out, outIndex);
+    }
+
+    /**
+     * 批量评估的 fork/join 任务：行数超过阈值时二分，否则按块在当前线程的工作区中评估
+     */
+    private final class BatchTask extends RecursiveAction {
+        private final EvaluationPlan targetPlan;
+        private final List<EvaluationPlan> groupPlans;
+        private final double[][] samples;
+        private final int[] levels;
+        private final int from;
+        private final int to;
+
+        BatchTask(EvaluationPlan targetPlan, List<EvaluationPlan> groupPlans, double[][] samples, int[] levels, int from, int to) {
+            this.targetPlan = targetPlan;
+            this.groupPlans = groupPlans;
+            this.samples = samples;
+            this.levels = levels;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BATCH_SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BatchTask(targetPlan, groupPlans, samples, levels, from, mid),
+                        new BatchTask(targetPlan, groupPlans, samples, levels, mid, to));
+                return;
+            }
+            int layers = 1 + groupPlans.size();
+            Workspace ws = workspaces.get();
+            for (int start = from; start < to; start += BATCH_BLOCK_ROWS) {
+                int count = Math.min(BATCH_BLOCK_ROWS, to - start);
+                evaluateBlock(ws, targetPlan, groupPlans, samples, start, count, true);
+                System.arraycopy(ws.levels, 0, levels, start * layers, count * layers);
+            }
+        }
+    }
+
+    /**
+     * 线程私有的评估工作区
+     * <p>
+     * 以结构化数组的形式保存一块样本的转换结果与中间量；容量不足时才重新分配，
+     * 之后对同等规模的评估反复复用，因此稳定运行时评估内核不产生任何分配。
+     * 除 phi 外，中间量与输出的可信度都以立方形式保存。
+     */
+    private static final class Workspace {
+        CrispFfnBuffer sample = new CrispFfnBuffer(0);
+        CrispFfnBuffer xPlusP = new CrispFfnBuffer(0);
+        CrispFfnBuffer xPlusQ = new CrispFfnBuffer(0);
+        CrispFfnBuffer xPlusV = new CrispFfnBuffer(0);
+        double[] phiAlpha = new double[0];
+        double[] phiBeta = new double[0];
+        CrispFfnBuffer sigma = new CrispFfnBuffer(0);
+        boolean[] reached = new boolean[0];
+        int[] groupOf = new int[0];
+        CrispFfnBuffer credibilities = new CrispFfnBuffer(0);
+        boolean[] resolved = new boolean[0];
+        int[] levels = new int[0];
+        // 最近一次调用实际计算的 (层, 等级) 可信度个数
+        int levelsEvaluated;
+        final CrispFfnBuffer scratch = new CrispFfnBuffer(SCRATCH_SLOTS);
+
+        Workspace() {
+            CrispFfnKernel.setOne(scratch, SLOT_ONE);
+        }
+
+        Workspace prepare(int numIndicators, int rows, int layers) {
+            int indicatorSlots = numIndicators * rows;
+            int layerSlots = layers * rows;
+            int credibilitySlots = layerSlots * LEVEL_COUNT;
+            if (sample.capacity() < indicatorSlots) {
+                sample = new CrispFfnBuffer(indicatorSlots);
+                xPlusP = new CrispFfnBuffer(indicatorSlots);
+                xPlusQ = new CrispFfnBuffer(indicatorSlots);
+                xPlusV = new CrispFfnBuffer(indicatorSlots);
+                phiAlpha = new double[indicatorSlots];
+                phiBeta = new double[indicatorSlots];
+                sigma = new CrispFfnBuffer(indicatorSlots);
+                reached = new boolean[indicatorSlots];
+            }
+            if (groupOf.length < numIndicators) {
+                groupOf = new int[numIndicators];
+            }
+            if (levels.length < layerSlots) {
+                resolved = new boolean[layerSlots];
+                levels = new int[layerSlots];
+            }
+            if (credibilities.capacity() < credibilitySlots) {
+                credibilities = new CrispFfnBuffer(credibilitySlots);
+            }
+            return this;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,134 @@
+package com.sfq.ecosystem.service.impl;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * 在评估专用线程池上并行执行一组相互独立的评估单元
+ * <p>
+ * 每个单元带有一个估算开销（如参与计算的指标数）。开销低于阈值的单元直接在调用线程上执行，
+ * 避免线程切换的开销超过计算本身；其余单元中最后一个也由调用线程执行，其他提交到线程池。
+ * 已经在线程池中运行的任务再次调用时全部顺序执行，避免有界线程池中的任务互相等待。
+ */
+@Component
+public class EvaluationTaskRunner {
+
+    /** 不使用线程池、始终顺序执行的实例，供未注入线程池的场景使用 */
+    public static final EvaluationTaskRunner SEQUENTIAL = new EvaluationTaskRunner(null, Integer.MAX_VALUE);
+
+    private static final ThreadLocal<Boolean> IN_POOL = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final Executor executor;
+    private final int minParallelCost;
+
+    /**
+     * @param executor        评估专用线程池，为 null 时顺序执行
+     * @param minParallelCost 提交到线程池的单元的最小估算开销
+     */
+    public EvaluationTaskRunner(@Qualifier("evaluationExecutor") Executor executor,
+                                @Value("${evaluation.parallel.min-cost:2}") int minParallelCost) {
+        this.executor = executor;
+        this.minParallelCost = minParallelCost;
+    }
+
+    /**
+     * 执行全部单元，按提交顺序返回结果
+     *
+     * @param tasks 评估单元
+     * @param costs 各单元的估算开销，与 tasks 一一对应
+     */
+    public <T> List<T> invokeAll(List<? extends Callable<T>> tasks, int[] costs) {
+        int size = tasks.size();
+        List<Future<T>> futures = new ArrayList<>(size);
+        int last = -1;
+        for (int i = 0; i < size; i++) {
+            futures.add(null);
+            if (isParallel(costs[i])) {
+                last = i;
+            }
+        }
+        // 需要并行的单元不足两个时没有可以重叠的计算
+        if (executor != null && !IN_POOL.get() && countParallel(costs) >= 2) {
+            for (int i = 0; i < size; i++) {
+                if (i != last && isParallel(costs[i])) {
+                    FutureTask<T> future = new FutureTask<>(inPool(tasks.get(i)));
+                    executor.execute(future);
+                    futures.set(i, future);
+                }
+            }
+        }
+
+        List<T> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            results.add(futures.get(i) == null ? call(tasks.get(i)) : null);
+        }
+        for (int i = 0; i < size; i++) {
+            if (futures.get(i) != null) {
+                results.set(i, await(futures.get(i)));
+            }
+        }
+        return results;
+    }
+
+    private boolean isParallel(int cost) {
+        return cost >= minParallelCost;
+    }
+
+    private int countParallel(int[] costs) {
+        int count = 0;
+        for (int cost : costs) {
+            if (isParallel(cost)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static <T> Callable<T> inPool(Callable<T> task) {
+        return () -> {
+            IN_POOL.set(Boolean.TRUE);
+            try {
+                return task.call();
+            } finally {
+                IN_POOL.set(Boolean.FALSE);
+            }
+        };
+    }
+
+    private static <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("评估任务执行失败", e);
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待评估任务时被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("评估任务执行失败", cause);
+        }
+    }
+}
@@ -1,18 +1,23 @@
 package com.sfq.ecosystem.service.impl;
 
+import com.sfq.ecosystem.model.ColumnStatistics;
+import com.sfq.ecosystem.model.MappedColumnMatrix;
 import com.sfq.ecosystem.service.IndependenceWeightService;
-import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.DecompositionSolver;
+import org.apache.commons.math3.linear.LUDecomposition;
 import org.apache.commons.math3.linear.MatrixUtils;
 import org.apache.commons.math3.linear.RealMatrix;
-import org.apache.commons.math3.stat.regression.OLSMultipleLinearRegression;
+import org.apache.commons.math3.linear.SingularValueDecomposition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.IntStream;
+import java.util.concurrent.Callable;
 
 @Service
 public class IndependenceWeightServiceImpl implements IndependenceWeightService {
@@ -20,41 +25,93 @@ public class IndependenceWeightServiceImpl implements IndependenceWeightService
     private static final Logger logger = LoggerFactory.getLogger(IndependenceWeightServiceImpl.class);
     private static final double EPSILON = 1e-10;
 
+    // 分块之间相互独立，可在评估专用线程池上并行计算
+    private EvaluationTaskRunner taskRunner = EvaluationTaskRunner.SEQUENTIAL;
+
+    @Autowired(required = false)
+    public void setTaskRunner(EvaluationTaskRunner taskRunner) {
+        this.taskRunner = taskRunner;
+    }
+
     @Override
     public double[] independenceWeight(double[][] data) {
         if (data == null || data.length == 0 || data[0].length == 0) {
             throw new IllegalArgumentException("输入数据不能为空。");
         }
+        if (data[0].length < 2) {
+            return new double[]{1.0};
+        }
+        return independenceWeight(ColumnStatistics.of(data, false, true));
+    }
+
+    @Override
+    public double[] independenceWeight(MappedColumnMatrix matrix) {
+        if (matrix == null || matrix.rows() == 0) {
+            throw new IllegalArgumentException("输入数据不能为空。");
+        }
+        if (matrix.columns() < 2) {
+            return new double[]{1.0};
+        }
+        return independenceWeight(ColumnStatistics.of(matrix, false, true));
+    }
+
+    @Override
+    public double[] independenceWeight(ColumnStatistics stats) {
+        return blockWeights(stats, 0, stats.columns());
+    }
 
-        int nSamples = data.length;
-        int nIndicators = data[0].length;
+    /**
+     * 计算列统计量中 [from, from + nIndicators) 这一分块内各指标的独立性权重。
+     * <p>
+     * 各指标对其余指标做带截距回归的判定系数由 {@link #blockRSquared} 一次性给出，
+     * 不再为每个指标复制数据矩阵并单独回归。
+     * 离差平方和为零的指标不携带任何信息，权重记为 0，其余指标按不含它的分块计算；
+     * 逐指标回归在这种情况下的结果取决于舍入能否识别出奇异的设计矩阵，不可复现。
+     */
+    private double[] blockWeights(ColumnStatistics stats, int from, int nIndicators) {
+        int nSamples = stats.rows();
 
         if (nIndicators < 2) {
             return new double[]{1.0};
         }
 
-        if (nSamples <= nIndicators) {
+        int[] varying = new int[nIndicators];
+        int p = 0;
+        for (int k = 0; k < nIndicators; k++) {
+            if (stats.centeredSumOfSquares(from + k) > 0) {
+                varying[p++] = k;
+            }
+        }
+        double[] blockWeights = new double[nIndicators];
+        if (p == 0) {
+            logger.warn("分块内所有指标均为常数，将分配相等的权重。");
+            Arrays.fill(blockWeights, 1.0 / nIndicators);
+            return blockWeights;
+        }
+        if (p < nIndicators) {
+            logger.warn("分块内有 {} 个指标为常数，其权重记为 0。", nIndicators - p);
+        }
+        if (p == 1) {
+            blockWeights[varying[0]] = 1.0;
+            return blockWeights;
+        }
+
+        if (nSamples <= p) {
             logger.warn("样本数量 ({}) 小于或等于指标数量 ({}). " +
-                    "复相关系数可能被人为抬高，影响权重可靠性。", nSamples, nIndicators);
+                    "复相关系数可能被人为抬高，影响权重可靠性。", nSamples, p);
         }
 
         List<Double> invRValues = new ArrayList<>();
+        double[] r2Values = null;
+        if (p > nSamples) {
+            // 与回归一致：自变量个数加截距超过样本数时无法求解
+            logger.warn("样本数不足，分块内各指标的线性回归无法求解. 将 R^2 设为 1 (最低独立性)。");
+        } else {
+            r2Values = blockRSquared(stats, from, varying, p);
+        }
 
-        for (int j = 0; j < nIndicators; j++) {
-            double[] y = getColumn(data, j);
-            double[][] X = removeColumn(data, j);
-
-            OLSMultipleLinearRegression regression = new OLSMultipleLinearRegression();
-            double r2;
-
-            try {
-                regression.newSampleData(y, X);
-                r2 = regression.calculateRSquared();
-                r2 = Math.max(0, r2); // 确保 R^2 不为负
-            } catch (Exception e) {
-                logger.warn("指标 {} 的线性回归计算失败 ({}). 将 R^2 设为 1 (最低独立性)。", j, e.getMessage());
-                r2 = 1.0;
-            }
+        for (int j = 0; j < p; j++) {
+            double r2 = r2Values == null ? 1.0 : Math.max(0, r2Values[j]);
 
             double rj = Math.sqrt(r2);
             double invRj = 1.0 / (rj + EPSILON);
@@ -65,17 +122,17 @@ public class IndependenceWeightServiceImpl implements IndependenceWeightService
         double totalInvR = Arrays.stream(invRArray).sum();
         double[] weights;
 
-        if (totalInvR <= EPSILON * nIndicators) {
+        if (totalInvR <= EPSILON * p) {
             logger.warn("所有指标似乎都高度相关 (Rj 接近 1). 将分配相等的权重。");
-            weights = new double[nIndicators];
-            Arrays.fill(weights, 1.0 / nIndicators);
+            weights = new double[p];
+            Arrays.fill(weights, 1.0 / p);
         } else if (Double.isInfinite(totalInvR) || Double.isNaN(totalInvR)) {
             logger.warn("计算出的权重总和为无穷大或NaN，可能由于某个指标完全独立(Rj=0)。将为 Rj=0 的指标分配权重，其他为0。");
-            weights = new double[nIndicators];
+            weights = new double[p];
             long zeroRIndicesCount = invRValues.stream().filter(d -> Double.isInfinite(d)).count();
             if (zeroRIndicesCount > 0) {
                 double weightVal = 1.0 / zeroRIndicesCount;
-                for (int i = 0; i < nIndicators; i++) {
+                for (int i = 0; i < p; i++) {
                     if (Double.isInfinite(invRValues.get(i))) {
                         weights[i] = weightVal;
                     } else {
@@ -83,7 +140,7 @@ public class IndependenceWeightServiceImpl implements IndependenceWeightService
                     }
                 }
             } else { // 如果是 NaN 但没有 inf，则均分权重作为后备
-                Arrays.fill(weights, 1.0 / nIndicators);
+                Arrays.fill(weights, 1.0 / p);
             }
         } else {
             weights = Arrays.stream(invRArray).map(d -> d / totalInvR).toArray();
@@ -91,7 +148,10 @@ public class IndependenceWeightServiceImpl implements IndependenceWeightService
 
         // 最终归一化以处理浮点精度问题
         double finalSum = Arrays.stream(weights).sum();
-        return Arrays.stream(weights).map(w -> w / finalSum).toArray();
+        for (int j = 0; j < p; j++) {
+            blockWeights[varying[j]] = weights[j] / finalSum;
+        }
+        return blockWeights;
     }
 
     @Override
@@ -100,47 +160,108 @@ public class IndependenceWeightServiceImpl implements IndependenceWeightService
         if (totalCols != standardizedData[0].length) {
             throw new IllegalArgumentException("分块列数之和与数据总列数不匹配。");
         }
+        return calculateFinalWeights(ColumnStatistics.of(standardizedData, false, true), splitCols);
+    }
 
-        List<Double> combinedWeights = new ArrayList<>();
-        RealMatrix dataMatrix = new Array2DRowRealMatrix(standardizedData);
-        int currentCol = 0;
+    @Override
+    public double[] calculateFinalWeights(ColumnStatistics stats, List<Integer> splitCols) {
+        int totalCols = splitCols.stream().mapToInt(Integer::intValue).sum();
+        if (totalCols != stats.columns()) {
+            throw new IllegalArgumentException("分块列数之和与数据总列数不匹配。");
+        }
 
-        for (int cols : splitCols) {
-            double[] weights;
-            if (cols == 1) {
-                weights = new double[]{1.0};
-            } else {
-                double[][] part = dataMatrix.getSubMatrix(0, dataMatrix.getRowDimension() - 1, currentCol, currentCol + cols - 1).getData();
-                weights = independenceWeight(part);
-            }
+        // 各分块的相关系数都是整体协离差矩阵的子块，整份数据只扫描一次；分块之间相互独立，并行计算
+        List<Callable<double[]>> tasks = new ArrayList<>(splitCols.size());
+        int[] costs = new int[splitCols.size()];
+        int currentCol = 0;
+        for (int b = 0; b < splitCols.size(); b++) {
+            int from = currentCol;
+            int cols = splitCols.get(b);
+            tasks.add(() -> cols == 1 ? new double[]{1.0} : blockWeights(stats, from, cols));
+            costs[b] = cols;
+            currentCol += cols;
+        }
+        List<double[]> weightsPerBlock = taskRunner.invokeAll(tasks, costs);
 
-            for (double weight : weights) {
+        List<Double> combinedWeights = new ArrayList<>();
+        for (int b = 0; b < splitCols.size(); b++) {
+            int cols = splitCols.get(b);
+            for (double weight : weightsPerBlock.get(b)) {
                 combinedWeights.add(weight * cols / totalCols);
             }
-            currentCol += cols;
         }
 
         return combinedWeights.stream().mapToDouble(Double::doubleValue).toArray();
     }
 
-    // 辅助方法：获取矩阵的某一列
-    private double[] getColumn(double[][] matrix, int columnIndex) {
-        return Arrays.stream(matrix).mapToDouble(row -> row[columnIndex]).toArray();
+    /**
+     * 分块内各非常数指标对其余非常数指标做带截距线性回归的判定系数 R²，按 varying 的顺序返回。
+     * <p>
+     * 记 R 为这些指标的相关系数矩阵，则 R²_j = 1 − 1/(R⁻¹)_jj，一个分块只需做一次 LU 分解求逆。
+     * R 奇异（存在完全共线的指标）时上述恒等式不成立，改为逐个指标用伪逆求解。
+     */
+    private double[] blockRSquared(ColumnStatistics stats, int from, int[] varying, int p) {
+        double[] r2 = new double[p];
+        RealMatrix r = MatrixUtils.createRealMatrix(p, p);
+        for (int a = 0; a < p; a++) {
+            r.setEntry(a, a, 1.0);
+            for (int b = a + 1; b < p; b++) {
+                double value = stats.correlation(from + varying[a], from + varying[b]);
+                r.setEntry(a, b, value);
+                r.setEntry(b, a, value);
+            }
+        }
+
+        DecompositionSolver solver = new LUDecomposition(r).getSolver();
+        if (solver.isNonSingular()) {
+            RealMatrix inverse = solver.getInverse();
+            for (int a = 0; a < p; a++) {
+                r2[a] = Math.min(1.0, 1.0 - 1.0 / inverse.getEntry(a, a));
+            }
+        } else {
+            for (int a = 0; a < p; a++) {
+                r2[a] = rSquared(stats, from, varying, p, a);
+            }
+        }
+        return r2;
     }
 
-    // 辅助方法：删除矩阵的某一列
-    private double[][] removeColumn(double[][] matrix, int columnIndex) {
-        int nRows = matrix.length;
-        int nCols = matrix[0].length;
-        double[][] result = new double[nRows][nCols - 1];
-        for (int i = 0; i < nRows; i++) {
-            int newColIndex = 0;
-            for (int j = 0; j < nCols; j++) {
-                if (j != columnIndex) {
-                    result[i][newColIndex++] = matrix[i][j];
-                }
+    /**
+     * 分块内第 j 个非常数指标对其余非常数指标做带截距线性回归的判定系数 R² = r_jXᵀ · R_XX⁻¹ · r_jX，
+     * R_XX 奇异时用伪逆求解，得到的仍是在自变量张成空间上的投影。
+     */
+    private double rSquared(ColumnStatistics stats, int from, int[] varying, int nVarying, int j) {
+        int y = from + varying[j];
+        int[] predictors = new int[nVarying - 1];
+        int p = 0;
+        for (int k = 0; k < nVarying; k++) {
+            if (k != j) {
+                predictors[p++] = from + varying[k];
             }
         }
-        return result;
+
+        RealMatrix rxx = MatrixUtils.createRealMatrix(p, p);
+        double[] rxy = new double[p];
+        for (int a = 0; a < p; a++) {
+            rxy[a] = stats.correlation(predictors[a], y);
+            rxx.setEntry(a, a, 1.0);
+            for (int b = a + 1; b < p; b++) {
+                double r = stats.correlation(predictors[a], predictors[b]);
+                rxx.setEntry(a, b, r);
+                rxx.setEntry(b, a, r);
+            }
+        }
+
+        DecompositionSolver solver = new LUDecomposition(rxx).getSolver();
+        if (!solver.isNonSingular()) {
+            solver = new SingularValueDecomposition(rxx).getSolver();
+        }
+        double[] beta = solver.solve(new ArrayRealVector(rxy, false)).toArray();
+        double r2 = 0;
+        for (int a = 0; a < p; a++) {
+            r2 += rxy[a] * beta[a];
+        }
+        // 舍入可能使完全共线时的结果略大于 1
+        return Math.min(1.0, r2);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,214 @@
+package com.sfq.ecosystem.service.impl;
+
+import org.apache.commons.math3.linear.EigenDecomposition;
+import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.RealMatrix;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * 对称矩阵的前若干个特征对（块子空间迭代 + Rayleigh-Ritz）
+ * <p>
+ * 每轮把 k 维子空间乘以矩阵并重新正交化，再在子空间内做 k x k 的小规模特征值分解得到 Ritz 对。
+ * 当已收敛的前 p 个 Ritz 值之和达到目标值时停止，只需 O(n²·k) 的矩阵乘法，而不是完整分解的 O(n³)。
+ * 目标值在 k 维子空间内达不到时把子空间扩大一倍。
+ * <p>
+ * 特征值过于密集（子空间需要超过矩阵阶数的一半）或迭代次数用尽时返回 null，由调用方改用完整分解。
+ */
+class LeadingEigenSolver {
+
+    private static final int INITIAL_BLOCK = 16;
+    private static final int MAX_ITERATIONS = 500;
+    // Ritz 对的残差 ‖A·v − θ·v‖ 相对最大特征值的收敛阈值
+    private static final double TOLERANCE = 1e-11;
+    // 起始子空间取固定种子，使同一输入的结果可重现
+    private static final long SEED = 0x5EED_1234L;
+
+    private LeadingEigenSolver() {
+    }
+
+    /**
+     * @param matrix    对称矩阵，按行存放
+     * @param targetSum 需要达到的前若干个特征值之和
+     * @return 按特征值从大到小排列的前 p 个特征对（p 为特征值之和首次达到 targetSum 的个数）；无法高效求解时返回 null
+     */
+    static Result solve(double[][] matrix, double targetSum) {
+        int n = matrix.length;
+        int k = Math.min(n, INITIAL_BLOCK);
+        if (2 * k > n) {
+            return null;
+        }
+        Random random = new Random(SEED);
+        double[][] q = new double[k][];
+        for (int c = 0; c < k; c++) {
+            q[c] = randomVector(n, random);
+        }
+        orthonormalize(q, random);
+
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            double[][] z = multiply(matrix, q);
+
+            // Rayleigh-Ritz：子空间内的投影矩阵 B = Qᵀ·A·Q
+            RealMatrix b = MatrixUtils.createRealMatrix(k, k);
+            for (int a = 0; a < k; a++) {
+                for (int c = a; c < k; c++) {
+                    double value = 0.5 * (dot(q[a], z[c]) + dot(q[c], z[a]));
+                    b.setEntry(a, c, value);
+                    b.setEntry(c, a, value);
+                }
+            }
+            EigenDecomposition ed = new EigenDecomposition(b);
+            double[] theta = ed.getRealEigenvalues();
+            Integer[] order = IntStream.range(0, k).boxed().toArray(Integer[]::new);
+            Arrays.sort(order, Comparator.comparingDouble((Integer i) -> theta[i]).reversed());
+
+            int p = 0;
+            double cumulative = 0;
+            while (p < k && cumulative < targetSum) {
+                cumulative += theta[order[p]];
+                p++;
+            }
+            boolean reached = cumulative >= targetSum;
+            // 需要确认收敛的 Ritz 对：达到目标时为前 p 个，否则为全部
+            int needed = reached ? p : k;
+            double scale = Math.max(1.0, Math.abs(theta[order[0]]));
+
+            double[][] vectors = new double[needed][];
+            boolean converged = true;
+            for (int i = 0; i < needed; i++) {
+                double[] y = ed.getEigenvector(order[i]).toArray();
+                double[] v = combine(q, y, n);
+                double[] av = combine(z, y, n);
+                double residual = 0;
+                for (int r = 0; r < n; r++) {
+                    double d = av[r] - theta[order[i]] * v[r];
+                    residual += d * d;
+                }
+                if (Math.sqrt(residual) > TOLERANCE * scale) {
+                    converged = false;
+                    break;
+                }
+                vectors[i] = v;
+            }
+
+            if (reached && p < k && converged) {
+                double[] values = new double[p];
+                for (int i = 0; i < p; i++) {
+                    values[i] = theta[order[i]];
+                }
+                return new Result(values, vectors);
+            }
+            if (converged || (reached && p == k)) {
+                // 子空间内的特征值已收敛但仍达不到目标（或没有余量确认第 p 个），扩大子空间
+                int grown = Math.min(n, 2 * k);
+                if (2 * grown > n) {
+                    return null;
+                }
+                double[][] next = Arrays.copyOf(z, grown);
+                for (int c = k; c < grown; c++) {
+                    next[c] = randomVector(n, random);
+                }
+                k = grown;
+                q = next;
+            } else {
+                q = z;
+            }
+            orthonormalize(q, random);
+        }
+        return null;
+    }
+
+    static final class Result {
+        private final double[] values;
+        private final double[][] vectors;
+
+        Result(double[] values, double[][] vectors) {
+            this.values = values;
+            this.vectors = vectors;
+        }
+
+        // 特征值，从大到小
+        double[] values() { return values; }
+
+        // vectors()[i] 为第 i 个特征值对应的单位特征向量
+        double[][] vectors() { return vectors; }
+    }
+
+    // z[c] = A · q[c]，A 按行存放，逐行与各列向量做点积
+    private static double[][] multiply(double[][] matrix, double[][] q) {
+        int n = matrix.length;
+        int k = q.length;
+        double[][] z = new double[k][n];
+        for (int i = 0; i < n; i++) {
+            double[] row = matrix[i];
+            for (int c = 0; c < k; c++) {
+                z[c][i] = dot(row, q[c]);
+            }
+        }
+        return z;
+    }
+
+    // Σ_a columns[a] · y[a]
+    private static double[] combine(double[][] columns, double[] y, int n) {
+        double[] out = new double[n];
+        for (int a = 0; a < columns.length; a++) {
+            double ya = y[a];
+            double[] column = columns[a];
+            for (int r = 0; r < n; r++) {
+                out[r] += ya * column[r];
+            }
+        }
+        return out;
+    }
+
+    /**
+     * 修正 Gram-Schmidt 正交化（做两遍以保证数值正交性）；线性相关的列替换为新的随机向量
+     */
+    private static void orthonormalize(double[][] q, Random random) {
+        for (int c = 0; c < q.length; c++) {
+            for (int attempt = 0; ; attempt++) {
+                double original = Math.sqrt(dot(q[c], q[c]));
+                for (int pass = 0; pass < 2; pass++) {
+                    for (int a = 0; a < c; a++) {
+                        double projection = dot(q[a], q[c]);
+                        double[] qa = q[a];
+                        double[] qc = q[c];
+                        for (int r = 0; r < qc.length; r++) {
+                            qc[r] -= projection * qa[r];
+                        }
+                    }
+                }
+                double norm = Math.sqrt(dot(q[c], q[c]));
+                if (norm > 1e-10 * original && norm > 0) {
+                    for (int r = 0; r < q[c].length; r++) {
+                        q[c][r] /= norm;
+                    }
+                    break;
+                }
+                if (attempt > 8) {
+                    throw new IllegalStateException("无法构造正交子空间");
+                }
+                q[c] = randomVector(q[c].length, random);
+            }
+        }
+    }
+
+    private static double[] randomVector(int n, Random random) {
+        double[] v = new double[n];
+        for (int r = 0; r < n; r++) {
+            v[r] = random.nextGaussian();
+        }
+        return v;
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
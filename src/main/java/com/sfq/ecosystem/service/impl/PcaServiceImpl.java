@@ -1,14 +1,16 @@
 package com.sfq.ecosystem.service.impl;
 
+import com.sfq.ecosystem.model.ColumnStatistics;
+import com.sfq.ecosystem.model.MappedColumnMatrix;
 import com.sfq.ecosystem.service.PcaService;
+import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.EigenDecomposition;
 import org.apache.commons.math3.linear.MatrixUtils;
-import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.RealVector;
-import org.apache.commons.math3.stat.correlation.PearsonsCorrelation;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.DoubleStream;
@@ -18,6 +20,21 @@ public class PcaServiceImpl implements PcaService {
 
     // 累计贡献率阈值，用于确定主成分个数
     private static final double CUMULATIVE_CONTRIBUTION_THRESHOLD = 0.85;
+    // 指标数达到该值时改用截断求解，只计算前几个主成分
+    private static final int DEFAULT_TRUNCATED_MIN_INDICATORS = 200;
+
+    private final int truncatedMinIndicators;
+
+    public PcaServiceImpl() {
+        this(DEFAULT_TRUNCATED_MIN_INDICATORS);
+    }
+
+    /**
+     * @param truncatedMinIndicators 指标数不少于该值时只求前几个主成分，指标较少时始终做完整的特征值分解
+     */
+    public PcaServiceImpl(int truncatedMinIndicators) {
+        this.truncatedMinIndicators = truncatedMinIndicators;
+    }
 
     /**
      * 执行PCA赋权的主方法，功能上对应于Python脚本中的 principal_component_weighting 函数。
@@ -28,33 +45,75 @@ public class PcaServiceImpl implements PcaService {
     @Override
     public double[] principalComponentWeighting(double[][] data) {
         // Python脚本的最终版本中没有对数据进行标准化，所以我们直接进入计算相关系数矩阵的步骤。
-        RealMatrix dataMatrix = MatrixUtils.createRealMatrix(data);
-
-        // 第二步: 计算相关系数矩阵。
-        // PearsonsCorrelation 类计算的是输入矩阵各列之间的相关性。
-        RealMatrix correlationMatrix = new PearsonsCorrelation().computeCorrelationMatrix(dataMatrix);
+        if (data == null || data.length < 2 || data[0].length < 2) {
+            throw new IllegalArgumentException("输入数据必须至少包含2个样本和2个指标。");
+        }
+        return principalComponentWeighting(ColumnStatistics.of(data, false, true));
+    }
 
-        // 第三步和第四步: 计算主成分及其贡献率。
-        // 对相关系数矩阵进行特征值分解。
-        EigenDecomposition ed = new EigenDecomposition(correlationMatrix);
-        double[] eigenvalues = ed.getRealEigenvalues();
+    @Override
+    public double[] principalComponentWeighting(MappedColumnMatrix matrix) {
+        if (matrix == null || matrix.rows() < 2 || matrix.columns() < 2) {
+            throw new IllegalArgumentException("输入数据必须至少包含2个样本和2个指标。");
+        }
+        return principalComponentWeighting(ColumnStatistics.of(matrix, false, true));
+    }
 
-        // 创建一个包含特征值和对应特征向量的配对列表，以便能将它们一起排序。
-        List<EigenPair> eigenPairs = new ArrayList<>();
-        for (int i = 0; i < eigenvalues.length; i++) {
-            eigenPairs.add(new EigenPair(eigenvalues[i], ed.getEigenvector(i)));
+    @Override
+    public double[] principalComponentWeighting(ColumnStatistics stats) {
+        if (stats.rows() < 2 || stats.columns() < 2) {
+            throw new IllegalArgumentException("输入数据必须至少包含2个样本和2个指标。");
+        }
+        int columnCount = stats.columns();
+
+        // 离差平方和为零的指标（常量列）与其他指标的相关系数为 NaN，特征值分解无法进行；
+        // 它们不携带任何信息，权重记为 0，只对其余指标做主成分分析。
+        int[] varying = new int[columnCount];
+        int indicatorCount = 0; // 参与分析的指标数量
+        for (int j = 0; j < columnCount; j++) {
+            if (stats.centeredSumOfSquares(j) > 0) {
+                varying[indicatorCount++] = j;
+            }
+        }
+        if (indicatorCount < 2) {
+            double[] weights = new double[columnCount];
+            if (indicatorCount == 1) {
+                weights[varying[0]] = 1.0;
+            } else {
+                Arrays.fill(weights, 1.0 / columnCount);
+            }
+            return weights;
         }
 
-        // 根据特征值从大到小对配对列表进行排序。
-        eigenPairs.sort(Comparator.comparingDouble(EigenPair::getValue).reversed());
+        // 第二步: 由列统计量中的协离差得到相关系数矩阵。
+        double[][] correlation = new double[indicatorCount][indicatorCount];
+        boolean hasNaN = false;
+        for (int j = 0; j < indicatorCount; j++) {
+            correlation[j][j] = 1.0;
+            for (int k = j + 1; k < indicatorCount; k++) {
+                double r = stats.correlation(varying[j], varying[k]);
+                correlation[j][k] = r;
+                correlation[k][j] = r;
+                hasNaN |= Double.isNaN(r);
+            }
+        }
 
-        // 重新计算排序后的特征值和贡献率。
-        double[] sortedEigenvalues = eigenPairs.stream().mapToDouble(EigenPair::getValue).toArray();
-        double totalEigenvalueSum = DoubleStream.of(sortedEigenvalues).sum();
+        // 第三步和第四步: 计算主成分及其贡献率。
+        // 指标较多时只求达到累计贡献率阈值所需的前几个主成分；相关系数矩阵的特征值之和等于其迹，即指标数。
+        List<EigenPair> eigenPairs = null;
+        double totalEigenvalueSum = indicatorCount;
+        if (indicatorCount >= truncatedMinIndicators && !hasNaN) {
+            eigenPairs = leadingEigenPairs(correlation, CUMULATIVE_CONTRIBUTION_THRESHOLD * indicatorCount);
+        }
+        if (eigenPairs == null) {
+            eigenPairs = allEigenPairs(correlation);
+            totalEigenvalueSum = eigenPairs.stream().mapToDouble(EigenPair::getValue).sum();
+        }
 
-        double[] contributionRates = new double[sortedEigenvalues.length];
-        for (int i = 0; i < sortedEigenvalues.length; i++) {
-            contributionRates[i] = sortedEigenvalues[i] / totalEigenvalueSum;
+        // 计算贡献率。
+        double[] contributionRates = new double[eigenPairs.size()];
+        for (int i = 0; i < contributionRates.length; i++) {
+            contributionRates[i] = eigenPairs.get(i).getValue() / totalEigenvalueSum;
         }
 
         // 计算累计贡献率。
@@ -77,7 +136,6 @@ public class PcaServiceImpl implements PcaService {
         }
 
         // 第五步: 计算最终权重。
-        int indicatorCount = dataMatrix.getColumnDimension(); // 指标数量
         double[] omega = new double[indicatorCount];
 
         for (int j = 0; j < indicatorCount; j++) {
@@ -93,14 +151,48 @@ public class PcaServiceImpl implements PcaService {
 
         // 对权重进行归一化处理。
         double omegaSum = DoubleStream.of(omega).sum();
-        double[] finalWeights = new double[indicatorCount];
+        double[] finalWeights = new double[columnCount];
         for (int i = 0; i < indicatorCount; i++) {
-            finalWeights[i] = omega[i] / omegaSum;
+            finalWeights[varying[i]] = omega[i] / omegaSum;
         }
 
         return finalWeights;
     }
 
+    /**
+     * 完整的特征值分解，按特征值从大到小排列全部特征对
+     */
+    private static List<EigenPair> allEigenPairs(double[][] correlation) {
+        // 对相关系数矩阵进行特征值分解。
+        EigenDecomposition ed = new EigenDecomposition(MatrixUtils.createRealMatrix(correlation));
+        double[] eigenvalues = ed.getRealEigenvalues();
+
+        // 创建一个包含特征值和对应特征向量的配对列表，以便能将它们一起排序。
+        List<EigenPair> eigenPairs = new ArrayList<>();
+        for (int i = 0; i < eigenvalues.length; i++) {
+            eigenPairs.add(new EigenPair(eigenvalues[i], ed.getEigenvector(i)));
+        }
+
+        // 根据特征值从大到小对配对列表进行排序。
+        eigenPairs.sort(Comparator.comparingDouble(EigenPair::getValue).reversed());
+        return eigenPairs;
+    }
+
+    /**
+     * 只求特征值之和达到 targetSum 所需的前几个特征对；特征值过于密集、截断求解不划算时返回 null
+     */
+    private static List<EigenPair> leadingEigenPairs(double[][] correlation, double targetSum) {
+        LeadingEigenSolver.Result result = LeadingEigenSolver.solve(correlation, targetSum);
+        if (result == null) {
+            return null;
+        }
+        List<EigenPair> eigenPairs = new ArrayList<>(result.values().length);
+        for (int i = 0; i < result.values().length; i++) {
+            eigenPairs.add(new EigenPair(result.values()[i], new ArrayRealVector(result.vectors()[i], false)));
+        }
+        return eigenPairs;
+    }
+
     /**
      * 用于存储特征值和特征向量对的辅助内部类。
      */
@@ -0,0 +1,63 @@
+package com.sfq.ecosystem.service.impl;
+
+import com.sfq.ecosystem.model.SlidingWindowMoments;
+import com.sfq.ecosystem.service.CriticService;
+import com.sfq.ecosystem.service.PcaService;
+
+/**
+ * 最近 N 条记录的 CRITIC 与主成分权重
+ * <p>
+ * 窗口的均值与协离差矩阵由 {@link SlidingWindowMoments} 增量维护，每条新记录的开销为 O(指标数²)。
+ * CRITIC 权重每次直接由当前的矩计算；主成分分析需要特征值分解，结果按窗口版本号缓存，
+ * 窗口内容变化后的第一次查询才重新分解。
+ */
+public class SlidingWindowWeights {
+
+    private final SlidingWindowMoments moments;
+    private final CriticService criticService;
+    private final PcaService pcaService;
+
+    private long pcaVersion = -1;
+    private double[] pcaWeights;
+
+    public SlidingWindowWeights(int columns, int windowSize, CriticService criticService, PcaService pcaService) {
+        this.moments = new SlidingWindowMoments(columns, windowSize);
+        this.criticService = criticService;
+        this.pcaService = pcaService;
+    }
+
+    /**
+     * 加入一条最新的记录，窗口已满时移出最早的一条
+     */
+    public synchronized void add(double[] row) {
+        moments.add(row);
+    }
+
+    public synchronized int size() {
+        return moments.size();
+    }
+
+    /**
+     * 当前窗口的 CRITIC 权重，窗口中不足 2 条记录时返回 null
+     */
+    public synchronized double[] criticWeights() {
+        if (moments.size() < 2) {
+            return null;
+        }
+        return criticService.criticMethod(moments.toStatistics());
+    }
+
+    /**
+     * 当前窗口的主成分权重，窗口中不足 2 条记录时返回 null
+     */
+    public synchronized double[] pcaWeights() {
+        if (moments.size() < 2) {
+            return null;
+        }
+        if (pcaVersion != moments.version()) {
+            pcaWeights = pcaService.principalComponentWeighting(moments.toStatistics());
+            pcaVersion = moments.version();
+        }
+        return pcaWeights.clone();
+    }
+}
@@ -3,24 +3,62 @@ package com.sfq.ecosystem.service.impl;
 
 import com.sfq.ecosystem.dto.*;
 import com.sfq.ecosystem.entity.TrainingData;
+import com.sfq.ecosystem.entity.TrainingDataCredibility;
+import com.sfq.ecosystem.model.ColumnStatistics;
+import com.sfq.ecosystem.model.CredibilityReport;
+import com.sfq.ecosystem.model.EntropyAccumulator;
+import com.sfq.ecosystem.model.EvaluationResult;
 import com.sfq.ecosystem.model.EvaluationType;
+import com.sfq.ecosystem.model.LayerCredibility;
+import com.sfq.ecosystem.model.MappedColumnMatrix;
+import com.sfq.ecosystem.model.RowIdIndex;
+import com.sfq.ecosystem.repository.TrainingDataCredibilityMapper;
 import com.sfq.ecosystem.repository.TrainingDataMapper;
+import com.sfq.ecosystem.service.CriticService;
+import com.sfq.ecosystem.service.EntropyWeightService;
+import com.sfq.ecosystem.service.EvaluationConfigService;
 import com.sfq.ecosystem.service.IEvaluationService;
+import com.sfq.ecosystem.service.IndependenceWeightService;
 import com.sfq.ecosystem.service.IndicatorEvaluationService;
+import com.sfq.ecosystem.service.PcaService;
 import com.sfq.ecosystem.service.TrainingDataService;
+import com.sfq.ecosystem.service.strategy.ConfigVersion;
+import com.sfq.ecosystem.service.strategy.EvaluationConfig;
+import com.sfq.ecosystem.service.strategy.EvaluationPlan;
+import com.sfq.ecosystem.service.strategy.EvaluationStrategyFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 @Service
 public class TrainingDataServiceImpl implements TrainingDataService {
 
+    // 重新评估过期记录时每批读取的记录条数
+    private static final int STALE_BATCH_SIZE = 200;
+    // 重新定级每页最多的记录条数
+    private static final int REGRADE_MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private TrainingDataMapper trainingDataMapper;
 
@@ -30,6 +68,45 @@ public class TrainingDataServiceImpl implements TrainingDataService {
     @Autowired
     private IEvaluationService evaluationService;
 
+    @Autowired
+    private TrainingDataCredibilityMapper credibilityMapper;
+
+    @Autowired
+    private EvaluationConfigService evaluationConfigService;
+
+    @Autowired
+    private PcaService pcaService;
+
+    @Autowired
+    private IndependenceWeightService independenceWeightService;
+
+    @Autowired(required = false)
+    private EvaluationTaskRunner taskRunner = EvaluationTaskRunner.SEQUENTIAL;
+
+    // 滑动窗口赋权使用的最近记录条数
+    @Value("${weighting.window-size:10}")
+    private int weightWindowSize = 10;
+
+    // 全量历史矩阵（内存映射文件）所在目录，为空时使用系统临时目录
+    @Value("${weighting.matrix-dir:}")
+    private String matrixDirectory = "";
+
+    private final EntropyWeightService entropyWeightService = new EntropyWeightServiceImpl();
+    private final CriticService criticService = new CriticServiceImpl();
+
+    // 以下增量统计量均由 statisticsLock 保护，为 null 表示尚未初始化（首次查询时从数据库读取）：
+    // 各子系统全部记录的熵权累加器，随记录的增删改逐行更新
+    private final Object statisticsLock = new Object();
+    private Map<EvaluationType, EntropyAccumulator> entropyAccumulators;
+    // 各子系统最近 weightWindowSize 条记录的滑动窗口；新增记录时滑动，修改或删除记录时整体失效后重新读取
+    private Map<EvaluationType, SlidingWindowWeights> windowWeights;
+    // 各子系统全部记录的按列存储矩阵，位于堆外的内存映射文件中；新增记录时追加，修改记录时按行号覆盖，
+    // 删除记录时以最后一行填补；各子系统的矩阵行序相同，由 historyRows 中记录ID与行号的双向索引定位
+    private Map<EvaluationType, MappedColumnMatrix> historyMatrices;
+    private RowIdIndex historyRows;
+    // 已写入数据库但事务尚未结束的变更数，初始化需等这些事务结束，避免漏计或重复计入
+    private int pendingStatisticsChanges;
+
     @Override
     public OverallEvaluationDTO getOverallEvaluation() {
         Map<String, String> result = trainingDataMapper.findOverallEvaluation();
@@ -113,90 +190,373 @@ public class TrainingDataServiceImpl implements TrainingDataService {
      * 新增训练数据，并在持久化前进行评估
      */
     @Override
+    @Transactional
     public TrainingData createTrainingData(TrainingData trainingData) {
-        // 1. 对传入的原始数据进行高层级评估
-        performAndSetEvaluations(trainingData);
+        // 1. 先记下当前配置版本，再对传入的原始数据进行高层级评估
+        trainingData.setConfigVersion(evaluationConfigService.getCurrentVersion().getVersion());
+        List<TrainingDataCredibility> credibilities = performAndSetEvaluations(trainingData);
 
         // 2. 设置录入时间为当前时间
         trainingData.setEntryTime(LocalDateTime.now());
 
         // 3. 持久化包含原始数据和评估结果的完整对象
         trainingDataMapper.insert(trainingData);
+        recordStatisticsChange(null, trainingData);
+
+        // 4. 保存各层各等级的可信度得分，供调整阈值后直接重新定级
+        saveCredibilities(trainingData.getId(), credibilities);
         return trainingData;
     }
 
     /**
      * 更新训练数据，并在持久化前重新进行评估
+     * <p>
+     * 与库中的原记录逐指标比较：某个子系统的指标没有变化时沿用原有等级与可信度得分；
+     * 有变化时只重新计算该子系统的目标层与包含变化指标的准则层，其余准则层沿用原结果。
+     * 原记录评估之后配置发生过变化的子系统不沿用原结果，按当前配置整体重新评估。
      */
     @Override
+    @Transactional
     public TrainingData updateTrainingData(Integer id, TrainingData trainingData) {
         trainingData.setId(id);
+        TrainingData stored = trainingDataMapper.findById(id);
+        if (stored == null) {
+            // 该ID不存在
+            return null;
+        }
 
-        // 1. 根据更新后的原始数据重新进行高层级评估
-        performAndSetEvaluations(trainingData);
+        // 1. 只对发生变化的层重新评估，其余层沿用原结果
+        ConfigVersion config = evaluationConfigService.getCurrentVersion();
+        trainingData.setConfigVersion(config.getVersion());
+        List<Callable<CredibilityReport>> tasks = new ArrayList<>();
+        List<Integer> costs = new ArrayList<>();
+        Set<EvaluationType> staleTypes = EnumSet.noneOf(EvaluationType.class);
+        for (EvaluationType evaluationType : EvaluationType.values()) {
+            copyLevels(stored, trainingData, evaluationType);
+            double[] rawData = extractRawData(trainingData, evaluationType);
+            if (config.config(evaluationType).isStale(stored.getConfigVersion())) {
+                staleTypes.add(evaluationType);
+                tasks.add(() -> evaluationService.evaluateCredibilities(rawData, evaluationType));
+                costs.add(rawData.length);
+                continue;
+            }
+            Set<String> changedGroups = findChangedGroups(evaluationType, extractRawData(stored, evaluationType), rawData);
+            if (changedGroups != null) {
+                tasks.add(() -> evaluationService.evaluateCredibilities(rawData, evaluationType, changedGroups));
+                costs.add(rawData.length);
+            }
+        }
+
+        List<TrainingDataCredibility> credibilities = new ArrayList<>();
+        Map<EvaluationType, List<Integer>> replacedLayers = new LinkedHashMap<>();
+        for (CredibilityReport report : taskRunner.invokeAll(tasks, costs.stream().mapToInt(Integer::intValue).toArray())) {
+            applyLevels(trainingData, report);
+            replacedLayers.put(report.getEvaluationType(), collectCredibilities(report, credibilities));
+        }
 
         // 2. 更新数据库
         int affectedRows = trainingDataMapper.update(trainingData);
         if (affectedRows == 0) {
-            // 如果没有行被更新，可能意味着该ID不存在
+            // 如果没有行被更新，可能意味着该ID已被删除
             return null;
         }
+
+        recordStatisticsChange(stored, trainingData);
+
+        // 3. 只替换重新计算过的层的可信度得分
+        for (Map.Entry<EvaluationType, List<Integer>> entry : replacedLayers.entrySet()) {
+            if (staleTypes.contains(entry.getKey())) {
+                // 配置变化后分组可能不同，整体替换该子系统的得分
+                credibilityMapper.deleteByEvaluationType(id, entry.getKey().name());
+            } else {
+                credibilityMapper.deleteLayers(id, entry.getKey().name(), entry.getValue());
+            }
+        }
+        saveCredibilities(id, credibilities);
         return trainingData;
     }
 
+    @Override
+    public long countStaleRecords(EvaluationType evaluationType) {
+        ConfigVersion config = evaluationConfigService.getCurrentVersion();
+        return trainingDataMapper.countStale(config.config(evaluationType).getSinceVersion());
+    }
+
+    /**
+     * 按当前评估配置重新评估等级已过期的记录
+     * <p>
+     * 过期记录按配置版本号上的索引分批读取；每条记录只重新评估其评估之后配置发生过变化的子系统，
+     * 整体替换这些子系统的等级与可信度得分，并标注为当前配置版本。原始指标没有变化，增量统计量不受影响。
+     * 写回时只更新等级列与配置版本号，并以读取时的配置版本号为条件：期间被修改或删除的记录跳过，不计入重新定级的条数。
+     */
+    @Override
+    @Transactional
+    public int regradeStaleRecords(int limit) {
+        ConfigVersion config = evaluationConfigService.getCurrentVersion();
+        int regraded = 0;
+        int afterId = 0;
+        while (regraded < limit) {
+            List<TrainingData> batch = trainingDataMapper.findStale(config.staleBefore(), afterId,
+                    Math.min(STALE_BATCH_SIZE, limit - regraded));
+            if (batch.isEmpty()) {
+                break;
+            }
+            for (TrainingData record : batch) {
+                afterId = record.getId();
+                if (regradeStaleRecord(record, config)) {
+                    regraded++;
+                }
+            }
+        }
+        return regraded;
+    }
+
+    private boolean regradeStaleRecord(TrainingData record, ConfigVersion config) {
+        List<Callable<CredibilityReport>> tasks = new ArrayList<>();
+        List<Integer> costs = new ArrayList<>();
+        for (EvaluationType evaluationType : EvaluationType.values()) {
+            if (config.config(evaluationType).isStale(record.getConfigVersion())) {
+                double[] rawData = extractRawData(record, evaluationType);
+                tasks.add(() -> evaluationService.evaluateCredibilities(rawData, evaluationType));
+                costs.add(rawData.length);
+            }
+        }
+
+        // 只写回重新评估的子系统的等级列，其余等级列与原始指标保持为 null、不在更新之列
+        TrainingData levels = new TrainingData();
+        levels.setId(record.getId());
+        List<TrainingDataCredibility> credibilities = new ArrayList<>();
+        List<EvaluationType> regradedTypes = new ArrayList<>();
+        for (CredibilityReport report : taskRunner.invokeAll(tasks, costs.stream().mapToInt(Integer::intValue).toArray())) {
+            applyLevels(levels, report);
+            collectCredibilities(report, credibilities);
+            regradedTypes.add(report.getEvaluationType());
+        }
+        levels.setConfigVersion(config.getVersion());
+        if (trainingDataMapper.updateLevels(levels, record.getConfigVersion()) == 0) {
+            // 记录已被删除，或读取之后已被修改（修改时按当时的配置重新评估），不再覆盖
+            return false;
+        }
+        for (EvaluationType evaluationType : regradedTypes) {
+            credibilityMapper.deleteByEvaluationType(record.getId(), evaluationType.name());
+        }
+        saveCredibilities(record.getId(), credibilities);
+        return true;
+    }
+
     /**
      * 私有辅助方法，用于执行所有子系统的评估并设置回对象
      * @param data 包含原始指标数据的TrainingData对象
+     * @return 各子系统各层各等级的可信度得分（尚未设置记录ID）
+     */
+    private List<TrainingDataCredibility> performAndSetEvaluations(TrainingData data) {
+        // 三个子系统相互独立，在评估专用线程池上并行计算，开销按指标数估算
+        EvaluationType[] types = EvaluationType.values();
+        List<Callable<CredibilityReport>> tasks = new ArrayList<>(types.length);
+        int[] costs = new int[types.length];
+        for (int i = 0; i < types.length; i++) {
+            EvaluationType evaluationType = types[i];
+            double[] rawData = extractRawData(data, evaluationType);
+            // 一次性评估总体等级与各准则层等级
+            tasks.add(() -> evaluationService.evaluateCredibilities(rawData, evaluationType));
+            costs[i] = rawData.length;
+        }
+
+        List<TrainingDataCredibility> credibilities = new ArrayList<>();
+        for (CredibilityReport report : taskRunner.invokeAll(tasks, costs)) {
+            applyLevels(data, report);
+            collectCredibilities(report, credibilities);
+        }
+        return credibilities;
+    }
+
+    /**
+     * 找出原始数据发生变化的准则层
+     * @return 包含变化指标的准则层名称；没有任何指标变化时返回 null
+     */
+    private Set<String> findChangedGroups(EvaluationType evaluationType, double[] previous, double[] incoming) {
+        boolean changed = false;
+        Set<String> changedGroups = new HashSet<>();
+        Map<String, int[]> groups = EvaluationStrategyFactory.getStrategy(evaluationType).getCriterionGroups();
+        for (int i = 0; i < incoming.length; i++) {
+            if (Double.compare(previous[i], incoming[i]) == 0) {
+                continue;
+            }
+            changed = true;
+            for (Map.Entry<String, int[]> group : groups.entrySet()) {
+                for (int index : group.getValue()) {
+                    if (index == i) {
+                        changedGroups.add(group.getKey());
+                        break;
+                    }
+                }
+            }
+        }
+        return changed ? changedGroups : null;
+    }
+
+    /**
+     * 将一个子系统各层的评估等级设置回对象，报告中没有的准则层保持不变
+     */
+    private void applyLevels(TrainingData data, CredibilityReport report) {
+        EvaluationResult result = report.toEvaluationResult();
+        switch (report.getEvaluationType()) {
+            case XIETONG:
+                data.setX(result.getTargetLevel());
+                break;
+            case ZIYUAN:
+                data.setZ(result.getTargetLevel());
+                break;
+            case FUWU:
+                data.setF(result.getTargetLevel());
+                break;
+            default:
+                throw new IllegalArgumentException("不支持的评估类型: " + report.getEvaluationType());
+        }
+        for (Map.Entry<String, String> entry : result.getCriterionLevels().entrySet()) {
+            setCriterionLevel(data, entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * 将原记录中某个子系统各层的等级复制到新对象
+     */
+    private void copyLevels(TrainingData from, TrainingData to, EvaluationType evaluationType) {
+        switch (evaluationType) {
+            case XIETONG:
+                to.setX(from.getX());
+                to.setXV(from.getXV());
+                to.setXO(from.getXO());
+                to.setXR(from.getXR());
+                to.setXS(from.getXS());
+                break;
+            case ZIYUAN:
+                to.setZ(from.getZ());
+                to.setZV(from.getZV());
+                to.setZO(from.getZO());
+                to.setZS(from.getZS());
+                break;
+            case FUWU:
+                to.setF(from.getF());
+                to.setFV(from.getFV());
+                to.setFO(from.getFO());
+                to.setFR(from.getFR());
+                to.setFS(from.getFS());
+                break;
+            default:
+                throw new IllegalArgumentException("不支持的评估类型: " + evaluationType);
+        }
+    }
+
+    // 根据策略文件中定义的组名映射到对应的等级字段
+    private void setCriterionLevel(TrainingData data, String groupName, String level) {
+        switch (groupName) {
+            case "协同产出层": data.setXV(level); break;
+            case "协同主体层": data.setXO(level); break;
+            case "协同关系层": data.setXR(level); break;
+            case "协同数据层": data.setXS(level); break;
+            case "资源产出层": data.setZV(level); break;
+            case "资源要素层": data.setZO(level); break;
+            case "资源接口层": data.setZS(level); break;
+            case "服务产出层": data.setFV(level); break;
+            case "服务能力层": data.setFO(level); break;
+            case "服务安全层": data.setFR(level); break;
+            case "服务交互层": data.setFS(level); break;
+            default:
+                // 没有对应字段的准则层不落库
+                break;
+        }
+    }
+
+    /**
+     * 将一个子系统各层五个等级的可信度得分展开为待持久化的行
+     * <p>
+     * 层序号按策略中的完整分组顺序编号（0 为目标层），与报告中包含哪些准则层无关。
+     *
+     * @return 本次写出的层序号
+     */
+    private List<Integer> collectCredibilities(CredibilityReport report, List<TrainingDataCredibility> out) {
+        Map<String, Integer> groupIndex = new HashMap<>();
+        List<EvaluationPlan> groupPlans = EvaluationStrategyFactory.getCriterionPlans(report.getEvaluationType());
+        for (int g = 0; g < groupPlans.size(); g++) {
+            groupIndex.put(groupPlans.get(g).getName(), g + 1);
+        }
+
+        List<Integer> layerIndices = new ArrayList<>();
+        addCredibilityRows(report.getEvaluationType(), 0, report.getTargetLayer(), out);
+        layerIndices.add(0);
+        for (LayerCredibility layer : report.getCriterionLayers()) {
+            int layerIndex = groupIndex.get(layer.getName());
+            addCredibilityRows(report.getEvaluationType(), layerIndex, layer, out);
+            layerIndices.add(layerIndex);
+        }
+        return layerIndices;
+    }
+
+    private void addCredibilityRows(EvaluationType evaluationType, int layerIndex, LayerCredibility layer,
+                                    List<TrainingDataCredibility> out) {
+        double[] s = layer.getScoreS(), h = layer.getScoreH(), mu = layer.getScoreMU(), hu = layer.getScoreHU();
+        for (int level = 0; level < s.length; level++) {
+            TrainingDataCredibility row = new TrainingDataCredibility();
+            row.setEvaluationType(evaluationType.name());
+            row.setLayerIndex(layerIndex);
+            row.setLayerName(layer.getName());
+            row.setLevel(level);
+            row.setScoreS(s[level]);
+            row.setScoreH(h[level]);
+            row.setScoreMu(mu[level]);
+            row.setScoreHu(hu[level]);
+            out.add(row);
+        }
+    }
+
+    private void saveCredibilities(Integer trainingDataId, List<TrainingDataCredibility> credibilities) {
+        if (trainingDataId == null || credibilities.isEmpty()) {
+            return;
+        }
+        credibilities.forEach(c -> c.setTrainingDataId(trainingDataId));
+        credibilityMapper.insertBatch(credibilities);
+    }
+
+    /**
+     * 按策略中的指标顺序取出某个子系统的原始指标数据
      */
-    private void performAndSetEvaluations(TrainingData data) {
-        // --- 协同子系统评估 ---
-        double[] xietongRawData = {
-                data.getXV11().doubleValue(), data.getXV12().doubleValue(), data.getXV13().doubleValue(), data.getXV14().doubleValue(),
-                data.getXV21().doubleValue(), data.getXV22().doubleValue(), data.getXO11().doubleValue(), data.getXO21().doubleValue(),
-                data.getXO31().doubleValue(), data.getXO32().doubleValue(), data.getXR11().doubleValue(), data.getXR12().doubleValue(),
-                data.getXR13().doubleValue(), data.getXS11().doubleValue()
-        };
-        // 评估总体等级 X
-        data.setX(evaluationService.evaluateTargetLayer(xietongRawData, EvaluationType.XIETONG));
-        // 评估准则层等级 X_V, X_O, X_R, X_S
-        Map<String, String> xietongCriterionResults = evaluationService.evaluateCriterionLayer(xietongRawData, EvaluationType.XIETONG);
-        // 根据策略文件中定义的组名进行映射
-        data.setXV(xietongCriterionResults.get("协同产出层"));
-        data.setXO(xietongCriterionResults.get("协同主体层"));
-        data.setXR(xietongCriterionResults.get("协同关系层"));
-        data.setXS(xietongCriterionResults.get("协同数据层"));
-
-        // --- 资源子系统评估 ---
-        double[] ziyuanRawData = {
-                data.getZV11().doubleValue(), data.getZV12().doubleValue(), data.getZV21().doubleValue(), data.getZV22().doubleValue(),
-                data.getZV31().doubleValue(), data.getZV32().doubleValue(), data.getZO11().doubleValue(), data.getZO21().doubleValue(),
-                data.getZO31().doubleValue(), data.getZO32().doubleValue(), data.getZS11().doubleValue()
-        };
-        data.setZ(evaluationService.evaluateTargetLayer(ziyuanRawData, EvaluationType.ZIYUAN));
-        Map<String, String> ziyuanCriterionResults = evaluationService.evaluateCriterionLayer(ziyuanRawData, EvaluationType.ZIYUAN);
-        data.setZV(ziyuanCriterionResults.get("资源产出层"));
-        data.setZO(ziyuanCriterionResults.get("资源要素层"));
-        data.setZS(ziyuanCriterionResults.get("资源接口层"));
-
-        // --- 服务子系统评估 ---
-        double[] fuwuRawData = {
-                data.getFV11().doubleValue(), data.getFV12().doubleValue(), data.getFV21().doubleValue(), data.getFV22().doubleValue(),
-                data.getFV31().doubleValue(), data.getFV32().doubleValue(), data.getFO11().doubleValue(), data.getFR11().doubleValue(),
-                data.getFR12().doubleValue(), data.getFR13().doubleValue(), data.getFS11().doubleValue(), data.getFS12().doubleValue()
-        };
-        data.setF(evaluationService.evaluateTargetLayer(fuwuRawData, EvaluationType.FUWU));
-        Map<String, String> fuwuCriterionResults = evaluationService.evaluateCriterionLayer(fuwuRawData, EvaluationType.FUWU);
-        data.setFV(fuwuCriterionResults.get("服务产出层"));
-        data.setFO(fuwuCriterionResults.get("服务能力层"));
-        data.setFR(fuwuCriterionResults.get("服务安全层"));
-        data.setFS(fuwuCriterionResults.get("服务交互层"));
+    private double[] extractRawData(TrainingData data, EvaluationType evaluationType) {
+        switch (evaluationType) {
+            case XIETONG:
+                return new double[]{
+                        data.getXV11().doubleValue(), data.getXV12().doubleValue(), data.getXV13().doubleValue(), data.getXV14().doubleValue(),
+                        data.getXV21().doubleValue(), data.getXV22().doubleValue(), data.getXO11().doubleValue(), data.getXO21().doubleValue(),
+                        data.getXO31().doubleValue(), data.getXO32().doubleValue(), data.getXR11().doubleValue(), data.getXR12().doubleValue(),
+                        data.getXR13().doubleValue(), data.getXS11().doubleValue()
+                };
+            case ZIYUAN:
+                return new double[]{
+                        data.getZV11().doubleValue(), data.getZV12().doubleValue(), data.getZV21().doubleValue(), data.getZV22().doubleValue(),
+                        data.getZV31().doubleValue(), data.getZV32().doubleValue(), data.getZO11().doubleValue(), data.getZO21().doubleValue(),
+                        data.getZO31().doubleValue(), data.getZO32().doubleValue(), data.getZS11().doubleValue()
+                };
+            case FUWU:
+                return new double[]{
+                        data.getFV11().doubleValue(), data.getFV12().doubleValue(), data.getFV21().doubleValue(), data.getFV22().doubleValue(),
+                        data.getFV31().doubleValue(), data.getFV32().doubleValue(), data.getFO11().doubleValue(), data.getFR11().doubleValue(),
+                        data.getFR12().doubleValue(), data.getFR13().doubleValue(), data.getFS11().doubleValue(), data.getFS12().doubleValue()
+                };
+            default:
+                throw new IllegalArgumentException("不支持的评估类型: " + evaluationType);
+        }
     }
     @Override
+    @Transactional
     public void deleteTrainingData(Integer id) {
+        TrainingData stored = trainingDataMapper.findById(id);
+        // 可信度得分由外键 ON DELETE CASCADE 随记录一并删除
         int affectedRows = trainingDataMapper.delete(id);
         if (affectedRows == 0) {
             // 如果没有行被删除，处理方式同上
+            return;
         }
+        recordStatisticsChange(stored, null);
     }
 
     @Override
@@ -210,6 +570,362 @@ public class TrainingDataServiceImpl implements TrainingDataService {
         return trainingDataMapper.findById(id);
     }
 
+    @Override
+    public ThetaSweepDTO sweepTheta(Integer id, EvaluationType evaluationType, List<Double> thetas) {
+        TrainingData data = trainingDataMapper.findById(id);
+        if (data == null) {
+            return null;
+        }
+        // 可信度只计算一次，之后每个阈值只做得分比较
+        CredibilityReport report = evaluationService.evaluateCredibilities(extractRawData(data, evaluationType), evaluationType);
+        List<ThetaSweepPointDTO> points = new ArrayList<>(thetas.size());
+        for (Double theta : thetas) {
+            EvaluationResult result = report.resolve(theta);
+            points.add(new ThetaSweepPointDTO(theta, result.getTargetLevel(), result.getCriterionLevels()));
+        }
+
+        ThetaSweepDTO dto = new ThetaSweepDTO();
+        dto.setId(id);
+        dto.setEvaluationType(evaluationType);
+        dto.setCredibilities(report);
+        dto.setResults(points);
+        return dto;
+    }
+
+    /**
+     * 用新的阈值对某个子系统的全部历史记录重新定级
+     * <p>
+     * 逐行读取写入时保存的可信度得分并与新阈值比较，不重新计算可信度，同一时刻只在内存中保留一层的得分。
+     * 按记录ID分页，与 {@link #regradeStaleRecords} 一样以上一页最后的ID为起点，每次只读取并返回一页。
+     * 只读不写：没有保存得分、或者得分缺层缺等级的记录（如得分表建立之前写入的记录）不在结果之中，
+     * 由 {@link #backfillCredibilities} 补写，但计入每页的条数；记录评估之后该子系统的配置已变化时，结果标注为过期。
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public RegradePageDTO regradeHistory(EvaluationType evaluationType, double theta, int afterId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, REGRADE_MAX_PAGE_SIZE));
+        CredibilityRegrader regrader = newRegrader(evaluationType, theta);
+        credibilityMapper.scanPageByEvaluationType(evaluationType.name(), afterId, pageSize, regrader);
+        List<RegradeResultDTO> records = new ArrayList<>(regrader.finish().values());
+        return new RegradePageDTO(records, regrader.getRecordCount() < pageSize ? null : regrader.getLastRecordId());
+    }
+
+    /**
+     * 为得分缺失或不完整的记录重新计算并补写某个子系统的可信度得分
+     * <p>
+     * 流式读取结束后才开始写入。等级已过期的记录跳过，由 {@link #regradeStaleRecords} 按当前配置整体重新评估并替换得分，
+     * 以免按新配置计算的得分与记录中按旧配置评估的等级不一致。
+     */
+    @Override
+    @Transactional
+    public int backfillCredibilities(EvaluationType evaluationType) {
+        EvaluationConfig config = evaluationConfigService.getCurrentVersion().config(evaluationType);
+        CredibilityRegrader regrader = newRegrader(evaluationType, config.getTheta());
+        credibilityMapper.scanByEvaluationType(evaluationType.name(), regrader);
+        regrader.finish();
+
+        List<Integer> missing = new ArrayList<>(regrader.getIncomplete());
+        missing.addAll(credibilityMapper.findIdsWithoutCredibilities(evaluationType.name()));
+        int backfilled = 0;
+        for (Integer id : missing) {
+            TrainingData record = trainingDataMapper.findById(id);
+            if (record == null || config.isStale(record.getConfigVersion())) {
+                continue;
+            }
+            CredibilityReport report = evaluationService.evaluateCredibilities(extractRawData(record, evaluationType), evaluationType);
+            List<TrainingDataCredibility> credibilities = new ArrayList<>();
+            collectCredibilities(report, credibilities);
+            credibilityMapper.deleteByEvaluationType(id, evaluationType.name());
+            saveCredibilities(id, credibilities);
+            backfilled++;
+        }
+        return backfilled;
+    }
+
+    private CredibilityRegrader newRegrader(EvaluationType evaluationType, double theta) {
+        String[] levelNames = evaluationService.getLevelNames().toArray(new String[0]);
+        int layers = 1 + EvaluationStrategyFactory.getCriterionPlans(evaluationType).size();
+        EvaluationConfig config = evaluationConfigService.getCurrentVersion().config(evaluationType);
+        return new CredibilityRegrader(theta, config, levelNames, layers);
+    }
+
+    /**
+     * 按当前全部训练数据计算某个子系统各原始指标的熵权
+     * <p>
+     * 熵权由增量累加器给出，新增、修改、删除记录时只更新累加器，不重新读取整张表。
+     */
+    @Override
+    public double[] getEntropyWeights(EvaluationType evaluationType) {
+        EntropyAccumulator snapshot;
+        synchronized (statisticsLock) {
+            if (entropyAccumulators == null) {
+                awaitPendingChanges();
+                entropyAccumulators = seedEntropyAccumulators();
+            }
+            snapshot = entropyAccumulators.get(evaluationType).copy();
+        }
+        return entropyWeightService.entropyWeightMethod(snapshot);
+    }
+
+    /**
+     * 按最近 weightWindowSize 条记录计算某个子系统的 CRITIC 与主成分权重
+     * <p>
+     * 窗口的矩随新增记录增量滑动，主成分分解只在窗口变化后重新计算。
+     */
+    @Override
+    public WindowWeightsDTO getWindowWeights(EvaluationType evaluationType) {
+        SlidingWindowWeights weights;
+        synchronized (statisticsLock) {
+            if (windowWeights == null) {
+                awaitPendingChanges();
+                windowWeights = seedWindowWeights();
+            }
+            weights = windowWeights.get(evaluationType);
+        }
+        return new WindowWeightsDTO(evaluationType, weights.size(), weights.criticWeights(), weights.pcaWeights());
+    }
+
+    /**
+     * 按当前全部训练数据计算某个子系统的熵权、CRITIC、主成分与独立性权重
+     * <p>
+     * 全部记录按列存放在内存映射文件中，新增记录时逐行追加，修改或删除记录时按行号原地改写；计算时取当前行数的只读快照，
+     * 由同一次按列扫描得到的列统计量推导四种权重，不在堆上保留整张表。
+     */
+    @Override
+    public HistoryWeightsDTO getHistoryWeights(EvaluationType evaluationType) {
+        ColumnStatistics stats;
+        // 统计量算出后即关闭快照，使其引用的区域可以回收
+        try (MappedColumnMatrix snapshot = getHistoryMatrix(evaluationType)) {
+            if (snapshot.rows() == 0) {
+                return new HistoryWeightsDTO(evaluationType, 0, null, null, null, null);
+            }
+            stats = ColumnStatistics.of(snapshot, true, snapshot.rows() >= 2);
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取训练数据矩阵失败", e);
+        }
+        double[] entropy = entropyWeightService.entropyWeightMethod(stats);
+        if (stats.rows() < 2) {
+            return new HistoryWeightsDTO(evaluationType, 1, entropy, null, null, null);
+        }
+        return new HistoryWeightsDTO(evaluationType, stats.rows(), entropy, criticService.criticMethod(stats),
+                pcaService.principalComponentWeighting(stats), independenceWeightService.independenceWeight(stats));
+    }
+
+    /**
+     * 某个子系统全部记录的按列存储矩阵的只读快照，首次调用时扫描全表写入；调用方用完后须关闭快照
+     */
+    @Override
+    public MappedColumnMatrix getHistoryMatrix(EvaluationType evaluationType) {
+        synchronized (statisticsLock) {
+            if (historyMatrices == null) {
+                awaitPendingChanges();
+                historyMatrices = seedHistoryMatrices();
+            }
+            return historyMatrices.get(evaluationType).snapshot();
+        }
+    }
+
+    /**
+     * 关闭全量历史矩阵并删除其文件
+     */
+    @PreDestroy
+    public void closeHistoryMatrices() {
+        synchronized (statisticsLock) {
+            invalidateHistoryMatrices();
+        }
+    }
+
+    // 关闭矩阵并清除行号索引，之后首次使用时重新读取，调用方需持有 statisticsLock
+    private void invalidateHistoryMatrices() {
+        closeMatrices(historyMatrices);
+        historyMatrices = null;
+        historyRows = null;
+    }
+
+    /**
+     * 扫描一次全表初始化熵权累加器，调用方需持有 statisticsLock
+     */
+    private Map<EvaluationType, EntropyAccumulator> seedEntropyAccumulators() {
+        Map<EvaluationType, EntropyAccumulator> accumulators = new EnumMap<>(EvaluationType.class);
+        for (EvaluationType evaluationType : EvaluationType.values()) {
+            accumulators.put(evaluationType, new EntropyAccumulator(EvaluationStrategyFactory.getTargetPlan(evaluationType).size()));
+        }
+        trainingDataMapper.scanAll(context -> {
+            for (Map.Entry<EvaluationType, EntropyAccumulator> entry : accumulators.entrySet()) {
+                entry.getValue().add(extractRawData(context.getResultObject(), entry.getKey()));
+            }
+        });
+        return accumulators;
+    }
+
+    /**
+     * 读取最近 weightWindowSize 条记录初始化滑动窗口，调用方需持有 statisticsLock
+     */
+    private Map<EvaluationType, SlidingWindowWeights> seedWindowWeights() {
+        Map<EvaluationType, SlidingWindowWeights> windows = new EnumMap<>(EvaluationType.class);
+        for (EvaluationType evaluationType : EvaluationType.values()) {
+            windows.put(evaluationType, new SlidingWindowWeights(EvaluationStrategyFactory.getTargetPlan(evaluationType).size(),
+                    weightWindowSize, criticService, pcaService));
+        }
+        // 按录入时间倒序返回，从最早的一条开始加入窗口
+        List<TrainingData> recent = trainingDataMapper.findRecent(weightWindowSize);
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            for (Map.Entry<EvaluationType, SlidingWindowWeights> entry : windows.entrySet()) {
+                entry.getValue().add(extractRawData(recent.get(i), entry.getKey()));
+            }
+        }
+        return windows;
+    }
+
+    /**
+     * 扫描一次全表，把各子系统的原始指标写入新的内存映射矩阵并建立行号索引，调用方需持有 statisticsLock
+     */
+    private Map<EvaluationType, MappedColumnMatrix> seedHistoryMatrices() {
+        Map<EvaluationType, MappedColumnMatrix> matrices = new EnumMap<>(EvaluationType.class);
+        RowIdIndex rows = new RowIdIndex();
+        try {
+            Path directory = matrixDirectory == null || matrixDirectory.isEmpty() ? null : Paths.get(matrixDirectory);
+            for (EvaluationType evaluationType : EvaluationType.values()) {
+                matrices.put(evaluationType, MappedColumnMatrix.createTemporary(directory,
+                        EvaluationStrategyFactory.getTargetPlan(evaluationType).size()));
+            }
+            trainingDataMapper.scanAll(context -> {
+                TrainingData record = context.getResultObject();
+                for (Map.Entry<EvaluationType, MappedColumnMatrix> entry : matrices.entrySet()) {
+                    entry.getValue().append(extractRawData(record, entry.getKey()));
+                }
+                rows.append(record.getId());
+            });
+            historyRows = rows;
+            return matrices;
+        } catch (IOException | RuntimeException e) {
+            closeMatrices(matrices);
+            if (e instanceof IOException) {
+                throw new UncheckedIOException("创建训练数据矩阵文件失败", (IOException) e);
+            }
+            throw (RuntimeException) e;
+        }
+    }
+
+    private void closeMatrices(Map<EvaluationType, MappedColumnMatrix> matrices) {
+        if (matrices == null) {
+            return;
+        }
+        for (MappedColumnMatrix matrix : matrices.values()) {
+            try {
+                matrix.close();
+            } catch (IOException e) {
+                // 文件已不再使用，关闭失败不影响结果
+            }
+        }
+    }
+
+    // 等待已写入但尚未结束的事务，调用方需持有 statisticsLock
+    private void awaitPendingChanges() {
+        while (pendingStatisticsChanges > 0) {
+            try {
+                statisticsLock.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("等待训练数据写入事务结束时被中断", e);
+            }
+        }
+    }
+
+    /**
+     * 记录一次训练数据变更，事务提交后同步到增量统计量；尚未初始化的统计量由之后的初始化读取计入
+     * @param removed 被替换或删除的原记录，新增时为 null
+     * @param added   新写入的记录，删除时为 null
+     */
+    private void recordStatisticsChange(TrainingData removed, TrainingData added) {
+        Integer id = removed != null ? removed.getId() : added.getId();
+        Map<EvaluationType, double[]> removedRows = removed == null ? null : rawDataByType(removed);
+        Map<EvaluationType, double[]> addedRows = added == null ? null : rawDataByType(added);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (statisticsLock) {
+                applyStatisticsChange(id, removedRows, addedRows);
+            }
+            return;
+        }
+        synchronized (statisticsLock) {
+            pendingStatisticsChanges++;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (statisticsLock) {
+                    pendingStatisticsChanges--;
+                    if (status == STATUS_COMMITTED) {
+                        applyStatisticsChange(id, removedRows, addedRows);
+                    }
+                    statisticsLock.notifyAll();
+                }
+            }
+        });
+    }
+
+    private void applyStatisticsChange(Integer id, Map<EvaluationType, double[]> removedRows,
+                                       Map<EvaluationType, double[]> addedRows) {
+        if (entropyAccumulators != null) {
+            for (Map.Entry<EvaluationType, EntropyAccumulator> entry : entropyAccumulators.entrySet()) {
+                if (removedRows != null) {
+                    entry.getValue().remove(removedRows.get(entry.getKey()));
+                }
+                if (addedRows != null) {
+                    entry.getValue().add(addedRows.get(entry.getKey()));
+                }
+            }
+        }
+        if (windowWeights != null) {
+            if (removedRows != null) {
+                // 修改或删除的记录可能位于窗口内，窗口需要重新读取
+                windowWeights = null;
+            } else {
+                for (Map.Entry<EvaluationType, SlidingWindowWeights> entry : windowWeights.entrySet()) {
+                    entry.getValue().add(addedRows.get(entry.getKey()));
+                }
+            }
+        }
+        if (historyMatrices != null) {
+            applyHistoryMatrixChange(id, removedRows != null, addedRows);
+        }
+    }
+
+    /**
+     * 把一次变更写入全量历史矩阵：新增时追加，修改时按行号覆盖，删除时以最后一行填补；已取得的快照不受影响。
+     * 记录不在索引中（不应发生）时整体失效，下次使用时重新读取。调用方需持有 statisticsLock
+     */
+    private void applyHistoryMatrixChange(Integer id, boolean removed, Map<EvaluationType, double[]> addedRows) {
+        int row = removed ? historyRows.rowOf(id) : -1;
+        if (removed && row < 0) {
+            invalidateHistoryMatrices();
+            return;
+        }
+        if (!removed) {
+            for (Map.Entry<EvaluationType, MappedColumnMatrix> entry : historyMatrices.entrySet()) {
+                entry.getValue().append(addedRows.get(entry.getKey()));
+            }
+            historyRows.append(id);
+        } else if (addedRows != null) {
+            for (Map.Entry<EvaluationType, MappedColumnMatrix> entry : historyMatrices.entrySet()) {
+                entry.getValue().set(row, addedRows.get(entry.getKey()));
+            }
+        } else {
+            for (MappedColumnMatrix matrix : historyMatrices.values()) {
+                matrix.removeRow(row);
+            }
+            historyRows.remove(id);
+        }
+    }
+
+    private Map<EvaluationType, double[]> rawDataByType(TrainingData data) {
+        Map<EvaluationType, double[]> rows = new EnumMap<>(EvaluationType.class);
+        for (EvaluationType evaluationType : EvaluationType.values()) {
+            rows.put(evaluationType, extractRawData(data, evaluationType));
+        }
+        return rows;
+    }
+
     // 辅助方法，用于创建Map
     private Map<String, String> createMap(String... keyValues) {
         Map<String, String> map = new HashMap<>();
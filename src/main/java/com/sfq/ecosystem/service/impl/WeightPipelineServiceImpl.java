@@ -0,0 +1,258 @@
+package com.sfq.ecosystem.service.impl;
+
+import com.sfq.ecosystem.dto.WeightPublicationDTO;
+import com.sfq.ecosystem.model.ColumnStatistics;
+import com.sfq.ecosystem.model.EvaluationType;
+import com.sfq.ecosystem.model.MappedColumnMatrix;
+import com.sfq.ecosystem.service.CriticService;
+import com.sfq.ecosystem.service.EntropyWeightService;
+import com.sfq.ecosystem.service.EvaluationConfigService;
+import com.sfq.ecosystem.service.IndependenceWeightService;
+import com.sfq.ecosystem.service.InsufficientTrainingDataException;
+import com.sfq.ecosystem.service.OwaWeightFusionService;
+import com.sfq.ecosystem.service.PcaService;
+import com.sfq.ecosystem.service.TrainingDataService;
+import com.sfq.ecosystem.service.WeightPipelineService;
+import com.sfq.ecosystem.service.strategy.ConfigVersion;
+import com.sfq.ecosystem.service.strategy.EvaluationStrategyFactory;
+import com.sfq.ecosystem.service.strategy.IEvaluationStrategy;
+import com.sfq.ecosystem.service.strategy.ReweightedEvaluationStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.DoubleBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 指标权重流水线
+ * <p>
+ * 各阶段依次为：
+ * <ol>
+ *     <li>load：取得该子系统全部训练数据的按列存储矩阵快照（首次调用时扫描全表，之后随新增记录追加）；</li>
+ *     <li>statistics：先按评估策略的指标预处理（居中型、成本型指标正向化）求出各列的极差，
+ *     再以预处理并按极差归一化到 [0,1] 后的值按列扫描，得到四种赋权方法共用的列统计量与协离差矩阵。
+ *     各指标量纲不同，归一化后权重不随指标的单位（量级）变化；</li>
+ *     <li>weighting：熵权、CRITIC、主成分与独立性权重相互独立，交给 {@link EvaluationTaskRunner} 并行计算，
+ *     各方法自身的耗时另行记录；</li>
+ *     <li>fusion：四种客观权重与策略原有的专家权重共五组，按 OWA 算子融合；</li>
+ *     <li>publish：以融合后的权重替换策略权重，经 {@link EvaluationConfigService} 记录新的配置版本后
+ *     重新编译评估计划，新计划一次性替换旧计划，计划版本号随之递增，评估结果缓存据此失效；
+ *     此前评估的记录在该子系统上即成为过期记录。</li>
+ * </ol>
+ * 样本不足时抛出 {@link InsufficientTrainingDataException}；任何一种方法得不到有效权重（出现 NaN 等）时
+ * 抛出 IllegalStateException。两种情况都不发布任何结果。
+ * 每次都以策略的原有权重为基础，重复重算不会在已发布的权重上层层叠加。
+ */
+@Service
+public class WeightPipelineServiceImpl implements WeightPipelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeightPipelineServiceImpl.class);
+    private static final String[] METHOD_STAGES = {"entropy", "critic", "pca", "independence"};
+    // 少于两条记录时各列的离差均为零，任何一种方法都得不到权重
+    private static final int MIN_ROWS = 2;
+
+    @Autowired
+    private TrainingDataService trainingDataService;
+
+    @Autowired
+    private PcaService pcaService;
+
+    @Autowired
+    private IndependenceWeightService independenceWeightService;
+
+    @Autowired
+    private OwaWeightFusionService owaWeightFusionService;
+
+    @Autowired
+    private EvaluationConfigService evaluationConfigService;
+
+    private final EntropyWeightService entropyWeightService = new EntropyWeightServiceImpl();
+    private final CriticService criticService = new CriticServiceImpl();
+
+    private EvaluationTaskRunner taskRunner = EvaluationTaskRunner.SEQUENTIAL;
+
+    // 同一子系统的重算依次进行，保证发布顺序与计算顺序一致
+    private final Map<EvaluationType, Object> locks = new EnumMap<>(EvaluationType.class);
+    private final Map<EvaluationType, WeightPublicationDTO> publications = new ConcurrentHashMap<>();
+
+    public WeightPipelineServiceImpl() {
+        for (EvaluationType evaluationType : EvaluationType.values()) {
+            locks.put(evaluationType, new Object());
+        }
+    }
+
+    @Autowired(required = false)
+    public void setTaskRunner(EvaluationTaskRunner taskRunner) {
+        this.taskRunner = taskRunner;
+    }
+
+    @Override
+    public WeightPublicationDTO recomputeWeights(EvaluationType evaluationType) {
+        if (evaluationType == null) {
+            throw new IllegalArgumentException("不支持的评估类型: null");
+        }
+        synchronized (locks.get(evaluationType)) {
+            return runPipeline(evaluationType);
+        }
+    }
+
+    @Override
+    public WeightPublicationDTO getLatestPublication(EvaluationType evaluationType) {
+        return publications.get(evaluationType);
+    }
+
+    private WeightPublicationDTO runPipeline(EvaluationType evaluationType) {
+        Map<String, Double> stageMillis = new LinkedHashMap<>();
+        long start = System.nanoTime();
+
+        IEvaluationStrategy base = ReweightedEvaluationStrategy.baseOf(EvaluationStrategyFactory.getStrategy(evaluationType));
+        ColumnStatistics stats;
+        long mark;
+        // 统计量算出后即关闭快照，使其引用的区域可以回收
+        try (MappedColumnMatrix matrix = trainingDataService.getHistoryMatrix(evaluationType)) {
+            mark = lap(stageMillis, "load", start);
+            if (matrix.rows() < MIN_ROWS) {
+                throw new InsufficientTrainingDataException(evaluationType, matrix.rows(), MIN_ROWS);
+            }
+            stats = ColumnStatistics.of(matrix, normalization(matrix, base), true, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取训练数据矩阵失败", e);
+        }
+        mark = lap(stageMillis, "statistics", mark);
+
+        List<Integer> blocks = contiguousGroupSizes(base.getCriterionGroups(), stats.columns());
+        List<Callable<double[]>> methods = Arrays.asList(
+                () -> entropyWeightService.entropyWeightMethod(stats),
+                () -> criticService.criticMethod(stats),
+                () -> pcaService.principalComponentWeighting(stats),
+                () -> blocks == null
+                        ? independenceWeightService.independenceWeight(stats)
+                        : independenceWeightService.calculateFinalWeights(stats, blocks));
+        long[] methodNanos = new long[methods.size()];
+        List<Callable<double[]>> tasks = new ArrayList<>(methods.size());
+        int[] costs = new int[methods.size()];
+        for (int i = 0; i < methods.size(); i++) {
+            Callable<double[]> method = methods.get(i);
+            int index = i;
+            tasks.add(() -> {
+                long begin = System.nanoTime();
+                double[] weights = method.call();
+                methodNanos[index] = System.nanoTime() - begin;
+                return weights;
+            });
+            costs[i] = stats.columns();
+        }
+        List<double[]> methodWeights = taskRunner.invokeAll(tasks, costs);
+        for (int i = 0; i < methods.size(); i++) {
+            stageMillis.put(METHOD_STAGES[i], methodNanos[i] / 1e6);
+            requireValid(METHOD_STAGES[i], methodWeights.get(i), stats.columns());
+        }
+        mark = lap(stageMillis, "weighting", mark);
+
+        double[] baseWeights = base.getWeights();
+        double[][] fusionInput = new double[methods.size() + 1][];
+        for (int i = 0; i < methods.size(); i++) {
+            fusionInput[i] = methodWeights.get(i);
+        }
+        fusionInput[methods.size()] = baseWeights;
+        double[] fused = owaWeightFusionService.owaWeightFusion(fusionInput);
+        requireValid("fusion", fused, stats.columns());
+        mark = lap(stageMillis, "fusion", mark);
+
+        ConfigVersion config = evaluationConfigService.register(evaluationType, new ReweightedEvaluationStrategy(base, fused));
+        long planVersion = EvaluationStrategyFactory.getPlanVersion();
+        lap(stageMillis, "publish", mark);
+        stageMillis.put("total", (System.nanoTime() - start) / 1e6);
+
+        WeightPublicationDTO publication = new WeightPublicationDTO(evaluationType, planVersion, config.getVersion(), stats.rows(),
+                methodWeights.get(0), methodWeights.get(1), methodWeights.get(2), methodWeights.get(3),
+                baseWeights, fused, stageMillis, LocalDateTime.now());
+        publications.put(evaluationType, publication);
+        logger.info("已发布 {} 的指标权重，计划版本 {}，配置版本 {}，样本数 {}，各阶段耗时(ms) {}",
+                evaluationType.getDescription(), planVersion, config.getVersion(), stats.rows(), stageMillis);
+        return publication;
+    }
+
+    // 记录从 mark 到现在的耗时，返回新的起点
+    private static long lap(Map<String, Double> stageMillis, String stage, long mark) {
+        long now = System.nanoTime();
+        stageMillis.put(stage, (now - mark) / 1e6);
+        return now;
+    }
+
+    /**
+     * 按策略预处理各指标后求出每列的最小值与最大值，返回 “预处理后按极差归一化到 [0,1]” 的逐元素变换
+     * <p>
+     * 常量列没有区分度，归一化为 1，离差平方和恰为 0。熵权与 CRITIC 由此给它 0 权重；
+     * 主成分与独立性权重在相关系数矩阵中剔除离差为零的列，同样给它 0 权重，而不会因相关系数为 NaN 而失败。
+     */
+    static ColumnStatistics.ColumnTransform normalization(MappedColumnMatrix matrix, IEvaluationStrategy strategy) {
+        int n = matrix.columns();
+        double[] minimums = new double[n];
+        double[] scales = new double[n];
+        for (int j = 0; j < n; j++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int b = 0; b < matrix.blockCount(); b++) {
+                DoubleBuffer column = matrix.segment(b, j);
+                for (int i = 0, len = column.limit(); i < len; i++) {
+                    double x = strategy.preprocessIndicator(column.get(i), j);
+                    if (x < min) {
+                        min = x;
+                    }
+                    if (x > max) {
+                        max = x;
+                    }
+                }
+            }
+            minimums[j] = min;
+            scales[j] = max > min ? 1.0 / (max - min) : 0.0;
+        }
+        return (j, x) -> scales[j] == 0.0 ? 1.0 : (strategy.preprocessIndicator(x, j) - minimums[j]) * scales[j];
+    }
+
+    /**
+     * 准则层分组按顺序连续且覆盖全部指标时返回各组的指标数，用于分块计算独立性权重；否则返回 null
+     */
+    private static List<Integer> contiguousGroupSizes(Map<String, int[]> groups, int columns) {
+        List<Integer> sizes = new ArrayList<>(groups.size());
+        int next = 0;
+        for (int[] indices : groups.values()) {
+            for (int index : indices) {
+                if (index != next++) {
+                    return null;
+                }
+            }
+            sizes.add(indices.length);
+        }
+        return next == columns ? sizes : null;
+    }
+
+    private static void requireValid(String stage, double[] weights, int columns) {
+        if (weights == null || weights.length != columns) {
+            throw new IllegalStateException(stage + " 阶段没有得到有效的权重。");
+        }
+        double sum = 0;
+        for (double weight : weights) {
+            if (!Double.isFinite(weight) || weight < 0) {
+                throw new IllegalStateException(stage + " 阶段得到的权重含有无效值: " + Arrays.toString(weights));
+            }
+            sum += weight;
+        }
+        if (sum <= 0) {
+            throw new IllegalStateException(stage + " 阶段得到的权重全为零。");
+        }
+    }
+}
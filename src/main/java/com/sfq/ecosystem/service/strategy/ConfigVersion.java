@@ -0,0 +1,54 @@
+package com.sfq.ecosystem.service.strategy;
+
+import com.sfq.ecosystem.model.EvaluationType;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 一个配置版本：全部评估类型的评估配置在该版本下的不可变快照
+ * <p>
+ * 版本号单调递增，任何一个评估类型的配置发生变化都会产生新版本，其余类型的配置原样带入新版本。
+ * 每条训练数据记录评估时所用的版本号，某条记录在某个子系统上是否过期只需比较该版本号与
+ * {@link EvaluationConfig#getSinceVersion()}，不必读取旧版本的配置。
+ */
+public final class ConfigVersion {
+
+    private final long version;
+    private final LocalDateTime createdAt;
+    private final Map<EvaluationType, EvaluationConfig> configs;
+
+    public ConfigVersion(long version, LocalDateTime createdAt, Map<EvaluationType, EvaluationConfig> configs) {
+        this.version = version;
+        this.createdAt = createdAt;
+        this.configs = Collections.unmodifiableMap(new EnumMap<>(configs));
+    }
+
+    public long getVersion() { return version; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    /** 各评估类型的配置，只读 */
+    public Map<EvaluationType, EvaluationConfig> getConfigs() { return configs; }
+
+    public EvaluationConfig config(EvaluationType evaluationType) {
+        EvaluationConfig config = configs.get(evaluationType);
+        if (config == null) {
+            throw new IllegalArgumentException("配置版本 " + version + " 中没有评估类型: " + evaluationType);
+        }
+        return config;
+    }
+
+    /**
+     * 各评估类型配置最近一次变化的版本号中最大的一个：早于该版本评估的记录至少在一个子系统上已过期
+     */
+    public long staleBefore() {
+        long since = 0;
+        for (EvaluationConfig config : configs.values()) {
+            since = Math.max(since, config.getSinceVersion());
+        }
+        return since;
+    }
+}
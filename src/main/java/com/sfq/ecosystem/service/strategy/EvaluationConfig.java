@@ -0,0 +1,120 @@
+package com.sfq.ecosystem.service.strategy;
+
+import com.sfq.ecosystem.model.EvaluationType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 某个评估类型在某个配置版本下的评估配置：指标权重、指标边界、判断阈值 theta 与准则层分组
+ * <p>
+ * 构建时复制全部数组，之后不再修改；取值方法返回副本。
+ * {@link #getSinceVersion()} 为这组配置最近一次发生变化时的配置版本号，
+ * 评估时所用配置版本早于该版本的记录，其该子系统的等级即已过期。
+ */
+public final class EvaluationConfig {
+
+    private final EvaluationType evaluationType;
+    private final long sinceVersion;
+    private final double[] weights;
+    private final double[][] boundaries;
+    private final double theta;
+    private final Map<String, int[]> criterionGroups;
+
+    public EvaluationConfig(EvaluationType evaluationType, long sinceVersion, double[] weights, double[][] boundaries,
+                            double theta, Map<String, int[]> criterionGroups) {
+        this.evaluationType = evaluationType;
+        this.sinceVersion = sinceVersion;
+        this.weights = weights.clone();
+        this.boundaries = new double[boundaries.length][];
+        for (int i = 0; i < boundaries.length; i++) {
+            this.boundaries[i] = boundaries[i].clone();
+        }
+        this.theta = theta;
+        Map<String, int[]> groups = new LinkedHashMap<>();
+        for (Map.Entry<String, int[]> group : criterionGroups.entrySet()) {
+            groups.put(group.getKey(), group.getValue().clone());
+        }
+        this.criterionGroups = Collections.unmodifiableMap(groups);
+    }
+
+    /**
+     * 取出策略当前的评估配置
+     */
+    public static EvaluationConfig of(EvaluationType evaluationType, long sinceVersion, IEvaluationStrategy strategy) {
+        return new EvaluationConfig(evaluationType, sinceVersion, strategy.getWeights(), strategy.getBoundaries(),
+                strategy.getTheta(), strategy.getCriterionGroups());
+    }
+
+    /**
+     * 以新的起始版本号复制本配置
+     */
+    public EvaluationConfig withSinceVersion(long version) {
+        return new EvaluationConfig(evaluationType, version, weights, boundaries, theta, criterionGroups);
+    }
+
+    /**
+     * 权重、边界、阈值与分组是否与另一组配置完全相同（不比较起始版本号）
+     */
+    public boolean sameSettings(EvaluationConfig other) {
+        return sameSettingsExceptWeights(other) && Arrays.equals(weights, other.weights);
+    }
+
+    /**
+     * 除权重外的边界、阈值与分组是否完全相同
+     */
+    public boolean sameSettingsExceptWeights(EvaluationConfig other) {
+        if (other == null || evaluationType != other.evaluationType
+                || Double.compare(theta, other.theta) != 0
+                || !Arrays.deepEquals(boundaries, other.boundaries)
+                || criterionGroups.size() != other.criterionGroups.size()) {
+            return false;
+        }
+        // 分组的顺序决定准则层序号，按顺序逐组比较
+        Iterator<Map.Entry<String, int[]>> others = other.criterionGroups.entrySet().iterator();
+        for (Map.Entry<String, int[]> group : criterionGroups.entrySet()) {
+            Map.Entry<String, int[]> that = others.next();
+            if (!group.getKey().equals(that.getKey()) || !Arrays.equals(group.getValue(), that.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 以某个配置版本评估的记录，其该子系统的等级是否已过期
+     *
+     * @param gradedVersion 记录评估时所用的配置版本号，为 null 表示早于版本化之前写入
+     */
+    public boolean isStale(Long gradedVersion) {
+        return gradedVersion == null || gradedVersion < sinceVersion;
+    }
+
+    public EvaluationType getEvaluationType() { return evaluationType; }
+
+    public long getSinceVersion() { return sinceVersion; }
+
+    public double[] getWeights() { return weights.clone(); }
+
+    public double[][] getBoundaries() {
+        double[][] copy = new double[boundaries.length][];
+        for (int i = 0; i < boundaries.length; i++) {
+            copy[i] = boundaries[i].clone();
+        }
+        return copy;
+    }
+
+    public double getTheta() { return theta; }
+
+    /** 准则层分组，顺序与策略中的定义一致 */
+    public Map<String, int[]> getCriterionGroups() {
+        Map<String, int[]> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, int[]> group : criterionGroups.entrySet()) {
+            copy.put(group.getKey(), group.getValue().clone());
+        }
+        return copy;
+    }
+}
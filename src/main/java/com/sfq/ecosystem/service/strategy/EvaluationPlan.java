@@ -0,0 +1,212 @@
+package com.sfq.ecosystem.service.strategy;
+
+import com.sfq.ecosystem.model.CrispFfnBuffer;
+import com.sfq.ecosystem.model.CrispFfnKernel;
+
+/**
+ * 预编译的评估计划
+ * <p>
+ * 对应一层评估（某个评估类型的目标层，或其中一个准则层分组）。
+ * 边界、q/p/v 参数、归一化后的权重以及阈值 theta 的费马模糊数形式都在构建时一次性算好，
+ * 之后由所有请求共享；每次请求只需转换样本并计算可信度。
+ * <p>
+ * 评估中出现的费马模糊数都由清晰值转换而来，是退化的，因此计划中的费马模糊数都以
+ * {@link CrispFfnBuffer} 的立方形式保存，供评估内核直接在立方形式上运算。
+ * <p>
+ * 计划构建完成后不再修改，可在多线程间安全共享。通过访问器返回的缓冲区与数组同样只读，调用方不得修改。
+ */
+public final class EvaluationPlan {
+
+    private static final double EPSILON = 1e-9;
+
+    private final String name;
+    private final IEvaluationStrategy strategy;
+    // 本层各指标在完整指标体系中的原始索引；为 null 表示目标层（使用全部指标）
+    private final int[] groupIndices;
+    private final int size;
+    private final int stride;
+    private final double[] minVals;
+    private final double[] maxVals;
+    private final double[] weights;
+    private final double thetaCrisp;
+    // 边界按 [指标 * stride + 等级] 存放
+    private final CrispFfnBuffer boundaries;
+    private final CrispFfnBuffer q;
+    private final CrispFfnBuffer p;
+    private final CrispFfnBuffer v;
+    // phi/sigma 插值公式中的分母 p - q 与 v - p 只依赖于边界，预先求逆，每行的除法化为一次乘法
+    private final CrispFfnBuffer phiDenominatorInverse;
+    private final CrispFfnBuffer sigmaDenominatorInverse;
+    private final boolean[] phiDenominatorZero;
+    private final boolean[] sigmaDenominatorZero;
+    private final boolean[] phiDenominatorVanishing;
+    private final boolean[] sigmaDenominatorVanishing;
+    private final CrispFfnBuffer theta;
+
+    private EvaluationPlan(String name, IEvaluationStrategy strategy, int[] groupIndices,
+                           double[][] boundariesCrisp, double[] weights, double thetaCrisp) {
+        this.name = name;
+        this.strategy = strategy;
+        this.groupIndices = groupIndices;
+        this.size = boundariesCrisp.length;
+        this.weights = weights;
+        this.thetaCrisp = thetaCrisp;
+
+        int maxLevels = 0;
+        for (double[] row : boundariesCrisp) {
+            maxLevels = Math.max(maxLevels, row.length);
+        }
+        this.stride = maxLevels;
+
+        this.minVals = new double[size];
+        this.maxVals = new double[size];
+        this.boundaries = new CrispFfnBuffer(size * stride);
+        this.q = new CrispFfnBuffer(size);
+        this.p = new CrispFfnBuffer(size);
+        this.v = new CrispFfnBuffer(size);
+        this.phiDenominatorInverse = new CrispFfnBuffer(size);
+        this.sigmaDenominatorInverse = new CrispFfnBuffer(size);
+        this.phiDenominatorZero = new boolean[size];
+        this.sigmaDenominatorZero = new boolean[size];
+        this.phiDenominatorVanishing = new boolean[size];
+        this.sigmaDenominatorVanishing = new boolean[size];
+        CrispFfnBuffer denominator = new CrispFfnBuffer(1);
+        for (int i = 0; i < size; i++) {
+            minVals[i] = boundariesCrisp[i][0];
+            maxVals[i] = boundariesCrisp[i][boundariesCrisp[i].length - 1];
+            for (int j = 0; j < boundariesCrisp[i].length; j++) {
+                CrispFfnKernel.fromCrisp(normalize(boundariesCrisp[i][j], minVals[i], maxVals[i]), boundaries, i * stride + j);
+            }
+
+            double totalRange = maxVals[i] - minVals[i];
+            if (totalRange < EPSILON) {
+                CrispFfnKernel.setZero(q, i);
+                CrispFfnKernel.setZero(p, i);
+                CrispFfnKernel.setZero(v, i);
+            } else {
+                double step = totalRange / 5.0;
+                CrispFfnKernel.fromCrisp(normalize(0.25 * step, 0, totalRange), q, i);
+                CrispFfnKernel.fromCrisp(normalize(0.5 * step, 0, totalRange), p, i);
+                CrispFfnKernel.fromCrisp(normalize(0.75 * step, 0, totalRange), v, i);
+            }
+            CrispFfnKernel.subtract(p, i, q, i, denominator, 0);
+            phiDenominatorZero[i] = CrispFfnKernel.isZero(denominator, 0);
+            phiDenominatorVanishing[i] = CrispFfnKernel.isVanishing(denominator, 0);
+            CrispFfnKernel.inverse(denominator, 0, phiDenominatorInverse, i);
+            CrispFfnKernel.subtract(v, i, p, i, denominator, 0);
+            sigmaDenominatorZero[i] = CrispFfnKernel.isZero(denominator, 0);
+            sigmaDenominatorVanishing[i] = CrispFfnKernel.isVanishing(denominator, 0);
+            CrispFfnKernel.inverse(denominator, 0, sigmaDenominatorInverse, i);
+        }
+
+        this.theta = new CrispFfnBuffer(1);
+        CrispFfnKernel.fromCrisp(thetaCrisp, theta, 0);
+    }
+
+    /**
+     * 编译目标层评估计划（使用全部指标及其原始权重）
+     */
+    public static EvaluationPlan compileTargetLayer(IEvaluationStrategy strategy) {
+        return new EvaluationPlan("目标层", strategy, null,
+                strategy.getBoundaries(), strategy.getWeights(), strategy.getTheta());
+    }
+
+    /**
+     * 编译一个准则层分组的评估计划（组内权重归一化）
+     */
+    public static EvaluationPlan compileCriterionGroup(IEvaluationStrategy strategy, String groupName, int[] groupIndices) {
+        double[][] boundariesCrisp = strategy.getBoundaries();
+        double[] weights = strategy.getWeights();
+
+        double[][] groupBoundaries = new double[groupIndices.length][];
+        double[] groupWeights = new double[groupIndices.length];
+        for (int i = 0; i < groupIndices.length; i++) {
+            groupBoundaries[i] = boundariesCrisp[groupIndices[i]];
+            groupWeights[i] = weights[groupIndices[i]];
+        }
+
+        double weightSum = 0;
+        for (double w : groupWeights) weightSum += w;
+        double[] normalizedWeights = new double[groupWeights.length];
+        if (weightSum > 0) {
+            for (int i = 0; i < groupWeights.length; i++) normalizedWeights[i] = groupWeights[i] / weightSum;
+        }
+
+        return new EvaluationPlan(groupName, strategy, groupIndices.clone(),
+                groupBoundaries, normalizedWeights, strategy.getTheta());
+    }
+
+    /**
+     * 对原始指标数据进行本层所需的抽取与预处理，并转换为费马模糊数写入 out[0..size)
+     *
+     * @param rawData 完整指标体系的原始数据
+     * @param out     调用方持有的样本缓冲区
+     */
+    public void loadSample(double[] rawData, CrispFfnBuffer out) {
+        loadSample(rawData, out, 0, 1);
+    }
+
+    /**
+     * 同 {@link #loadSample(double[], CrispFfnBuffer)}，但第 i 个指标写入 out[i * stride + offset]，
+     * 用于按 “指标 -> 样本” 布局批量装载多行数据
+     */
+    public void loadSample(double[] rawData, CrispFfnBuffer out, int offset, int stride) {
+        // 预处理逐指标独立，直接逐个指标预处理后写入缓冲区，不创建中间数组
+        for (int i = 0; i < size; i++) {
+            int index = groupIndices == null ? i : groupIndices[i];
+            double processed = strategy.preprocessIndicator(rawData[index], index);
+            CrispFfnKernel.fromCrisp(normalize(processed, minVals[i], maxVals[i]), out, i * stride + offset);
+        }
+    }
+
+    /**
+     * 将清晰值按 [minVal, maxVal] 归一化并截断到 [0,1]
+     */
+    private static double normalize(double value, double minVal, double maxVal) {
+        double s;
+        if (maxVal - minVal < EPSILON) {
+            s = (value == minVal) ? 0.5 : (value > minVal ? 1.0 : 0.0);
+        } else {
+            s = (value - minVal) / (maxVal - minVal);
+        }
+        return Math.max(0.0, Math.min(s, 1.0));
+    }
+
+    public String getName() { return name; }
+
+    /** 本层指标在完整指标体系中的原始索引；目标层返回 null，只读 */
+    public int[] groupIndices() { return groupIndices; }
+    public int size() { return size; }
+    public int stride() { return stride; }
+    public double getThetaCrisp() { return thetaCrisp; }
+
+    /** 本层指标权重（准则层为组内归一化后的权重），只读 */
+    public double[] weights() { return weights; }
+
+    /** 边界费马模糊数的立方形式，第 n 个指标第 h 级边界位于 n * stride() + h，只读 */
+    public CrispFfnBuffer boundaries() { return boundaries; }
+    public CrispFfnBuffer q() { return q; }
+    public CrispFfnBuffer p() { return p; }
+    public CrispFfnBuffer v() { return v; }
+
+    /** phi 插值的分母 p - q 的逆，只读 */
+    public CrispFfnBuffer phiDenominatorInverse() { return phiDenominatorInverse; }
+
+    /** sigma 插值的分母 v - p 的逆，只读 */
+    public CrispFfnBuffer sigmaDenominatorInverse() { return sigmaDenominatorInverse; }
+
+    /** 第 n 个指标的 p - q 是否为模糊零 */
+    public boolean isPhiDenominatorZero(int n) { return phiDenominatorZero[n]; }
+
+    /** 第 n 个指标的 v - p 是否为模糊零 */
+    public boolean isSigmaDenominatorZero(int n) { return sigmaDenominatorZero[n]; }
+
+    /** 第 n 个指标的 p - q 隶属度是否接近零，此时 phi 的插值结果恒为模糊一 */
+    public boolean isPhiDenominatorVanishing(int n) { return phiDenominatorVanishing[n]; }
+
+    /** 第 n 个指标的 v - p 隶属度是否接近零，此时 sigma 的插值结果恒为模糊一 */
+    public boolean isSigmaDenominatorVanishing(int n) { return sigmaDenominatorVanishing[n]; }
+
+    /** 阈值 theta 对应的费马模糊数，位于下标 0，只读 */
+    public CrispFfnBuffer theta() { return theta; }
+}
@@ -2,28 +2,83 @@ package com.sfq.ecosystem.service.strategy;
 
 import com.sfq.ecosystem.model.EvaluationType;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 评估策略工厂
  * <p>
- * 根据评估类型返回相应的策略实例。
+ * 根据评估类型返回相应的策略实例，并为每种评估类型预编译目标层与各准则层的评估计划。
+ * <p>
+ * 策略可以在运行时替换（{@link #register}），替换时重新编译该类型的计划并递增计划版本号，
+ * 依赖评估结果的缓存据此判断是否失效。策略与其全部计划保存在同一个 {@link StrategyPlans} 中，
+ * 新计划编译完成后一次性替换，同时取用目标层与准则层计划的评估应通过 {@link #getPlans} 取得同一份快照。
  */
 public class EvaluationStrategyFactory {
 
-    private static final Map<EvaluationType, IEvaluationStrategy> strategyMap = new ConcurrentHashMap<>();
+    private static final Map<EvaluationType, StrategyPlans> plansMap = new ConcurrentHashMap<>();
+    // 计划版本号，任何策略配置变化都会使其递增
+    private static final AtomicLong planVersion = new AtomicLong();
 
     static {
-        strategyMap.put(EvaluationType.XIETONG, new XietongEvaluationStrategy());
-        strategyMap.put(EvaluationType.ZIYUAN, new ZiyuanEvaluationStrategy());
-        strategyMap.put(EvaluationType.FUWU, new FuwuEvaluationStrategy()); // 注册新的服务策略
+        register(EvaluationType.XIETONG, new XietongEvaluationStrategy());
+        register(EvaluationType.ZIYUAN, new ZiyuanEvaluationStrategy());
+        register(EvaluationType.FUWU, new FuwuEvaluationStrategy()); // 注册新的服务策略
     }
 
-    public static IEvaluationStrategy getStrategy(EvaluationType type) {
-        if (type == null || !strategyMap.containsKey(type)) {
+    /**
+     * 注册（或替换）某个评估类型的策略，重新编译其评估计划并递增计划版本号
+     *
+     * @return 替换后的计划版本号
+     */
+    public static synchronized long register(EvaluationType type, IEvaluationStrategy strategy) {
+        EvaluationPlan targetPlan = EvaluationPlan.compileTargetLayer(strategy);
+        List<EvaluationPlan> groupPlans = new ArrayList<>();
+        for (Map.Entry<String, int[]> group : strategy.getCriterionGroups().entrySet()) {
+            groupPlans.add(EvaluationPlan.compileCriterionGroup(strategy, group.getKey(), group.getValue()));
+        }
+
+        plansMap.put(type, new StrategyPlans(strategy, targetPlan, Collections.unmodifiableList(groupPlans)));
+        return planVersion.incrementAndGet();
+    }
+
+    /**
+     * 当前的计划版本号
+     */
+    public static long getPlanVersion() {
+        return planVersion.get();
+    }
+
+    /**
+     * 获取策略及其目标层、准则层计划的一致快照
+     */
+    public static StrategyPlans getPlans(EvaluationType type) {
+        StrategyPlans plans = type == null ? null : plansMap.get(type);
+        if (plans == null) {
             throw new IllegalArgumentException("不支持的评估类型: " + type);
         }
-        return strategyMap.get(type);
+        return plans;
+    }
+
+    public static IEvaluationStrategy getStrategy(EvaluationType type) {
+        return getPlans(type).strategy();
+    }
+
+    /**
+     * 获取目标层的预编译评估计划
+     */
+    public static EvaluationPlan getTargetPlan(EvaluationType type) {
+        return getPlans(type).targetPlan();
+    }
+
+    /**
+     * 获取各准则层的预编译评估计划，顺序与策略中的分组定义一致
+     */
+    public static List<EvaluationPlan> getCriterionPlans(EvaluationType type) {
+        return getPlans(type).criterionPlans();
     }
-}
\ No newline at end of file
+}
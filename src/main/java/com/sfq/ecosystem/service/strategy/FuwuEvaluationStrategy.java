@@ -59,18 +59,23 @@ public class FuwuEvaluationStrategy implements IEvaluationStrategy {
     /**
      * 根据 'fuwu_feima准则层.py' 的逻辑进行预处理
      */
+    @Override
+    public double preprocessIndicator(double rawValue, int originalIndex) {
+        // 指标6 (构件层级深度) 是居中型指标，最佳值为2
+        if (originalIndex == 6) {
+            return 2.0 - Math.abs(rawValue - 2.0);
+        }
+        // 指标7 (风险响应时间) 是成本型指标，值越小越好，进行逆向化处理
+        if (originalIndex == 7) {
+            return 8.0 - rawValue;
+        }
+        return rawValue;
+    }
+
     private double[] preprocess(double[] data, int[] originalIndices) {
         double[] processedData = data.clone();
         for (int i = 0; i < originalIndices.length; i++) {
-            int originalIndex = originalIndices[i];
-            // 指标6 (构件层级深度) 是居中型指标，最佳值为2
-            if (originalIndex == 6) {
-                processedData[i] = 2.0 - Math.abs(processedData[i] - 2.0);
-            }
-            // 指标7 (风险响应时间) 是成本型指标，值越小越好，进行逆向化处理
-            if (originalIndex == 7) {
-                processedData[i] = 8.0 - processedData[i];
-            }
+            processedData[i] = preprocessIndicator(processedData[i], originalIndices[i]);
         }
         return processedData;
     }
@@ -6,6 +6,9 @@ import java.util.Map;
  * 评估策略接口
  * 定义了获取特定评估对象所需的所有配置和数据的方法。
  * 每个实现类代表一种具体的评估方案（如协同、资源等）。
+ * <p>
+ * 预处理必须逐指标独立：某个指标预处理后的值只取决于该指标自身的原始值与原始索引，
+ * 与同组其他指标无关。目标层与准则层据此共享同一份样本转换结果。
  */
 public interface IEvaluationStrategy {
 
@@ -38,4 +41,18 @@ public interface IEvaluationStrategy {
      * @return 预处理后的分组数据
      */
     double[] preprocessCriterionLayerData(double[] rawGroupData, int[] originalIndices);
+
+    /**
+     * 对单个指标的原始值进行预处理，结果须与批量预处理中该指标的结果相同
+     * <p>
+     * 评估计划逐行装载样本时调用本方法，不创建中间数组。默认实现借用
+     * {@link #preprocessCriterionLayerData} 计算，每次调用会创建两个单元素数组，具体策略应覆盖本方法。
+     *
+     * @param rawValue      原始值
+     * @param originalIndex 该指标在完整指标体系中的原始索引
+     * @return 预处理后的值
+     */
+    default double preprocessIndicator(double rawValue, int originalIndex) {
+        return preprocessCriterionLayerData(new double[]{rawValue}, new int[]{originalIndex})[0];
+    }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.sfq.ecosystem.service.strategy;
+
+import java.util.Map;
+
+/**
+ * 以给定的指标权重替换原策略权重的策略
+ * <p>
+ * 边界、样本、准则层分组、阈值与预处理都委托给原策略，只有 {@link #getWeights()} 返回新的权重。
+ * 由赋权流水线按训练数据重新计算权重后注册到 {@link EvaluationStrategyFactory}；
+ * 对已经替换过权重的策略再次替换时以其原策略为基础，不会层层嵌套。
+ */
+public final class ReweightedEvaluationStrategy implements IEvaluationStrategy {
+
+    private final IEvaluationStrategy base;
+    private final double[] weights;
+
+    /**
+     * @param strategy 原策略，或已替换过权重的策略（取其原策略）
+     * @param weights  新的指标权重，长度须与原策略的指标数一致
+     */
+    public ReweightedEvaluationStrategy(IEvaluationStrategy strategy, double[] weights) {
+        this.base = baseOf(strategy);
+        if (weights == null || weights.length != base.getWeights().length) {
+            throw new IllegalArgumentException("权重长度与策略的指标数不一致。");
+        }
+        this.weights = weights.clone();
+    }
+
+    /**
+     * 策略替换权重之前的原策略；未替换过的策略返回其本身
+     */
+    public static IEvaluationStrategy baseOf(IEvaluationStrategy strategy) {
+        return strategy instanceof ReweightedEvaluationStrategy ? ((ReweightedEvaluationStrategy) strategy).base : strategy;
+    }
+
+    @Override
+    public double[][] getBoundaries() { return base.getBoundaries(); }
+
+    @Override
+    public double[] getWeights() { return weights.clone(); }
+
+    @Override
+    public Map<String, double[]> getSamples() { return base.getSamples(); }
+
+    @Override
+    public Map<String, int[]> getCriterionGroups() { return base.getCriterionGroups(); }
+
+    @Override
+    public double getTheta() { return base.getTheta(); }
+
+    @Override
+    public double[] preprocessTargetLayerData(double[] rawSampleData) {
+        return base.preprocessTargetLayerData(rawSampleData);
+    }
+
+    @Override
+    public double[] preprocessCriterionLayerData(double[] rawGroupData, int[] originalIndices) {
+        return base.preprocessCriterionLayerData(rawGroupData, originalIndices);
+    }
+
+    @Override
+    public double preprocessIndicator(double rawValue, int originalIndex) {
+        return base.preprocessIndicator(rawValue, originalIndex);
+    }
+}
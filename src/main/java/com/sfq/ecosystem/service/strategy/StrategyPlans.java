@@ -0,0 +1,29 @@
+package com.sfq.ecosystem.service.strategy;
+
+import java.util.List;
+
+/**
+ * 某个评估类型的策略及其预编译计划
+ * <p>
+ * 目标层与各准则层的计划一起构建、一起替换，同一次评估从同一个实例中取用，
+ * 策略在评估过程中被替换时也不会混用新旧两套计划。实例构建完成后不再修改。
+ */
+public final class StrategyPlans {
+
+    private final IEvaluationStrategy strategy;
+    private final EvaluationPlan targetPlan;
+    private final List<EvaluationPlan> criterionPlans;
+
+    StrategyPlans(IEvaluationStrategy strategy, EvaluationPlan targetPlan, List<EvaluationPlan> criterionPlans) {
+        this.strategy = strategy;
+        this.targetPlan = targetPlan;
+        this.criterionPlans = criterionPlans;
+    }
+
+    public IEvaluationStrategy strategy() { return strategy; }
+
+    public EvaluationPlan targetPlan() { return targetPlan; }
+
+    /** 各准则层的计划，顺序与策略中的分组定义一致，只读 */
+    public List<EvaluationPlan> criterionPlans() { return criterionPlans; }
+}
@@ -59,6 +59,11 @@ public class XietongEvaluationStrategy implements IEvaluationStrategy {
         return 2.0 - Math.abs(x - 0.15);
     }
 
+    @Override
+    public double preprocessIndicator(double rawValue, int originalIndex) {
+        return originalIndex == 9 ? processCompetition(rawValue) : rawValue; // 处理指标9
+    }
+
     @Override
     public double[] preprocessTargetLayerData(double[] rawSampleData) {
         double[] processedData = rawSampleData.clone();
@@ -70,9 +75,7 @@ public class XietongEvaluationStrategy implements IEvaluationStrategy {
     public double[] preprocessCriterionLayerData(double[] rawGroupData, int[] originalIndices) {
         double[] processedData = rawGroupData.clone();
         for (int i = 0; i < originalIndices.length; i++) {
-            if (originalIndices[i] == 9) {
-                processedData[i] = processCompetition(processedData[i]);
-            }
+            processedData[i] = preprocessIndicator(processedData[i], originalIndices[i]);
         }
         return processedData;
     }
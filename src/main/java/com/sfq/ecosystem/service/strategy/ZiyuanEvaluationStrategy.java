@@ -51,12 +51,26 @@ public class ZiyuanEvaluationStrategy implements IEvaluationStrategy {
         return 0.6;
     }
 
+    @Override
+    public double preprocessIndicator(double rawValue, int originalIndex) {
+        switch (originalIndex) {
+            case 6:
+                return 4.0 - Math.abs(rawValue - 5.0);        // 处理指标6
+            case 9:
+                return 8000.0 - Math.abs(rawValue - 2000.0); // 处理指标9
+            case 10:
+                return 2000.0 - rawValue;                     // 处理指标10
+            default:
+                return rawValue;
+        }
+    }
+
     @Override
     public double[] preprocessTargetLayerData(double[] rawSampleData) {
         double[] processedData = rawSampleData.clone();
-        processedData[6] = 4.0 - Math.abs(processedData[6] - 5.0);        // 处理指标6
-        processedData[9] = 8000.0 - Math.abs(processedData[9] - 2000.0); // 处理指标9
-        processedData[10] = 2000.0 - processedData[10];                   // 处理指标10
+        for (int i = 0; i < processedData.length; i++) {
+            processedData[i] = preprocessIndicator(processedData[i], i);
+        }
         return processedData;
     }
 
@@ -64,14 +78,7 @@ public class ZiyuanEvaluationStrategy implements IEvaluationStrategy {
     public double[] preprocessCriterionLayerData(double[] rawGroupData, int[] originalIndices) {
         double[] processedData = rawGroupData.clone();
         for (int i = 0; i < originalIndices.length; i++) {
-            int originalIndex = originalIndices[i];
-            if (originalIndex == 6) {
-                processedData[i] = 4.0 - Math.abs(processedData[i] - 5.0);
-            } else if (originalIndex == 9) {
-                processedData[i] = 8000.0 - Math.abs(processedData[i] - 2000.0);
-            } else if (originalIndex == 10) {
-                processedData[i] = 2000.0 - processedData[i];
-            }
+            processedData[i] = preprocessIndicator(processedData[i], originalIndices[i]);
         }
         return processedData;
     }
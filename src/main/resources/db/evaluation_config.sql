@@ -0,0 +1,22 @@
+-- 评估配置版本表
+-- 每个配置版本在每个评估类型上各一行，保存该版本下的指标权重、指标边界、判断阈值 theta 与准则层分组（数组以 JSON 文本保存）。
+-- 任何一个评估类型的配置变化都会产生新版本，其余类型的配置原样写入新版本，读取任一版本只需读取该版本的行。
+-- since_version 为该类型的配置最近一次发生变化时的版本号。
+CREATE TABLE IF NOT EXISTS evaluation_config (
+    version          BIGINT      NOT NULL,
+    evaluation_type  VARCHAR(16) NOT NULL,
+    since_version    BIGINT      NOT NULL,
+    weights          TEXT        NOT NULL,
+    boundaries       TEXT        NOT NULL,
+    theta            DOUBLE      NOT NULL,
+    criterion_groups TEXT        NOT NULL,
+    created_at       DATETIME    NOT NULL,
+    PRIMARY KEY (version, evaluation_type)
+);
+
+-- 每条训练数据记录评估时所用的配置版本，版本化之前写入的记录为 NULL。
+-- 某个子系统的配置在 since_version 发生变化后，config_version < since_version（或为 NULL）的记录即需重新定级，
+-- 该条件走 config_version 上的索引。
+ALTER TABLE training_data
+    ADD COLUMN config_version BIGINT NULL,
+    ADD KEY idx_training_data_config_version (config_version);
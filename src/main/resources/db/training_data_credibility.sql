@@ -0,0 +1,21 @@
+-- 评估可信度得分表
+-- 每条训练数据在每个子系统、每一层（0 为目标层，1.. 为准则层）、每个等级上各一行，
+-- 保存该等级可信度费马模糊数的得分元组 (S, H, MU, HU)。
+-- 调整阈值 theta 后，只需将这些得分与新阈值的得分比较即可重新定级，无需重新计算可信度。
+CREATE TABLE IF NOT EXISTS training_data_credibility (
+    training_data_id INT         NOT NULL,
+    evaluation_type  VARCHAR(16) NOT NULL,
+    layer_index      TINYINT     NOT NULL,
+    layer_name       VARCHAR(32) NOT NULL,
+    level            TINYINT     NOT NULL,
+    score_s          DOUBLE      NOT NULL,
+    score_h          DOUBLE      NOT NULL,
+    score_mu         DOUBLE      NOT NULL,
+    score_hu         DOUBLE      NOT NULL,
+    PRIMARY KEY (training_data_id, evaluation_type, layer_index, level),
+    -- 按子系统逐行读取全部得分时按此顺序流式返回，无需排序
+    KEY idx_credibility_type (evaluation_type, training_data_id, layer_index, level),
+    -- 删除训练数据时其得分随之删除，应用中不再单独删除
+    CONSTRAINT fk_credibility_training_data FOREIGN KEY (training_data_id)
+        REFERENCES training_data (id) ON DELETE CASCADE
+);
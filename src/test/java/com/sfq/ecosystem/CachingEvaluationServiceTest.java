@@ -0,0 +1,149 @@
+package com.sfq.ecosystem;
+
+import com.sfq.ecosystem.config.EvaluationCacheMetrics;
+import com.sfq.ecosystem.model.EvaluationResult;
+import com.sfq.ecosystem.model.EvaluationType;
+import com.sfq.ecosystem.service.impl.CachingEvaluationService;
+import com.sfq.ecosystem.service.impl.EvaluationServiceImpl;
+import com.sfq.ecosystem.service.strategy.EvaluationStrategyFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 带缓存评估服务的测试：命中/未命中/淘汰计数，策略配置变化时整体失效，以及计数发布为 Micrometer 指标
+ */
+public class CachingEvaluationServiceTest {
+
+    @Test
+    public void testHitsMissesAndResults() {
+        EvaluationServiceImpl delegate = new EvaluationServiceImpl();
+        CachingEvaluationService cached = new CachingEvaluationService(delegate, 100);
+
+        for (Map.Entry<String, double[]> sample : EvaluationStrategyFactory.getStrategy(EvaluationType.XIETONG).getSamples().entrySet()) {
+            double[] raw = sample.getValue();
+            EvaluationResult expected = delegate.evaluateAllLayers(raw, EvaluationType.XIETONG);
+
+            EvaluationResult first = cached.evaluateAllLayers(raw, EvaluationType.XIETONG);
+            assertEquals(expected.getTargetLevel(), first.getTargetLevel());
+            assertEquals(expected.getCriterionLevels(), first.getCriterionLevels());
+            // 目标层与准则层评估共用同一条缓存
+            assertEquals(expected.getTargetLevel(), cached.evaluateTargetLayer(raw, EvaluationType.XIETONG));
+            assertEquals(expected.getCriterionLevels(), cached.evaluateCriterionLayer(raw.clone(), EvaluationType.XIETONG));
+            assertSame(first, cached.evaluateAllLayers(raw, EvaluationType.XIETONG));
+        }
+        int samples = EvaluationStrategyFactory.getStrategy(EvaluationType.XIETONG).getSamples().size();
+        assertEquals(samples, cached.getMissCount());
+        assertEquals(3L * samples, cached.getHitCount());
+
+        // 修改调用方数组不影响已缓存的键；任何一位不同都是新键
+        double[] raw = EvaluationStrategyFactory.getStrategy(EvaluationType.XIETONG).getSamples().values().iterator().next().clone();
+        cached.evaluateAllLayers(raw, EvaluationType.XIETONG);
+        raw[0] = Math.nextUp(raw[0]);
+        cached.evaluateAllLayers(raw, EvaluationType.XIETONG);
+        assertEquals(samples + 1, cached.getMissCount());
+    }
+
+    @Test
+    public void testSizeBoundedEviction() {
+        CachingEvaluationService cached = new CachingEvaluationService(new EvaluationServiceImpl(), 4);
+        double[] raw = EvaluationStrategyFactory.getStrategy(EvaluationType.ZIYUAN).getSamples().values().iterator().next().clone();
+        for (int i = 0; i < 10; i++) {
+            raw[0] = i;
+            cached.evaluateAllLayers(raw, EvaluationType.ZIYUAN);
+        }
+        assertEquals(4, cached.size());
+        assertEquals(6, cached.getEvictionCount());
+
+        // 最近使用的条目保留
+        raw[0] = 9;
+        cached.evaluateAllLayers(raw, EvaluationType.ZIYUAN);
+        assertEquals(1, cached.getHitCount());
+    }
+
+    @Test
+    public void testConcurrentLookups() throws Exception {
+        EvaluationServiceImpl delegate = new EvaluationServiceImpl();
+        CachingEvaluationService cached = new CachingEvaluationService(delegate, 100);
+        List<double[]> samples = new ArrayList<>(EvaluationStrategyFactory.getStrategy(EvaluationType.XIETONG).getSamples().values());
+        for (double[] raw : samples) {
+            cached.evaluateAllLayers(raw, EvaluationType.XIETONG);
+        }
+
+        // 多个线程同时读取已缓存的结果，每次都命中且与直接评估一致
+        int threads = 4;
+        int rounds = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < rounds; i++) {
+                        double[] raw = samples.get(i % samples.size());
+                        assertEquals(delegate.evaluateTargetLayer(raw, EvaluationType.XIETONG),
+                                cached.evaluateTargetLayer(raw, EvaluationType.XIETONG));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(samples.size(), cached.getMissCount());
+        assertEquals((long) threads * rounds, cached.getHitCount());
+        assertEquals(samples.size(), cached.size());
+    }
+
+    @Test
+    public void testInvalidatedOnStrategyChange() {
+        CachingEvaluationService cached = new CachingEvaluationService(new EvaluationServiceImpl(), 100);
+        double[] raw = EvaluationStrategyFactory.getStrategy(EvaluationType.FUWU).getSamples().values().iterator().next();
+        cached.evaluateAllLayers(raw, EvaluationType.FUWU);
+        cached.evaluateCredibilities(raw, EvaluationType.FUWU);
+        assertEquals(2, cached.size());
+
+        // 重新注册策略会递增计划版本号，缓存整体清空
+        EvaluationStrategyFactory.register(EvaluationType.FUWU, EvaluationStrategyFactory.getStrategy(EvaluationType.FUWU));
+        cached.evaluateAllLayers(raw, EvaluationType.FUWU);
+        assertEquals(1, cached.getInvalidationCount());
+        assertEquals(1, cached.size());
+        assertEquals(3, cached.getMissCount());
+    }
+
+    @Test
+    public void testCountersPublishedAsMetrics() {
+        CachingEvaluationService cached = new CachingEvaluationService(new EvaluationServiceImpl(), 2);
+        MeterRegistry registry = new SimpleMeterRegistry();
+        new EvaluationCacheMetrics(cached).bindTo(registry);
+
+        double[] raw = EvaluationStrategyFactory.getStrategy(EvaluationType.ZIYUAN).getSamples().values().iterator().next().clone();
+        for (int i = 0; i < 3; i++) {
+            raw[0] = i;
+            cached.evaluateAllLayers(raw, EvaluationType.ZIYUAN);
+        }
+        cached.evaluateAllLayers(raw, EvaluationType.ZIYUAN);
+        EvaluationStrategyFactory.register(EvaluationType.ZIYUAN, EvaluationStrategyFactory.getStrategy(EvaluationType.ZIYUAN));
+        cached.evaluateAllLayers(raw, EvaluationType.ZIYUAN);
+
+        String cache = EvaluationCacheMetrics.CACHE_NAME;
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", cache, "result", "hit").functionCounter().count());
+        assertEquals(4.0, registry.get("cache.gets").tags("cache", cache, "result", "miss").functionCounter().count());
+        assertEquals(4.0, registry.get("cache.puts").tag("cache", cache).functionCounter().count());
+        assertEquals(1.0, registry.get("cache.evictions").tag("cache", cache).functionCounter().count());
+        assertEquals(1.0, registry.get("cache.invalidations").tag("cache", cache).functionCounter().count());
+        assertEquals(1.0, registry.get("cache.size").tag("cache", cache).gauge().value());
+    }
+}
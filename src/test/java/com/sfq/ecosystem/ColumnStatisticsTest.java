@@ -0,0 +1,257 @@
+package com.sfq.ecosystem;
+
+import com.sfq.ecosystem.model.CoMomentKernel;
+import com.sfq.ecosystem.model.ColumnStatistics;
+import com.sfq.ecosystem.model.SlidingWindowMoments;
+import com.sfq.ecosystem.service.PcaService;
+import com.sfq.ecosystem.service.impl.CriticServiceImpl;
+import com.sfq.ecosystem.service.impl.EntropyWeightServiceImpl;
+import com.sfq.ecosystem.service.impl.IndependenceWeightServiceImpl;
+import com.sfq.ecosystem.service.impl.PcaServiceImpl;
+import com.sfq.ecosystem.service.impl.SlidingWindowWeights;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 共享列统计量的正确性测试：各赋权方法改由 {@link ColumnStatistics} 推导后，
+ * 结果须与 {@link ReferenceWeightingMethods} 中的原始逐列计算一致。
+ */
+public class ColumnStatisticsTest {
+
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    public void testStatisticsMatchDirectComputation() {
+        double[][] data = randomMatrix(200, 6, 1L, 1e6);
+        ColumnStatistics stats = ColumnStatistics.of(data);
+
+        for (int j = 0; j < 6; j++) {
+            double sum = 0;
+            for (double[] row : data) {
+                sum += row[j];
+            }
+            double mean = sum / data.length;
+            double ss = 0;
+            for (double[] row : data) {
+                ss += (row[j] - mean) * (row[j] - mean);
+            }
+            assertEquals(mean, stats.mean(j), 1e-12 * Math.abs(mean));
+            assertEquals(ss, stats.centeredSumOfSquares(j), 1e-9 * ss);
+            assertEquals(stats.centeredSumOfSquares(j), stats.coMoment(j, j), 0.0);
+            assertEquals(1.0, stats.correlation(j, j), 1e-12);
+        }
+    }
+
+    @Test
+    public void testWeightsMatchReference() {
+        Random random = new Random(7);
+        int[][] shapes = {{5, 14}, {30, 5}, {200, 12}, {1000, 30}};
+        for (int[] shape : shapes) {
+            double[][] data = randomMatrix(shape[0], shape[1], random.nextLong(), 1.0);
+            assertWeightsMatch(data, shape[0] > shape[1]);
+        }
+    }
+
+    @Test
+    public void testConstantColumnMatchesReference() {
+        double[][] data = randomMatrix(50, 6, 3L, 1.0);
+        for (double[] row : data) {
+            row[2] = 0.75;
+        }
+        assertWeightsMatch(data, false);
+
+        ColumnStatistics stats = ColumnStatistics.of(data);
+        assertEquals(0.0, stats.centeredSumOfSquares(2), 0.0);
+        assertTrue(Double.isNaN(stats.correlation(2, 0)));
+    }
+
+    @Test
+    public void testBlockWeightsShareOneStatistics() {
+        double[][] data = randomMatrix(120, 10, 11L, 1.0);
+        List<Integer> splitCols = Arrays.asList(3, 1, 4, 2);
+        IndependenceWeightServiceImpl service = new IndependenceWeightServiceImpl();
+
+        double[] expected = ReferenceWeightingMethods.calculateFinalWeights(data, splitCols);
+        assertArrayEquals(expected, service.calculateFinalWeights(data, splitCols), TOLERANCE);
+        assertArrayEquals(expected, service.calculateFinalWeights(ColumnStatistics.of(data), splitCols), TOLERANCE);
+    }
+
+    @Test
+    public void testParallelCoMomentsMatchDirectComputation() {
+        // 计算量足以拆分为多个子任务，且指标数不是分块边长的整数倍
+        double[][] data = randomMatrix(3000, 150, 29L, 1e3);
+        for (double[] row : data) {
+            row[70] = -2.5;
+        }
+        ColumnStatistics stats = ColumnStatistics.of(data, false, true);
+
+        double[] means = new double[150];
+        for (int j = 0; j < 150; j++) {
+            for (double[] row : data) {
+                means[j] += row[j];
+            }
+            means[j] /= data.length;
+        }
+        for (int j = 0; j < 150; j += 7) {
+            for (int k = 0; k < 150; k++) {
+                double expected = 0;
+                for (double[] row : data) {
+                    expected += (row[j] - means[j]) * (row[k] - means[k]);
+                }
+                assertEquals(expected, stats.coMoment(j, k), 1e-9 * data.length);
+                assertEquals(stats.coMoment(j, k), stats.coMoment(k, j), 0.0);
+            }
+            assertEquals(0.0, stats.coMoment(j, 70), 0.0);
+        }
+        assertEquals(0.0, stats.centeredSumOfSquares(70), 0.0);
+    }
+
+    @Test
+    public void testParallelCoMomentsIndependentOfPoolSize() {
+        // 计算量足以拆分为 10 个子任务
+        double[][] data = randomMatrix(20000, 130, 31L, 1.0);
+        double[] means = new double[130];
+        for (double[] row : data) {
+            for (int j = 0; j < 130; j++) {
+                means[j] += row[j] / data.length;
+            }
+        }
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool quad = new ForkJoinPool(4);
+        try {
+            double[] expected = CoMomentKernel.coMoments(data, means, single);
+            assertArrayEquals(expected, CoMomentKernel.coMoments(data, means, quad), 0.0);
+            assertArrayEquals(expected, CoMomentKernel.coMoments(data, means), 0.0);
+        } finally {
+            single.shutdown();
+            quad.shutdown();
+        }
+    }
+
+    @Test
+    public void testSlidingWindowMatchesRecomputation() {
+        int window = 25;
+        double[][] data = randomMatrix(300, 7, 19L, 100.0);
+        for (int i = 120; i < 160; i++) {
+            // 一段时间内第 5 列为常量，窗口完全落在其中时该列的离差须为零
+            data[i][4] = 3.0;
+        }
+        SlidingWindowMoments moments = new SlidingWindowMoments(7, window);
+        CriticServiceImpl critic = new CriticServiceImpl();
+        for (int i = 0; i < data.length; i++) {
+            moments.add(data[i]);
+            double[][] recent = Arrays.copyOfRange(data, Math.max(0, i + 1 - window), i + 1);
+            assertEquals(recent.length, moments.size());
+            if (recent.length < 2) {
+                continue;
+            }
+            ColumnStatistics expected = ColumnStatistics.of(recent, false, true);
+            ColumnStatistics actual = moments.toStatistics();
+            for (int j = 0; j < 7; j++) {
+                assertEquals(expected.mean(j), actual.mean(j), 1e-9);
+                for (int k = 0; k < 7; k++) {
+                    assertEquals(expected.coMoment(j, k), actual.coMoment(j, k), 1e-9);
+                }
+            }
+            assertArrayEquals(critic.criticMethod(expected), critic.criticMethod(actual), 1e-9);
+        }
+    }
+
+    @Test
+    public void testSlidingWindowCachesPrincipalComponents() {
+        PcaService pca = spy(new PcaServiceImpl());
+        SlidingWindowWeights weights = new SlidingWindowWeights(5, 20, new CriticServiceImpl(), pca);
+        double[][] data = randomMatrix(40, 5, 23L, 1.0);
+        weights.add(data[0]);
+        assertNull(weights.pcaWeights());
+        assertNull(weights.criticWeights());
+
+        for (int i = 1; i < data.length; i++) {
+            weights.add(data[i]);
+        }
+        double[] first = weights.pcaWeights();
+        assertArrayEquals(first, weights.pcaWeights(), 0.0);
+        verify(pca, times(1)).principalComponentWeighting(any(ColumnStatistics.class));
+        assertArrayEquals(ReferenceWeightingMethods.principalComponentWeighting(Arrays.copyOfRange(data, 20, 40)), first, 1e-9);
+        assertArrayEquals(ReferenceWeightingMethods.criticMethod(Arrays.copyOfRange(data, 20, 40)), weights.criticWeights(), 1e-9);
+
+        // 窗口滑动后才重新分解
+        weights.add(data[0]);
+        weights.pcaWeights();
+        verify(pca, times(2)).principalComponentWeighting(any(ColumnStatistics.class));
+    }
+
+    @Test
+    public void testSlidingWindowPcaWithConstantIndicator() {
+        int window = 10;
+        SlidingWindowWeights weights = new SlidingWindowWeights(5, window, new CriticServiceImpl(), new PcaServiceImpl());
+        double[][] data = randomMatrix(30, 5, 41L, 1.0);
+        for (int i = 15; i < 30; i++) {
+            // 第 2 个指标最近 15 期没有变化，窗口完全落在其中
+            data[i][1] = 0.7;
+        }
+        for (double[] row : data) {
+            weights.add(row);
+        }
+
+        // 常量指标不参与主成分分析，权重为 0；其余指标与去掉该列后计算的结果一致
+        double[] pca = weights.pcaWeights();
+        assertEquals(0.0, pca[1], 0.0);
+        double[][] recent = Arrays.copyOfRange(data, 30 - window, 30);
+        double[][] withoutConstant = new double[window][];
+        for (int i = 0; i < window; i++) {
+            withoutConstant[i] = new double[]{recent[i][0], recent[i][2], recent[i][3], recent[i][4]};
+        }
+        double[] expected = ReferenceWeightingMethods.principalComponentWeighting(withoutConstant);
+        assertArrayEquals(expected, new double[]{pca[0], pca[2], pca[3], pca[4]}, 1e-9);
+        assertEquals(0.0, weights.criticWeights()[1], 0.0);
+    }
+
+    private static void assertWeightsMatch(double[][] data, boolean withPca) {
+        ColumnStatistics stats = ColumnStatistics.of(data);
+
+        double[] entropy = ReferenceWeightingMethods.entropyWeightMethod(data);
+        assertArrayEquals(entropy, new EntropyWeightServiceImpl().entropyWeightMethod(data), TOLERANCE);
+        assertArrayEquals(entropy, new EntropyWeightServiceImpl().entropyWeightMethod(stats), TOLERANCE);
+
+        double[] critic = ReferenceWeightingMethods.criticMethod(data);
+        assertArrayEquals(critic, new CriticServiceImpl().criticMethod(data), TOLERANCE);
+        assertArrayEquals(critic, new CriticServiceImpl().criticMethod(stats), TOLERANCE);
+
+        // 样本数不多于指标数时相关系数矩阵秩亏，特征向量不唯一，不做比较
+        if (withPca) {
+            double[] pca = ReferenceWeightingMethods.principalComponentWeighting(data);
+            assertArrayEquals(pca, new PcaServiceImpl().principalComponentWeighting(data), TOLERANCE);
+            assertArrayEquals(pca, new PcaServiceImpl().principalComponentWeighting(stats), TOLERANCE);
+
+            double[] independence = ReferenceWeightingMethods.independenceWeight(data);
+            assertArrayEquals(independence, new IndependenceWeightServiceImpl().independenceWeight(data), TOLERANCE);
+            assertArrayEquals(independence, new IndependenceWeightServiceImpl().independenceWeight(stats), TOLERANCE);
+        }
+    }
+
+    // 在 [offset, offset + 1) 上均匀分布的随机矩阵，较大的 offset 用于检验平移数据法的精度
+    private static double[][] randomMatrix(int rows, int cols, long seed, double offset) {
+        Random random = new Random(seed);
+        double[][] data = new double[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                data[i][j] = offset + random.nextDouble();
+            }
+        }
+        return data;
+    }
+}
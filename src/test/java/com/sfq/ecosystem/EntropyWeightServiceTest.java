@@ -1,9 +1,16 @@
 package com.sfq.ecosystem;
 
+import com.sfq.ecosystem.model.EntropyAccumulator;
 import com.sfq.ecosystem.service.EntropyWeightService;
 import com.sfq.ecosystem.service.impl.EntropyWeightServiceImpl;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 public class EntropyWeightServiceTest {
     @Test
     public void testEntropyWeightWithData() {
@@ -30,4 +37,43 @@ public class EntropyWeightServiceTest {
         }
         System.out.printf("权重和: %.6f\n", sum);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAccumulatorMatchesBatch() {
+        Random random = new Random(13);
+        double[][] data = new double[500][8];
+        for (double[] row : data) {
+            for (int j = 0; j < row.length; j++) {
+                // 第 3 列含零值，检验 p = 0 的项不计入
+                row[j] = j == 3 && random.nextInt(4) == 0 ? 0 : random.nextDouble() * (j + 1);
+            }
+        }
+        EntropyWeightService service = new EntropyWeightServiceImpl();
+        double[] expected = service.entropyWeightMethod(data);
+
+        // 逐行累加
+        EntropyAccumulator whole = new EntropyAccumulator(8);
+        for (double[] row : data) {
+            whole.add(row);
+        }
+        assertArrayEquals(expected, service.entropyWeightMethod(whole), 1e-12);
+
+        // 分三片各自累加后合并
+        EntropyAccumulator merged = new EntropyAccumulator(8);
+        for (int shard = 0; shard < 3; shard++) {
+            EntropyAccumulator part = new EntropyAccumulator(8);
+            for (int i = shard; i < data.length; i += 3) {
+                part.add(data[i]);
+            }
+            merged.merge(part);
+        }
+        assertEquals(data.length, merged.rows());
+        assertArrayEquals(expected, service.entropyWeightMethod(merged), 1e-12);
+
+        // 撤销后半部分的行，等同于只用前半部分计算
+        for (int i = 250; i < data.length; i++) {
+            whole.remove(data[i]);
+        }
+        assertArrayEquals(service.entropyWeightMethod(Arrays.copyOf(data, 250)), service.entropyWeightMethod(whole), 1e-9);
+    }
+}
@@ -0,0 +1,199 @@
+package com.sfq.ecosystem;
+
+import com.sfq.ecosystem.entity.EvaluationConfigRecord;
+import com.sfq.ecosystem.model.EvaluationType;
+import com.sfq.ecosystem.repository.EvaluationConfigMapper;
+import com.sfq.ecosystem.service.impl.EvaluationConfigServiceImpl;
+import com.sfq.ecosystem.service.strategy.ConfigVersion;
+import com.sfq.ecosystem.service.strategy.EvaluationConfig;
+import com.sfq.ecosystem.service.strategy.EvaluationStrategyFactory;
+import com.sfq.ecosystem.service.strategy.IEvaluationStrategy;
+import com.sfq.ecosystem.service.strategy.ReweightedEvaluationStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 评估配置版本服务测试
+ * <p>
+ * evaluation_config 表用内存中的列表模拟，验证配置变化时才产生新版本、只有变化的评估类型更新起始版本号，
+ * 重启后从库中读取的版本与写入时一致，以及重启后恢复库中发布过的权重。
+ */
+public class EvaluationConfigServiceTest {
+
+    // 模拟的 evaluation_config 表
+    private final List<EvaluationConfigRecord> table = new ArrayList<>();
+    private final Map<EvaluationType, IEvaluationStrategy> originals = new EnumMap<>(EvaluationType.class);
+
+    @BeforeEach
+    void setUp() {
+        for (EvaluationType type : EvaluationType.values()) {
+            originals.put(type, ReweightedEvaluationStrategy.baseOf(EvaluationStrategyFactory.getStrategy(type)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        // 评估策略是全局的，恢复原有权重，避免影响其他测试
+        for (Map.Entry<EvaluationType, IEvaluationStrategy> entry : originals.entrySet()) {
+            EvaluationStrategyFactory.register(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * 以内存中的列表作为 evaluation_config 表创建配置版本服务
+     */
+    public static EvaluationConfigServiceImpl inMemoryConfigService(List<EvaluationConfigRecord> table) {
+        EvaluationConfigMapper mapper = mock(EvaluationConfigMapper.class);
+        doAnswer(invocation -> {
+            table.addAll(invocation.getArgument(0));
+            return null;
+        }).when(mapper).insertBatch(anyList());
+        when(mapper.findLatestVersion()).thenAnswer(invocation ->
+                table.stream().map(EvaluationConfigRecord::getVersion).max(Long::compare).orElse(null));
+        when(mapper.findByVersion(anyLong())).thenAnswer(invocation -> table.stream()
+                .filter(r -> r.getVersion() == (long) invocation.getArgument(0))
+                .collect(Collectors.toList()));
+        EvaluationConfigServiceImpl service = new EvaluationConfigServiceImpl();
+        ReflectionTestUtils.setField(service, "evaluationConfigMapper", mapper);
+        return service;
+    }
+
+    @Test
+    public void testFirstVersionRecordsCurrentStrategies() {
+        EvaluationConfigServiceImpl service = inMemoryConfigService(table);
+        ConfigVersion first = service.getCurrentVersion();
+        assertEquals(1, first.getVersion());
+        assertEquals(EvaluationType.values().length, table.size());
+        for (EvaluationType type : EvaluationType.values()) {
+            EvaluationConfig config = first.config(type);
+            IEvaluationStrategy strategy = EvaluationStrategyFactory.getStrategy(type);
+            assertEquals(1, config.getSinceVersion());
+            assertArrayEquals(strategy.getWeights(), config.getWeights(), 0.0);
+            assertEquals(strategy.getTheta(), config.getTheta(), 0.0);
+            assertTrue(config.isStale(null));
+            assertFalse(config.isStale(1L));
+        }
+        // 当前版本缓存在内存中，再次读取不访问数据库
+        assertSame(first, service.getCurrentVersion());
+        assertEquals(EvaluationType.values().length, table.size());
+    }
+
+    @Test
+    public void testRegisterCreatesVersionOnlyWhenConfigChanges() {
+        EvaluationConfigServiceImpl service = inMemoryConfigService(table);
+        ConfigVersion first = service.getCurrentVersion();
+
+        // 配置相同时不产生新版本
+        assertSame(first, service.register(EvaluationType.ZIYUAN, originals.get(EvaluationType.ZIYUAN)));
+
+        double[] weights = scaledWeights(EvaluationType.XIETONG);
+        long planVersion = EvaluationStrategyFactory.getPlanVersion();
+        ConfigVersion second = service.register(EvaluationType.XIETONG,
+                new ReweightedEvaluationStrategy(originals.get(EvaluationType.XIETONG), weights));
+        assertEquals(2, second.getVersion());
+        assertSame(second, service.getCurrentVersion());
+        assertTrue(EvaluationStrategyFactory.getPlanVersion() > planVersion);
+        assertArrayEquals(weights, EvaluationStrategyFactory.getTargetPlan(EvaluationType.XIETONG).weights(), 0.0);
+
+        // 只有变化的评估类型更新起始版本号，其余类型沿用原配置
+        assertEquals(2, second.config(EvaluationType.XIETONG).getSinceVersion());
+        assertArrayEquals(weights, second.config(EvaluationType.XIETONG).getWeights(), 0.0);
+        assertSame(first.config(EvaluationType.ZIYUAN), second.config(EvaluationType.ZIYUAN));
+        assertSame(first.config(EvaluationType.FUWU), second.config(EvaluationType.FUWU));
+        assertEquals(2, second.staleBefore());
+        assertTrue(second.config(EvaluationType.XIETONG).isStale(1L));
+        assertFalse(second.config(EvaluationType.ZIYUAN).isStale(1L));
+        assertSame(first, service.getVersion(1));
+        assertNull(service.getVersion(3));
+    }
+
+    @Test
+    public void testVersionsSurviveRestart() {
+        EvaluationConfigServiceImpl service = inMemoryConfigService(table);
+        service.getCurrentVersion();
+        ConfigVersion published = service.register(EvaluationType.FUWU,
+                new ReweightedEvaluationStrategy(originals.get(EvaluationType.FUWU), scaledWeights(EvaluationType.FUWU)));
+
+        // 策略与库中最新版本一致时沿用该版本，不写入新版本
+        EvaluationConfigServiceImpl restarted = inMemoryConfigService(table);
+        int rows = table.size();
+        ConfigVersion reloaded = restarted.getCurrentVersion();
+        assertEquals(published.getVersion(), reloaded.getVersion());
+        assertEquals(rows, table.size());
+        for (EvaluationType type : EvaluationType.values()) {
+            EvaluationConfig expected = published.config(type);
+            EvaluationConfig actual = reloaded.config(type);
+            assertTrue(expected.sameSettings(actual));
+            assertEquals(expected.getSinceVersion(), actual.getSinceVersion());
+            assertEquals(new ArrayList<>(expected.getCriterionGroups().keySet()),
+                    new ArrayList<>(actual.getCriterionGroups().keySet()));
+        }
+
+        // 重启后策略回到代码中的原有权重：只有权重与库中不同，恢复库中发布过的权重，不记录新版本
+        EvaluationStrategyFactory.register(EvaluationType.FUWU, originals.get(EvaluationType.FUWU));
+        long planVersion = EvaluationStrategyFactory.getPlanVersion();
+        ConfigVersion afterRestart = inMemoryConfigService(table).getCurrentVersion();
+        assertEquals(published.getVersion(), afterRestart.getVersion());
+        assertEquals(rows, table.size());
+        assertTrue(published.config(EvaluationType.FUWU).sameSettings(afterRestart.config(EvaluationType.FUWU)));
+        IEvaluationStrategy restored = EvaluationStrategyFactory.getStrategy(EvaluationType.FUWU);
+        assertTrue(restored instanceof ReweightedEvaluationStrategy);
+        assertSame(originals.get(EvaluationType.FUWU), ReweightedEvaluationStrategy.baseOf(restored));
+        assertArrayEquals(published.config(EvaluationType.FUWU).getWeights(), restored.getWeights(), 0.0);
+        assertTrue(EvaluationStrategyFactory.getPlanVersion() > planVersion);
+        assertArrayEquals(restored.getWeights(), EvaluationStrategyFactory.getTargetPlan(EvaluationType.FUWU).weights(), 0.0);
+    }
+
+    @Test
+    public void testRestartRecordsVersionWhenOtherSettingsChange() {
+        EvaluationConfigServiceImpl service = inMemoryConfigService(table);
+        ConfigVersion first = service.getCurrentVersion();
+
+        // 库中记录的阈值与代码中的策略不同（模拟策略代码已修改），重启后记录为新版本
+        for (EvaluationConfigRecord record : table) {
+            if (EvaluationType.ZIYUAN.name().equals(record.getEvaluationType())) {
+                record.setTheta(record.getTheta() / 2);
+            }
+        }
+        ConfigVersion afterRestart = inMemoryConfigService(table).getCurrentVersion();
+        assertEquals(first.getVersion() + 1, afterRestart.getVersion());
+        assertEquals(afterRestart.getVersion(), afterRestart.config(EvaluationType.ZIYUAN).getSinceVersion());
+        assertEquals(originals.get(EvaluationType.ZIYUAN).getTheta(), afterRestart.config(EvaluationType.ZIYUAN).getTheta(), 0.0);
+        assertEquals(first.config(EvaluationType.XIETONG).getSinceVersion(),
+                afterRestart.config(EvaluationType.XIETONG).getSinceVersion());
+        assertSame(originals.get(EvaluationType.ZIYUAN), EvaluationStrategyFactory.getStrategy(EvaluationType.ZIYUAN));
+    }
+
+    private double[] scaledWeights(EvaluationType type) {
+        double[] weights = originals.get(type).getWeights();
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] *= i + 1;
+            sum += weights[i];
+        }
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] /= sum;
+        }
+        return weights;
+    }
+}
@@ -1,13 +1,23 @@
 package com.sfq.ecosystem;
 
+import com.sfq.ecosystem.model.CredibilityReport;
+import com.sfq.ecosystem.model.EvaluationResult;
 import com.sfq.ecosystem.model.EvaluationType;
+import com.sfq.ecosystem.model.FermateanFuzzyNumber;
+import com.sfq.ecosystem.model.LayerCredibility;
 import com.sfq.ecosystem.service.IEvaluationService;
 import com.sfq.ecosystem.service.impl.EvaluationServiceImpl;
+import com.sfq.ecosystem.service.strategy.EvaluationStrategyFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
  * 评估服务测试类 (已更新)
@@ -62,6 +72,40 @@ public class EvaluationServiceTest {
         printCriterionResults(allResults, EvaluationType.FUWU);
     }
 
+    @Test
+    @DisplayName("测试可信度接口 - 与参考实现一致，并可按不同阈值重新定级")
+    void testCredibilityReportAndThetaSweep() {
+        ReferenceEvaluationEngine reference = new ReferenceEvaluationEngine();
+        for (EvaluationType type : EvaluationType.values()) {
+            for (double[] raw : EvaluationStrategyFactory.getStrategy(type).getSamples().values()) {
+                CredibilityReport report = evaluationService.evaluateCredibilities(raw, type);
+                List<FermateanFuzzyNumber> expectedTarget = reference.targetCredibilities(raw, type);
+                Map<String, List<FermateanFuzzyNumber>> expectedCriterion = reference.criterionCredibilities(raw, type);
+
+                assertEquals(expectedTarget, report.getTargetLayer().getCredibilities());
+                assertEquals(expectedTarget.get(4).scoreS(), report.getTargetLayer().getScoreS()[4]);
+                assertEquals(new ArrayList<>(expectedCriterion.keySet()),
+                        report.getCriterionLayers().stream().map(LayerCredibility::getName).collect(Collectors.toList()));
+                for (LayerCredibility layer : report.getCriterionLayers()) {
+                    assertEquals(expectedCriterion.get(layer.getName()), layer.getCredibilities());
+                }
+
+                EvaluationResult fused = evaluationService.evaluateAllLayers(raw, type);
+                assertEquals(fused.getTargetLevel(), report.toEvaluationResult().getTargetLevel());
+                assertEquals(fused.getCriterionLevels(), report.toEvaluationResult().getCriterionLevels());
+
+                for (double theta = 0.5; theta <= 0.7 + 1e-12; theta += 0.05) {
+                    EvaluationResult swept = report.resolve(theta);
+                    assertEquals(ReferenceEvaluationEngine.resolve(expectedTarget, theta), swept.getTargetLevel());
+                    for (Map.Entry<String, List<FermateanFuzzyNumber>> entry : expectedCriterion.entrySet()) {
+                        assertEquals(ReferenceEvaluationEngine.resolve(entry.getValue(), theta),
+                                swept.getCriterionLevels().get(entry.getKey()));
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * 辅助方法，用于统一打印准则层评估结果
      * @param allResults 评估结果
@@ -0,0 +1,112 @@
+package com.sfq.ecosystem;
+
+import com.sfq.ecosystem.model.EvaluationType;
+import com.sfq.ecosystem.service.impl.EvaluationServiceImpl;
+import com.sfq.ecosystem.service.impl.EvaluationTaskRunner;
+import com.sfq.ecosystem.service.strategy.EvaluationStrategyFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 评估任务并行执行测试
+ * <p>
+ * 验证按开销阈值划分调用线程与线程池、结果顺序、嵌套调用与异常传递，
+ * 以及准则层并行评估与顺序评估的结果一致。
+ */
+public class EvaluationTaskRunnerTest {
+
+    private ExecutorService executor;
+    private EvaluationTaskRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2, r -> {
+            Thread thread = new Thread(r, "evaluation-test");
+            thread.setDaemon(true);
+            return thread;
+        });
+        runner = new EvaluationTaskRunner(executor, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testCheapTasksStayOnCallerThread() {
+        String caller = Thread.currentThread().getName();
+        List<Callable<String>> tasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(() -> Thread.currentThread().getName());
+        }
+        // 开销为 1 的单元与最后一个需要并行的单元在调用线程上执行
+        List<String> threads = runner.invokeAll(tasks, new int[]{5, 1, 5, 5});
+        assertEquals("evaluation-test", threads.get(0));
+        assertEquals(caller, threads.get(1));
+        assertEquals("evaluation-test", threads.get(2));
+        assertEquals(caller, threads.get(3));
+
+        // 只有一个单元达到阈值时全部顺序执行
+        threads = runner.invokeAll(tasks.subList(0, 2), new int[]{5, 1});
+        assertEquals(Arrays.asList(caller, caller), threads);
+    }
+
+    @Test
+    public void testNestedInvocationRunsInline() {
+        List<Callable<Boolean>> inner = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            inner.add(() -> Thread.currentThread().getName().equals("evaluation-test"));
+        }
+        List<Callable<List<Boolean>>> outer = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            outer.add(() -> runner.invokeAll(inner, new int[]{5, 5}));
+        }
+        List<List<Boolean>> results = runner.invokeAll(outer, new int[]{5, 5, 5});
+        // 线程池中的任务再次调用时不再提交，两个内层单元都在同一个池线程上执行
+        assertEquals(Arrays.asList(true, true), results.get(0));
+        assertEquals(Arrays.asList(true, true), results.get(1));
+        assertFalse(results.get(2).get(1));
+    }
+
+    @Test
+    public void testExceptionIsPropagated() {
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        tasks.add(() -> {
+            throw new IllegalArgumentException("boom");
+        });
+        tasks.add(() -> 1);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> runner.invokeAll(tasks, new int[]{5, 5}));
+        assertEquals("boom", e.getMessage());
+    }
+
+    @Test
+    public void testParallelCriterionLayerMatchesSequential() {
+        EvaluationServiceImpl sequential = new EvaluationServiceImpl();
+        EvaluationServiceImpl parallel = new EvaluationServiceImpl();
+        parallel.setTaskRunner(runner);
+        for (EvaluationType type : EvaluationType.values()) {
+            for (double[] sample : EvaluationStrategyFactory.getStrategy(type).getSamples().values()) {
+                Map<String, String> expected = sequential.evaluateCriterionLayer(sample, type);
+                Map<String, String> actual = parallel.evaluateCriterionLayer(sample, type);
+                assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(actual.entrySet()));
+                assertTrue(actual.size() > 1);
+            }
+        }
+    }
+}
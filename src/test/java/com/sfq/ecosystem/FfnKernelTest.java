@@ -0,0 +1,233 @@
+package com.sfq.ecosystem;
+
+import com.sfq.ecosystem.model.BatchEvaluationResult;
+import com.sfq.ecosystem.model.CrispFfnBuffer;
+import com.sfq.ecosystem.model.CrispFfnKernel;
+import com.sfq.ecosystem.model.EvaluationResult;
+import com.sfq.ecosystem.model.EvaluationType;
+import com.sfq.ecosystem.model.FermateanFuzzyNumber;
+import com.sfq.ecosystem.model.FfnScores;
+import com.sfq.ecosystem.model.LayerCredibility;
+import com.sfq.ecosystem.service.IEvaluationService;
+import com.sfq.ecosystem.service.impl.EvaluationServiceImpl;
+import com.sfq.ecosystem.service.strategy.EvaluationStrategyFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 原始类型运算内核测试
+ * <p>
+ * 验证 {@link CrispFfnKernel} 的立方形式运算与 {@link FermateanFuzzyNumber} 对象运算在末几位之内一致，
+ * 可信度报告的定级与内核的比较逐位一致，
+ * 以及基于内核的评估服务与参考实现给出相同的等级。
+ */
+public class FfnKernelTest {
+
+    private static final int ROUNDS = 5000;
+    // 立方形式省去了立方再开方的往返，与对象运算只在末几位上不同
+    private static final double CUBE_TOLERANCE = 1e-12;
+
+    @Test
+    public void testCubeKernelMatchesObjectApi() {
+        Random random = new Random(20240603L);
+        CrispFfnBuffer cubes = new CrispFfnBuffer(3);
+        FfnScores scores = new FfnScores(2);
+        for (int r = 0; r < ROUNDS; r++) {
+            FermateanFuzzyNumber a = randomCrispFfn(random);
+            FermateanFuzzyNumber b = random.nextBoolean() ? randomCrispFfn(random) : randomCrispPair(random);
+            cubes.set(0, Math.pow(a.getAlphaL(), 3), Math.pow(a.getBetaL(), 3));
+            cubes.set(1, Math.pow(b.getAlphaL(), 3), Math.pow(b.getBetaL(), 3));
+
+            CrispFfnKernel.add(cubes, 0, cubes, 1, cubes, 2);
+            assertClose(a.add(b), cubes, 2);
+            CrispFfnKernel.subtract(cubes, 0, cubes, 1, cubes, 2);
+            assertClose(a.subtract(b), cubes, 2);
+            CrispFfnKernel.multiply(cubes, 0, cubes, 1, cubes, 2);
+            assertClose(a.multiply(b), cubes, 2);
+            if (CrispFfnKernel.isVanishing(cubes, 1)) {
+                assertClose(FermateanFuzzyNumber.FFN_ONE, cubes, 0);
+            } else {
+                CrispFfnKernel.inverse(cubes, 1, cubes, 2);
+                CrispFfnKernel.multiply(cubes, 0, cubes, 2, cubes, 2);
+                assertClose(a.divide(b), cubes, 2);
+            }
+            CrispFfnKernel.clamp(cubes, 2, cubes, 2);
+            assertEquals(a.compareTo(b), CrispFfnKernel.compare(cubes, 0, cubes, 1));
+            assertEquals(b.compareTo(a), CrispFfnKernel.compare(cubes, 1, cubes, 0));
+            assertEquals(0, CrispFfnKernel.compare(cubes, 0, cubes, 0));
+            assertEquals(b.equals(FermateanFuzzyNumber.FFN_ZERO), CrispFfnKernel.isZero(cubes, 1));
+
+            // 预先算好的得分元组与直接在立方形式上比较的结果相同
+            CrispFfnKernel.score(cubes, 0, scores, 0);
+            CrispFfnKernel.score(cubes, 1, scores, 1);
+            assertEquals(CrispFfnKernel.compare(cubes, 0, cubes, 1), CrispFfnKernel.compare(scores, 0, scores, 1));
+            assertEquals(CrispFfnKernel.compare(cubes, 1, cubes, 0), CrispFfnKernel.compare(scores, 1, scores, 0));
+        }
+        CrispFfnKernel.setZero(cubes, 0);
+        CrispFfnKernel.setOne(cubes, 1);
+        assertTrue(CrispFfnKernel.isZero(cubes, 0));
+        assertEquals(-1, CrispFfnKernel.compare(cubes, 0, cubes, 1));
+        CrispFfnKernel.fromCrisp(0.3, cubes, 2);
+        assertEquals(0.3, cubes.toFfn(2).getAlphaL(), CUBE_TOLERANCE);
+        assertEquals(0.7, cubes.toFfn(2).getBetaU(), CUBE_TOLERANCE);
+    }
+
+    @Test
+    public void testReportLevelsUseEngineComparison() {
+        // 可信度与阈值的得分相差约 EPSILON、比较结果取决于末几位时，
+        // 报告的等级、按阈值重新定级以及由持久化得分重新定级都必须与评估内核的比较一致
+        String[] levelNames = {"差", "较差", "中等", "良好", "优秀"};
+        Random random = new Random(11L);
+        CrispFfnBuffer theta = new CrispFfnBuffer(1);
+        CrispFfnBuffer credibilities = new CrispFfnBuffer(levelNames.length);
+        for (int round = 0; round < ROUNDS; round++) {
+            double t = 0.5 + 0.2 * random.nextDouble();
+            CrispFfnKernel.fromCrisp(t, theta, 0);
+            for (int h = 0; h < levelNames.length; h++) {
+                // 得分 S 的差为 (da - db) / 2，取在 EPSILON 上下一百万分之一以内
+                double delta = 2 * 1e-9 * (1.0 + (random.nextDouble() - 0.5) * 2e-6) * (random.nextBoolean() ? 1 : -1);
+                credibilities.set(h, theta.a[0] + delta, theta.b[0]);
+            }
+            int expected = 0;
+            for (int h = levelNames.length - 1; h >= 0; h--) {
+                if (CrispFfnKernel.compare(credibilities, h, theta, 0) >= 0) {
+                    expected = h;
+                    break;
+                }
+            }
+
+            LayerCredibility layer = new LayerCredibility("层", t, levelNames, credibilities, 0);
+            assertEquals(levelNames[expected], layer.getLevel());
+            assertEquals(levelNames[expected], layer.resolveLevel(t));
+            FfnScores stored = new FfnScores(levelNames.length);
+            for (int h = 0; h < levelNames.length; h++) {
+                stored.set(h, layer.getScoreS()[h], layer.getScoreH()[h], layer.getScoreMU()[h], layer.getScoreHU()[h]);
+            }
+            assertEquals(levelNames[expected], LayerCredibility.resolveLevel(stored, 0, t, levelNames));
+        }
+    }
+
+    @Test
+    public void testReportLevelsMatchEvaluatedLevels() {
+        EvaluationServiceImpl evaluationService = new EvaluationServiceImpl();
+        Random random = new Random(13L);
+        for (EvaluationType type : EvaluationType.values()) {
+            double[][] boundaries = EvaluationStrategyFactory.getStrategy(type).getBoundaries();
+            double[][] samples = new double[500][boundaries.length];
+            for (double[] raw : samples) {
+                for (int i = 0; i < raw.length; i++) {
+                    raw[i] = random.nextDouble() * boundaries[i][boundaries[i].length - 1] * 1.2;
+                }
+            }
+            BatchEvaluationResult batch = evaluationService.evaluateBatch(samples, type);
+            for (int r = 0; r < samples.length; r++) {
+                EvaluationResult reported = evaluationService.evaluateCredibilities(samples[r], type).toEvaluationResult();
+                EvaluationResult fused = evaluationService.evaluateAllLayers(samples[r], type);
+                assertEquals(fused.getTargetLevel(), reported.getTargetLevel());
+                assertEquals(fused.getCriterionLevels(), reported.getCriterionLevels());
+                assertEquals(batch.getTargetLevel(r), reported.getTargetLevel());
+                assertEquals(batch.getCriterionLevels(r), reported.getCriterionLevels());
+            }
+        }
+    }
+
+    @Test
+    public void testKernelEvaluationMatchesReference() {
+        IEvaluationService evaluationService = new EvaluationServiceImpl();
+        ReferenceEvaluationEngine reference = new ReferenceEvaluationEngine();
+        Random random = new Random(7L);
+        for (EvaluationType type : EvaluationType.values()) {
+            double[][] boundaries = EvaluationStrategyFactory.getStrategy(type).getBoundaries();
+            for (int r = 0; r < 200; r++) {
+                double[] raw = new double[boundaries.length];
+                for (int i = 0; i < raw.length; i++) {
+                    double max = boundaries[i][boundaries[i].length - 1];
+                    raw[i] = random.nextDouble() * max * 1.2;
+                }
+                assertEquals(reference.targetLevel(raw, type), evaluationService.evaluateTargetLayer(raw, type));
+                assertEquals(reference.criterionLevels(raw, type), evaluationService.evaluateCriterionLayer(raw, type));
+
+                EvaluationResult fused = evaluationService.evaluateAllLayers(raw, type);
+                assertEquals(reference.targetLevel(raw, type), fused.getTargetLevel());
+                assertEquals(reference.criterionLevels(raw, type), fused.getCriterionLevels());
+            }
+        }
+    }
+
+    @Test
+    public void testBatchEvaluationMatchesSingleSample() {
+        IEvaluationService evaluationService = new EvaluationServiceImpl();
+        Random random = new Random(11L);
+        for (EvaluationType type : EvaluationType.values()) {
+            double[][] boundaries = EvaluationStrategyFactory.getStrategy(type).getBoundaries();
+            // 行数超过拆分阈值且不是块大小的整数倍，覆盖 fork/join 拆分与末尾不满的块
+            double[][] samples = new double[2100][boundaries.length];
+            for (double[] raw : samples) {
+                for (int i = 0; i < raw.length; i++) {
+                    double max = boundaries[i][boundaries[i].length - 1];
+                    raw[i] = random.nextDouble() * max * 1.2;
+                }
+            }
+            BatchEvaluationResult batch = evaluationService.evaluateBatch(samples, type);
+            assertEquals(samples.length, batch.size());
+            for (int r = 0; r < samples.length; r++) {
+                EvaluationResult single = evaluationService.evaluateAllLayers(samples[r], type);
+                assertEquals(single.getTargetLevel(), batch.getTargetLevel(r));
+                assertEquals(single.getCriterionLevels(), batch.getCriterionLevels(r));
+            }
+        }
+        assertEquals(0, evaluationService.evaluateBatch(new double[0][], EvaluationType.XIETONG).size());
+    }
+
+    @Test
+    public void testLazyResolutionCountsEvaluatedLevels() {
+        EvaluationServiceImpl evaluationService = new EvaluationServiceImpl();
+        for (EvaluationType type : EvaluationType.values()) {
+            int layers = 1 + EvaluationStrategyFactory.getCriterionPlans(type).size();
+            for (double[] raw : EvaluationStrategyFactory.getStrategy(type).getSamples().values()) {
+                String level = evaluationService.evaluateTargetLayer(raw, type);
+                int evaluated = evaluationService.getLastLevelsEvaluated();
+                assertTrue(evaluated >= 1 && evaluated <= 4);
+                // 从 “优秀” 开始逐级向下，在第一个达到阈值的等级停止；等级 0 从不计算
+                int levelIndex = Arrays.asList(ReferenceEvaluationEngine.LEVEL_NAMES).indexOf(level);
+                assertEquals(levelIndex == 0 ? 4 : 5 - levelIndex, evaluated);
+
+                evaluationService.evaluateAllLayers(raw, type);
+                evaluated = evaluationService.getLastLevelsEvaluated();
+                assertTrue(evaluated >= layers && evaluated <= 4 * layers);
+            }
+        }
+        assertTrue(evaluationService.getEvaluatedLevelCount() <= 4 * evaluationService.getEvaluatedLayerCount());
+    }
+
+    private static FermateanFuzzyNumber randomCrispFfn(Random random) {
+        double s = random.nextDouble();
+        return new FermateanFuzzyNumber(new double[]{s, s}, new double[]{1.0 - s, 1.0 - s});
+    }
+
+    /**
+     * 分量相互独立的退化数，alpha + beta 不一定为 1
+     */
+    private static FermateanFuzzyNumber randomCrispPair(Random random) {
+        double alpha = random.nextDouble(), beta = random.nextDouble();
+        return new FermateanFuzzyNumber(new double[]{alpha, alpha}, new double[]{beta, beta});
+    }
+
+    private static void assertClose(FermateanFuzzyNumber expected, CrispFfnBuffer cubes, int i) {
+        FermateanFuzzyNumber actual = cubes.toFfn(i);
+        assertClose(expected.getAlphaL(), actual.getAlphaL());
+        assertClose(expected.getAlphaU(), actual.getAlphaU());
+        assertClose(expected.getBetaL(), actual.getBetaL());
+        assertClose(expected.getBetaU(), actual.getBetaU());
+    }
+
+    // 除法的隶属度可能远大于 1，按相对误差比较
+    private static void assertClose(double expected, double actual) {
+        assertEquals(expected, actual, CUBE_TOLERANCE * Math.max(1.0, Math.abs(expected)));
+    }
+}
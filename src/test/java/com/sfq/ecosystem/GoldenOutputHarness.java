@@ -0,0 +1,386 @@
+package com.sfq.ecosystem;
+
+import com.sfq.ecosystem.model.CredibilityReport;
+import com.sfq.ecosystem.model.EvaluationType;
+import com.sfq.ecosystem.model.FermateanFuzzyNumber;
+import com.sfq.ecosystem.model.LayerCredibility;
+import com.sfq.ecosystem.service.IEvaluationService;
+import com.sfq.ecosystem.service.strategy.EvaluationStrategyFactory;
+import com.sfq.ecosystem.service.strategy.IEvaluationStrategy;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 评估结果的黄金输出回归工具
+ * <p>
+ * 为每个评估类型生成固定种子的语料：随机向量，以及逐指标构造的边界用例
+ * （恰好落在每个等级边界上、略低于下限、略高于上限、远超范围）。
+ * 另有一组 “零区间” 变体：把部分指标的边界压缩为同一个值后重新注册策略，覆盖区间宽度为零的分支。
+ * <p>
+ * 语料在当前 {@link com.sfq.ecosystem.service.impl.EvaluationServiceImpl} 上的等级与可信度记录在
+ * {@value #RESOURCE} 中。任何替代实现都可以通过 {@link #verify} 与之比较，不一致按 (评估类型, 变体, 指标) 汇总。
+ * 评估逻辑有意变更时，以 -Dgolden.record=true 运行 GoldenOutputTest 重新生成该文件。
+ */
+public final class GoldenOutputHarness {
+
+    public static final String RESOURCE = "/golden/evaluation-golden.tsv.gz";
+    public static final String SOURCE_PATH = "src/test/resources/golden/evaluation-golden.tsv.gz";
+
+    public static final String STANDARD = "standard";
+    public static final String ZERO_RANGE = "zero-range";
+
+    // 可信度允许的绝对误差；等级必须完全一致
+    public static final double CREDIBILITY_TOLERANCE = 1e-12;
+
+    private static final long SEED = 20240611L;
+    private static final int RANDOM_CASES = 100;
+    private static final int ZERO_RANGE_RANDOM_CASES = 50;
+    // 零区间变体中被压缩的指标：下标 % 4 == 1
+    private static final int ZERO_RANGE_MODULUS = 4;
+
+    private GoldenOutputHarness() {
+    }
+
+    /**
+     * 语料中的一条用例及其黄金输出
+     */
+    public static final class GoldenCase {
+        final String variant;
+        final EvaluationType type;
+        final String label;
+        // 该用例针对的指标，随机用例为 -1
+        final int indicator;
+        final double[] vector;
+        // 目标层与各准则层的等级下标
+        int[] levels;
+        // [层][等级 * 4 + 分量]，分量依次为 alphaL, alphaU, betaL, betaU
+        double[][] credibilities;
+
+        GoldenCase(String variant, EvaluationType type, String label, int indicator, double[] vector) {
+            this.variant = variant;
+            this.type = type;
+            this.label = label;
+            this.indicator = indicator;
+            this.vector = vector;
+        }
+
+        public double[] getVector() { return vector.clone(); }
+        public EvaluationType getType() { return type; }
+        public String getVariant() { return variant; }
+    }
+
+    /**
+     * 被检查的评估实现：返回等级下标，以及可选的可信度（不提供时只比较等级）
+     */
+    public interface Engine {
+        void prepare(String variant, EvaluationType type, List<GoldenCase> cases);
+
+        int[] levels(int caseIndex, GoldenCase goldenCase);
+
+        default double[][] credibilities(int caseIndex, GoldenCase goldenCase) {
+            return null;
+        }
+    }
+
+    /**
+     * 生成某个评估类型在指定变体下的语料（不含黄金输出）
+     */
+    public static List<GoldenCase> generate(String variant, EvaluationType type) {
+        IEvaluationStrategy strategy = EvaluationStrategyFactory.getStrategy(type);
+        double[][] boundaries = strategy.getBoundaries();
+        double[] base = strategy.getSamples().values().iterator().next();
+        Random random = new Random(SEED + 31L * type.ordinal() + (ZERO_RANGE.equals(variant) ? 7L : 0L));
+        List<GoldenCase> cases = new ArrayList<>();
+
+        for (int n = 0; n < boundaries.length; n++) {
+            if (ZERO_RANGE.equals(variant) && n % ZERO_RANGE_MODULUS != 1) {
+                continue;
+            }
+            double min = Math.min(boundaries[n][0], boundaries[n][boundaries[n].length - 1]);
+            double max = Math.max(boundaries[n][0], boundaries[n][boundaries[n].length - 1]);
+            double range = Math.max(max - min, 1.0);
+            for (int k = 0; k < boundaries[n].length; k++) {
+                cases.add(edgeCase(variant, type, base, n, "boundary-" + k, boundaries[n][k]));
+            }
+            cases.add(edgeCase(variant, type, base, n, "below-min", min - 1e-9 * range));
+            cases.add(edgeCase(variant, type, base, n, "above-max", max + 1e-9 * range));
+            cases.add(edgeCase(variant, type, base, n, "far-below", min - 10 * range));
+            cases.add(edgeCase(variant, type, base, n, "far-above", max + 10 * range));
+        }
+
+        int randomCases = ZERO_RANGE.equals(variant) ? ZERO_RANGE_RANDOM_CASES : RANDOM_CASES;
+        for (int c = 0; c < randomCases; c++) {
+            double[] vector = new double[boundaries.length];
+            for (int n = 0; n < boundaries.length; n++) {
+                double min = Math.min(boundaries[n][0], boundaries[n][boundaries[n].length - 1]);
+                double max = Math.max(boundaries[n][0], boundaries[n][boundaries[n].length - 1]);
+                double margin = (max - min) * 0.2;
+                vector[n] = min - margin + random.nextDouble() * (max - min + 2 * margin);
+            }
+            cases.add(new GoldenCase(variant, type, "random-" + c, -1, vector));
+        }
+        return cases;
+    }
+
+    private static GoldenCase edgeCase(String variant, EvaluationType type, double[] base, int n, String label, double value) {
+        double[] vector = base.clone();
+        vector[n] = value;
+        return new GoldenCase(variant, type, label, n, vector);
+    }
+
+    /**
+     * 在指定变体下运行 action：零区间变体会临时替换各类型的策略，结束后恢复原策略
+     */
+    public static void withVariant(String variant, Runnable action) {
+        if (!ZERO_RANGE.equals(variant)) {
+            action.run();
+            return;
+        }
+        Map<EvaluationType, IEvaluationStrategy> originals = new LinkedHashMap<>();
+        for (EvaluationType type : EvaluationType.values()) {
+            originals.put(type, EvaluationStrategyFactory.getStrategy(type));
+        }
+        try {
+            originals.forEach((type, strategy) -> EvaluationStrategyFactory.register(type, new ZeroRangeStrategy(strategy)));
+            action.run();
+        } finally {
+            originals.forEach(EvaluationStrategyFactory::register);
+        }
+    }
+
+    /**
+     * 用当前评估服务计算全部语料的黄金输出
+     */
+    public static Map<String, List<GoldenCase>> record(IEvaluationService evaluationService) {
+        Map<String, List<GoldenCase>> corpus = new LinkedHashMap<>();
+        for (String variant : new String[]{STANDARD, ZERO_RANGE}) {
+            withVariant(variant, () -> {
+                for (EvaluationType type : EvaluationType.values()) {
+                    List<GoldenCase> cases = generate(variant, type);
+                    for (GoldenCase goldenCase : cases) {
+                        CredibilityReport report = evaluationService.evaluateCredibilities(goldenCase.vector, type);
+                        List<LayerCredibility> layers = new ArrayList<>();
+                        layers.add(report.getTargetLayer());
+                        layers.addAll(report.getCriterionLayers());
+                        goldenCase.levels = new int[layers.size()];
+                        goldenCase.credibilities = new double[layers.size()][];
+                        for (int l = 0; l < layers.size(); l++) {
+                            goldenCase.levels[l] = levelIndex(layers.get(l).getLevel());
+                            goldenCase.credibilities[l] = flatten(layers.get(l).getCredibilities());
+                        }
+                    }
+                    corpus.put(key(variant, type), cases);
+                }
+            });
+        }
+        return corpus;
+    }
+
+    /**
+     * 将某个实现的输出与黄金输出比较
+     *
+     * @return 不一致的报告，按 (评估类型, 变体, 指标) 汇总；完全一致时为空列表
+     */
+    public static List<String> verify(Map<String, List<GoldenCase>> golden, String engineName, Engine engine) {
+        Map<String, List<String>> mismatches = new TreeMap<>();
+        for (String variant : new String[]{STANDARD, ZERO_RANGE}) {
+            withVariant(variant, () -> {
+                for (EvaluationType type : EvaluationType.values()) {
+                    List<GoldenCase> cases = golden.get(key(variant, type));
+                    engine.prepare(variant, type, cases);
+                    for (int i = 0; i < cases.size(); i++) {
+                        GoldenCase goldenCase = cases.get(i);
+                        String detail = compare(goldenCase, engine.levels(i, goldenCase), engine.credibilities(i, goldenCase));
+                        if (detail != null) {
+                            String group = key(variant, type) + " 指标 " + (goldenCase.indicator < 0 ? "随机" : String.valueOf(goldenCase.indicator));
+                            mismatches.computeIfAbsent(group, g -> new ArrayList<>()).add(goldenCase.label + ": " + detail);
+                        }
+                    }
+                }
+            });
+        }
+
+        List<String> report = new ArrayList<>();
+        mismatches.forEach((group, details) -> {
+            report.add(String.format("[%s] %s: %d 处不一致，例如 %s", engineName, group, details.size(), details.get(0)));
+        });
+        return report;
+    }
+
+    private static String compare(GoldenCase goldenCase, int[] levels, double[][] credibilities) {
+        if (!Arrays.equals(goldenCase.levels, levels)) {
+            return "等级 " + Arrays.toString(goldenCase.levels) + " -> " + Arrays.toString(levels);
+        }
+        if (credibilities == null) {
+            return null;
+        }
+        for (int l = 0; l < goldenCase.credibilities.length; l++) {
+            for (int k = 0; k < goldenCase.credibilities[l].length; k++) {
+                double expected = goldenCase.credibilities[l][k];
+                double actual = credibilities[l][k];
+                if (!(Math.abs(expected - actual) <= CREDIBILITY_TOLERANCE)) {
+                    return String.format("第 %d 层等级 %d 的可信度分量 %d: %s -> %s", l, k / 4, k % 4, expected, actual);
+                }
+            }
+        }
+        return null;
+    }
+
+    public static int levelIndex(String level) {
+        return Arrays.asList(ReferenceEvaluationEngine.LEVEL_NAMES).indexOf(level);
+    }
+
+    public static double[] flatten(List<FermateanFuzzyNumber> credibilities) {
+        double[] flat = new double[credibilities.size() * 4];
+        for (int h = 0; h < credibilities.size(); h++) {
+            FermateanFuzzyNumber c = credibilities.get(h);
+            flat[h * 4] = c.getAlphaL();
+            flat[h * 4 + 1] = c.getAlphaU();
+            flat[h * 4 + 2] = c.getBetaL();
+            flat[h * 4 + 3] = c.getBetaU();
+        }
+        return flat;
+    }
+
+    private static String key(String variant, EvaluationType type) {
+        return type + "/" + variant;
+    }
+
+    // ---- 读写黄金文件：每行 变体、类型、标签、指标、向量、等级、可信度，以制表符分隔 ----
+
+    public static void write(Map<String, List<GoldenCase>> corpus, Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(new FileOutputStream(path.toFile())), StandardCharsets.UTF_8))) {
+            for (List<GoldenCase> cases : corpus.values()) {
+                for (GoldenCase c : cases) {
+                    StringBuilder line = new StringBuilder();
+                    line.append(c.variant).append('\t').append(c.type).append('\t').append(c.label).append('\t')
+                            .append(c.indicator).append('\t').append(join(c.vector, ",")).append('\t');
+                    for (int l = 0; l < c.levels.length; l++) {
+                        line.append(l == 0 ? "" : ",").append(c.levels[l]);
+                    }
+                    line.append('\t');
+                    for (int l = 0; l < c.credibilities.length; l++) {
+                        line.append(l == 0 ? "" : ";").append(join(c.credibilities[l], ","));
+                    }
+                    writer.write(line.append('\n').toString());
+                }
+            }
+        }
+    }
+
+    public static Map<String, List<GoldenCase>> load() throws IOException {
+        Map<String, List<GoldenCase>> corpus = new LinkedHashMap<>();
+        InputStream in = GoldenOutputHarness.class.getResourceAsStream(RESOURCE);
+        if (in == null) {
+            throw new IOException("缺少黄金输出文件 " + RESOURCE);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(in), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t");
+                EvaluationType type = EvaluationType.valueOf(fields[1]);
+                GoldenCase c = new GoldenCase(fields[0], type, fields[2], Integer.parseInt(fields[3]), parse(fields[4]));
+                String[] levels = fields[5].split(",");
+                c.levels = new int[levels.length];
+                for (int l = 0; l < levels.length; l++) {
+                    c.levels[l] = Integer.parseInt(levels[l]);
+                }
+                String[] layers = fields[6].split(";");
+                c.credibilities = new double[layers.length][];
+                for (int l = 0; l < layers.length; l++) {
+                    c.credibilities[l] = parse(layers[l]);
+                }
+                corpus.computeIfAbsent(key(c.variant, type), k -> new ArrayList<>()).add(c);
+            }
+        }
+        return corpus;
+    }
+
+    private static String join(double[] values, String separator) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            sb.append(i == 0 ? "" : separator).append(values[i]);
+        }
+        return sb.toString();
+    }
+
+    private static double[] parse(String csv) {
+        String[] parts = csv.split(",");
+        double[] values = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Double.parseDouble(parts[i]);
+        }
+        return values;
+    }
+
+    /**
+     * 把部分指标的全部边界压缩为原边界中点的策略，其余配置与原策略相同
+     */
+    private static final class ZeroRangeStrategy implements IEvaluationStrategy {
+        private final IEvaluationStrategy delegate;
+
+        ZeroRangeStrategy(IEvaluationStrategy delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public double[][] getBoundaries() {
+            double[][] boundaries = delegate.getBoundaries();
+            for (int n = 0; n < boundaries.length; n++) {
+                if (n % ZERO_RANGE_MODULUS == 1) {
+                    double mid = (boundaries[n][0] + boundaries[n][boundaries[n].length - 1]) / 2;
+                    Arrays.fill(boundaries[n], mid);
+                }
+            }
+            return boundaries;
+        }
+
+        @Override
+        public double[] getWeights() { return delegate.getWeights(); }
+
+        @Override
+        public Map<String, double[]> getSamples() { return delegate.getSamples(); }
+
+        @Override
+        public Map<String, int[]> getCriterionGroups() { return delegate.getCriterionGroups(); }
+
+        @Override
+        public double getTheta() { return delegate.getTheta(); }
+
+        @Override
+        public double[] preprocessTargetLayerData(double[] rawSampleData) {
+            return delegate.preprocessTargetLayerData(rawSampleData);
+        }
+
+        @Override
+        public double[] preprocessCriterionLayerData(double[] rawGroupData, int[] originalIndices) {
+            return delegate.preprocessCriterionLayerData(rawGroupData, originalIndices);
+        }
+
+        @Override
+        public double preprocessIndicator(double rawValue, int originalIndex) {
+            return delegate.preprocessIndicator(rawValue, originalIndex);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.sfq.ecosystem;
+
+import com.sfq.ecosystem.GoldenOutputHarness.Engine;
+import com.sfq.ecosystem.GoldenOutputHarness.GoldenCase;
+import com.sfq.ecosystem.model.BatchEvaluationResult;
+import com.sfq.ecosystem.model.CredibilityReport;
+import com.sfq.ecosystem.model.EvaluationResult;
+import com.sfq.ecosystem.model.EvaluationType;
+import com.sfq.ecosystem.model.FermateanFuzzyNumber;
+import com.sfq.ecosystem.model.LayerCredibility;
+import com.sfq.ecosystem.service.IEvaluationService;
+import com.sfq.ecosystem.service.impl.CachingEvaluationService;
+import com.sfq.ecosystem.service.impl.EvaluationServiceImpl;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 黄金输出回归测试
+ * <p>
+ * 评估服务的各条计算路径以及参考实现都必须与 {@link GoldenOutputHarness} 记录的黄金输出一致。
+ * 以 -Dgolden.record=true 运行时先用当前评估服务重新生成黄金文件。
+ */
+public class GoldenOutputTest {
+
+    private static Map<String, List<GoldenCase>> golden;
+
+    @BeforeAll
+    static void loadGolden() throws IOException {
+        if (Boolean.getBoolean("golden.record")) {
+            golden = GoldenOutputHarness.record(new EvaluationServiceImpl());
+            GoldenOutputHarness.write(golden, Paths.get(GoldenOutputHarness.SOURCE_PATH));
+        } else {
+            golden = GoldenOutputHarness.load();
+        }
+    }
+
+    @Test
+    public void testCredibilityReportMatchesGolden() {
+        EvaluationServiceImpl service = new EvaluationServiceImpl();
+        assertMatches("evaluateCredibilities", new Engine() {
+            private EvaluationType type;
+
+            @Override
+            public void prepare(String variant, EvaluationType type, List<GoldenCase> cases) {
+                this.type = type;
+            }
+
+            @Override
+            public int[] levels(int caseIndex, GoldenCase goldenCase) {
+                return reportLevels(service.evaluateCredibilities(goldenCase.getVector(), type));
+            }
+
+            @Override
+            public double[][] credibilities(int caseIndex, GoldenCase goldenCase) {
+                CredibilityReport report = service.evaluateCredibilities(goldenCase.getVector(), type);
+                List<LayerCredibility> layers = layers(report);
+                double[][] result = new double[layers.size()][];
+                for (int l = 0; l < layers.size(); l++) {
+                    result[l] = GoldenOutputHarness.flatten(layers.get(l).getCredibilities());
+                }
+                return result;
+            }
+        });
+    }
+
+    @Test
+    public void testLazyEvaluationMatchesGolden() {
+        EvaluationServiceImpl service = new EvaluationServiceImpl();
+        assertMatches("evaluateAllLayers", levelsOf(service));
+    }
+
+    @Test
+    public void testLayerByLayerEvaluationMatchesGolden() {
+        EvaluationServiceImpl service = new EvaluationServiceImpl();
+        assertMatches("evaluateTargetLayer/evaluateCriterionLayer", new Engine() {
+            private EvaluationType type;
+
+            @Override
+            public void prepare(String variant, EvaluationType type, List<GoldenCase> cases) {
+                this.type = type;
+            }
+
+            @Override
+            public int[] levels(int caseIndex, GoldenCase goldenCase) {
+                double[] vector = goldenCase.getVector();
+                return toLevels(service.evaluateTargetLayer(vector, type), service.evaluateCriterionLayer(vector, type));
+            }
+        });
+    }
+
+    @Test
+    public void testBatchEvaluationMatchesGolden() {
+        EvaluationServiceImpl service = new EvaluationServiceImpl();
+        assertMatches("evaluateBatch", new Engine() {
+            private BatchEvaluationResult batch;
+
+            @Override
+            public void prepare(String variant, EvaluationType type, List<GoldenCase> cases) {
+                double[][] samples = new double[cases.size()][];
+                for (int i = 0; i < cases.size(); i++) {
+                    samples[i] = cases.get(i).getVector();
+                }
+                batch = service.evaluateBatch(samples, type);
+            }
+
+            @Override
+            public int[] levels(int caseIndex, GoldenCase goldenCase) {
+                EvaluationResult result = batch.getResult(caseIndex);
+                return toLevels(result.getTargetLevel(), result.getCriterionLevels());
+            }
+        });
+    }
+
+    @Test
+    public void testCachingServiceMatchesGolden() {
+        assertMatches("CachingEvaluationService", levelsOf(new CachingEvaluationService(new EvaluationServiceImpl(), 64)));
+    }
+
+    @Test
+    public void testReferenceEngineMatchesGolden() {
+        ReferenceEvaluationEngine reference = new ReferenceEvaluationEngine();
+        assertMatches("ReferenceEvaluationEngine", new Engine() {
+            private EvaluationType type;
+
+            @Override
+            public void prepare(String variant, EvaluationType type, List<GoldenCase> cases) {
+                this.type = type;
+            }
+
+            @Override
+            public int[] levels(int caseIndex, GoldenCase goldenCase) {
+                double[] vector = goldenCase.getVector();
+                return toLevels(reference.targetLevel(vector, type), reference.criterionLevels(vector, type));
+            }
+
+            @Override
+            public double[][] credibilities(int caseIndex, GoldenCase goldenCase) {
+                double[] vector = goldenCase.getVector();
+                List<List<FermateanFuzzyNumber>> layers = new ArrayList<>();
+                layers.add(reference.targetCredibilities(vector, type));
+                layers.addAll(reference.criterionCredibilities(vector, type).values());
+                double[][] result = new double[layers.size()][];
+                for (int l = 0; l < layers.size(); l++) {
+                    result[l] = GoldenOutputHarness.flatten(layers.get(l));
+                }
+                return result;
+            }
+        });
+    }
+
+    private static void assertMatches(String engineName, Engine engine) {
+        List<String> report = GoldenOutputHarness.verify(golden, engineName, engine);
+        assertTrue(report.isEmpty(), () -> String.join("\n", report));
+    }
+
+    private static Engine levelsOf(IEvaluationService service) {
+        return new Engine() {
+            private EvaluationType type;
+
+            @Override
+            public void prepare(String variant, EvaluationType type, List<GoldenCase> cases) {
+                this.type = type;
+            }
+
+            @Override
+            public int[] levels(int caseIndex, GoldenCase goldenCase) {
+                EvaluationResult result = service.evaluateAllLayers(goldenCase.getVector(), type);
+                return toLevels(result.getTargetLevel(), result.getCriterionLevels());
+            }
+        };
+    }
+
+    private static List<LayerCredibility> layers(CredibilityReport report) {
+        List<LayerCredibility> layers = new ArrayList<>();
+        layers.add(report.getTargetLayer());
+        layers.addAll(report.getCriterionLayers());
+        return layers;
+    }
+
+    private static int[] reportLevels(CredibilityReport report) {
+        List<LayerCredibility> layers = layers(report);
+        int[] levels = new int[layers.size()];
+        for (int l = 0; l < layers.size(); l++) {
+            levels[l] = GoldenOutputHarness.levelIndex(layers.get(l).getLevel());
+        }
+        return levels;
+    }
+
+    private static int[] toLevels(String targetLevel, Map<String, String> criterionLevels) {
+        int[] levels = new int[1 + criterionLevels.size()];
+        levels[0] = GoldenOutputHarness.levelIndex(targetLevel);
+        int l = 1;
+        for (String level : criterionLevels.values()) {
+            levels[l++] = GoldenOutputHarness.levelIndex(level);
+        }
+        return levels;
+    }
+}
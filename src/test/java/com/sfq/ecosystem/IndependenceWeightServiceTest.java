@@ -1,14 +1,20 @@
 package com.sfq.ecosystem;
 
 import com.sfq.ecosystem.service.IndependenceWeightService;
+import com.sfq.ecosystem.service.impl.EvaluationTaskRunner;
 import com.sfq.ecosystem.service.impl.IndependenceWeightServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class IndependenceWeightServiceTest {
 
@@ -34,27 +40,125 @@ public class IndependenceWeightServiceTest {
         // 定义分块
         List<Integer> splitCols = Arrays.asList(4, 2, 4, 3, 1);
 
-        // Python 脚本计算出的期望结果
-        // [0.06325988 0.0813812  0.071534   0.06941093 0.06571598 0.07714016
-        //  0.0782414  0.07850553 0.07632644 0.07251263 0.08051676 0.04618765
-        //  0.07000527 0.07142857]
+        // 期望结果取自逐指标带截距 OLS 回归的参考实现 (ReferenceWeightingMethods.calculateFinalWeights)。
+        // 原先注释中 Python 脚本给出的结果 [0.06325988 0.0813812 ... 0.07142857] 不可能由本方法得到：
+        // 只有 2 个指标的分块中两个指标互为回归，R² 相同，权重必然相等，而脚本给出 0.06571598 与 0.07714016；
+        // 每个分块的权重之和必为 分块列数 / 总列数，而脚本的第 3 个分块之和为 0.3056 而非 4/14。
+        // 因此那组数值对应的是另一份数据或另一种分块加权方式，不能作为本方法的期望结果。
         double[] expectedWeights = {
-                0.06325988, 0.0813812, 0.071534, 0.06941093, 0.06571598, 0.07714016,
-                0.0782414, 0.07850553, 0.07632644, 0.07251263, 0.08051676, 0.04618765,
-                0.07000527, 0.07142857
+                0.07056959, 0.07325614, 0.07145359, 0.07043496, 0.07142857, 0.07142857,
+                0.07225527, 0.07496194, 0.06984849, 0.06864858, 0.07002087, 0.06992516,
+                0.07433969, 0.07142857
         };
 
         // 调用 Java 方法计算
         double[] finalWeights = independenceWeightService.calculateFinalWeights(standardizedData, splitCols);
 
-        // 打印结果以供观察
-        System.out.println("Calculated Weights: " + Arrays.toString(finalWeights));
-        System.out.println("Expected Weights:   " + Arrays.toString(expectedWeights));
-        System.out.println("Sum of Weights: " + Arrays.stream(finalWeights).sum());
-
-
         // 使用 assertEquals 进行断言比较，delta 用于处理浮点数精度误差
         double delta = 1e-6; // 允许的误差范围
         assertArrayEquals(expectedWeights, finalWeights, delta);
+        assertArrayEquals(ReferenceWeightingMethods.calculateFinalWeights(standardizedData, splitCols), finalWeights, 1e-9);
+
+        // 2 个指标的分块权重相等，各分块权重之和为 分块列数 / 总列数
+        assertEquals(finalWeights[4], finalWeights[5], 1e-12);
+        int from = 0;
+        for (int cols : splitCols) {
+            assertEquals((double) cols / 14, Arrays.stream(finalWeights, from, from + cols).sum(), 1e-12);
+            from += cols;
+        }
+    }
+
+    @Test
+    public void testInverseCorrelationMatchesRegression() {
+        Random random = new Random(17);
+        double[][] data = new double[300][16];
+        for (double[] row : data) {
+            double common = random.nextDouble();
+            for (int j = 0; j < row.length; j++) {
+                // 前几列带公共成分，使各指标之间存在不同程度的相关性
+                row[j] = (j < 6 ? common : 0) + random.nextDouble();
+            }
+        }
+        List<Integer> splitCols = Arrays.asList(5, 1, 6, 4);
+
+        assertArrayEquals(ReferenceWeightingMethods.independenceWeight(data),
+                independenceWeightService.independenceWeight(data), 1e-9);
+        assertArrayEquals(ReferenceWeightingMethods.calculateFinalWeights(data, splitCols),
+                independenceWeightService.calculateFinalWeights(data, splitCols), 1e-9);
+    }
+
+    @Test
+    public void testCollinearIndicatorsFallBackToPseudoInverse() {
+        Random random = new Random(23);
+        double[][] data = new double[40][4];
+        for (double[] row : data) {
+            row[0] = random.nextDouble();
+            row[1] = random.nextDouble();
+            row[2] = random.nextDouble();
+            // 第 4 列是前两列的线性组合，相关系数矩阵奇异
+            row[3] = 2 * row[0] - row[1] + 0.5;
+        }
+
+        double[] weights = independenceWeightService.independenceWeight(data);
+        assertEquals(1.0, Arrays.stream(weights).sum(), 1e-12);
+        // 完全共线的指标 R² = 1，几乎没有独立性；与之无关的第 3 列权重最大
+        assertTrue(weights[3] < weights[2]);
+        assertTrue(weights[0] < weights[2] && weights[1] < weights[2]);
+    }
+
+    @Test
+    public void testConstantIndicatorIsExcluded() {
+        Random random = new Random(31);
+        double[][] data = new double[50][6];
+        double[][] withoutConstant = new double[50][5];
+        for (int i = 0; i < data.length; i++) {
+            for (int j = 0; j < 6; j++) {
+                // 第 3 列从未变化
+                data[i][j] = j == 2 ? 0.5 : random.nextDouble();
+            }
+            for (int j = 0, k = 0; j < 6; j++) {
+                if (j != 2) {
+                    withoutConstant[i][k++] = data[i][j];
+                }
+            }
+        }
+
+        // 常数指标不携带信息，权重为 0；其余指标的权重与去掉该列后计算的结果相同
+        double[] weights = independenceWeightService.independenceWeight(data);
+        double[] expected = independenceWeightService.independenceWeight(withoutConstant);
+        assertEquals(0.0, weights[2], 0.0);
+        for (int j = 0, k = 0; j < 6; j++) {
+            if (j != 2) {
+                assertEquals(expected[k++], weights[j], 1e-12);
+            }
+        }
+        assertArrayEquals(ReferenceWeightingMethods.independenceWeight(withoutConstant), expected, 1e-9);
+
+        // 分块内只剩一个非常数指标时，该指标取得整个分块的权重
+        double[] finalWeights = independenceWeightService.calculateFinalWeights(data, Arrays.asList(2, 2, 2));
+        assertEquals(2.0 / 6, finalWeights[3], 1e-12);
+        assertEquals(0.0, finalWeights[2], 0.0);
+    }
+
+    @Test
+    public void testParallelBlocksMatchSequential() {
+        Random random = new Random(29);
+        double[][] data = new double[200][12];
+        for (double[] row : data) {
+            for (int j = 0; j < row.length; j++) {
+                row[j] = random.nextDouble();
+            }
+        }
+        List<Integer> splitCols = Arrays.asList(3, 4, 1, 4);
+        double[] sequential = independenceWeightService.calculateFinalWeights(data, splitCols);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            IndependenceWeightServiceImpl parallel = new IndependenceWeightServiceImpl();
+            parallel.setTaskRunner(new EvaluationTaskRunner(executor, 2));
+            assertArrayEquals(sequential, parallel.calculateFinalWeights(data, splitCols), 0.0);
+        } finally {
+            executor.shutdownNow();
+        }
     }
-}
\ No newline at end of file
+}
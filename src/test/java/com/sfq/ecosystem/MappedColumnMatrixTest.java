@@ -0,0 +1,274 @@
+package com.sfq.ecosystem;
+
+import com.sfq.ecosystem.model.ColumnStatistics;
+import com.sfq.ecosystem.model.MappedColumnMatrix;
+import com.sfq.ecosystem.model.RowIdIndex;
+import com.sfq.ecosystem.service.impl.CriticServiceImpl;
+import com.sfq.ecosystem.service.impl.EntropyWeightServiceImpl;
+import com.sfq.ecosystem.service.impl.IndependenceWeightServiceImpl;
+import com.sfq.ecosystem.service.impl.PcaServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 内存映射的按列存储矩阵测试
+ * <p>
+ * 验证跨块追加与读取、按行号覆盖与删除时快照不受影响，行号索引与参考实现一致，以及由映射矩阵得到的列统计量和各赋权方法的结果与二维数组逐位相同。
+ */
+public class MappedColumnMatrixTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testAppendAndReadAcrossBlocks() throws IOException {
+        double[][] data = randomMatrix(1000, 9, 1L);
+        try (MappedColumnMatrix matrix = MappedColumnMatrix.create(directory.resolve("m.bin"), 9, 64, false)) {
+            for (double[] row : data) {
+                matrix.append(row);
+            }
+            assertEquals(1000, matrix.rows());
+            assertEquals(16, matrix.blockCount());
+            for (int i = 0; i < data.length; i += 37) {
+                for (int j = 0; j < 9; j++) {
+                    assertEquals(data[i][j], matrix.get(i, j), 0.0);
+                }
+            }
+
+            // 最后一块只有 1000 - 15 * 64 行；视图只读且直接对应文件中的数据
+            DoubleBuffer last = matrix.segment(15, 4);
+            assertEquals(40, last.remaining());
+            assertEquals(data[960][4], last.get(0), 0.0);
+            assertTrue(last.isDirect());
+            assertThrows(ReadOnlyBufferException.class, () -> last.put(0, 1.0));
+
+            double[] column = new double[200];
+            matrix.copyColumn(7, 50, column, 0, 200);
+            for (int i = 0; i < 200; i++) {
+                assertEquals(data[50 + i][7], column[i], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testOverwriteAndRemoveKeepSnapshots() throws IOException {
+        double[][] data = randomMatrix(200, 5, 3L);
+        try (MappedColumnMatrix matrix = MappedColumnMatrix.create(directory.resolve("w.bin"), 5, 64, false)) {
+            for (double[] row : data) {
+                matrix.append(row);
+            }
+            MappedColumnMatrix snapshot = matrix.snapshot();
+
+            // 覆盖第 10 行、删除第 70 行（最后一行移入），再追加一行占用原最后一行的位置
+            double[] replaced = {1, 2, 3, 4, 5};
+            double[] appended = {6, 7, 8, 9, 10};
+            matrix.set(10, replaced);
+            matrix.removeRow(70);
+            matrix.append(appended);
+            assertEquals(200, matrix.rows());
+            for (int j = 0; j < 5; j++) {
+                assertEquals(replaced[j], matrix.get(10, j), 0.0);
+                assertEquals(data[199][j], matrix.get(70, j), 0.0);
+                assertEquals(appended[j], matrix.get(199, j), 0.0);
+                assertEquals(data[150][j], matrix.get(150, j), 0.0);
+            }
+
+            // 快照仍是修改之前的内容
+            for (int i = 0; i < data.length; i++) {
+                for (int j = 0; j < 5; j++) {
+                    assertEquals(data[i][j], snapshot.get(i, j), 0.0);
+                }
+            }
+
+            // 没有快照共享的块直接改写，不再复制
+            long size = Files.size(directory.resolve("w.bin"));
+            matrix.set(11, replaced);
+            assertEquals(size, Files.size(directory.resolve("w.bin")));
+            matrix.removeRow(199);
+            assertEquals(199, matrix.rows());
+            assertThrows(IllegalStateException.class, () -> snapshot.set(0, replaced));
+        }
+    }
+
+    @Test
+    public void testClosedSnapshotsReleaseCopiedBlocks() throws IOException {
+        double[][] data = randomMatrix(200, 5, 5L);
+        Path file = directory.resolve("r.bin");
+        try (MappedColumnMatrix matrix = MappedColumnMatrix.create(file, 5, 64, false)) {
+            for (double[] row : data) {
+                matrix.append(row);
+            }
+            assertEquals(4, matrix.regionCount());
+
+            // 反复读取快照后修正记录：每轮改写第 0 块并在最后一块删除、追加，两块各复制一次；
+            // 副本只在快照存活期间保留，关闭后被下一轮的复制重复使用，文件不再增长
+            for (int round = 0; round < 20; round++) {
+                try (MappedColumnMatrix snapshot = matrix.snapshot()) {
+                    matrix.set(10, new double[]{round, round, round, round, round});
+                    matrix.removeRow(matrix.rows() - 1);
+                    matrix.append(data[199]);
+                    assertEquals(round == 0 ? data[10][0] : round - 1, snapshot.get(10, 0), 0.0);
+                }
+            }
+            assertEquals(6, matrix.regionCount());
+            long size = Files.size(file);
+
+            // 多个快照同时存活时，各自看到的内容不变，全部关闭后区域全部可回收
+            MappedColumnMatrix first = matrix.snapshot();
+            matrix.set(100, data[0]);
+            MappedColumnMatrix second = matrix.snapshot();
+            matrix.set(100, data[1]);
+            assertEquals(data[100][2], first.get(100, 2), 0.0);
+            assertEquals(data[0][2], second.get(100, 2), 0.0);
+            assertEquals(data[1][2], matrix.get(100, 2), 0.0);
+            first.close();
+            first.close();
+            second.close();
+            for (int round = 0; round < 5; round++) {
+                try (MappedColumnMatrix snapshot = matrix.snapshot()) {
+                    matrix.set(100, data[round]);
+                    matrix.set(150, data[round]);
+                }
+            }
+            assertEquals(6, matrix.regionCount());
+            assertEquals(size, Files.size(file));
+        }
+    }
+
+    @Test
+    public void testStatisticsMatchRowMatrixExactly() throws IOException {
+        // 行数足以让协离差按多个子任务计算，且每块的行数不是分块计算行数的整数倍
+        double[][] data = randomMatrix(8000, 130, 2L);
+        for (double[] row : data) {
+            row[5] = 4.0;
+        }
+        try (MappedColumnMatrix matrix = MappedColumnMatrix.create(directory.resolve("s.bin"), 130, 100, false)) {
+            for (double[] row : data) {
+                matrix.append(row);
+            }
+            ColumnStatistics expected = ColumnStatistics.of(data);
+            ColumnStatistics actual = ColumnStatistics.of(matrix, true, true);
+            for (int j = 0; j < 130; j++) {
+                assertEquals(expected.sum(j), actual.sum(j), 0.0);
+                assertEquals(expected.mean(j), actual.mean(j), 0.0);
+                assertEquals(expected.minimum(j), actual.minimum(j), 0.0);
+                assertEquals(expected.pLogPSum(j), actual.pLogPSum(j), 0.0);
+                for (int k = 0; k < 130; k++) {
+                    assertEquals(expected.coMoment(j, k), actual.coMoment(j, k), 0.0);
+                }
+            }
+            assertEquals(0.0, actual.centeredSumOfSquares(5), 0.0);
+
+            ColumnStatistics squaresOnly = ColumnStatistics.of(data, false, false);
+            ColumnStatistics mappedSquaresOnly = ColumnStatistics.of(matrix, false, false);
+            for (int j = 0; j < 130; j++) {
+                assertEquals(squaresOnly.centeredSumOfSquares(j), mappedSquaresOnly.centeredSumOfSquares(j), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testWeightingServicesConsumeMatrix() throws IOException {
+        double[][] data = randomMatrix(300, 12, 3L);
+        try (MappedColumnMatrix matrix = MappedColumnMatrix.createTemporary(directory, 12)) {
+            for (double[] row : data) {
+                matrix.append(row);
+            }
+            assertArrayEquals(new EntropyWeightServiceImpl().entropyWeightMethod(data),
+                    new EntropyWeightServiceImpl().entropyWeightMethod(matrix), 0.0);
+            assertArrayEquals(new CriticServiceImpl().criticMethod(data), new CriticServiceImpl().criticMethod(matrix), 0.0);
+            assertArrayEquals(new PcaServiceImpl().principalComponentWeighting(data),
+                    new PcaServiceImpl().principalComponentWeighting(matrix), 0.0);
+            assertArrayEquals(new IndependenceWeightServiceImpl().independenceWeight(data),
+                    new IndependenceWeightServiceImpl().independenceWeight(matrix), 0.0);
+        }
+    }
+
+    @Test
+    public void testSnapshotIsFixedAndTemporaryFileRemoved() throws IOException {
+        double[][] data = randomMatrix(10, 3, 4L);
+        MappedColumnMatrix matrix = MappedColumnMatrix.createTemporary(directory, 3);
+        for (int i = 0; i < 6; i++) {
+            matrix.append(data[i]);
+        }
+        MappedColumnMatrix snapshot = matrix.snapshot();
+        for (int i = 6; i < 10; i++) {
+            matrix.append(data[i]);
+        }
+        assertEquals(6, snapshot.rows());
+        assertEquals(10, matrix.rows());
+        assertEquals(6, snapshot.segment(0, 2).remaining());
+        assertThrows(IllegalStateException.class, () -> snapshot.append(data[0]));
+
+        // 关闭后删除文件，已取得的快照仍可读取
+        matrix.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertFalse(files.findAny().isPresent());
+        }
+        assertEquals(data[5][1], snapshot.get(5, 1), 0.0);
+    }
+
+    @Test
+    public void testRowIdIndexMatchesReferenceMaps() {
+        // 与 List + HashMap 实现的参考索引对照随机的追加与删除，删除时同样以最后一行填补
+        RowIdIndex index = new RowIdIndex();
+        List<Integer> ids = new ArrayList<>();
+        Map<Integer, Integer> rows = new HashMap<>();
+        Random random = new Random(7L);
+        int nextId = 1;
+        for (int step = 0; step < 20000; step++) {
+            if (ids.isEmpty() || random.nextInt(3) > 0) {
+                int id = nextId++;
+                assertEquals(ids.size(), index.append(id));
+                rows.put(id, ids.size());
+                ids.add(id);
+            } else {
+                int id = ids.get(random.nextInt(ids.size()));
+                int row = rows.remove(id);
+                int moved = ids.remove(ids.size() - 1);
+                if (row < ids.size()) {
+                    ids.set(row, moved);
+                    rows.put(moved, row);
+                }
+                assertEquals(row, index.remove(id));
+                assertEquals(-1, index.rowOf(id));
+            }
+        }
+        assertEquals(ids.size(), index.size());
+        for (int row = 0; row < ids.size(); row++) {
+            assertEquals(ids.get(row).intValue(), index.idAt(row));
+            assertEquals(row, index.rowOf(ids.get(row)));
+        }
+        assertEquals(-1, index.remove(nextId));
+        assertThrows(IllegalArgumentException.class, () -> index.append(ids.get(0)));
+    }
+
+    private static double[][] randomMatrix(int rows, int cols, long seed) {
+        Random random = new Random(seed);
+        double[][] data = new double[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                data[i][j] = random.nextDouble();
+            }
+        }
+        return data;
+    }
+}
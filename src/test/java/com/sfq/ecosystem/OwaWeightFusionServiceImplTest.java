@@ -2,6 +2,11 @@ package com.sfq.ecosystem;
 import com.sfq.ecosystem.service.impl.OwaWeightFusionServiceImpl;
 import org.junit.jupiter.api.Test; // 使用 JUnit 5
 import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * OwaWeightFusionServiceImpl 的测试类
@@ -42,4 +47,65 @@ class OwaWeightFusionServiceImplTest {
 
         System.out.println("OWA 权重融合测试执行完毕。");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testMatchesReferenceForAnyMethodCount() {
+        OwaWeightFusionServiceImpl owaService = new OwaWeightFusionServiceImpl();
+        double[][] params = {{0.3, 0.7}, {0.0, 1.0}, {0.5, 0.5}, {0.0, 0.0}, {1.0, 1.0}, {0.1, 0.45}};
+        for (int methods : new int[]{1, 2, 3, 5, 8}) {
+            double[][] data = randomWeights(methods, 40, methods);
+            // 含相同的权重与 ±0.0，排序次序须与装箱降序排序一致
+            data[0][3] = 0.0;
+            data[methods - 1][3] = -0.0;
+            data[0][5] = data[methods - 1][5];
+            for (double[] p : params) {
+                assertArrayEquals(ReferenceWeightingMethods.owaWeightFusion(data, p[0], p[1]),
+                        owaService.owaWeightFusion(data, p[0], p[1]), 0.0);
+            }
+        }
+    }
+
+    @Test
+    void testParameterGridMatchesSingleCalls() {
+        OwaWeightFusionServiceImpl owaService = new OwaWeightFusionServiceImpl();
+        double[][] data = randomWeights(6, 300, 21L);
+        int steps = 11;
+        double[] a = new double[steps * (steps + 1) / 2];
+        double[] b = new double[a.length];
+        int p = 0;
+        for (int i = 0; i < steps; i++) {
+            for (int j = i; j < steps; j++, p++) {
+                a[p] = i / 10.0;
+                b[p] = j / 10.0;
+            }
+        }
+        double[][] grid = owaService.owaWeightFusion(data, a, b);
+        assertEquals(a.length, grid.length);
+        for (p = 0; p < a.length; p++) {
+            assertArrayEquals(owaService.owaWeightFusion(data, a[p], b[p]), grid[p], 0.0);
+            // a == b == 0 时位置权重全为 0，融合结果全为 0、无法归一化
+            assertEquals(a[p] == 0 && b[p] == 0 ? 0.0 : 1.0, Arrays.stream(grid[p]).sum(), 1e-12);
+        }
+    }
+
+    @Test
+    void testRejectsInvalidInput() {
+        OwaWeightFusionServiceImpl owaService = new OwaWeightFusionServiceImpl();
+        double[][] data = randomWeights(3, 4, 1L);
+        assertThrows(IllegalArgumentException.class, () -> owaService.owaWeightFusion(data, 0.8, 0.2));
+        assertThrows(IllegalArgumentException.class, () -> owaService.owaWeightFusion(data, new double[]{0.1}, new double[0]));
+        assertThrows(IllegalArgumentException.class, () -> owaService.owaWeightFusion(new double[0][]));
+        assertThrows(IllegalArgumentException.class, () -> owaService.owaWeightFusion(new double[][]{{0.5, 0.5}, {1.0}}));
+    }
+
+    private static double[][] randomWeights(int methods, int indicators, long seed) {
+        Random random = new Random(seed);
+        double[][] data = new double[methods][indicators];
+        for (double[] row : data) {
+            for (int j = 0; j < indicators; j++) {
+                row[j] = random.nextDouble();
+            }
+        }
+        return data;
+    }
+}
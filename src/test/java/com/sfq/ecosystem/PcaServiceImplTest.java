@@ -6,8 +6,10 @@ import org.junit.jupiter.api.Test;
 
 
 import java.util.Arrays;
+import java.util.Random;
 import java.util.stream.Collectors;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 
@@ -50,4 +52,48 @@ class PcaServiceImplTest {
         //  0.07068153 0.07721867 0.06173491 0.06316279 0.07621453 0.07436034
         //  0.07085773 0.07290396]
     }
-}
\ No newline at end of file
+
+    @Test
+    void testTruncatedMatchesFullDecomposition() {
+        // 400 个指标由 4 个公共因子加噪声生成，前几个主成分即可达到累计贡献率阈值
+        double[][] data = factorData(600, 400, 4, 0.35, 31L);
+        double[] full = new PcaServiceImpl(Integer.MAX_VALUE).principalComponentWeighting(data);
+        double[] truncated = new PcaServiceImpl(2).principalComponentWeighting(data);
+        assertArrayEquals(full, truncated, 1e-9);
+        assertArrayEquals(full, pcaService.principalComponentWeighting(data), 1e-9);
+    }
+
+    @Test
+    void testTruncatedFallsBackForFlatSpectrum() {
+        // 相互独立的指标特征值密集，需要的主成分接近指标总数，截断求解应退回完整分解
+        double[][] data = factorData(500, 60, 0, 1.0, 37L);
+        double[] full = new PcaServiceImpl(Integer.MAX_VALUE).principalComponentWeighting(data);
+        assertArrayEquals(full, new PcaServiceImpl(2).principalComponentWeighting(data), 0.0);
+    }
+
+    // 每个指标 = 随机载荷 · 公共因子 + noise · 独立噪声
+    private static double[][] factorData(int rows, int cols, int factors, double noise, long seed) {
+        Random random = new Random(seed);
+        double[][] loadings = new double[cols][factors];
+        for (double[] loading : loadings) {
+            for (int f = 0; f < factors; f++) {
+                loading[f] = random.nextGaussian();
+            }
+        }
+        double[][] data = new double[rows][cols];
+        double[] scores = new double[factors];
+        for (double[] row : data) {
+            for (int f = 0; f < factors; f++) {
+                scores[f] = random.nextGaussian();
+            }
+            for (int j = 0; j < cols; j++) {
+                double value = noise * random.nextGaussian();
+                for (int f = 0; f < factors; f++) {
+                    value += loadings[j][f] * scores[f];
+                }
+                row[j] = value;
+            }
+        }
+        return data;
+    }
+}
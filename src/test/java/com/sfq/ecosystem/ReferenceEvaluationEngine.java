@@ -0,0 +1,215 @@
+package com.sfq.ecosystem;
+
+import com.sfq.ecosystem.model.EvaluationType;
+import com.sfq.ecosystem.model.FermateanFuzzyNumber;
+import com.sfq.ecosystem.service.strategy.EvaluationStrategyFactory;
+import com.sfq.ecosystem.service.strategy.IEvaluationStrategy;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于 {@link FermateanFuzzyNumber} 对象运算的参考评估实现
+ * <p>
+ * 逐行保留了评估服务优化前的计算逻辑，用作各优化内核的正确性基准。
+ */
+public class ReferenceEvaluationEngine {
+
+    private static final double EPSILON = 1e-9;
+    public static final String[] LEVEL_NAMES = {"差", "较差", "中等", "良好", "优秀"};
+
+    /**
+     * 计算目标层五个等级的可信度
+     */
+    public List<FermateanFuzzyNumber> targetCredibilities(double[] rawData, EvaluationType evaluationType) {
+        IEvaluationStrategy strategy = EvaluationStrategyFactory.getStrategy(evaluationType);
+        return credibilities(strategy.getBoundaries(), strategy.getWeights(), strategy.preprocessTargetLayerData(rawData));
+    }
+
+    /**
+     * 计算各准则层五个等级的可信度
+     */
+    public Map<String, List<FermateanFuzzyNumber>> criterionCredibilities(double[] rawData, EvaluationType evaluationType) {
+        IEvaluationStrategy strategy = EvaluationStrategyFactory.getStrategy(evaluationType);
+        double[][] boundariesCrisp = strategy.getBoundaries();
+        double[] weights = strategy.getWeights();
+        Map<String, List<FermateanFuzzyNumber>> results = new LinkedHashMap<>();
+        for (Map.Entry<String, int[]> entry : strategy.getCriterionGroups().entrySet()) {
+            int[] groupIndices = entry.getValue();
+            double[] groupSampleRaw = new double[groupIndices.length];
+            double[][] groupBoundaries = new double[groupIndices.length][];
+            double[] groupWeights = new double[groupIndices.length];
+            for (int i = 0; i < groupIndices.length; i++) {
+                groupSampleRaw[i] = rawData[groupIndices[i]];
+                groupBoundaries[i] = boundariesCrisp[groupIndices[i]];
+                groupWeights[i] = weights[groupIndices[i]];
+            }
+            double weightSum = 0;
+            for (double w : groupWeights) weightSum += w;
+            double[] normalizedWeights = new double[groupWeights.length];
+            if (weightSum > 0) {
+                for (int i = 0; i < groupWeights.length; i++) normalizedWeights[i] = groupWeights[i] / weightSum;
+            }
+            double[] processed = strategy.preprocessCriterionLayerData(groupSampleRaw, groupIndices);
+            results.put(entry.getKey(), credibilities(groupBoundaries, normalizedWeights, processed));
+        }
+        return results;
+    }
+
+    public String targetLevel(double[] rawData, EvaluationType evaluationType) {
+        double theta = EvaluationStrategyFactory.getStrategy(evaluationType).getTheta();
+        return resolve(targetCredibilities(rawData, evaluationType), theta);
+    }
+
+    public Map<String, String> criterionLevels(double[] rawData, EvaluationType evaluationType) {
+        double theta = EvaluationStrategyFactory.getStrategy(evaluationType).getTheta();
+        Map<String, String> levels = new LinkedHashMap<>();
+        criterionCredibilities(rawData, evaluationType).forEach((group, c) -> levels.put(group, resolve(c, theta)));
+        return levels;
+    }
+
+    public static String resolve(List<FermateanFuzzyNumber> credibilities, double thetaCrisp) {
+        FermateanFuzzyNumber thetaFfn = new FermateanFuzzyNumber(new double[]{thetaCrisp, thetaCrisp}, new double[]{1.0 - thetaCrisp, 1.0 - thetaCrisp});
+        for (int h = 4; h >= 0; h--) {
+            if (credibilities.get(h).compareTo(thetaFfn) >= 0) {
+                return LEVEL_NAMES[h];
+            }
+        }
+        return LEVEL_NAMES[0];
+    }
+
+    private List<FermateanFuzzyNumber> credibilities(double[][] boundariesCrisp, double[] weights, double[] processedSampleData) {
+        int numIndicators = boundariesCrisp.length;
+        double[] minVals = new double[numIndicators];
+        double[] maxVals = new double[numIndicators];
+        for (int i = 0; i < numIndicators; i++) {
+            minVals[i] = boundariesCrisp[i][0];
+            maxVals[i] = boundariesCrisp[i][boundariesCrisp[i].length - 1];
+        }
+        List<List<FermateanFuzzyNumber>> boundariesFfn = new ArrayList<>();
+        for (int i = 0; i < numIndicators; i++) {
+            List<FermateanFuzzyNumber> row = new ArrayList<>();
+            for (int j = 0; j < boundariesCrisp[i].length; j++) {
+                row.add(normalizeAndConvertFfn(boundariesCrisp[i][j], minVals[i], maxVals[i]));
+            }
+            boundariesFfn.add(row);
+        }
+        List<FermateanFuzzyNumber> sampleFfn = new ArrayList<>();
+        for (int i = 0; i < numIndicators; i++) {
+            sampleFfn.add(normalizeAndConvertFfn(processedSampleData[i], minVals[i], maxVals[i]));
+        }
+        List<FermateanFuzzyNumber> qFfnList = new ArrayList<>();
+        List<FermateanFuzzyNumber> pFfnList = new ArrayList<>();
+        List<FermateanFuzzyNumber> vFfnList = new ArrayList<>();
+        for (int i = 0; i < numIndicators; i++) {
+            double totalRange = maxVals[i] - minVals[i];
+            if (totalRange < EPSILON) {
+                qFfnList.add(FermateanFuzzyNumber.FFN_ZERO);
+                pFfnList.add(FermateanFuzzyNumber.FFN_ZERO);
+                vFfnList.add(FermateanFuzzyNumber.FFN_ZERO);
+            } else {
+                double step = totalRange / 5.0;
+                qFfnList.add(normalizeAndConvertFfn(0.25 * step, 0, totalRange));
+                pFfnList.add(normalizeAndConvertFfn(0.5 * step, 0, totalRange));
+                vFfnList.add(normalizeAndConvertFfn(0.75 * step, 0, totalRange));
+            }
+        }
+        List<FermateanFuzzyNumber> credibilities = new ArrayList<>();
+        for (int h = 0; h < 5; h++) {
+            credibilities.add(calculateCredibilityFfn(sampleFfn, h, boundariesFfn, qFfnList, pFfnList, vFfnList, weights));
+        }
+        return credibilities;
+    }
+
+    private FermateanFuzzyNumber normalizeAndConvertFfn(double value, double minVal, double maxVal) {
+        double s;
+        if (maxVal - minVal < EPSILON) {
+            s = (value == minVal) ? 0.5 : (value > minVal ? 1.0 : 0.0);
+        } else {
+            s = (value - minVal) / (maxVal - minVal);
+        }
+        s = Math.max(0.0, Math.min(s, 1.0));
+        return new FermateanFuzzyNumber(new double[]{s, s}, new double[]{1.0 - s, 1.0 - s});
+    }
+
+    private FermateanFuzzyNumber calculateCredibilityFfn(
+            List<FermateanFuzzyNumber> sampleFfn, int h, List<List<FermateanFuzzyNumber>> boundariesFfn,
+            List<FermateanFuzzyNumber> qFfnList, List<FermateanFuzzyNumber> pFfnList,
+            List<FermateanFuzzyNumber> vFfnList, double[] weights) {
+        int N = sampleFfn.size();
+        List<FermateanFuzzyNumber> phis_n = new ArrayList<>(N);
+        List<FermateanFuzzyNumber> sigmas_n = new ArrayList<>(N);
+
+        FermateanFuzzyNumber totalPhiWeighted = new FermateanFuzzyNumber(new double[]{0.0, 0.0}, new double[]{0.0, 0.0});
+
+        for (int n = 0; n < N; n++) {
+            FermateanFuzzyNumber x_m_ffn = sampleFfn.get(n);
+            FermateanFuzzyNumber b_h_ffn = boundariesFfn.get(n).get(h);
+            FermateanFuzzyNumber q_ffn = qFfnList.get(n);
+            FermateanFuzzyNumber p_ffn = pFfnList.get(n);
+            FermateanFuzzyNumber v_ffn = vFfnList.get(n);
+
+            FermateanFuzzyNumber x_plus_p = x_m_ffn.add(p_ffn);
+            FermateanFuzzyNumber x_plus_q = x_m_ffn.add(q_ffn);
+
+            FermateanFuzzyNumber phi_n;
+            if (x_plus_p.compareTo(b_h_ffn) < 0) {
+                phi_n = FermateanFuzzyNumber.FFN_ZERO;
+            } else if (x_plus_q.compareTo(b_h_ffn) >= 0) {
+                phi_n = FermateanFuzzyNumber.FFN_ONE;
+            } else {
+                FermateanFuzzyNumber num_phi = x_plus_p.subtract(b_h_ffn);
+                FermateanFuzzyNumber den_phi = p_ffn.subtract(q_ffn);
+                if (den_phi.equals(FermateanFuzzyNumber.FFN_ZERO)) {
+                    phi_n = FermateanFuzzyNumber.FFN_ZERO;
+                } else {
+                    phi_n = num_phi.divide(den_phi).clamp();
+                }
+            }
+            phis_n.add(phi_n);
+
+            FermateanFuzzyNumber sigma_n;
+            FermateanFuzzyNumber x_plus_v = x_m_ffn.add(v_ffn);
+            if (x_plus_p.compareTo(b_h_ffn) >= 0) {
+                sigma_n = FermateanFuzzyNumber.FFN_ZERO;
+            } else if (x_plus_v.compareTo(b_h_ffn) < 0) {
+                sigma_n = FermateanFuzzyNumber.FFN_ONE;
+            } else {
+                FermateanFuzzyNumber num_sig = b_h_ffn.subtract(x_plus_p);
+                FermateanFuzzyNumber den_sig = v_ffn.subtract(p_ffn);
+                if (den_sig.equals(FermateanFuzzyNumber.FFN_ZERO)) {
+                    sigma_n = FermateanFuzzyNumber.FFN_ZERO;
+                } else {
+                    sigma_n = num_sig.divide(den_sig).clamp();
+                }
+            }
+            sigmas_n.add(sigma_n);
+
+            if (x_m_ffn.compareTo(b_h_ffn) >= 0) {
+                double newAlphaL = totalPhiWeighted.getAlphaL() + phis_n.get(n).getAlphaL() * weights[n];
+                double newAlphaU = totalPhiWeighted.getAlphaU() + phis_n.get(n).getAlphaU() * weights[n];
+                double newBetaL = totalPhiWeighted.getBetaL() + phis_n.get(n).getBetaL() * weights[n];
+                double newBetaU = totalPhiWeighted.getBetaU() + phis_n.get(n).getBetaU() * weights[n];
+                totalPhiWeighted = new FermateanFuzzyNumber(new double[]{newAlphaL, newAlphaU}, new double[]{newBetaL, newBetaU}).clamp();
+            }
+        }
+
+        FermateanFuzzyNumber phi_global = totalPhiWeighted;
+        FermateanFuzzyNumber product_term = FermateanFuzzyNumber.FFN_ONE;
+        for (int n = 0; n < N; n++) {
+            FermateanFuzzyNumber sigma_n = sigmas_n.get(n);
+            if (sigma_n.compareTo(phi_global) > 0) {
+                FermateanFuzzyNumber num_nu = FermateanFuzzyNumber.FFN_ONE.subtract(sigma_n);
+                FermateanFuzzyNumber den_nu = FermateanFuzzyNumber.FFN_ONE.subtract(phi_global);
+                if (den_nu.equals(FermateanFuzzyNumber.FFN_ZERO) || (den_nu.getAlphaL() < EPSILON && den_nu.getAlphaU() < EPSILON)) {
+                    continue;
+                }
+                FermateanFuzzyNumber fraction = num_nu.divide(den_nu);
+                product_term = product_term.multiply(fraction);
+            }
+        }
+        return phi_global.multiply(product_term).clamp();
+    }
+}
@@ -0,0 +1,461 @@
+package com.sfq.ecosystem;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.EigenDecomposition;
+import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+import org.apache.commons.math3.stat.correlation.PearsonsCorrelation;
+import org.apache.commons.math3.stat.regression.OLSMultipleLinearRegression;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.DoubleStream;
+
+/**
+ * 各赋权方法改用共享列统计量之前的参考实现
+ * <p>
+ * 原样保留熵权法、CRITIC、主成分分析与独立性权重最初的逐列计算（仅去掉了日志输出），
+ * 以及 OWA 融合最初的逐指标装箱排序（方法数由固定的 5 改为输入的行数），作为优化后实现的对照基准。
+ */
+public class ReferenceWeightingMethods {
+
+    private static final double CUMULATIVE_CONTRIBUTION_THRESHOLD = 0.85;
+    private static final double EPSILON = 1e-10;
+
+    private ReferenceWeightingMethods() {
+    }
+
+    public static double[] entropyWeightMethod(double[][] X) {
+        // 0. 输入校验
+        if (X == null) {
+            throw new IllegalArgumentException("输入数据不能为 null。");
+        }
+        if (X.length < 1 || X[0].length < 1) {
+            throw new IllegalArgumentException("输入数据必须是二维数组 (样本数 x 指标数)。");
+        }
+
+        int m = X.length; // 样本数
+        int n = X[0].length; // 指标数
+
+        if (m <= 1) {
+            double[] equalWeights = new double[n];
+            Arrays.fill(equalWeights, 1.0 / n);
+            return equalWeights;
+        }
+
+        // 1. 计算贡献度 (P_ij) - 归一化处理
+        double[] colSum = new double[n];
+        for (int j = 0; j < n; j++) {
+            for (double[] row : X) {
+                colSum[j] += row[j];
+            }
+        }
+
+        double epsilon = 1e-12;
+        double[][] P = new double[m][n];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                P[i][j] = X[i][j] / (colSum[j] + epsilon);
+            }
+        }
+
+        // 2. 计算信息熵 (E_j)
+        double k = 1 / Math.log(m);
+        double[] E = new double[n];
+        for (int j = 0; j < n; j++) {
+            double entropyTermSum = 0;
+            for (int i = 0; i < m; i++) {
+                if (P[i][j] > 0) {
+                    entropyTermSum += P[i][j] * Math.log(P[i][j]);
+                }
+            }
+            E[j] = -k * entropyTermSum;
+            E[j] = Math.max(0.0, Math.min(1.0, E[j])); // 确保熵值在 [0, 1] 范围内
+        }
+
+        // 3. 计算差异性系数 (D_j)
+        double[] D = new double[n];
+        for (int j = 0; j < n; j++) {
+            D[j] = 1 - E[j];
+        }
+
+        // 4. 计算归一化权重 (W_j)
+        double sumD = 0;
+        for (double val : D) {
+            sumD += val;
+        }
+
+        if (sumD == 0) {
+            double[] equalWeights = new double[n];
+            Arrays.fill(equalWeights, 1.0 / n);
+            return equalWeights;
+        } else {
+            double[] W = new double[n];
+            for (int j = 0; j < n; j++) {
+                W[j] = D[j] / sumD;
+            }
+            double sumW = 0;
+            for (double val : W) {
+                sumW += val;
+            }
+            for (int j = 0; j < n; j++) {
+                W[j] /= sumW;
+            }
+            return W;
+        }
+    }
+
+    public static double[] criticMethod(double[][] data) {
+        // 检查输入数据是否有效
+        if (data == null || data.length < 2 || data[0].length < 2) {
+            return null;
+        }
+
+        int nSamples = data.length;
+        int nCriteria = data[0].length;
+
+        // 1. 变异性计算 (标准差)
+        double[] stdDev = new double[nCriteria];
+        for (int j = 0; j < nCriteria; j++) {
+            double mean = 0;
+            for (int i = 0; i < nSamples; i++) {
+                mean += data[i][j];
+            }
+            mean /= nSamples;
+
+            double variance = 0;
+            for (int i = 0; i < nSamples; i++) {
+                variance += Math.pow(data[i][j] - mean, 2);
+            }
+            variance /= nSamples;
+            stdDev[j] = Math.sqrt(variance);
+        }
+
+        // 2. 冲突性计算 (基于相关系数)
+        double[][] corrMatrix = new double[nCriteria][nCriteria];
+        for (int j = 0; j < nCriteria; j++) {
+            for (int k = 0; k < nCriteria; k++) {
+                double numerator = 0;
+                double denominator1 = 0;
+                double denominator2 = 0;
+
+                double meanJ = 0;
+                double meanK = 0;
+                for (int i = 0; i < nSamples; i++) {
+                    meanJ += data[i][j];
+                    meanK += data[i][k];
+                }
+                meanJ /= nSamples;
+                meanK /= nSamples;
+
+                for (int i = 0; i < nSamples; i++) {
+                    numerator += (data[i][j] - meanJ) * (data[i][k] - meanK);
+                    denominator1 += Math.pow(data[i][j] - meanJ, 2);
+                    denominator2 += Math.pow(data[i][k] - meanK, 2);
+                }
+
+                if (denominator1 == 0 || denominator2 == 0) {
+                    corrMatrix[j][k] = 0;
+                } else {
+                    corrMatrix[j][k] = numerator / Math.sqrt(denominator1 * denominator2);
+                }
+            }
+        }
+
+        // 计算每个指标与其他指标的冲突性
+        double[] conflict = new double[nCriteria];
+        for (int j = 0; j < nCriteria; j++) {
+            for (int k = 0; k < nCriteria; k++) {
+                conflict[j] += 1 - corrMatrix[j][k];
+            }
+        }
+
+        // 3. 信息量计算 C_j = σ_j * Σ(1 - r_jk)
+        double[] infoContent = new double[nCriteria];
+        for (int j = 0; j < nCriteria; j++) {
+            infoContent[j] = stdDev[j] * conflict[j];
+        }
+
+        // 4. 权重计算 (归一化信息量)
+        double totalInfo = 0;
+        for (double info : infoContent) {
+            totalInfo += info;
+        }
+
+        if (totalInfo == 0) {
+            double[] equalWeights = new double[nCriteria];
+            Arrays.fill(equalWeights, 1.0 / nCriteria);
+            return equalWeights;
+        }
+
+        double[] weights = new double[nCriteria];
+        for (int j = 0; j < nCriteria; j++) {
+            weights[j] = infoContent[j] / totalInfo;
+        }
+
+        return weights;
+    }
+
+    public static double[] principalComponentWeighting(double[][] data) {
+        // Python脚本的最终版本中没有对数据进行标准化，所以我们直接进入计算相关系数矩阵的步骤。
+        RealMatrix dataMatrix = MatrixUtils.createRealMatrix(data);
+
+        // 第二步: 计算相关系数矩阵。
+        // PearsonsCorrelation 类计算的是输入矩阵各列之间的相关性。
+        RealMatrix correlationMatrix = new PearsonsCorrelation().computeCorrelationMatrix(dataMatrix);
+
+        // 第三步和第四步: 计算主成分及其贡献率。
+        // 对相关系数矩阵进行特征值分解。
+        EigenDecomposition ed = new EigenDecomposition(correlationMatrix);
+        double[] eigenvalues = ed.getRealEigenvalues();
+
+        // 创建一个包含特征值和对应特征向量的配对列表，以便能将它们一起排序。
+        List<EigenPair> eigenPairs = new ArrayList<>();
+        for (int i = 0; i < eigenvalues.length; i++) {
+            eigenPairs.add(new EigenPair(eigenvalues[i], ed.getEigenvector(i)));
+        }
+
+        // 根据特征值从大到小对配对列表进行排序。
+        eigenPairs.sort(Comparator.comparingDouble(EigenPair::getValue).reversed());
+
+        // 重新计算排序后的特征值和贡献率。
+        double[] sortedEigenvalues = eigenPairs.stream().mapToDouble(EigenPair::getValue).toArray();
+        double totalEigenvalueSum = DoubleStream.of(sortedEigenvalues).sum();
+
+        double[] contributionRates = new double[sortedEigenvalues.length];
+        for (int i = 0; i < sortedEigenvalues.length; i++) {
+            contributionRates[i] = sortedEigenvalues[i] / totalEigenvalueSum;
+        }
+
+        // 计算累计贡献率。
+        double[] cumulativeRates = new double[contributionRates.length];
+        cumulativeRates[0] = contributionRates[0];
+        for (int i = 1; i < contributionRates.length; i++) {
+            cumulativeRates[i] = cumulativeRates[i - 1] + contributionRates[i];
+        }
+
+        // 确定主成分的个数 'p'。
+        int p = 0;
+        for (int i = 0; i < cumulativeRates.length; i++) {
+            if (cumulativeRates[i] >= CUMULATIVE_CONTRIBUTION_THRESHOLD) {
+                p = i + 1;
+                break;
+            }
+        }
+        if (p == 0) { // 如果所有累计贡献率都小于阈值，则选取所有成分
+            p = cumulativeRates.length;
+        }
+
+        // 第五步: 计算最终权重。
+        int indicatorCount = dataMatrix.getColumnDimension(); // 指标数量
+        double[] omega = new double[indicatorCount];
+
+        for (int j = 0; j < indicatorCount; j++) {
+            double componentSum = 0;
+            for (int k = 0; k < p; k++) {
+                // 获取第k个主成分的特征向量
+                RealVector eigenvector = eigenPairs.get(k).getVector();
+                // 使用特征向量元素的绝对值进行计算
+                componentSum += contributionRates[k] * Math.abs(eigenvector.getEntry(j));
+            }
+            omega[j] = componentSum;
+        }
+
+        // 对权重进行归一化处理。
+        double omegaSum = DoubleStream.of(omega).sum();
+        double[] finalWeights = new double[indicatorCount];
+        for (int i = 0; i < indicatorCount; i++) {
+            finalWeights[i] = omega[i] / omegaSum;
+        }
+
+        return finalWeights;
+    }
+
+    public static double[] independenceWeight(double[][] data) {
+        if (data == null || data.length == 0 || data[0].length == 0) {
+            throw new IllegalArgumentException("输入数据不能为空。");
+        }
+
+        int nSamples = data.length;
+        int nIndicators = data[0].length;
+
+        if (nIndicators < 2) {
+            return new double[]{1.0};
+        }
+
+        List<Double> invRValues = new ArrayList<>();
+
+        for (int j = 0; j < nIndicators; j++) {
+            double[] y = getColumn(data, j);
+            double[][] X = removeColumn(data, j);
+
+            OLSMultipleLinearRegression regression = new OLSMultipleLinearRegression();
+            double r2;
+
+            try {
+                regression.newSampleData(y, X);
+                r2 = regression.calculateRSquared();
+                r2 = Math.max(0, r2); // 确保 R^2 不为负
+            } catch (Exception e) {
+                r2 = 1.0;
+            }
+
+            double rj = Math.sqrt(r2);
+            double invRj = 1.0 / (rj + EPSILON);
+            invRValues.add(invRj);
+        }
+
+        double[] invRArray = invRValues.stream().mapToDouble(Double::doubleValue).toArray();
+        double totalInvR = Arrays.stream(invRArray).sum();
+        double[] weights;
+
+        if (totalInvR <= EPSILON * nIndicators) {
+            weights = new double[nIndicators];
+            Arrays.fill(weights, 1.0 / nIndicators);
+        } else if (Double.isInfinite(totalInvR) || Double.isNaN(totalInvR)) {
+            weights = new double[nIndicators];
+            long zeroRIndicesCount = invRValues.stream().filter(d -> Double.isInfinite(d)).count();
+            if (zeroRIndicesCount > 0) {
+                double weightVal = 1.0 / zeroRIndicesCount;
+                for (int i = 0; i < nIndicators; i++) {
+                    if (Double.isInfinite(invRValues.get(i))) {
+                        weights[i] = weightVal;
+                    } else {
+                        weights[i] = 0;
+                    }
+                }
+            } else { // 如果是 NaN 但没有 inf，则均分权重作为后备
+                Arrays.fill(weights, 1.0 / nIndicators);
+            }
+        } else {
+            weights = Arrays.stream(invRArray).map(d -> d / totalInvR).toArray();
+        }
+
+        // 最终归一化以处理浮点精度问题
+        double finalSum = Arrays.stream(weights).sum();
+        return Arrays.stream(weights).map(w -> w / finalSum).toArray();
+    }
+
+    public static double[] calculateFinalWeights(double[][] standardizedData, List<Integer> splitCols) {
+        int totalCols = splitCols.stream().mapToInt(Integer::intValue).sum();
+        if (totalCols != standardizedData[0].length) {
+            throw new IllegalArgumentException("分块列数之和与数据总列数不匹配。");
+        }
+
+        List<Double> combinedWeights = new ArrayList<>();
+        RealMatrix dataMatrix = new Array2DRowRealMatrix(standardizedData);
+        int currentCol = 0;
+
+        for (int cols : splitCols) {
+            double[] weights;
+            if (cols == 1) {
+                weights = new double[]{1.0};
+            } else {
+                double[][] part = dataMatrix.getSubMatrix(0, dataMatrix.getRowDimension() - 1, currentCol, currentCol + cols - 1).getData();
+                weights = independenceWeight(part);
+            }
+
+            for (double weight : weights) {
+                combinedWeights.add(weight * cols / totalCols);
+            }
+            currentCol += cols;
+        }
+
+        return combinedWeights.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    private static double[] getColumn(double[][] matrix, int columnIndex) {
+        return Arrays.stream(matrix).mapToDouble(row -> row[columnIndex]).toArray();
+    }
+
+    private static double[][] removeColumn(double[][] matrix, int columnIndex) {
+        int nRows = matrix.length;
+        int nCols = matrix[0].length;
+        double[][] result = new double[nRows][nCols - 1];
+        for (int i = 0; i < nRows; i++) {
+            int newColIndex = 0;
+            for (int j = 0; j < nCols; j++) {
+                if (j != columnIndex) {
+                    result[i][newColIndex++] = matrix[i][j];
+                }
+            }
+        }
+        return result;
+    }
+
+    public static double[] owaWeightFusion(double[][] data, double a, double b) {
+        int methodCount = data.length;
+        double[] positionWeights = new double[methodCount];
+        for (int k = 1; k <= methodCount; k++) {
+            double s_k = (double) k / methodCount;
+            double s_km1 = (double) (k - 1) / methodCount;
+            double s_k_value;
+            if (s_k < a) {
+                s_k_value = 0.0;
+            } else if (s_k > b) {
+                s_k_value = 1.0;
+            } else {
+                s_k_value = (b - a == 0) ? 1.0 : (s_k - a) / (b - a);
+            }
+            double s_km1_value;
+            if (s_km1 < a) {
+                s_km1_value = 0.0;
+            } else if (s_km1 > b) {
+                s_km1_value = 1.0;
+            } else {
+                s_km1_value = (b - a == 0) ? 1.0 : (s_km1 - a) / (b - a);
+            }
+            positionWeights[k - 1] = s_k_value - s_km1_value;
+        }
+
+        int n = data[0].length;
+        double[] omegaPrime = new double[n];
+        for (int j = 0; j < n; j++) {
+            Double[] currentIndicatorWeights = new Double[methodCount];
+            for (int i = 0; i < methodCount; i++) {
+                currentIndicatorWeights[i] = data[i][j];
+            }
+            Arrays.sort(currentIndicatorWeights, Collections.reverseOrder());
+            double weightedSum = 0;
+            for (int k = 0; k < methodCount; k++) {
+                weightedSum += positionWeights[k] * currentIndicatorWeights[k];
+            }
+            omegaPrime[j] = weightedSum;
+        }
+
+        double sumOfOmegaPrime = Arrays.stream(omegaPrime).sum();
+        if (sumOfOmegaPrime == 0) {
+            return omegaPrime;
+        }
+        double[] omega = new double[n];
+        for (int i = 0; i < n; i++) {
+            omega[i] = omegaPrime[i] / sumOfOmegaPrime;
+        }
+        return omega;
+    }
+
+    /**
+     * 用于存储特征值和特征向量对的辅助内部类。
+     */
+    private static class EigenPair {
+        private final double value;      // 特征值
+        private final RealVector vector; // 特征向量
+
+        public EigenPair(double value, RealVector vector) {
+            this.value = value;
+            this.vector = vector;
+        }
+
+        public double getValue() {
+            return value;
+        }
+
+        public RealVector getVector() {
+            return vector;
+        }
+    }
+}
@@ -0,0 +1,678 @@
+package com.sfq.ecosystem;
+
+import com.sfq.ecosystem.dto.HistoryWeightsDTO;
+import com.sfq.ecosystem.dto.RegradePageDTO;
+import com.sfq.ecosystem.dto.RegradeResultDTO;
+import com.sfq.ecosystem.dto.ThetaSweepDTO;
+import com.sfq.ecosystem.dto.ThetaSweepPointDTO;
+import com.sfq.ecosystem.dto.WindowWeightsDTO;
+import com.sfq.ecosystem.entity.TrainingData;
+import com.sfq.ecosystem.entity.TrainingDataCredibility;
+import com.sfq.ecosystem.model.EvaluationType;
+import com.sfq.ecosystem.model.MappedColumnMatrix;
+import com.sfq.ecosystem.repository.TrainingDataCredibilityMapper;
+import com.sfq.ecosystem.repository.TrainingDataMapper;
+import com.sfq.ecosystem.service.impl.EntropyWeightServiceImpl;
+import com.sfq.ecosystem.service.impl.EvaluationConfigServiceImpl;
+import com.sfq.ecosystem.service.impl.EvaluationServiceImpl;
+import com.sfq.ecosystem.service.impl.IndependenceWeightServiceImpl;
+import com.sfq.ecosystem.service.impl.PcaServiceImpl;
+import com.sfq.ecosystem.service.impl.TrainingDataServiceImpl;
+import com.sfq.ecosystem.service.strategy.EvaluationStrategyFactory;
+import com.sfq.ecosystem.service.strategy.IEvaluationStrategy;
+import com.sfq.ecosystem.service.strategy.ReweightedEvaluationStrategy;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 训练数据服务测试
+ * <p>
+ * 数据库访问用 Mockito 模拟，验证写入时保存的可信度得分可以在不重新评估的情况下按新阈值重新定级，
+ * 更新时只重新计算发生变化的层，以及评估配置变化后只重新评估等级过期的记录与子系统。
+ */
+public class TrainingDataServiceTest {
+
+    private TrainingDataServiceImpl trainingDataService;
+    private TrainingDataMapper trainingDataMapper;
+    // 模拟的 training_data_credibility 表
+    private final List<TrainingDataCredibility> credibilityTable = new ArrayList<>();
+    private final List<TrainingData> records = new ArrayList<>();
+    private final Set<Integer> deleted = new HashSet<>();
+    private EvaluationServiceImpl evaluationService;
+    private EvaluationConfigServiceImpl configService;
+    private IEvaluationStrategy originalXietong;
+
+    @BeforeEach
+    void setUp() {
+        trainingDataService = new TrainingDataServiceImpl();
+        trainingDataMapper = mock(TrainingDataMapper.class);
+        TrainingDataCredibilityMapper credibilityMapper = mock(TrainingDataCredibilityMapper.class);
+
+        doAnswer(invocation -> {
+            TrainingData data = invocation.getArgument(0);
+            data.setId(records.size() + 1);
+            records.add(data);
+            return null;
+        }).when(trainingDataMapper).insert(any(TrainingData.class));
+        when(trainingDataMapper.findById(any())).thenAnswer(invocation -> records.get((Integer) invocation.getArgument(0) - 1));
+        doAnswer(invocation -> {
+            credibilityTable.addAll(invocation.getArgument(0));
+            return null;
+        }).when(credibilityMapper).insertBatch(anyList());
+        when(trainingDataMapper.update(any(TrainingData.class))).thenAnswer(invocation -> {
+            TrainingData data = invocation.getArgument(0);
+            records.set(data.getId() - 1, data);
+            return 1;
+        });
+        when(trainingDataMapper.updateLevels(any(TrainingData.class), any())).thenAnswer(invocation -> {
+            TrainingData levels = invocation.getArgument(0);
+            TrainingData stored = records.get(levels.getId() - 1);
+            if (deleted.contains(levels.getId()) || !Objects.equals(stored.getConfigVersion(), invocation.getArgument(1))) {
+                return 0;
+            }
+            // 只写回非空的等级列与配置版本号
+            for (Field field : TrainingData.class.getDeclaredFields()) {
+                field.setAccessible(true);
+                if (field.getType() == String.class && field.get(levels) != null) {
+                    field.set(stored, field.get(levels));
+                }
+            }
+            stored.setConfigVersion(levels.getConfigVersion());
+            return 1;
+        });
+        when(credibilityMapper.deleteLayers(any(), anyString(), anyList())).thenAnswer(invocation -> {
+            Integer id = invocation.getArgument(0);
+            String type = invocation.getArgument(1);
+            List<Integer> layers = invocation.getArgument(2);
+            credibilityTable.removeIf(c -> c.getTrainingDataId().equals(id) && c.getEvaluationType().equals(type)
+                    && layers.contains(c.getLayerIndex()));
+            return layers.size();
+        });
+        doAnswer(invocation -> {
+            ResultHandler<TrainingData> handler = invocation.getArgument(0);
+            for (TrainingData record : records) {
+                if (!deleted.contains(record.getId())) {
+                    handler.handleResult(resultContext(record));
+                }
+            }
+            return null;
+        }).when(trainingDataMapper).scanAll(any());
+        when(trainingDataMapper.findRecent(anyInt())).thenAnswer(invocation -> {
+            List<TrainingData> live = records.stream().filter(r -> !deleted.contains(r.getId())).collect(Collectors.toList());
+            List<TrainingData> recent = new ArrayList<>(live.subList(Math.max(0, live.size() - (Integer) invocation.getArgument(0)), live.size()));
+            Collections.reverse(recent);
+            return recent;
+        });
+        when(trainingDataMapper.delete(any())).thenAnswer(invocation -> deleted.add(invocation.getArgument(0)) ? 1 : 0);
+        when(credibilityMapper.deleteByEvaluationType(any(), anyString())).thenAnswer(invocation -> {
+            Integer id = invocation.getArgument(0);
+            String type = invocation.getArgument(1);
+            int before = credibilityTable.size();
+            credibilityTable.removeIf(c -> c.getTrainingDataId().equals(id) && c.getEvaluationType().equals(type));
+            return before - credibilityTable.size();
+        });
+        when(trainingDataMapper.findStale(anyLong(), anyInt(), anyInt())).thenAnswer(invocation -> records.stream()
+                .filter(r -> !deleted.contains(r.getId()) && r.getId() > (Integer) invocation.getArgument(1)
+                        && (r.getConfigVersion() == null || r.getConfigVersion() < (Long) invocation.getArgument(0)))
+                .limit((Integer) invocation.getArgument(2))
+                .collect(Collectors.toList()));
+        when(trainingDataMapper.countStale(anyLong())).thenAnswer(invocation -> records.stream()
+                .filter(r -> !deleted.contains(r.getId())
+                        && (r.getConfigVersion() == null || r.getConfigVersion() < (Long) invocation.getArgument(0)))
+                .count());
+        doAnswer(invocation -> {
+            scanCredibilities(invocation.getArgument(0), 0, Integer.MAX_VALUE, invocation.getArgument(1));
+            return null;
+        }).when(credibilityMapper).scanByEvaluationType(anyString(), any());
+        doAnswer(invocation -> {
+            scanCredibilities(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2),
+                    invocation.getArgument(3));
+            return null;
+        }).when(credibilityMapper).scanPageByEvaluationType(anyString(), anyInt(), anyInt(), any());
+        when(credibilityMapper.findIdsWithoutCredibilities(anyString())).thenAnswer(invocation -> records.stream()
+                .map(TrainingData::getId)
+                .filter(id -> !deleted.contains(id) && credibilityTable.stream().noneMatch(c ->
+                        c.getTrainingDataId().equals(id) && c.getEvaluationType().equals(invocation.getArgument(0))))
+                .collect(Collectors.toList()));
+
+        ReflectionTestUtils.setField(trainingDataService, "trainingDataMapper", trainingDataMapper);
+        ReflectionTestUtils.setField(trainingDataService, "credibilityMapper", credibilityMapper);
+        evaluationService = spy(new EvaluationServiceImpl());
+        ReflectionTestUtils.setField(trainingDataService, "evaluationService", evaluationService);
+        configService = EvaluationConfigServiceTest.inMemoryConfigService(new ArrayList<>());
+        ReflectionTestUtils.setField(trainingDataService, "evaluationConfigService", configService);
+        ReflectionTestUtils.setField(trainingDataService, "pcaService", new PcaServiceImpl());
+        ReflectionTestUtils.setField(trainingDataService, "independenceWeightService", new IndependenceWeightServiceImpl());
+        originalXietong = ReweightedEvaluationStrategy.baseOf(EvaluationStrategyFactory.getStrategy(EvaluationType.XIETONG));
+    }
+
+    // 按记录、层、等级的顺序回放得分表中ID大于 afterId 的前 limit 条记录的得分
+    private void scanCredibilities(String type, int afterId, int limit, ResultHandler<TrainingDataCredibility> handler) {
+        List<Integer> ids = credibilityTable.stream()
+                .filter(c -> c.getEvaluationType().equals(type) && c.getTrainingDataId() > afterId)
+                .map(TrainingDataCredibility::getTrainingDataId)
+                .distinct().sorted().limit(limit)
+                .collect(Collectors.toList());
+        credibilityTable.stream()
+                .filter(c -> c.getEvaluationType().equals(type) && ids.contains(c.getTrainingDataId()))
+                .sorted(Comparator.comparing(TrainingDataCredibility::getTrainingDataId)
+                        .thenComparing(TrainingDataCredibility::getLayerIndex)
+                        .thenComparing(TrainingDataCredibility::getLevel))
+                .forEach(c -> {
+                    // 与 training_data 连接取得记录评估时的配置版本
+                    c.setConfigVersion(records.get(c.getTrainingDataId() - 1).getConfigVersion());
+                    handler.handleResult(resultContext(c));
+                });
+    }
+
+    // 以较小的页逐页读取全部重新定级的结果，检验跨页时不重不漏
+    private List<RegradeResultDTO> regradeAll(EvaluationType type, double theta) {
+        List<RegradeResultDTO> all = new ArrayList<>();
+        Integer afterId = 0;
+        while (afterId != null) {
+            RegradePageDTO page = trainingDataService.regradeHistory(type, theta, afterId, 4);
+            all.addAll(page.getRecords());
+            afterId = page.getNextAfterId();
+        }
+        return all;
+    }
+
+    @AfterEach
+    void tearDown() {
+        // 评估策略是全局的，恢复原有权重，避免影响其他测试
+        EvaluationStrategyFactory.register(EvaluationType.XIETONG, originalXietong);
+    }
+
+    @Test
+    public void testRegradeFromStoredCredibilities() throws IllegalAccessException {
+        Random random = new Random(3L);
+        for (int i = 0; i < 20; i++) {
+            trainingDataService.createTrainingData(randomTrainingData(random));
+        }
+        // 3 个子系统，每层 5 个等级: 协同 1+4 层、资源 1+3 层、服务 1+4 层
+        assertEquals(20 * 5 * (5 + 4 + 5), credibilityTable.size());
+
+        // 使用策略中的阈值重新定级，应与写入时的等级一致
+        List<RegradeResultDTO> regraded = regradeAll(EvaluationType.XIETONG,
+                EvaluationStrategyFactory.getStrategy(EvaluationType.XIETONG).getTheta());
+        assertEquals(records.size(), regraded.size());
+        for (RegradeResultDTO result : regraded) {
+            TrainingData record = records.get(result.getId() - 1);
+            assertEquals(record.getX(), result.getTargetLevel());
+            assertEquals(Arrays.asList(record.getXV(), record.getXO(), record.getXR(), record.getXS()),
+                    new ArrayList<>(result.getCriterionLevels().values()));
+        }
+
+        // 其他阈值下与重新计算可信度的阈值扫描结果一致
+        for (EvaluationType type : EvaluationType.values()) {
+            for (double theta : new double[]{0.5, 0.55, 0.65, 0.7}) {
+                for (RegradeResultDTO result : regradeAll(type, theta)) {
+                    ThetaSweepDTO sweep = trainingDataService.sweepTheta(result.getId(), type, Arrays.asList(theta));
+                    ThetaSweepPointDTO point = sweep.getResults().get(0);
+                    assertEquals(point.getTargetLevel(), result.getTargetLevel());
+                    assertEquals(point.getCriterionLevels(), result.getCriterionLevels());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRegradeBackfillsIncompleteCredibilities() throws IllegalAccessException {
+        Random random = new Random(17L);
+        for (int i = 0; i < 6; i++) {
+            trainingDataService.createTrainingData(randomTrainingData(random));
+        }
+        List<List<String>> stored = new ArrayList<>();
+        for (TrainingData record : records) {
+            stored.add(credibilityRows(record.getId()));
+        }
+        String type = EvaluationType.XIETONG.name();
+        // 记录 2 没有任何得分，记录 4 的一层缺一个等级，记录 5 缺最后一层
+        credibilityTable.removeIf(c -> c.getEvaluationType().equals(type) && (c.getTrainingDataId() == 2
+                || (c.getTrainingDataId() == 4 && c.getLayerIndex() == 1 && c.getLevel() == 2)
+                || (c.getTrainingDataId() == 5 && c.getLayerIndex() == 4)));
+
+        // 重新定级只读不写，得分不完整的记录不在结果之中
+        double theta = 0.6;
+        int rowsBefore = credibilityTable.size();
+        clearInvocations(evaluationService);
+        List<RegradeResultDTO> regraded = regradeAll(EvaluationType.XIETONG, theta);
+        assertEquals(Arrays.asList(1, 3, 6), regraded.stream().map(RegradeResultDTO::getId).collect(Collectors.toList()));
+        assertEquals(rowsBefore, credibilityTable.size());
+        // 不完整的记录计入每页条数：第一页读到记录 1、3、4，下一页从 4 之后开始
+        RegradePageDTO page = trainingDataService.regradeHistory(EvaluationType.XIETONG, theta, 0, 3);
+        assertEquals(Arrays.asList(1, 3), page.getRecords().stream().map(RegradeResultDTO::getId).collect(Collectors.toList()));
+        assertEquals(Integer.valueOf(4), page.getNextAfterId());
+        page = trainingDataService.regradeHistory(EvaluationType.XIETONG, theta, 4, 3);
+        assertEquals(Collections.singletonList(6), page.getRecords().stream().map(RegradeResultDTO::getId).collect(Collectors.toList()));
+        assertNull(page.getNextAfterId());
+        verify(evaluationService, never()).evaluateCredibilities(any(double[].class), any(EvaluationType.class));
+
+        // 补写后得分与写入时一致，再次定级时全部记录直接使用保存的得分
+        assertEquals(3, trainingDataService.backfillCredibilities(EvaluationType.XIETONG));
+        for (TrainingData record : records) {
+            assertEquals(stored.get(record.getId() - 1), credibilityRows(record.getId()));
+        }
+        assertEquals(0, trainingDataService.backfillCredibilities(EvaluationType.XIETONG));
+        regraded = regradeAll(EvaluationType.XIETONG, theta);
+        assertEquals(records.size(), regraded.size());
+        for (int i = 0; i < regraded.size(); i++) {
+            RegradeResultDTO result = regraded.get(i);
+            assertEquals(i + 1, result.getId());
+            ThetaSweepPointDTO point = trainingDataService.sweepTheta(result.getId(), EvaluationType.XIETONG,
+                    Collections.singletonList(theta)).getResults().get(0);
+            assertEquals(point.getTargetLevel(), result.getTargetLevel());
+            assertEquals(point.getCriterionLevels(), result.getCriterionLevels());
+        }
+    }
+
+    @Test
+    public void testRegradeFlagsStaleRecords() throws IllegalAccessException {
+        Random random = new Random(19L);
+        for (int i = 0; i < 4; i++) {
+            trainingDataService.createTrainingData(randomTrainingData(random));
+        }
+        String type = EvaluationType.XIETONG.name();
+        credibilityTable.removeIf(c -> c.getEvaluationType().equals(type) && c.getTrainingDataId() == 3);
+
+        // 替换协同子系统的权重后，此前评估的记录按旧配置计算的得分已过期
+        double[] weights = originalXietong.getWeights();
+        weights[2] += 0.3;
+        configService.register(EvaluationType.XIETONG, new ReweightedEvaluationStrategy(originalXietong, weights));
+        trainingDataService.createTrainingData(randomTrainingData(random));
+
+        List<RegradeResultDTO> regraded = regradeAll(EvaluationType.XIETONG, 0.6);
+        assertEquals(Arrays.asList(1, 2, 4, 5), regraded.stream().map(RegradeResultDTO::getId).collect(Collectors.toList()));
+        for (RegradeResultDTO result : regraded) {
+            assertEquals(result.getId() != 5, result.isStale());
+        }
+        assertTrue(regradeAll(EvaluationType.ZIYUAN, 0.6).stream().noneMatch(RegradeResultDTO::isStale));
+
+        // 过期记录不补写，由过期重评按新配置整体替换得分
+        assertEquals(0, trainingDataService.backfillCredibilities(EvaluationType.XIETONG));
+        assertEquals(4, trainingDataService.regradeStaleRecords(100));
+        regraded = regradeAll(EvaluationType.XIETONG, 0.6);
+        assertEquals(5, regraded.size());
+        assertTrue(regraded.stream().noneMatch(RegradeResultDTO::isStale));
+    }
+
+    @Test
+    public void testIncrementalUpdate() throws IllegalAccessException {
+        Random random = new Random(5L);
+        TrainingData original = trainingDataService.createTrainingData(randomTrainingData(random));
+        Integer id = original.getId();
+
+        // 只修改服务安全层的一个指标
+        TrainingData changed = copyIndicators(original);
+        changed.setFR11(BigDecimal.valueOf(99.5));
+        clearInvocations(evaluationService);
+        TrainingData updated = trainingDataService.updateTrainingData(id, changed);
+
+        // 只重新计算服务子系统的目标层与服务安全层
+        verify(evaluationService, never()).evaluateCredibilities(any(double[].class), any(EvaluationType.class));
+        verify(evaluationService, times(1)).evaluateCredibilities(any(double[].class), eq(EvaluationType.FUWU),
+                eq(Collections.singleton("服务安全层")));
+        verifyNoMoreInteractions(evaluationService);
+
+        // 结果与完整重新评估一致
+        TrainingData expected = trainingDataService.createTrainingData(copyIndicators(changed));
+        for (Field field : TrainingData.class.getDeclaredFields()) {
+            if (field.getType() == String.class) {
+                field.setAccessible(true);
+                assertEquals(field.get(expected), field.get(updated), field.getName());
+            }
+        }
+        assertEquals(credibilityRows(expected.getId()), credibilityRows(id));
+
+        // 没有任何变化时不重新评估
+        clearInvocations(evaluationService);
+        trainingDataService.updateTrainingData(id, copyIndicators(changed));
+        verifyNoMoreInteractions(evaluationService);
+        assertEquals(credibilityRows(expected.getId()), credibilityRows(id));
+    }
+
+    @Test
+    public void testRegradeOnlyStaleRecords() throws IllegalAccessException {
+        Random random = new Random(13L);
+        for (int i = 0; i < 12; i++) {
+            trainingDataService.createTrainingData(randomTrainingData(random));
+        }
+        long version = configService.getCurrentVersion().getVersion();
+        assertTrue(records.stream().allMatch(r -> r.getConfigVersion() == version));
+        for (EvaluationType type : EvaluationType.values()) {
+            assertEquals(0, trainingDataService.countStaleRecords(type));
+        }
+
+        // 替换协同子系统的权重后，只有协同子系统的等级过期
+        double[] weights = originalXietong.getWeights();
+        weights[0] += 0.2;
+        weights[13] += 0.1;
+        configService.register(EvaluationType.XIETONG, new ReweightedEvaluationStrategy(originalXietong, weights));
+        assertEquals(12, trainingDataService.countStaleRecords(EvaluationType.XIETONG));
+        assertEquals(0, trainingDataService.countStaleRecords(EvaluationType.ZIYUAN));
+
+        // 新写入的记录以新版本评估，不在过期之列
+        trainingDataService.createTrainingData(randomTrainingData(random));
+        assertEquals(12, trainingDataService.countStaleRecords(EvaluationType.XIETONG));
+
+        // 分批重新定级，只重新评估协同子系统
+        clearInvocations(evaluationService);
+        assertEquals(5, trainingDataService.regradeStaleRecords(5));
+        assertEquals(7, trainingDataService.countStaleRecords(EvaluationType.XIETONG));
+        assertEquals(7, trainingDataService.regradeStaleRecords(100));
+        assertEquals(0, trainingDataService.countStaleRecords(EvaluationType.XIETONG));
+        assertEquals(0, trainingDataService.regradeStaleRecords(100));
+        verify(evaluationService, times(12)).evaluateCredibilities(any(double[].class), eq(EvaluationType.XIETONG));
+        verify(evaluationService, times(12)).evaluateCredibilities(any(double[].class), eq(EvaluationType.XIETONG), isNull());
+        verifyNoMoreInteractions(evaluationService);
+
+        // 结果与按新配置完整评估一致
+        for (int id = 1; id <= 12; id++) {
+            TrainingData regraded = records.get(id - 1);
+            assertEquals(configService.getCurrentVersion().getVersion(), (long) regraded.getConfigVersion());
+            TrainingData expected = trainingDataService.createTrainingData(copyIndicators(regraded));
+            for (Field field : TrainingData.class.getDeclaredFields()) {
+                if (field.getType() == String.class) {
+                    field.setAccessible(true);
+                    assertEquals(field.get(expected), field.get(regraded), field.getName());
+                }
+            }
+            assertEquals(credibilityRows(expected.getId()), credibilityRows(id));
+        }
+    }
+
+    @Test
+    public void testRegradeSkipsRecordsModifiedAfterRead() throws IllegalAccessException {
+        Random random = new Random(19L);
+        for (int i = 0; i < 3; i++) {
+            trainingDataService.createTrainingData(randomTrainingData(random));
+        }
+        double[] weights = originalXietong.getWeights();
+        weights[0] += 0.2;
+        configService.register(EvaluationType.XIETONG, new ReweightedEvaluationStrategy(originalXietong, weights));
+
+        // 读取过期记录之后，记录1 被并发修改：原始指标与等级已按新配置重写，配置版本号随之更新
+        TrainingData modified = records.get(0);
+        List<TrainingData> stale = new ArrayList<>();
+        for (TrainingData record : trainingDataMapper.findStale(configService.getCurrentVersion().staleBefore(), 0, 100)) {
+            stale.add(snapshot(record));
+        }
+        when(trainingDataMapper.findStale(anyLong(), anyInt(), anyInt())).thenReturn(stale, Collections.emptyList());
+        long current = configService.getCurrentVersion().getVersion();
+        modified.setConfigVersion(current);
+        modified.setX("修改后");
+        List<String> rowsBefore = credibilityRows(1);
+
+        assertEquals(2, trainingDataService.regradeStaleRecords(100));
+        assertEquals("修改后", modified.getX());
+        assertEquals(rowsBefore, credibilityRows(1));
+        for (int id = 2; id <= 3; id++) {
+            TrainingData regraded = records.get(id - 1);
+            assertEquals(current, (long) regraded.getConfigVersion());
+            TrainingData expected = trainingDataService.createTrainingData(copyIndicators(regraded));
+            for (Field field : TrainingData.class.getDeclaredFields()) {
+                if (field.getType() == String.class) {
+                    field.setAccessible(true);
+                    assertEquals(field.get(expected), field.get(regraded), field.getName());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testUpdateReevaluatesStaleSubsystem() throws IllegalAccessException {
+        Random random = new Random(15L);
+        TrainingData original = trainingDataService.createTrainingData(randomTrainingData(random));
+        double[] weights = originalXietong.getWeights();
+        weights[4] += 0.3;
+        configService.register(EvaluationType.XIETONG, new ReweightedEvaluationStrategy(originalXietong, weights));
+
+        // 只修改服务子系统的指标，协同子系统因配置变化整体重新评估
+        TrainingData changed = copyIndicators(original);
+        changed.setFR11(BigDecimal.valueOf(99.5));
+        clearInvocations(evaluationService);
+        TrainingData updated = trainingDataService.updateTrainingData(original.getId(), changed);
+        verify(evaluationService, times(1)).evaluateCredibilities(any(double[].class), eq(EvaluationType.XIETONG));
+        verify(evaluationService, times(1)).evaluateCredibilities(any(double[].class), eq(EvaluationType.XIETONG), isNull());
+        verify(evaluationService, times(1)).evaluateCredibilities(any(double[].class), eq(EvaluationType.FUWU),
+                eq(Collections.singleton("服务安全层")));
+        verifyNoMoreInteractions(evaluationService);
+        assertEquals(configService.getCurrentVersion().getVersion(), (long) updated.getConfigVersion());
+
+        TrainingData expected = trainingDataService.createTrainingData(copyIndicators(changed));
+        assertEquals(expected.getX(), updated.getX());
+        assertEquals(expected.getXV(), updated.getXV());
+        assertEquals(credibilityRows(expected.getId()), credibilityRows(original.getId()));
+    }
+
+    @Test
+    public void testEntropyWeightsRefreshIncrementally() throws IllegalAccessException {
+        Random random = new Random(7L);
+        for (int i = 0; i < 10; i++) {
+            trainingDataService.createTrainingData(randomTrainingData(random));
+        }
+        assertEntropyWeightsMatchTable();
+
+        // 初始化之后的增删改只更新累加器，不再扫描全表
+        for (int i = 0; i < 5; i++) {
+            trainingDataService.createTrainingData(randomTrainingData(random));
+        }
+        TrainingData changed = copyIndicators(records.get(2));
+        changed.setXV11(BigDecimal.valueOf(42.5));
+        changed.setZS11(BigDecimal.ZERO);
+        trainingDataService.updateTrainingData(3, changed);
+        trainingDataService.deleteTrainingData(5);
+        assertEntropyWeightsMatchTable();
+        verify(trainingDataMapper, times(1)).scanAll(any());
+    }
+
+    @Test
+    public void testWindowWeightsFollowRecentRecords() throws IllegalAccessException {
+        ReflectionTestUtils.setField(trainingDataService, "weightWindowSize", 6);
+        Random random = new Random(9L);
+        for (int i = 0; i < 4; i++) {
+            trainingDataService.createTrainingData(randomTrainingData(random));
+        }
+        assertWindowWeightsMatchRecent(6);
+
+        // 新增记录使窗口滑动
+        for (int i = 0; i < 5; i++) {
+            trainingDataService.createTrainingData(randomTrainingData(random));
+        }
+        assertWindowWeightsMatchRecent(6);
+        verify(trainingDataMapper, times(1)).findRecent(6);
+
+        // 修改窗口内的记录后重新读取窗口
+        TrainingData changed = copyIndicators(records.get(7));
+        changed.setFV11(BigDecimal.valueOf(1.5));
+        trainingDataService.updateTrainingData(8, changed);
+        assertWindowWeightsMatchRecent(6);
+        verify(trainingDataMapper, times(2)).findRecent(6);
+    }
+
+    @Test
+    public void testHistoryWeightsAppendNewRecords(@TempDir Path directory) throws IllegalAccessException, IOException {
+        ReflectionTestUtils.setField(trainingDataService, "matrixDirectory", directory.toString());
+        Random random = new Random(11L);
+        for (int i = 0; i < 30; i++) {
+            trainingDataService.createTrainingData(randomTrainingData(random));
+        }
+        assertHistoryWeightsMatchTable();
+
+        // 新增记录直接追加到映射矩阵，不再扫描全表
+        for (int i = 0; i < 5; i++) {
+            trainingDataService.createTrainingData(randomTrainingData(random));
+        }
+        assertHistoryWeightsMatchTable();
+        verify(trainingDataMapper, times(1)).scanAll(any());
+
+        // 修改或删除记录时按行号原地改写，不再扫描全表；此前取得的快照内容不变
+        MappedColumnMatrix before = trainingDataService.getHistoryMatrix(EvaluationType.ZIYUAN);
+        double[][] beforeRows = rows(before);
+        TrainingData changed = copyIndicators(records.get(3));
+        changed.setZV21(BigDecimal.valueOf(7.25));
+        trainingDataService.updateTrainingData(4, changed);
+        trainingDataService.deleteTrainingData(9);
+        trainingDataService.deleteTrainingData(35);
+        assertHistoryWeightsMatchTable();
+        for (int i = 0; i < 5; i++) {
+            trainingDataService.createTrainingData(randomTrainingData(random));
+        }
+        trainingDataService.deleteTrainingData(1);
+        assertHistoryWeightsMatchTable();
+        verify(trainingDataMapper, times(1)).scanAll(any());
+        assertArrayEquals(beforeRows, rows(before));
+        before.close();
+
+        trainingDataService.closeHistoryMatrices();
+    }
+
+    private static double[][] rows(MappedColumnMatrix matrix) {
+        double[][] rows = new double[matrix.rows()][matrix.columns()];
+        for (int i = 0; i < rows.length; i++) {
+            for (int j = 0; j < matrix.columns(); j++) {
+                rows[i][j] = matrix.get(i, j);
+            }
+        }
+        return rows;
+    }
+
+    // 全量历史权重与对表中当前全部记录一次性计算的结果一致
+    private void assertHistoryWeightsMatchTable() {
+        for (EvaluationType type : EvaluationType.values()) {
+            double[][] matrix = records.stream()
+                    .filter(record -> !deleted.contains(record.getId()))
+                    .map(record -> (double[]) ReflectionTestUtils.invokeMethod(trainingDataService, "extractRawData", record, type))
+                    .toArray(double[][]::new);
+            HistoryWeightsDTO weights = trainingDataService.getHistoryWeights(type);
+            assertEquals(matrix.length, weights.getSampleCount());
+            assertArrayEquals(ReferenceWeightingMethods.entropyWeightMethod(matrix), weights.getEntropyWeights(), 1e-9);
+            assertArrayEquals(ReferenceWeightingMethods.criticMethod(matrix), weights.getCriticWeights(), 1e-9);
+            assertArrayEquals(ReferenceWeightingMethods.principalComponentWeighting(matrix), weights.getPcaWeights(), 1e-9);
+            assertArrayEquals(ReferenceWeightingMethods.independenceWeight(matrix), weights.getIndependenceWeights(), 1e-9);
+        }
+    }
+
+    // 窗口权重与对最近 window 条记录一次性计算的结果一致
+    private void assertWindowWeightsMatchRecent(int window) {
+        List<TrainingData> live = records.stream().filter(r -> !deleted.contains(r.getId())).collect(Collectors.toList());
+        List<TrainingData> recent = live.subList(Math.max(0, live.size() - window), live.size());
+        for (EvaluationType type : EvaluationType.values()) {
+            double[][] matrix = recent.stream()
+                    .map(record -> (double[]) ReflectionTestUtils.invokeMethod(trainingDataService, "extractRawData", record, type))
+                    .toArray(double[][]::new);
+            WindowWeightsDTO weights = trainingDataService.getWindowWeights(type);
+            assertEquals(recent.size(), weights.getWindowSize());
+            assertArrayEquals(ReferenceWeightingMethods.criticMethod(matrix), weights.getCriticWeights(), 1e-9);
+            assertArrayEquals(ReferenceWeightingMethods.principalComponentWeighting(matrix), weights.getPcaWeights(), 1e-9);
+        }
+    }
+
+    // 熵权与对表中当前全部记录一次性计算的结果一致
+    private void assertEntropyWeightsMatchTable() {
+        EntropyWeightServiceImpl entropyWeightService = new EntropyWeightServiceImpl();
+        for (EvaluationType type : EvaluationType.values()) {
+            double[][] matrix = records.stream()
+                    .filter(record -> !deleted.contains(record.getId()))
+                    .map(record -> (double[]) ReflectionTestUtils.invokeMethod(trainingDataService, "extractRawData", record, type))
+                    .toArray(double[][]::new);
+            assertArrayEquals(entropyWeightService.entropyWeightMethod(matrix), trainingDataService.getEntropyWeights(type), 1e-9);
+        }
+    }
+
+    private static <T> ResultContext<T> resultContext(T result) {
+        return new ResultContext<T>() {
+            @Override
+            public T getResultObject() { return result; }
+            @Override
+            public int getResultCount() { return 0; }
+            @Override
+            public boolean isStopped() { return false; }
+            @Override
+            public void stop() { }
+        };
+    }
+
+    // 按 子系统、层、等级 排序后的可信度得分，不含记录ID
+    // 读取时的记录快照，之后对表中记录的修改不影响它
+    private TrainingData snapshot(TrainingData record) throws IllegalAccessException {
+        TrainingData copy = new TrainingData();
+        for (Field field : TrainingData.class.getDeclaredFields()) {
+            field.setAccessible(true);
+            field.set(copy, field.get(record));
+        }
+        return copy;
+    }
+
+    private List<String> credibilityRows(Integer id) {
+        return credibilityTable.stream()
+                .filter(c -> c.getTrainingDataId().equals(id))
+                .map(c -> c.getEvaluationType() + "/" + c.getLayerIndex() + "/" + c.getLayerName() + "/" + c.getLevel()
+                        + "/" + c.getScoreS() + "/" + c.getScoreH() + "/" + c.getScoreMu() + "/" + c.getScoreHu())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static TrainingData copyIndicators(TrainingData source) throws IllegalAccessException {
+        TrainingData data = new TrainingData();
+        for (Field field : TrainingData.class.getDeclaredFields()) {
+            if (field.getType() == BigDecimal.class) {
+                field.setAccessible(true);
+                field.set(data, field.get(source));
+            }
+        }
+        return data;
+    }
+
+    private static TrainingData randomTrainingData(Random random) throws IllegalAccessException {
+        TrainingData data = new TrainingData();
+        for (Field field : TrainingData.class.getDeclaredFields()) {
+            if (field.getType() == BigDecimal.class) {
+                field.setAccessible(true);
+                field.set(data, BigDecimal.valueOf(random.nextDouble() * 100));
+            }
+        }
+        return data;
+    }
+}
@@ -0,0 +1,271 @@
+package com.sfq.ecosystem;
+
+import com.sfq.ecosystem.dto.WeightPublicationDTO;
+import com.sfq.ecosystem.model.EvaluationType;
+import com.sfq.ecosystem.model.MappedColumnMatrix;
+import com.sfq.ecosystem.service.InsufficientTrainingDataException;
+import com.sfq.ecosystem.service.TrainingDataService;
+import com.sfq.ecosystem.service.impl.CriticServiceImpl;
+import com.sfq.ecosystem.service.impl.EntropyWeightServiceImpl;
+import com.sfq.ecosystem.service.impl.EvaluationConfigServiceImpl;
+import com.sfq.ecosystem.service.impl.EvaluationTaskRunner;
+import com.sfq.ecosystem.service.impl.IndependenceWeightServiceImpl;
+import com.sfq.ecosystem.service.impl.OwaWeightFusionServiceImpl;
+import com.sfq.ecosystem.service.impl.PcaServiceImpl;
+import com.sfq.ecosystem.service.impl.WeightPipelineServiceImpl;
+import com.sfq.ecosystem.service.strategy.EvaluationStrategyFactory;
+import com.sfq.ecosystem.service.strategy.IEvaluationStrategy;
+import com.sfq.ecosystem.service.strategy.ReweightedEvaluationStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 指标权重流水线测试
+ * <p>
+ * 训练数据由模拟的 {@link TrainingDataService} 以内存映射矩阵提供，验证发布的权重与对预处理并归一化后的数据
+ * 逐个调用各赋权方法再融合的结果一致，权重不随指标的量级变化，发布后评估计划随之替换，且数据不足时不发布任何结果。
+ */
+public class WeightPipelineServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private final Map<EvaluationType, IEvaluationStrategy> originals = new EnumMap<>(EvaluationType.class);
+    private final List<MappedColumnMatrix> matrices = new ArrayList<>();
+    private WeightPipelineServiceImpl pipeline;
+    private TrainingDataService trainingDataService;
+    private EvaluationConfigServiceImpl configService;
+
+    @BeforeEach
+    void setUp() {
+        for (EvaluationType type : EvaluationType.values()) {
+            originals.put(type, ReweightedEvaluationStrategy.baseOf(EvaluationStrategyFactory.getStrategy(type)));
+        }
+        trainingDataService = mock(TrainingDataService.class);
+        pipeline = new WeightPipelineServiceImpl();
+        ReflectionTestUtils.setField(pipeline, "trainingDataService", trainingDataService);
+        ReflectionTestUtils.setField(pipeline, "pcaService", new PcaServiceImpl());
+        ReflectionTestUtils.setField(pipeline, "independenceWeightService", new IndependenceWeightServiceImpl());
+        ReflectionTestUtils.setField(pipeline, "owaWeightFusionService", new OwaWeightFusionServiceImpl());
+        configService = EvaluationConfigServiceTest.inMemoryConfigService(new ArrayList<>());
+        ReflectionTestUtils.setField(pipeline, "evaluationConfigService", configService);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        // 评估策略是全局的，恢复原有权重，避免影响其他测试
+        for (Map.Entry<EvaluationType, IEvaluationStrategy> entry : originals.entrySet()) {
+            EvaluationStrategyFactory.register(entry.getKey(), entry.getValue());
+        }
+        for (MappedColumnMatrix matrix : matrices) {
+            matrix.close();
+        }
+    }
+
+    @Test
+    public void testPublishesFusedWeights() throws IOException {
+        for (EvaluationType type : EvaluationType.values()) {
+            double[][] data = normalized(type, provideData(type, 80, type.ordinal()));
+            long before = EvaluationStrategyFactory.getPlanVersion();
+
+            WeightPublicationDTO publication = pipeline.recomputeWeights(type);
+
+            double[] entropy = new EntropyWeightServiceImpl().entropyWeightMethod(data);
+            double[] critic = new CriticServiceImpl().criticMethod(data);
+            double[] pca = new PcaServiceImpl().principalComponentWeighting(data);
+            double[] independence = new IndependenceWeightServiceImpl().calculateFinalWeights(data, groupSizes(type));
+            double[] base = originals.get(type).getWeights();
+            double[] fused = new OwaWeightFusionServiceImpl().owaWeightFusion(new double[][]{entropy, critic, pca, independence, base});
+            assertArrayEquals(entropy, publication.getEntropyWeights(), 1e-12);
+            assertArrayEquals(critic, publication.getCriticWeights(), 1e-12);
+            assertArrayEquals(pca, publication.getPcaWeights(), 1e-12);
+            assertArrayEquals(independence, publication.getIndependenceWeights(), 1e-12);
+            assertArrayEquals(base, publication.getBaseWeights(), 0.0);
+            assertArrayEquals(fused, publication.getFusedWeights(), 1e-12);
+            assertEquals(80, publication.getSampleCount());
+
+            // 评估计划已替换为融合后的权重，计划版本号随之递增
+            assertTrue(publication.getPlanVersion() > before);
+            assertEquals(EvaluationStrategyFactory.getPlanVersion(), publication.getPlanVersion());
+            assertArrayEquals(publication.getFusedWeights(), EvaluationStrategyFactory.getTargetPlan(type).weights(), 0.0);
+            assertSame(publication, pipeline.getLatestPublication(type));
+            // 发布的权重记录为新的配置版本
+            assertEquals(configService.getCurrentVersion().getVersion(), publication.getConfigVersion());
+            assertEquals(publication.getConfigVersion(), configService.getCurrentVersion().config(type).getSinceVersion());
+            assertArrayEquals(publication.getFusedWeights(), configService.getCurrentVersion().config(type).getWeights(), 0.0);
+            assertEquals(Arrays.asList("load", "statistics", "entropy", "critic", "pca", "independence",
+                    "weighting", "fusion", "publish", "total"), new ArrayList<>(publication.getStageMillis().keySet()));
+        }
+    }
+
+    @Test
+    public void testRecomputeStartsFromBaseWeights() throws IOException {
+        provideData(EvaluationType.XIETONG, 50, 7L);
+        WeightPublicationDTO first = pipeline.recomputeWeights(EvaluationType.XIETONG);
+        WeightPublicationDTO second = pipeline.recomputeWeights(EvaluationType.XIETONG);
+        assertArrayEquals(first.getFusedWeights(), second.getFusedWeights(), 0.0);
+        assertArrayEquals(originals.get(EvaluationType.XIETONG).getWeights(), second.getBaseWeights(), 0.0);
+        assertEquals(first.getPlanVersion() + 1, second.getPlanVersion());
+        // 权重没有变化，不产生新的配置版本
+        assertEquals(first.getConfigVersion(), second.getConfigVersion());
+    }
+
+    @Test
+    public void testParallelWeightingMatchesSequential() throws IOException {
+        provideData(EvaluationType.FUWU, 120, 11L);
+        WeightPublicationDTO sequential = pipeline.recomputeWeights(EvaluationType.FUWU);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            pipeline.setTaskRunner(new EvaluationTaskRunner(executor, 1));
+            WeightPublicationDTO parallel = pipeline.recomputeWeights(EvaluationType.FUWU);
+            assertArrayEquals(sequential.getFusedWeights(), parallel.getFusedWeights(), 0.0);
+            assertArrayEquals(sequential.getIndependenceWeights(), parallel.getIndependenceWeights(), 0.0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testWeightsIndependentOfIndicatorScale() throws IOException {
+        EvaluationType type = EvaluationType.ZIYUAN;
+        double[][] data = provideData(type, 60, 17L);
+        WeightPublicationDTO original = pipeline.recomputeWeights(type);
+
+        // 指标0 改用小一百万倍的单位、指标1 改用大一千倍的单位（均不经预处理），归一化后权重不变
+        double[][] rescaled = new double[data.length][];
+        for (int i = 0; i < data.length; i++) {
+            rescaled[i] = data[i].clone();
+            rescaled[i][0] *= 1e6;
+            rescaled[i][1] *= 1e-3;
+        }
+        provideData(type, rescaled);
+        WeightPublicationDTO scaled = pipeline.recomputeWeights(type);
+        assertArrayEquals(original.getEntropyWeights(), scaled.getEntropyWeights(), 1e-9);
+        assertArrayEquals(original.getCriticWeights(), scaled.getCriticWeights(), 1e-9);
+        assertArrayEquals(original.getPcaWeights(), scaled.getPcaWeights(), 1e-9);
+        assertArrayEquals(original.getIndependenceWeights(), scaled.getIndependenceWeights(), 1e-9);
+        assertArrayEquals(original.getFusedWeights(), scaled.getFusedWeights(), 1e-9);
+    }
+
+    @Test
+    public void testConstantIndicatorGetsZeroWeight() throws IOException {
+        EvaluationType type = EvaluationType.XIETONG;
+        double[][] data = provideData(type, 50, 19L);
+        for (double[] row : data) {
+            // 第 2 个指标在全部历史中从未变化
+            row[1] = 4.2;
+        }
+        provideData(type, data);
+
+        WeightPublicationDTO publication = pipeline.recomputeWeights(type);
+        assertEquals(0.0, publication.getEntropyWeights()[1], 1e-12);
+        assertEquals(0.0, publication.getCriticWeights()[1], 0.0);
+        assertEquals(0.0, publication.getPcaWeights()[1], 0.0);
+        assertEquals(0.0, publication.getIndependenceWeights()[1], 0.0);
+
+        // 其余指标的主成分权重与去掉该列后计算的结果一致
+        double[][] normalized = normalized(type, data);
+        double[][] withoutConstant = new double[normalized.length][];
+        for (int i = 0; i < normalized.length; i++) {
+            double[] row = new double[normalized[i].length - 1];
+            row[0] = normalized[i][0];
+            System.arraycopy(normalized[i], 2, row, 1, row.length - 1);
+            withoutConstant[i] = row;
+        }
+        double[] pca = new PcaServiceImpl().principalComponentWeighting(withoutConstant);
+        double[] published = publication.getPcaWeights();
+        for (int j = 0; j < pca.length; j++) {
+            assertEquals(pca[j], published[j == 0 ? 0 : j + 1], 1e-12);
+        }
+        assertEquals(1.0, Arrays.stream(publication.getFusedWeights()).sum(), 1e-9);
+    }
+
+    @Test
+    public void testInsufficientDataPublishesNothing() throws IOException {
+        provideData(EvaluationType.ZIYUAN, 1, 13L);
+        long before = EvaluationStrategyFactory.getPlanVersion();
+        InsufficientTrainingDataException e = assertThrows(InsufficientTrainingDataException.class,
+                () -> pipeline.recomputeWeights(EvaluationType.ZIYUAN));
+        assertEquals(1, e.getRows());
+        assertEquals(2, e.getRequiredRows());
+        assertEquals(before, EvaluationStrategyFactory.getPlanVersion());
+        assertNull(pipeline.getLatestPublication(EvaluationType.ZIYUAN));
+        assertArrayEquals(originals.get(EvaluationType.ZIYUAN).getWeights(),
+                EvaluationStrategyFactory.getTargetPlan(EvaluationType.ZIYUAN).weights(), 0.0);
+    }
+
+    // 生成随机的正值数据，各列量级不同，写入映射矩阵并由模拟的训练数据服务返回
+    private double[][] provideData(EvaluationType type, int rows, long seed) throws IOException {
+        int columns = originals.get(type).getWeights().length;
+        Random random = new Random(seed);
+        double[][] data = new double[rows][columns];
+        for (double[] row : data) {
+            for (int j = 0; j < columns; j++) {
+                row[j] = (0.1 + random.nextDouble()) * Math.pow(10, j % 4);
+            }
+        }
+        provideData(type, data);
+        return data;
+    }
+
+    private void provideData(EvaluationType type, double[][] data) throws IOException {
+        MappedColumnMatrix matrix = MappedColumnMatrix.createTemporary(directory, data[0].length);
+        matrices.add(matrix);
+        for (double[] row : data) {
+            matrix.append(row);
+        }
+        when(trainingDataService.getHistoryMatrix(type)).thenAnswer(invocation -> matrix.snapshot());
+    }
+
+    // 按策略预处理各指标后按列极差归一化到 [0,1]，常量列取 1
+    private double[][] normalized(EvaluationType type, double[][] data) {
+        IEvaluationStrategy strategy = originals.get(type);
+        int columns = data[0].length;
+        double[][] result = new double[data.length][columns];
+        for (int j = 0; j < columns; j++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < data.length; i++) {
+                result[i][j] = strategy.preprocessIndicator(data[i][j], j);
+                min = Math.min(min, result[i][j]);
+                max = Math.max(max, result[i][j]);
+            }
+            for (int i = 0; i < data.length; i++) {
+                result[i][j] = max > min ? (result[i][j] - min) * (1.0 / (max - min)) : 1.0;
+            }
+        }
+        return result;
+    }
+
+    private List<Integer> groupSizes(EvaluationType type) {
+        List<Integer> sizes = new ArrayList<>();
+        for (int[] group : originals.get(type).getCriterionGroups().values()) {
+            sizes.add(group.length);
+        }
+        return sizes;
+    }
+}
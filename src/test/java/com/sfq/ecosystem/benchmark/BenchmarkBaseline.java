@@ -0,0 +1,116 @@
+package com.sfq.ecosystem.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 将 JMH 的 JSON 结果与基准文件比较，发现性能回退
+ * <p>
+ * 按 (基准方法, 模式, 参数) 匹配两边的结果，平均耗时与每次调用的分配字节数（gc.alloc.rate.norm）
+ * 在扣除两边的误差范围（scoreError）后仍超过基准值 (1 + 容差) 倍才视为回退，存在回退时以非零状态退出。
+ * 只在一边出现的结果仅打印提示；JDK 版本、JVM 参数、预热与测量设置不同的结果不可比较，同样只打印提示。
+ * <p>
+ * 仓库中不保存基准文件：耗时依赖运行机器，应在同一 CI 环境中以默认的 jmh.args 运行完整网格，
+ * 把上一次的 jmh-result.json 作为构件保存，下一次运行时以 -Djmh.baseline 传入。
+ * <p>
+ * 用法: BenchmarkBaseline 结果文件 基准文件 容差；基准文件为 none 时跳过比较。
+ */
+public final class BenchmarkBaseline {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    // 决定结果是否可比较的运行设置
+    private static final String[] SETUP_FIELDS = {"jdkVersion", "vmName", "jvmArgs", "forks", "threads",
+            "warmupIterations", "warmupTime", "measurementIterations", "measurementTime"};
+
+    private BenchmarkBaseline() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3 || "none".equals(args[1])) {
+            System.out.println("未指定基准文件，跳过基准比较。");
+            return;
+        }
+        double tolerance = Double.parseDouble(args[2]);
+        List<String> regressions = compare(load(new File(args[0])), load(new File(args[1])), tolerance);
+        if (!regressions.isEmpty()) {
+            regressions.forEach(System.out::println);
+            System.out.printf("共 %d 项超过基准 %.0f%% 以上%n", regressions.size(), tolerance * 100);
+            System.exit(1);
+        }
+        System.out.println("未发现超过容差的性能回退。");
+    }
+
+    static List<String> compare(Map<String, JsonNode> results, Map<String, JsonNode> baseline, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : results.entrySet()) {
+            JsonNode expected = baseline.get(entry.getKey());
+            if (expected == null) {
+                System.out.println("基准中没有该项: " + entry.getKey());
+                continue;
+            }
+            JsonNode actual = entry.getValue();
+            String mismatch = setupMismatch(actual, expected);
+            if (mismatch != null) {
+                System.out.println("运行设置与基准不同，不比较: " + entry.getKey() + " (" + mismatch + ")");
+                continue;
+            }
+            check(entry.getKey(), "耗时", actual.path("primaryMetric"), expected.path("primaryMetric"), tolerance, regressions);
+            check(entry.getKey(), "分配", actual.path("secondaryMetrics").path(ALLOCATION_METRIC),
+                    expected.path("secondaryMetrics").path(ALLOCATION_METRIC), tolerance, regressions);
+        }
+        for (String key : baseline.keySet()) {
+            if (!results.containsKey(key)) {
+                System.out.println("本次未运行: " + key);
+            }
+        }
+        return regressions;
+    }
+
+    // 只比较 “越小越好” 的度量；吞吐量模式的结果不参与比较
+    private static void check(String key, String name, JsonNode actual, JsonNode expected, double tolerance,
+                              List<String> regressions) {
+        if (actual.isMissingNode() || expected.isMissingNode() || actual.path("scoreUnit").asText().endsWith("/s")) {
+            return;
+        }
+        double actualScore = actual.path("score").asDouble();
+        double expectedScore = expected.path("score").asDouble();
+        // 取本次的下界与基准的上界比较，误差范围内的波动不算回退
+        if (actualScore - error(actual) > (expectedScore + error(expected)) * (1 + tolerance)) {
+            regressions.add(String.format("%s %s: %.4g -> %.4g %s", key, name, expectedScore, actualScore,
+                    actual.path("scoreUnit").asText()));
+        }
+    }
+
+    // 只有一次测量时 JMH 给出的误差为 NaN，按 0 处理
+    private static double error(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble();
+        return Double.isNaN(error) ? 0.0 : error;
+    }
+
+    private static String setupMismatch(JsonNode actual, JsonNode expected) {
+        for (String field : SETUP_FIELDS) {
+            if (!actual.path(field).equals(expected.path(field))) {
+                return field + ": " + expected.path(field) + " -> " + actual.path(field);
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> runs = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").fields().forEachRemaining(p -> params.put(p.getKey(), p.getValue().asText()));
+            runs.put(run.path("benchmark").asText() + " [" + run.path("mode").asText() + "] " + params, run);
+        }
+        return runs;
+    }
+}
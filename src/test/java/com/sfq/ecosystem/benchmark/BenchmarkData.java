@@ -0,0 +1,96 @@
+package com.sfq.ecosystem.benchmark;
+
+import com.sfq.ecosystem.entity.TrainingData;
+import com.sfq.ecosystem.model.EvaluationType;
+import com.sfq.ecosystem.service.strategy.EvaluationStrategyFactory;
+import com.sfq.ecosystem.service.strategy.IEvaluationStrategy;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 基准测试的输入数据
+ * <p>
+ * samples 为策略中自带的样本；synthetic 为按各指标边界范围随机生成的向量，
+ * 范围向两侧各放宽 10%，包含越界取值。
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static double[][] vectors(EvaluationType type, String input, int syntheticCount, long seed) {
+        if ("samples".equals(input)) {
+            return samples(type);
+        }
+        return synthetic(type, syntheticCount, seed);
+    }
+
+    static double[][] samples(EvaluationType type) {
+        List<double[]> list = new ArrayList<>(EvaluationStrategyFactory.getStrategy(type).getSamples().values());
+        return list.toArray(new double[0][]);
+    }
+
+    static double[][] synthetic(EvaluationType type, int count, long seed) {
+        IEvaluationStrategy strategy = EvaluationStrategyFactory.getStrategy(type);
+        double[][] boundaries = strategy.getBoundaries();
+        Random random = new Random(seed);
+        double[][] vectors = new double[count][boundaries.length];
+        for (double[] vector : vectors) {
+            for (int n = 0; n < boundaries.length; n++) {
+                double min = Math.min(boundaries[n][0], boundaries[n][boundaries[n].length - 1]);
+                double max = Math.max(boundaries[n][0], boundaries[n][boundaries[n].length - 1]);
+                double margin = (max - min) * 0.1;
+                vector[n] = min - margin + random.nextDouble() * (max - min + 2 * margin);
+            }
+        }
+        return vectors;
+    }
+
+    /**
+     * 生成 行数 x 列数 的随机矩阵，取值在 (0, 1] 内，满足熵权法的非负要求
+     *
+     * @param shape 形如 "1000x50" 的 行数x列数
+     */
+    static double[][] matrix(String shape, long seed) {
+        int x = shape.indexOf('x');
+        int rows = Integer.parseInt(shape.substring(0, x));
+        int cols = Integer.parseInt(shape.substring(x + 1));
+        Random random = new Random(seed);
+        double[][] matrix = new double[rows][cols];
+        for (double[] row : matrix) {
+            for (int j = 0; j < cols; j++) {
+                row[j] = 1.0 - random.nextDouble();
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * 用三个子系统的指标向量组装一条训练数据
+     * <p>
+     * 底层指标字段（如 xV11、zO21、fS12）的声明顺序与策略中的指标顺序一致，按该顺序依次赋值。
+     */
+    static TrainingData trainingData(double[] xietong, double[] ziyuan, double[] fuwu) {
+        TrainingData data = new TrainingData();
+        int[] next = new int[3];
+        try {
+            for (Field field : TrainingData.class.getDeclaredFields()) {
+                String name = field.getName();
+                if (field.getType() != BigDecimal.class || !name.matches("[xzf][VORS]\\d\\d")) {
+                    continue;
+                }
+                int subsystem = "xzf".indexOf(name.charAt(0));
+                double[] values = subsystem == 0 ? xietong : subsystem == 1 ? ziyuan : fuwu;
+                field.setAccessible(true);
+                field.set(data, BigDecimal.valueOf(values[next[subsystem]++]));
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        return data;
+    }
+}
@@ -0,0 +1,51 @@
+package com.sfq.ecosystem.benchmark;
+
+import com.sfq.ecosystem.service.impl.CriticServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CRITIC 法随样本数与指标数的扩展性
+ * <p>
+ * 网格与 {@link EntropyWeightBenchmark} 相同。协离差矩阵由 {@link com.sfq.ecosystem.model.CoMomentKernel} 分块并行计算，
+ * 开销仍随指标数平方增长，1000x2000 单核单次调用约 1 秒，多核时按核数缩短。
+ * 运行: mvn -Pbenchmark verify -DskipTests -Djmh.args="CriticWeightBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class CriticWeightBenchmark {
+
+    // 样本数x指标数
+    @Param({"10x5", "10x50", "10x500", "10x2000", "1000x5", "1000x50", "1000x500", "1000x2000", "100000x5", "100000x50", "1000000x5"})
+    public String shape;
+
+    private CriticServiceImpl service;
+    private double[][] data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new CriticServiceImpl();
+        data = BenchmarkData.matrix(shape, 17L);
+    }
+
+    @Benchmark
+    public double[] criticWeight() {
+        return service.criticMethod(data);
+    }
+}
@@ -0,0 +1,50 @@
+package com.sfq.ecosystem.benchmark;
+
+import com.sfq.ecosystem.service.impl.EntropyWeightServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 熵权法随样本数与指标数的扩展性
+ * <p>
+ * 网格覆盖样本数 10 ~ 1,000,000、指标数 5 ~ 2,000，去掉单个矩阵超过 2,000 万个元素（约 160MB）的组合。
+ * 运行: mvn -Pbenchmark verify -DskipTests -Djmh.args="EntropyWeightBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class EntropyWeightBenchmark {
+
+    // 样本数x指标数
+    @Param({"10x5", "10x50", "10x500", "10x2000", "1000x5", "1000x50", "1000x500", "1000x2000", "100000x5", "100000x50", "1000000x5"})
+    public String shape;
+
+    private EntropyWeightServiceImpl service;
+    private double[][] data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new EntropyWeightServiceImpl();
+        data = BenchmarkData.matrix(shape, 17L);
+    }
+
+    @Benchmark
+    public double[] entropyWeight() {
+        return service.entropyWeightMethod(data);
+    }
+}
@@ -0,0 +1,82 @@
+package com.sfq.ecosystem.benchmark;
+
+import com.sfq.ecosystem.model.EvaluationType;
+import com.sfq.ecosystem.service.impl.EvaluationServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单条样本评估的开销
+ * <p>
+ * 每次调用依次取下一条输入向量，直接调用 {@link EvaluationServiceImpl}，不经过结果缓存。
+ * credibilities 计算目标层与全部准则层五个等级的完整可信度，即 calculateCredibilityFfn 不提前结束时的全部工作量。
+ * batch 一次批量评估全部输入向量，按行计数，吞吐量即每秒评估的行数。
+ * 运行: mvn -Pbenchmark verify -DskipTests -Djmh.args="EvaluationBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EvaluationBenchmark {
+
+    @Param({"XIETONG", "ZIYUAN", "FUWU"})
+    public EvaluationType type;
+
+    // samples: 策略自带的样本；synthetic: 按边界范围随机生成的向量
+    @Param({"samples", "synthetic"})
+    public String input;
+
+    private static final int VECTORS = 256;
+
+    private EvaluationServiceImpl evaluationService;
+    private double[][] vectors;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        evaluationService = new EvaluationServiceImpl();
+        vectors = BenchmarkData.vectors(type, input, VECTORS, 7L);
+    }
+
+    private double[] nextVector() {
+        double[] vector = vectors[next];
+        next = next + 1 == vectors.length ? 0 : next + 1;
+        return vector;
+    }
+
+    @Benchmark
+    public String targetLayer() {
+        return evaluationService.evaluateTargetLayer(nextVector(), type);
+    }
+
+    @Benchmark
+    public Map<String, String> criterionLayer() {
+        return evaluationService.evaluateCriterionLayer(nextVector(), type);
+    }
+
+    @Benchmark
+    public Object allLayers() {
+        return evaluationService.evaluateAllLayers(nextVector(), type);
+    }
+
+    @Benchmark
+    public Object credibilities() {
+        return evaluationService.evaluateCredibilities(nextVector(), type);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VECTORS)
+    public Object batch() {
+        return evaluationService.evaluateBatch(vectors, type);
+    }
+}
@@ -0,0 +1,88 @@
+package com.sfq.ecosystem.benchmark;
+
+import com.sfq.ecosystem.model.CrispFfnBuffer;
+import com.sfq.ecosystem.model.CrispFfnKernel;
+import com.sfq.ecosystem.model.FermateanFuzzyNumber;
+import com.sfq.ecosystem.model.FfnScores;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 费马模糊数比较的开销，操作数与评估流程一致，都是退化数
+ * <p>
+ * objectCompareTo 为 {@link FermateanFuzzyNumber#compareTo}，每次比较都由分量重新计算两侧的得分；
+ * cubeCompare 为评估定级所用的 {@link CrispFfnKernel#compare(CrispFfnBuffer, int, CrispFfnBuffer, int)}，
+ * 在立方形式上比较，得分只是立方的线性组合；
+ * scoredCompare 为可信度报告与按阈值重新定级所用的、先算好得分元组后的比较。
+ * 运行: mvn -Pbenchmark verify -DskipTests -Djmh.args="FfnCompareBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FfnCompareBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private FermateanFuzzyNumber[] left;
+    private FermateanFuzzyNumber[] right;
+    private CrispFfnBuffer leftCubes;
+    private CrispFfnBuffer rightCubes;
+    private FfnScores leftScores;
+    private FfnScores rightScores;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42L);
+        left = new FermateanFuzzyNumber[SIZE];
+        right = new FermateanFuzzyNumber[SIZE];
+        leftCubes = new CrispFfnBuffer(SIZE);
+        rightCubes = new CrispFfnBuffer(SIZE);
+        leftScores = new FfnScores(SIZE);
+        rightScores = new FfnScores(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            double l = random.nextDouble();
+            double r = random.nextDouble();
+            left[i] = new FermateanFuzzyNumber(new double[]{l, l}, new double[]{1.0 - l, 1.0 - l});
+            right[i] = new FermateanFuzzyNumber(new double[]{r, r}, new double[]{1.0 - r, 1.0 - r});
+            CrispFfnKernel.fromCrisp(l, leftCubes, i);
+            CrispFfnKernel.fromCrisp(r, rightCubes, i);
+            CrispFfnKernel.score(leftCubes, i, leftScores, i);
+            CrispFfnKernel.score(rightCubes, i, rightScores, i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void objectCompareTo(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(left[i].compareTo(right[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void cubeCompare(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(CrispFfnKernel.compare(leftCubes, i, rightCubes, i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void scoredCompare(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(CrispFfnKernel.compare(leftScores, i, rightScores, i));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.sfq.ecosystem.benchmark;
+
+import com.sfq.ecosystem.model.CrispFfnBuffer;
+import com.sfq.ecosystem.model.CrispFfnKernel;
+import com.sfq.ecosystem.model.FermateanFuzzyNumber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个费马模糊数运算的开销，操作数与评估流程一致，都是退化数
+ * <p>
+ * object* 为 {@link FermateanFuzzyNumber} 上的运算，每次产生新对象；
+ * kernel* 为评估所用的 {@link CrispFfnKernel} 在立方形式缓冲区上的原地运算，
+ * 除法与评估一样先求除数的逆再相乘。评估中没有幂运算，不再单独测量。
+ * 运行: mvn -Pbenchmark verify -DskipTests -Djmh.args="FfnOperationBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FfnOperationBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private FermateanFuzzyNumber[] left;
+    private FermateanFuzzyNumber[] right;
+    private CrispFfnBuffer leftBuffer;
+    private CrispFfnBuffer rightBuffer;
+    private CrispFfnBuffer out;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42L);
+        left = new FermateanFuzzyNumber[SIZE];
+        right = new FermateanFuzzyNumber[SIZE];
+        leftBuffer = new CrispFfnBuffer(SIZE);
+        rightBuffer = new CrispFfnBuffer(SIZE);
+        out = new CrispFfnBuffer(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            // 隶属度不低于 0.05，除法不会落入 “除以零” 分支
+            double l = 0.05 + 0.9 * random.nextDouble();
+            double r = 0.05 + 0.9 * random.nextDouble();
+            left[i] = new FermateanFuzzyNumber(new double[]{l, l}, new double[]{1.0 - l, 1.0 - l});
+            right[i] = new FermateanFuzzyNumber(new double[]{r, r}, new double[]{1.0 - r, 1.0 - r});
+            CrispFfnKernel.fromCrisp(l, leftBuffer, i);
+            CrispFfnKernel.fromCrisp(r, rightBuffer, i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void objectAdd(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(left[i].add(right[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void kernelAdd(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            CrispFfnKernel.add(leftBuffer, i, rightBuffer, i, out, i);
+        }
+        bh.consume(out);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void objectSubtract(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(left[i].subtract(right[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void kernelSubtract(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            CrispFfnKernel.subtract(leftBuffer, i, rightBuffer, i, out, i);
+        }
+        bh.consume(out);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void objectMultiply(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(left[i].multiply(right[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void kernelMultiply(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            CrispFfnKernel.multiply(leftBuffer, i, rightBuffer, i, out, i);
+        }
+        bh.consume(out);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void objectDivide(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(left[i].divide(right[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void kernelDivide(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            CrispFfnKernel.inverse(rightBuffer, i, out, i);
+            CrispFfnKernel.multiply(leftBuffer, i, out, i, out, i);
+        }
+        bh.consume(out);
+    }
+}
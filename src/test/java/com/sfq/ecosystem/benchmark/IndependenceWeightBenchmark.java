@@ -0,0 +1,54 @@
+package com.sfq.ecosystem.benchmark;
+
+import com.sfq.ecosystem.service.impl.IndependenceWeightServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 独立性权重随样本数与指标数的扩展性
+ * <p>
+ * 各指标的判定系数由相关系数矩阵的逆的对角线一次给出：按列扫描一次得到协离差矩阵（开销约为 样本数 x 指标数^2，
+ * 由 {@link com.sfq.ecosystem.model.CoMomentKernel} 分块并行），再对 指标数x指标数 的矩阵做一次 LU 分解（指标数^3）。
+ * 网格与 {@link EntropyWeightBenchmark} 相同，但去掉了样本数不超过指标数的组合：此时回归无法求解，
+ * 判定系数直接记为 1，不反映实际开销。10000x2000 单核单次调用约 20 秒，主要是协离差矩阵。
+ * 运行: mvn -Pbenchmark verify -DskipTests -Djmh.args="IndependenceWeightBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class IndependenceWeightBenchmark {
+
+    // 样本数x指标数
+    @Param({"10x5", "1000x5", "1000x50", "1000x500", "10000x2000", "100000x5", "100000x50", "100000x500",
+            "1000000x5", "1000000x50"})
+    public String shape;
+
+    private IndependenceWeightServiceImpl service;
+    private double[][] data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new IndependenceWeightServiceImpl();
+        data = BenchmarkData.matrix(shape, 17L);
+    }
+
+    @Benchmark
+    public double[] independenceWeight() {
+        return service.independenceWeight(data);
+    }
+}
@@ -0,0 +1,77 @@
+package com.sfq.ecosystem.benchmark;
+
+import com.sfq.ecosystem.service.impl.OwaWeightFusionServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OWA 权重融合随指标数的扩展性
+ * <p>
+ * 输入为 5 种赋权方法 x 指标数 的权重矩阵，与样本数无关，因此只在指标数上取网格。
+ * owaGrid 一次融合 66 组 (a, b) 参数（a、b 以 0.1 为步长且 a &lt;= b），各指标只排序一次；
+ * owaGridByCalls 逐组调用单组融合，作为对照。
+ * 运行: mvn -Pbenchmark verify -DskipTests -Djmh.args="OwaFusionBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class OwaFusionBenchmark {
+
+    // 方法数x指标数，方法数固定为 5
+    @Param({"5x5", "5x50", "5x500", "5x2000", "5x100000", "5x1000000"})
+    public String shape;
+
+    private OwaWeightFusionServiceImpl service;
+    private double[][] data;
+    private double[] gridA;
+    private double[] gridB;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new OwaWeightFusionServiceImpl();
+        data = BenchmarkData.matrix(shape, 17L);
+        gridA = new double[66];
+        gridB = new double[66];
+        int p = 0;
+        for (int i = 0; i <= 10; i++) {
+            for (int j = i; j <= 10; j++, p++) {
+                gridA[p] = i / 10.0;
+                gridB[p] = j / 10.0;
+            }
+        }
+    }
+
+    @Benchmark
+    public double[] owaFusion() {
+        return service.owaWeightFusion(data);
+    }
+
+    @Benchmark
+    public double[][] owaGrid() {
+        return service.owaWeightFusion(data, gridA, gridB);
+    }
+
+    @Benchmark
+    public double[][] owaGridByCalls() {
+        double[][] fused = new double[gridA.length][];
+        for (int p = 0; p < gridA.length; p++) {
+            fused[p] = service.owaWeightFusion(data, gridA[p], gridB[p]);
+        }
+        return fused;
+    }
+}
@@ -0,0 +1,52 @@
+package com.sfq.ecosystem.benchmark;
+
+import com.sfq.ecosystem.service.impl.PcaServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 主成分分析赋权随样本数与指标数的扩展性
+ * <p>
+ * 网格与 {@link EntropyWeightBenchmark} 相同，但去掉了样本数少于指标数的组合：
+ * 此时相关系数矩阵秩亏，特征分解可能不收敛。除相关系数矩阵外还需对 指标数x指标数 的矩阵做特征分解，
+ * 开销随指标数立方增长。
+ * 运行: mvn -Pbenchmark verify -DskipTests -Djmh.args="PcaWeightBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class PcaWeightBenchmark {
+
+    // 样本数x指标数
+    @Param({"10x5", "1000x5", "1000x50", "1000x500", "1000x2000", "100000x5", "100000x50", "1000000x5"})
+    public String shape;
+
+    private PcaServiceImpl service;
+    private double[][] data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new PcaServiceImpl();
+        data = BenchmarkData.matrix(shape, 17L);
+    }
+
+    @Benchmark
+    public double[] pcaWeight() {
+        return service.principalComponentWeighting(data);
+    }
+}
@@ -0,0 +1,101 @@
+package com.sfq.ecosystem.benchmark;
+
+import com.sfq.ecosystem.entity.TrainingData;
+import com.sfq.ecosystem.model.EvaluationType;
+import com.sfq.ecosystem.repository.TrainingDataCredibilityMapper;
+import com.sfq.ecosystem.repository.TrainingDataMapper;
+import com.sfq.ecosystem.service.impl.EvaluationServiceImpl;
+import com.sfq.ecosystem.service.impl.EvaluationTaskRunner;
+import com.sfq.ecosystem.service.impl.TrainingDataServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 新增一条训练数据时完整评估路径（performAndSetEvaluations）的开销
+ * <p>
+ * 通过 {@link TrainingDataServiceImpl#createTrainingData} 调用，三个子系统的目标层、准则层等级与
+ * 可信度得分行全部生成；数据库访问替换为什么都不做的代理，评估不经过结果缓存。
+ * 运行: mvn -Pbenchmark verify -DskipTests -Djmh.args="TrainingDataEvaluationBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TrainingDataEvaluationBenchmark {
+
+    // samples: 策略自带的样本；synthetic: 按边界范围随机生成的向量
+    @Param({"samples", "synthetic"})
+    public String input;
+
+    // true: 三个子系统在评估专用线程池上并行计算
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private TrainingDataServiceImpl trainingDataService;
+    private ExecutorService executor;
+    private TrainingData[] records;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        trainingDataService = new TrainingDataServiceImpl();
+        ReflectionTestUtils.setField(trainingDataService, "trainingDataMapper", noOp(TrainingDataMapper.class));
+        ReflectionTestUtils.setField(trainingDataService, "credibilityMapper", noOp(TrainingDataCredibilityMapper.class));
+        ReflectionTestUtils.setField(trainingDataService, "evaluationService", new EvaluationServiceImpl());
+        if (parallel) {
+            executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+            ReflectionTestUtils.setField(trainingDataService, "taskRunner", new EvaluationTaskRunner(executor, 2));
+        }
+
+        double[][] xietong = BenchmarkData.vectors(EvaluationType.XIETONG, input, 256, 11L);
+        double[][] ziyuan = BenchmarkData.vectors(EvaluationType.ZIYUAN, input, 256, 12L);
+        double[][] fuwu = BenchmarkData.vectors(EvaluationType.FUWU, input, 256, 13L);
+        int count = Math.min(xietong.length, Math.min(ziyuan.length, fuwu.length));
+        records = new TrainingData[count];
+        for (int i = 0; i < count; i++) {
+            records[i] = BenchmarkData.trainingData(xietong[i], ziyuan[i], fuwu[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public TrainingData createTrainingData() {
+        TrainingData data = records[next];
+        next = next + 1 == records.length ? 0 : next + 1;
+        return trainingDataService.createTrainingData(data);
+    }
+
+    // 所有方法返回 null 或 0 的映射器代理
+    @SuppressWarnings("unchecked")
+    private static <T> T noOp(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Class<?> returnType = method.getReturnType();
+            if (returnType == int.class) {
+                return 0;
+            }
+            if (returnType == long.class) {
+                return 0L;
+            }
+            return null;
+        });
+    }
+}